@@ -0,0 +1,48 @@
+package com.eurail.zoo_app.benchmark;
+
+import com.eurail.zoo_app.controller.dto.AnimalCreateDto;
+import com.eurail.zoo_app.controller.dto.AnimalResponseDto;
+import com.eurail.zoo_app.controller.mapper.AnimalMapper;
+import com.eurail.zoo_app.respository.entity.Animal;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the MapStruct mapping done on every animal request and for every item of a page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnimalMapperBenchmark {
+
+    private AnimalMapper mapper;
+    private Animal animal;
+    private AnimalCreateDto createDto;
+
+    @Setup
+    public void setUp() {
+        mapper = Mappers.getMapper(AnimalMapper.class);
+        animal = SyntheticData.animal(0);
+
+        createDto = new AnimalCreateDto();
+        createDto.setTitle(animal.getTitle());
+        createDto.setLocated(animal.getLocated());
+        createDto.setCurrentRoomId(animal.getCurrentRoomId());
+        createDto.setFavouriteRoomIds(animal.getFavouriteRoomIds());
+    }
+
+    @Benchmark
+    public AnimalResponseDto toResponseDto() {
+        return mapper.toResponseDto(animal);
+    }
+
+    @Benchmark
+    public Animal toEntity() {
+        return mapper.toEntity(createDto);
+    }
+}
@@ -0,0 +1,58 @@
+package com.eurail.zoo_app.benchmark;
+
+import com.eurail.zoo_app.controller.dto.AnimalPageResponseDto;
+import com.eurail.zoo_app.controller.dto.AnimalResponseDto;
+import com.eurail.zoo_app.controller.mapper.AnimalMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a page of animals, configured like Spring Boot's ObjectMapper
+ * (java.time module, ISO dates instead of timestamps, unfiltered {@code @JsonFilter} DTOs).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnimalPageSerializationBenchmark {
+
+    /** Up to the default {@code zoo.paging.max-size}. */
+    @Param({"10", "50", "100"})
+    public int pageSize;
+
+    private ObjectWriter writer;
+    private AnimalPageResponseDto page;
+
+    @Setup
+    public void setUp() {
+        writer = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .filterProvider(new SimpleFilterProvider().setFailOnUnknownId(false))
+                .build()
+                .writerFor(AnimalPageResponseDto.class);
+
+        AnimalMapper mapper = Mappers.getMapper(AnimalMapper.class);
+        List<AnimalResponseDto> items = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            items.add(mapper.toResponseDto(SyntheticData.animal(i)));
+        }
+        page = new AnimalPageResponseDto(items, 0, pageSize, 10_000, 10_000 / pageSize);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+}
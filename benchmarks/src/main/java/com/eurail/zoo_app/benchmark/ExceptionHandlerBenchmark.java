@@ -0,0 +1,65 @@
+package com.eurail.zoo_app.benchmark;
+
+import com.eurail.zoo_app.controller.dto.AnimalCreateDto;
+import com.eurail.zoo_app.exception.ApiError;
+import com.eurail.zoo_app.exception.GlobalExceptionHandler;
+import com.eurail.zoo_app.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error-body construction in {@link GlobalExceptionHandler}. {@code notFound} measures the handler alone;
+ * {@code notFoundIncludingException} adds creating the exception, which fills in its stack trace.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private ResourceNotFoundException notFound;
+    private MethodArgumentNotValidException invalid;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler(new SimpleMeterRegistry());
+        notFound = new ResourceNotFoundException("Animal not found: " + SyntheticData.roomId(42));
+
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(new AnimalCreateDto(), "animalCreateDto");
+        errors.addError(new FieldError("animalCreateDto", "title", "must not be blank"));
+        errors.addError(new FieldError("animalCreateDto", "located", "must not be null"));
+        MethodParameter parameter = new MethodParameter(
+                ExceptionHandlerBenchmark.class.getDeclaredMethod("target", AnimalCreateDto.class), 0);
+        invalid = new MethodArgumentNotValidException(parameter, errors);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiError> notFound() {
+        return handler.handleNotFound(notFound);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiError> notFoundIncludingException() {
+        return handler.handleNotFound(new ResourceNotFoundException("Animal not found: " + SyntheticData.roomId(42)));
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> validation() {
+        return handler.handleValidation(invalid);
+    }
+
+    @SuppressWarnings("unused")
+    private void target(AnimalCreateDto dto) {
+    }
+}
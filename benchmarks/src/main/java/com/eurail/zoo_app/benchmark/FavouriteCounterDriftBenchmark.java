@@ -0,0 +1,51 @@
+package com.eurail.zoo_app.benchmark;
+
+import com.eurail.zoo_app.service.impl.FavouriteRoomCounterServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory part of the favourite-room statistics: since the statistics are served from incrementally
+ * maintained counters, the remaining in-process work is the reconciliation diff between the counts
+ * recomputed from animals and the stored counters ({@link FavouriteRoomCounterServiceImpl#computeDrift}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FavouriteCounterDriftBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rooms;
+
+    /** Share of rooms whose stored counter is off. */
+    @Param({"0.0", "0.01", "0.5"})
+    public double driftRatio;
+
+    private Map<String, Long> expected;
+    private Map<String, Long> actual;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        expected = new HashMap<>();
+        actual = new HashMap<>();
+        for (int i = 0; i < rooms; i++) {
+            String roomId = String.format("%024x", i);
+            long count = random.nextLong(1, 10_000);
+            expected.put(roomId, count);
+            actual.put(roomId, random.nextDouble() < driftRatio ? count + random.nextLong(-5, 6) : count);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Long> computeDrift() {
+        return FavouriteRoomCounterServiceImpl.computeDrift(expected, actual);
+    }
+}
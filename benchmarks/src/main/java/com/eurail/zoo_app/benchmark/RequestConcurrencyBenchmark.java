@@ -0,0 +1,105 @@
+package com.eurail.zoo_app.benchmark;
+
+import com.eurail.zoo_app.config.ExecutionConfig;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to serve a burst of concurrent blocking requests on Tomcat's default 200 platform threads
+ * ({@code platform}) versus one virtual thread per request ({@code virtual}, the "virtual-threads" profile).
+ * Each request makes a room check and a main query that each block for {@code ioMillis}, like
+ * {@code listAnimalsInRoom} waiting on MongoDB. The room check goes through the application's
+ * {@link ExecutionConfig#fanOutExecutor}, so it overlaps with the query in virtual mode and runs inline otherwise.
+ * Blocking is simulated with sleeps; a load run with {@code load.profiles=virtual-threads} measures the real stack.
+ * {@code virtual} needs a Java 21 runtime.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestConcurrencyBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    /** Requests arriving at once, e.g. a load spike. */
+    @Param({"200", "2000"})
+    public int concurrentRequests;
+
+    /** How long each Mongo call blocks. */
+    @Param({"5"})
+    public int ioMillis;
+
+    private Executor requests;
+    private Executor fanOut;
+
+    @Setup
+    public void setUp() {
+        boolean virtual = threads.equals("virtual");
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(
+                new MapPropertySource("benchmark", Map.of("spring.threads.virtual.enabled", virtual)));
+        fanOut = new ExecutionConfig().fanOutExecutor(environment);
+
+        if (virtual) {
+            if (!(fanOut instanceof SimpleAsyncTaskExecutor)) {
+                throw new IllegalStateException("threads=virtual needs a Java 21 runtime");
+            }
+            SimpleAsyncTaskExecutor perRequest = new SimpleAsyncTaskExecutor("request-");
+            perRequest.setVirtualThreads(true);
+            requests = perRequest;
+        } else {
+            requests = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (requests instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public void burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            requests.execute(() -> {
+                try {
+                    handleRequest();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private void handleRequest() {
+        CompletableFuture<Void> roomCheck = CompletableFuture.runAsync(this::blockOnMongo, fanOut);
+        blockOnMongo();
+        roomCheck.join();
+    }
+
+    private void blockOnMongo() {
+        try {
+            Thread.sleep(ioMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.eurail.zoo_app.benchmark;
+
+import com.eurail.zoo_app.respository.entity.Animal;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Deterministic test data shaped like production documents: ObjectId hex ids and three favourite rooms.
+ */
+final class SyntheticData {
+
+    private static final Instant CREATED = Instant.parse("2025-01-01T00:00:00Z");
+
+    private SyntheticData() {
+    }
+
+    static Animal animal(int i) {
+        Set<String> favourites = new LinkedHashSet<>();
+        for (int f = 0; f < 3; f++) {
+            favourites.add(roomId(i + f));
+        }
+        Animal animal = new Animal(new ObjectId().toHexString(), "Animal " + i, CREATED, CREATED.plusSeconds(i),
+                LocalDate.of(2025, 1, 1).plusDays(i % 365), roomId(i), favourites);
+        animal.setVersion((long) i % 7);
+        return animal;
+    }
+
+    static String roomId(int i) {
+        return String.format("%024x", i);
+    }
+}
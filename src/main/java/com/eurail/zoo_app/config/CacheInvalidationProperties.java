@@ -0,0 +1,64 @@
+package com.eurail.zoo_app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the change stream that evicts cache entries written by other replicas.
+ */
+@ConfigurationProperties(prefix = "zoo.cache.invalidation")
+public class CacheInvalidationProperties {
+
+    private boolean enabled = true;
+
+    // Key of the persisted resume token; one per replica (the pod name on k8s), expired a day after its last save
+    private String instanceId = "local";
+
+    // Caches are flushed when the stream falls further behind the cluster than this
+    private Duration maxLag = Duration.ofSeconds(30);
+
+    private Duration tokenSaveInterval = Duration.ofSeconds(5);
+
+    private Duration retryBackoff = Duration.ofSeconds(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public void setInstanceId(String instanceId) {
+        this.instanceId = instanceId;
+    }
+
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public Duration getTokenSaveInterval() {
+        return tokenSaveInterval;
+    }
+
+    public void setTokenSaveInterval(Duration tokenSaveInterval) {
+        this.tokenSaveInterval = tokenSaveInterval;
+    }
+
+    public Duration getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public void setRetryBackoff(Duration retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+}
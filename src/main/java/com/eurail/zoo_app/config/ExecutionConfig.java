@@ -0,0 +1,36 @@
+package com.eurail.zoo_app.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+@Configuration
+public class ExecutionConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionConfig.class);
+
+    /**
+     * Executor for independent lookups made while serving one request, such as room checks that can
+     * overlap with the main query. In virtual-thread mode every task gets its own virtual thread;
+     * otherwise tasks run inline on the calling thread, so no platform-thread pool has to be sized.
+     * Queries made by the tasks are counted towards the submitting request ({@link QueryCounter}).
+     */
+    @Bean
+    public Executor fanOutExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Request handling and fan-out run on virtual threads");
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("zoo-fanout-");
+            executor.setVirtualThreads(true);
+            executor.setTaskDecorator(QueryCounter::propagate);
+            return executor;
+        }
+        return new SyncTaskExecutor();
+    }
+}
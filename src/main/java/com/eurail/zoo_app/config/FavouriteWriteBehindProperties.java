@@ -0,0 +1,45 @@
+package com.eurail.zoo_app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for buffering favourite-room edits in memory and writing their net result in batches.
+ * Edits to the same animal within one {@code window} are merged into at most one write per room.
+ */
+@ConfigurationProperties(prefix = "zoo.favourites.write-behind")
+public class FavouriteWriteBehindProperties {
+
+    private boolean enabled = false;
+
+    // How long edits are collected before they are written
+    private Duration window = Duration.ofMillis(200);
+
+    // Animals with unwritten edits; edits to further animals are written directly
+    private int maxPendingAnimals = 10_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getMaxPendingAnimals() {
+        return maxPendingAnimals;
+    }
+
+    public void setMaxPendingAnimals(int maxPendingAnimals) {
+        this.maxPendingAnimals = maxPendingAnimals;
+    }
+}
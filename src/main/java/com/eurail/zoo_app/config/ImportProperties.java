@@ -0,0 +1,36 @@
+package com.eurail.zoo_app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the streaming bulk animal import.
+ */
+@ConfigurationProperties(prefix = "zoo.import")
+public class ImportProperties {
+
+    /**
+     * Number of parsed lines validated and inserted together.
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Longest accepted line, in characters. Longer lines are reported as failed without being buffered.
+     */
+    private int maxLineLength = 16384;
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMaxLineLength() {
+        return maxLineLength;
+    }
+
+    public void setMaxLineLength(int maxLineLength) {
+        this.maxLineLength = maxLineLength;
+    }
+}
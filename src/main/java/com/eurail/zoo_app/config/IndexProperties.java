@@ -0,0 +1,49 @@
+package com.eurail.zoo_app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Controls what the index manager does with the declared indexes at startup.
+ */
+@ConfigurationProperties(prefix = "zoo.indexes")
+public class IndexProperties {
+
+    /**
+     * Check (and create or drop) indexes when the application is ready. When false, nothing is sent at startup.
+     */
+    private boolean manageOnStartup = true;
+
+    /**
+     * Create declared indexes that are missing. When false, drift is only reported.
+     */
+    private boolean createOnStartup = true;
+
+    /**
+     * Drop indexes that exist in the database but are not declared.
+     */
+    private boolean dropUndeclared = false;
+
+    public boolean isManageOnStartup() {
+        return manageOnStartup;
+    }
+
+    public void setManageOnStartup(boolean manageOnStartup) {
+        this.manageOnStartup = manageOnStartup;
+    }
+
+    public boolean isCreateOnStartup() {
+        return createOnStartup;
+    }
+
+    public void setCreateOnStartup(boolean createOnStartup) {
+        this.createOnStartup = createOnStartup;
+    }
+
+    public boolean isDropUndeclared() {
+        return dropUndeclared;
+    }
+
+    public void setDropUndeclared(boolean dropUndeclared) {
+        this.dropUndeclared = dropUndeclared;
+    }
+}
@@ -0,0 +1,49 @@
+package com.eurail.zoo_app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits applied to every paged listing and batch read endpoint.
+ */
+@ConfigurationProperties(prefix = "zoo.paging")
+public class PagingProperties {
+
+    /**
+     * Largest page size a client may request; larger values are rejected with 400.
+     */
+    private int maxSize = 100;
+
+    /**
+     * Highest total the slice listing will count to when an estimate is requested.
+     */
+    private int countCap = 1000;
+
+    /**
+     * Most IDs a batch read ({@code :batchGet}) may request; more are rejected with 400.
+     */
+    private int maxBatchSize = 100;
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getCountCap() {
+        return countCap;
+    }
+
+    public void setCountCap(int countCap) {
+        this.countCap = countCap;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+}
@@ -0,0 +1,29 @@
+package com.eurail.zoo_app.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class QueryCountConfig {
+
+    @Bean
+    public QueryCounter queryCounter() {
+        return new QueryCounter();
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer queryCounterCustomizer(QueryCounter queryCounter) {
+        return builder -> builder.addCommandListener(queryCounter);
+    }
+
+    /**
+     * Per-request counting relies on the request being served on one thread, so it is servlet-only.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public QueryCountFilter queryCountFilter(QueryCounter queryCounter) {
+        return new QueryCountFilter(queryCounter);
+    }
+}
@@ -0,0 +1,102 @@
+package com.eurail.zoo_app.config;
+
+import com.eurail.zoo_app.controller.QueryBudget;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Counts the MongoDB commands of each request, reports the count in the {@value #HEADER} response header
+ * and checks it against the endpoint's {@link QueryBudget}. The header is written when the response body
+ * is first opened, so it covers everything the handler did; queries made while a streamed body is written
+ * are not included.
+ */
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Mongo-Query-Count";
+
+    private static final Logger log = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    private final QueryCounter counter;
+
+    public QueryCountFilter(QueryCounter counter) {
+        this.counter = counter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueries queries = counter.begin(request.getMethod(), request.getRequestURI());
+        CountHeaderResponse wrapped = new CountHeaderResponse(response, queries);
+        try {
+            chain.doFilter(request, wrapped);
+        } finally {
+            wrapped.writeCount();
+            matchHandler(request, queries);
+            counter.end(queries);
+            report(queries);
+        }
+    }
+
+    private static void matchHandler(HttpServletRequest request, RequestQueries queries) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) return;
+
+        int budget = RequestQueries.NO_BUDGET;
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            QueryBudget annotation = handler.getMethodAnnotation(QueryBudget.class);
+            if (annotation != null) budget = annotation.value();
+        }
+        queries.matched(pattern.toString(), budget);
+    }
+
+    private static void report(RequestQueries queries) {
+        if (queries.isOverBudget()) {
+            log.warn("Query budget exceeded: {}", queries);
+        } else if (log.isDebugEnabled()) {
+            log.debug("{}", queries);
+        }
+    }
+
+    /**
+     * Sets the count header just before the body is opened, while headers can still be changed.
+     */
+    private static final class CountHeaderResponse extends HttpServletResponseWrapper {
+
+        private final RequestQueries queries;
+
+        CountHeaderResponse(HttpServletResponse response, RequestQueries queries) {
+            super(response);
+            this.queries = queries;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeCount();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeCount();
+            return super.getWriter();
+        }
+
+        void writeCount() {
+            if (!isCommitted()) {
+                setHeader(HEADER, Integer.toString(queries.getCount()));
+            }
+        }
+    }
+}
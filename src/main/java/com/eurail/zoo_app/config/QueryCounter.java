@@ -0,0 +1,78 @@
+package com.eurail.zoo_app.config;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Counts the MongoDB commands sent on behalf of the current request.
+ * {@link QueryCountFilter} opens a count per request on the serving thread; work handed to another thread
+ * is attributed to the same request when it is wrapped with {@link #propagate(Runnable)}, as the fan-out
+ * executor does. Commands sent outside a request (scheduled jobs, streamed response bodies) are not counted.
+ */
+public class QueryCounter implements CommandListener {
+
+    private static final ThreadLocal<RequestQueries> CURRENT = new ThreadLocal<>();
+
+    private final List<Consumer<RequestQueries>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        RequestQueries queries = CURRENT.get();
+        if (queries != null) {
+            queries.record(event.getCommandName());
+        }
+    }
+
+    /**
+     * Registers a callback that receives the counts of every completed request.
+     */
+    public void addListener(Consumer<RequestQueries> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<RequestQueries> listener) {
+        listeners.remove(listener);
+    }
+
+    RequestQueries begin(String method, String uri) {
+        RequestQueries queries = new RequestQueries(method, uri);
+        CURRENT.set(queries);
+        return queries;
+    }
+
+    void end(RequestQueries queries) {
+        CURRENT.remove();
+        listeners.forEach(listener -> listener.accept(queries));
+    }
+
+    static RequestQueries current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Wraps a task so that the commands it sends count towards the request that submitted it.
+     */
+    public static Runnable propagate(Runnable task) {
+        RequestQueries queries = CURRENT.get();
+        if (queries == null) {
+            return task;
+        }
+        return () -> {
+            RequestQueries previous = CURRENT.get();
+            CURRENT.set(queries);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package com.eurail.zoo_app.config;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * The MongoDB commands sent while serving one request, by command name.
+ */
+public final class RequestQueries {
+
+    public static final int NO_BUDGET = -1;
+
+    private final String method;
+    private final AtomicInteger count = new AtomicInteger();
+    private final Map<String, AtomicInteger> byCommand = new ConcurrentHashMap<>();
+    private volatile String path;
+    private volatile int budget = NO_BUDGET;
+
+    RequestQueries(String method, String path) {
+        this.method = method;
+        this.path = path;
+    }
+
+    void record(String commandName) {
+        count.incrementAndGet();
+        byCommand.computeIfAbsent(commandName, name -> new AtomicInteger()).incrementAndGet();
+    }
+
+    void matched(String pathPattern, int budget) {
+        this.path = pathPattern;
+        this.budget = budget;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * The matched path pattern, e.g. {@code /animals/{id}}, or the request URI if no handler matched.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public int getCount() {
+        return count.get();
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+
+    public boolean isOverBudget() {
+        return budget != NO_BUDGET && count.get() > budget;
+    }
+
+    public Map<String, Integer> getCommands() {
+        Map<String, Integer> commands = new TreeMap<>();
+        byCommand.forEach((name, n) -> commands.put(name, n.get()));
+        return commands;
+    }
+
+    @Override
+    public String toString() {
+        String commands = getCommands().entrySet().stream()
+                .map(e -> e.getKey() + "=" + e.getValue())
+                .collect(Collectors.joining(", "));
+        return method + " " + path + ": " + count.get() + " queries [" + commands + "]"
+                + (budget == NO_BUDGET ? "" : ", budget " + budget);
+    }
+}
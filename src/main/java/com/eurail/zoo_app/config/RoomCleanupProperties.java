@@ -0,0 +1,44 @@
+package com.eurail.zoo_app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the background sweeper that removes references to deleted rooms.
+ * The sweeper updates at most {@code batchSize} animals per write and waits {@code pause}
+ * between writes, which caps its write rate at roughly {@code batchSize / pause}.
+ */
+@ConfigurationProperties(prefix = "zoo.cleanup")
+public class RoomCleanupProperties {
+
+    private int batchSize = 500;
+
+    private Duration pause = Duration.ofMillis(100);
+
+    private Duration lease = Duration.ofMinutes(2);
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getPause() {
+        return pause;
+    }
+
+    public void setPause(Duration pause) {
+        this.pause = pause;
+    }
+
+    public Duration getLease() {
+        return lease;
+    }
+
+    public void setLease(Duration lease) {
+        this.lease = lease;
+    }
+}
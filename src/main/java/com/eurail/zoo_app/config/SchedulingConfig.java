@@ -0,0 +1,14 @@
+package com.eurail.zoo_app.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} jobs on Spring Boot's task scheduler. Its pool has one thread per job
+ * ({@code spring.task.scheduling.pool.size}): the room cleanup sweep sleeps between batches and the
+ * reconciles take minutes on large collections, and neither may delay the favourite write-behind flush.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,34 @@
+package com.eurail.zoo_app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Diagnostics for the virtual-thread mode ({@code spring.threads.virtual.enabled=true} on Java 21+).
+ * Virtual threads that stay pinned to their carrier thread for longer than {@code pinningThreshold}
+ * are logged with the top {@code pinningStackDepth} frames of their stack.
+ */
+@ConfigurationProperties(prefix = "zoo.virtual-threads")
+public class VirtualThreadProperties {
+
+    private Duration pinningThreshold = Duration.ofMillis(20);
+
+    private int pinningStackDepth = 12;
+
+    public Duration getPinningThreshold() {
+        return pinningThreshold;
+    }
+
+    public void setPinningThreshold(Duration pinningThreshold) {
+        this.pinningThreshold = pinningThreshold;
+    }
+
+    public int getPinningStackDepth() {
+        return pinningStackDepth;
+    }
+
+    public void setPinningStackDepth(int pinningStackDepth) {
+        this.pinningStackDepth = pinningStackDepth;
+    }
+}
@@ -3,22 +3,38 @@ package com.eurail.zoo_app.controller;
 import com.eurail.zoo_app.controller.dto.*;
 import com.eurail.zoo_app.controller.mapper.AnimalMapper;
 import com.eurail.zoo_app.respository.entity.Animal;
+import com.eurail.zoo_app.service.AnimalFields;
+import com.eurail.zoo_app.service.AnimalImportService;
+import com.eurail.zoo_app.service.AnimalScroll;
 import com.eurail.zoo_app.service.AnimalService;
+import com.eurail.zoo_app.service.CountEstimate;
+import com.eurail.zoo_app.service.ExportService;
+import com.eurail.zoo_app.service.VersionStamp;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
 import java.net.URI;
+import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping(value = "/animals",
         produces = MediaType.APPLICATION_JSON_VALUE,  // All methods return JSON
         consumes = MediaType.APPLICATION_JSON_VALUE)  // All methods accept JSON
@@ -27,12 +43,19 @@ public class AnimalController {
 
     private static final Logger log = LoggerFactory.getLogger(AnimalController.class);
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final AnimalService service;
     private final AnimalMapper mapper;
+    private final AnimalImportService importService;
+    private final ExportService exportService;
 
-    public AnimalController(AnimalService service, AnimalMapper mapper) {
+    public AnimalController(AnimalService service, AnimalMapper mapper, AnimalImportService importService,
+                            ExportService exportService) {
         this.service = service;
         this.mapper = mapper;
+        this.importService = importService;
+        this.exportService = exportService;
     }
 
     /**
@@ -43,6 +66,7 @@ public class AnimalController {
      * @return 201 Created with the created Animal representation
      */
     @PostMapping
+    @QueryBudget(5)
     public ResponseEntity<AnimalResponseDto> create(@Valid @RequestBody AnimalCreateDto dto,
                                                     UriComponentsBuilder uriBuilder) {
         log.info("Creating new animal: {}", dto);
@@ -57,48 +81,141 @@ public class AnimalController {
         return ResponseEntity.created(location).body(resp);
     }
 
+    /**
+     * Imports many animals from a streamed NDJSON or CSV body.
+     * The body is read and written in chunks while the response is streamed back,
+     * with one NDJSON result line ({@code line}, {@code status}, {@code id} or {@code error}) per input record.
+     * CSV input needs a header with {@code title,located,currentRoomId,favouriteRoomIds};
+     * favourite room IDs are separated by {@code ;}. Lines longer than {@code zoo.import.max-line-length}
+     * are reported as failed.
+     *
+     * @param contentType {@code application/x-ndjson} or {@code text/csv}
+     * @param request     the request whose body is streamed
+     * @return 200 OK with the streamed per-line report, or 400 Bad Request if the CSV header is missing or invalid
+     */
+    @PostMapping(value = "/bulk",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> bulkImport(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                            HttpServletRequest request) throws IOException {
+        AnimalImportService.Format format = MediaType.parseMediaType(contentType)
+                .isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE))
+                ? AnimalImportService.Format.CSV
+                : AnimalImportService.Format.NDJSON;
+        log.info("Starting bulk import of animals, format={}", format);
+
+        // the CSV header is checked before the response is committed, so it can still be rejected with 400
+        AnimalImportService.PreparedImport upload = importService.prepare(request.getInputStream(), format);
+        StreamingResponseBody report = upload::run;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(report);
+    }
+
+    /**
+     * Streams all animals as NDJSON, one animal per line, straight from a database cursor.
+     * The response is gzip-compressed when the client sends {@code Accept-Encoding: gzip}.
+     *
+     * @param roomId         only animals currently in this room (optional)
+     * @param updatedSince   only animals updated at or after this ISO-8601 instant (optional)
+     * @param acceptEncoding the client's accepted encodings
+     * @return 200 OK with the streamed animals
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAnimals(
+            @RequestParam(required = false) String roomId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant updatedSince,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("Exporting animals roomId={} updatedSince={}", roomId, updatedSince);
+        return StreamingResponses.ndjson(acceptEncoding, out -> exportService.exportAnimals(roomId, updatedSince, out));
+    }
+
     /**
      * Retrieves an animal by its ID.
      *
-     * @param id the animal ID
-     * @return 200 OK with the animal data
+     * A conditional GET ({@code If-None-Match} / {@code If-Modified-Since}) is answered from the
+     * animal's version and update time alone, without loading or serializing the document.
+     *
+     * @param id      the animal ID
+     * @param fields  comma-separated properties to return, e.g. {@code id,title} (optional, default all)
+     * @param request the request, for its conditional headers
+     * @return 200 OK with the animal data, ETag and Last-Modified, or 304 Not Modified
      */
     @GetMapping("/{id}")
-    public ResponseEntity<AnimalResponseDto> get(@PathVariable String id) {
+    @QueryBudget(2)
+    public ResponseEntity<AnimalResponseDto> get(@PathVariable String id,
+                                                 @RequestParam(required = false) String fields,
+                                                 WebRequest request) {
         log.info("Fetching animal with ID: {}", id);
-        Animal a = service.get(id);
-        return ResponseEntity.ok(mapper.toResponseDto(a));
+        AnimalFields selected = AnimalFields.parse(fields);
+        ResponseEntity<AnimalResponseDto> notModified =
+                ConditionalRequests.notModified(request, () -> service.getVersionStamp(id));
+        if (notModified != null) {
+            return notModified;
+        }
+        Animal a = service.get(id, selected);
+        VersionStamp stamp = service.getVersionStamp(a);
+        return ConditionalRequests.ok(mapper.toResponseDto(a), stamp);
     }
 
     /**
      * Updates an existing animal.
      *
-     * @param id  the animal ID
-     * @param dto the fields to update
-     * @return 200 OK with the updated animal data
+     * @param id      the animal ID
+     * @param dto     the fields to update
+     * @param ifMatch only update if the animal's ETag still matches (optional)
+     * @return 200 OK with the updated animal data, 412 Precondition Failed if the ETag no longer matches,
+     * 409 Conflict if the animal was modified between reading and writing it
      */
     @PutMapping("/{id}")
+    @QueryBudget(9)
     public ResponseEntity<AnimalResponseDto> update(@PathVariable String id,
-                                                    @Valid @RequestBody AnimalUpdateDto dto) {
+                                                    @Valid @RequestBody AnimalUpdateDto dto,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.debug("Updating animal ID {}: {}", id, dto);
+        Long expectedVersion = ConditionalRequests.ifMatchVersion(ifMatch);
         Animal existing = service.get(id);
         mapper.updateFromDto(dto, existing);
-        Animal updated = service.update(id, existing);
+        Animal updated = expectedVersion == null
+                ? service.update(id, existing)
+                : service.update(id, existing, expectedVersion);
         log.debug("Animal updated ID: {}", updated.getId());
-        return ResponseEntity.ok(mapper.toResponseDto(updated));
+        return ConditionalRequests.ok(mapper.toResponseDto(updated), updated.getVersion(), updated.getUpdated());
+    }
+
+    /**
+     * Partially updates an animal. Only the fields present in the body are changed.
+     *
+     * @param id  the animal ID
+     * @param dto the fields to change and the version the client last saw
+     * @return 200 OK with the updated animal data, 409 Conflict if the version is stale
+     */
+    @PatchMapping("/{id}")
+    @QueryBudget(8)
+    public ResponseEntity<AnimalResponseDto> patch(@PathVariable String id,
+                                                   @Valid @RequestBody AnimalPatchDto dto) {
+        log.debug("Patching animal ID {}: {}", id, dto);
+        Animal patched = service.patch(id, dto);
+        return ConditionalRequests.ok(mapper.toResponseDto(patched), patched.getVersion(), patched.getUpdated());
     }
 
 
     /**
      * Deletes an animal by its ID.
      *
-     * @param id the animal ID
-     * @return 204 No Content on success
+     * @param id      the animal ID
+     * @param ifMatch only delete if the animal's ETag still matches (optional)
+     * @return 204 No Content on success, 412 Precondition Failed if the ETag no longer matches
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable String id) {
+    @QueryBudget(6)
+    public ResponseEntity<Void> delete(@PathVariable String id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Deleting animal with ID: {}", id);
-        service.delete(id);
+        Long expectedVersion = ConditionalRequests.ifMatchVersion(ifMatch);
+        if (expectedVersion == null) {
+            service.delete(id);
+        } else {
+            service.delete(id, expectedVersion);
+        }
         log.info("Animal deleted: {}", id);
         return ResponseEntity.noContent().build();
     }
@@ -111,6 +228,7 @@ public class AnimalController {
      * @return 200 OK with updated animal
      */
     @PostMapping("/{animalId}/place")
+    @QueryBudget(4)
     public ResponseEntity<AnimalResponseDto> placeAnimal(@PathVariable String animalId,
                                                          @Valid @RequestBody PlaceRequestDto dto) {
         log.info("Placing animal {} into room {}", animalId, dto.getRoomId());
@@ -126,6 +244,7 @@ public class AnimalController {
      * @return 200 OK with updated animal
      */
     @PutMapping("/{animalId}/move")
+    @QueryBudget(4)
     public ResponseEntity<AnimalResponseDto> moveAnimal(@PathVariable String animalId,
                                                         @Valid @RequestBody PlaceRequestDto dto) {
         log.info("Moving animal {} to room {}", animalId, dto.getRoomId());
@@ -140,6 +259,7 @@ public class AnimalController {
      * @return 200 OK with updated animal (room cleared)
      */
     @DeleteMapping("/{id}/room")
+    @QueryBudget(3)
     public ResponseEntity<AnimalResponseDto> removeFromRoom(@PathVariable String id) {
         log.info("Removing animal ID {} from current room", id);
         Animal updated = service.removeAnimalFromRoom(id);
@@ -154,6 +274,7 @@ public class AnimalController {
      * @return 200 OK with the updated Animal data
      */
     @PostMapping("/{id}/favourites")
+    @QueryBudget(4)
     public ResponseEntity<AnimalResponseDto> assignFavouriteRoom(@PathVariable String id,
                                                                  @Valid @RequestBody FavouriteRequestDto dto) {
         log.info("Assigning room ID {} as favourite to animal ID {}", dto.getRoomId(), id);
@@ -170,6 +291,7 @@ public class AnimalController {
      * @return 200 OK with updated animal
      */
     @DeleteMapping("/{id}/favourites/{roomId}")
+    @QueryBudget(4)
     public ResponseEntity<AnimalResponseDto> unassignFavouriteRoom(@PathVariable String id,
                                                              @PathVariable String roomId) {
         log.info("Removing room {} from favourites of animal {}", roomId, id);
@@ -185,20 +307,24 @@ public class AnimalController {
      * @param order  allowed values: "asc" or "desc"
      * @param page   zero-based page index
      * @param size   number of elements per page
+     * @param fields comma-separated properties to return per animal, e.g. {@code id,title} (optional, default all)
      * @return a structured paginated response containing animals
      */
     @GetMapping("/room/{roomId}")
+    @QueryBudget(3)
     public ResponseEntity<AnimalPageResponseDto> listAnimalsInRoom(
             @PathVariable String roomId,
             @RequestParam(defaultValue = "title") String sortBy,
             @RequestParam(defaultValue = "asc") String order,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String fields
     ) {
-        log.info("Fetching animals for roomId={}, sortBy={}, order={}, page={}, size={}",
-                roomId, sortBy, order, page, size);
+        log.info("Fetching animals for roomId={}, sortBy={}, order={}, page={}, size={}, fields={}",
+                roomId, sortBy, order, page, size, fields);
 
-        Page<Animal> result = service.listAnimalsInRoom(roomId, sortBy, order, page, size);
+        Page<Animal> result = service.listAnimalsInRoom(roomId, sortBy, order, page, size,
+                AnimalFields.parse(fields));
 
         List<AnimalResponseDto> mapped = result.getContent()
                 .stream()
@@ -216,5 +342,83 @@ public class AnimalController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Returns a page of animals in a specific room without counting all of them.
+     * {@code hasNext} tells whether another page follows; with {@code estimate=true} the response
+     * also carries a total that is exact up to {@code zoo.paging.count-cap}.
+     *
+     * @param roomId   the room ID to filter animals by
+     * @param sortBy   allowed values: "title" or "located"
+     * @param order    allowed values: "asc" or "desc"
+     * @param page     zero-based page index
+     * @param size     number of elements per page
+     * @param estimate whether to include a capped total
+     * @return the animals of this page and whether more follow
+     */
+    @GetMapping("/room/{roomId}/slice")
+    @QueryBudget(3)
+    public ResponseEntity<AnimalSliceResponseDto> sliceAnimalsInRoom(
+            @PathVariable String roomId,
+            @RequestParam(defaultValue = "title") String sortBy,
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean estimate
+    ) {
+        log.info("Fetching animal slice for roomId={}, sortBy={}, order={}, page={}, size={}, estimate={}",
+                roomId, sortBy, order, page, size, estimate);
+
+        Slice<Animal> result = service.sliceAnimalsInRoom(roomId, sortBy, order, page, size);
 
+        List<AnimalResponseDto> mapped = result.getContent()
+                .stream()
+                .map(mapper::toResponseDto)
+                .collect(Collectors.toList());
+
+        CountEstimate total = estimate ? service.estimateAnimalsInRoom(roomId) : null;
+
+        AnimalSliceResponseDto response = new AnimalSliceResponseDto(
+                mapped,
+                result.getNumber(),
+                result.getSize(),
+                result.hasNext(),
+                total == null ? null : total.getValue(),
+                total == null ? null : total.isCapped()
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Returns animals in a specific room using keyset pagination.
+     * Pass the {@code nextCursor} of a response as {@code cursor} to get the next page,
+     * together with the same sortBy and order; the last page has no nextCursor.
+     *
+     * @param roomId the room ID to filter animals by
+     * @param sortBy allowed values: "title" or "located"
+     * @param order  allowed values: "asc" or "desc"
+     * @param size   number of elements per page
+     * @param cursor continuation token from the previous page, omitted for the first page
+     * @return the animals of this page and the cursor for the next one
+     */
+    @GetMapping("/room/{roomId}/scroll")
+    @QueryBudget(2)
+    public ResponseEntity<AnimalScrollResponseDto> scrollAnimalsInRoom(
+            @PathVariable String roomId,
+            @RequestParam(defaultValue = "title") String sortBy,
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor
+    ) {
+        log.info("Scrolling animals for roomId={}, sortBy={}, order={}, size={}", roomId, sortBy, order, size);
+
+        AnimalScroll result = service.scrollAnimalsInRoom(roomId, sortBy, order, size, cursor);
+
+        List<AnimalResponseDto> mapped = result.getContent()
+                .stream()
+                .map(mapper::toResponseDto)
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(new AnimalScrollResponseDto(mapped, mapped.size(), result.getNextCursor()));
+    }
 }
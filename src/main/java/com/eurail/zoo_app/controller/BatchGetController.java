@@ -0,0 +1,106 @@
+package com.eurail.zoo_app.controller;
+
+import com.eurail.zoo_app.controller.dto.AnimalBatchResponseDto;
+import com.eurail.zoo_app.controller.dto.BatchGetRequestDto;
+import com.eurail.zoo_app.controller.dto.RoomBatchResponseDto;
+import com.eurail.zoo_app.controller.mapper.AnimalMapper;
+import com.eurail.zoo_app.controller.mapper.RoomMapper;
+import com.eurail.zoo_app.respository.entity.Animal;
+import com.eurail.zoo_app.respository.entity.Room;
+import com.eurail.zoo_app.service.AnimalService;
+import com.eurail.zoo_app.service.BatchResult;
+import com.eurail.zoo_app.service.RoomService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Batch reads ({@code :batchGet}) that resolve a list of IDs with one request and one query,
+ * instead of one {@code GET /animals/{id}} or {@code GET /rooms/{id}} per ID.
+ * IDs are passed as {@code ?ids=a,b,c} or as a JSON body {@code {"ids": [...]}} for long lists.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+public class BatchGetController {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchGetController.class);
+
+    private final AnimalService animalService;
+    private final RoomService roomService;
+    private final AnimalMapper animalMapper;
+    private final RoomMapper roomMapper;
+
+    public BatchGetController(AnimalService animalService, RoomService roomService,
+                              AnimalMapper animalMapper, RoomMapper roomMapper) {
+        this.animalService = animalService;
+        this.roomService = roomService;
+        this.animalMapper = animalMapper;
+        this.roomMapper = roomMapper;
+    }
+
+    /**
+     * Retrieves many animals by ID.
+     *
+     * @param ids the animal IDs, at most {@code zoo.paging.max-batch-size}
+     * @return 200 OK with the animals found and the IDs not found, both in request order
+     */
+    @GetMapping("/animals:batchGet")
+    @QueryBudget(1)
+    public ResponseEntity<AnimalBatchResponseDto> batchGetAnimals(@RequestParam List<String> ids) {
+        return ResponseEntity.ok(animals(ids));
+    }
+
+    /**
+     * Same as {@link #batchGetAnimals(List)} with the IDs in the request body.
+     */
+    @PostMapping(value = "/animals:batchGet", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @QueryBudget(1)
+    public ResponseEntity<AnimalBatchResponseDto> batchGetAnimals(@Valid @RequestBody BatchGetRequestDto dto) {
+        return ResponseEntity.ok(animals(dto.getIds()));
+    }
+
+    /**
+     * Retrieves many rooms by ID; cached rooms are answered without a query.
+     *
+     * @param ids the room IDs, at most {@code zoo.paging.max-batch-size}
+     * @return 200 OK with the rooms found and the IDs not found, both in request order
+     */
+    @GetMapping("/rooms:batchGet")
+    @QueryBudget(1)
+    public ResponseEntity<RoomBatchResponseDto> batchGetRooms(@RequestParam List<String> ids) {
+        return ResponseEntity.ok(rooms(ids));
+    }
+
+    /**
+     * Same as {@link #batchGetRooms(List)} with the IDs in the request body.
+     */
+    @PostMapping(value = "/rooms:batchGet", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @QueryBudget(1)
+    public ResponseEntity<RoomBatchResponseDto> batchGetRooms(@Valid @RequestBody BatchGetRequestDto dto) {
+        return ResponseEntity.ok(rooms(dto.getIds()));
+    }
+
+    private AnimalBatchResponseDto animals(List<String> ids) {
+        log.info("Batch fetching {} animals", ids.size());
+        BatchResult<Animal> result = animalService.getAll(ids);
+        return new AnimalBatchResponseDto(
+                result.getFound().stream().map(animalMapper::toResponseDto).collect(Collectors.toList()),
+                result.getMissing());
+    }
+
+    private RoomBatchResponseDto rooms(List<String> ids) {
+        log.info("Batch fetching {} rooms", ids.size());
+        BatchResult<Room> result = roomService.getAll(ids);
+        return new RoomBatchResponseDto(
+                result.getFound().stream().map(roomMapper::toResponseDto).collect(Collectors.toList()),
+                result.getMissing());
+    }
+}
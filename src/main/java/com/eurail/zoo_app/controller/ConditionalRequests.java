@@ -0,0 +1,100 @@
+package com.eurail.zoo_app.controller;
+
+import com.eurail.zoo_app.exception.BadRequestException;
+import com.eurail.zoo_app.service.VersionStamp;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Strong ETags and Last-Modified for single-document responses. The ETag is the document version,
+ * which every write increments, so it changes whenever the representation does. A document served
+ * with unwritten changes gets a weak ETag of its version and {@link VersionStamp#getVariant() variant},
+ * which If-None-Match still compares but If-Match never matches.
+ */
+final class ConditionalRequests {
+
+    /**
+     * Never a stored version, so an If-Match tag that cannot be parsed fails the precondition.
+     */
+    private static final long NO_VERSION = -1L;
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * 200 OK with the body, its validators and {@code Cache-Control: no-cache}, so caches revalidate
+     * with a conditional GET instead of serving a stale copy.
+     */
+    static <T> ResponseEntity<T> ok(T body, Long version, Instant updated) {
+        return ok(body, new VersionStamp(version, updated));
+    }
+
+    static <T> ResponseEntity<T> ok(T body, VersionStamp stamp) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag(stamp))
+                .cacheControl(CacheControl.noCache());
+        if (stamp.getUpdated() != null) {
+            response.lastModified(stamp.getUpdated());
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Answers a conditional GET ({@code If-None-Match} / {@code If-Modified-Since}) from the stamp alone.
+     *
+     * @param stamp loaded only when the request is conditional
+     * @return 304 Not Modified if the client's copy is current, otherwise null
+     */
+    static <T> ResponseEntity<T> notModified(WebRequest request, Supplier<VersionStamp> stamp) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null
+                && request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) == null) {
+            return null;
+        }
+        VersionStamp current = stamp.get();
+        // the update time does not change with unwritten changes, so only the ETag can tell them apart
+        long lastModified = current.getUpdated() == null || current.getVariant() != null
+                ? -1 : current.getUpdated().toEpochMilli();
+        if (!request.checkNotModified(etag(current), lastModified)) {
+            return null;
+        }
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+    }
+
+    /**
+     * The version named by an {@code If-Match} header.
+     * If-Match uses the strong comparison, so a weak or malformed tag matches no version.
+     *
+     * @return the expected version, or null if the header is absent or {@code *}
+     * @throws BadRequestException if the header lists more than one tag
+     */
+    static Long ifMatchVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.contains(",")) {
+            throw new BadRequestException("If-Match must name a single ETag");
+        }
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return NO_VERSION;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return NO_VERSION;
+        }
+    }
+
+    private static String etag(VersionStamp stamp) {
+        if (stamp.getVariant() != null) {
+            return "W/\"" + stamp.getVersion() + "-" + stamp.getVariant() + "\"";
+        }
+        return "\"" + stamp.getVersion() + "\"";
+    }
+}
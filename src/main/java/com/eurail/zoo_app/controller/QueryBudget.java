@@ -0,0 +1,16 @@
+package com.eurail.zoo_app.controller;
+
+import java.lang.annotation.*;
+
+/**
+ * The most MongoDB commands one call of the annotated endpoint may send, counted per request by
+ * {@link com.eurail.zoo_app.config.QueryCountFilter}. Requests over budget are logged as warnings and fail
+ * the integration tests. The budget is the worst case with a cold room cache, independent of the input size.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QueryBudget {
+
+    int value();
+}
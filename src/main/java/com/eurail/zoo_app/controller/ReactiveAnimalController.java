@@ -0,0 +1,214 @@
+package com.eurail.zoo_app.controller;
+
+import com.eurail.zoo_app.controller.dto.*;
+import com.eurail.zoo_app.controller.mapper.AnimalMapper;
+import com.eurail.zoo_app.service.ReactiveAnimalService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Instant;
+
+/**
+ * WebFlux version of {@link AnimalController} for the reactive profile, with the same paths, bodies and status codes.
+ * Bulk import, patch and the slice/scroll listings are only served by the servlet stack.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping(value = "/animals", produces = MediaType.APPLICATION_JSON_VALUE)
+@Validated
+public class ReactiveAnimalController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveAnimalController.class);
+
+    private final ReactiveAnimalService service;
+    private final AnimalMapper mapper;
+
+    public ReactiveAnimalController(ReactiveAnimalService service, AnimalMapper mapper) {
+        this.service = service;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Creates a new Animal.
+     *
+     * @param dto        the input data for creating the animal
+     * @param uriBuilder used to build the Location URI of the created resource
+     * @return 201 Created with the created Animal representation
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<AnimalResponseDto>> create(@Valid @RequestBody AnimalCreateDto dto,
+                                                          UriComponentsBuilder uriBuilder) {
+        log.info("Creating new animal: {}", dto);
+        return service.create(mapper.toEntity(dto))
+                .map(created -> {
+                    URI location = uriBuilder.path("/animals/{id}").buildAndExpand(created.getId()).toUri();
+                    return ResponseEntity.created(location).body(mapper.toResponseDto(created));
+                });
+    }
+
+    /**
+     * Streams all animals as NDJSON, one animal per line, as they arrive from the database cursor.
+     *
+     * @param roomId       only animals currently in this room (optional)
+     * @param updatedSince only animals updated at or after this ISO-8601 instant (optional)
+     * @return 200 OK with the streamed animals
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<AnimalResponseDto> exportAnimals(
+            @RequestParam(required = false) String roomId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant updatedSince) {
+        log.info("Exporting animals roomId={} updatedSince={}", roomId, updatedSince);
+        return service.export(roomId, updatedSince).map(mapper::toResponseDto);
+    }
+
+    /**
+     * Retrieves an animal by its ID.
+     *
+     * @param id the animal ID
+     * @return 200 OK with the animal data
+     */
+    @GetMapping("/{id}")
+    public Mono<AnimalResponseDto> get(@PathVariable String id) {
+        log.info("Fetching animal with ID: {}", id);
+        return service.get(id).map(mapper::toResponseDto);
+    }
+
+    /**
+     * Updates an existing animal.
+     *
+     * @param id  the animal ID
+     * @param dto the fields to update
+     * @return 200 OK with the updated animal data, 409 Conflict if the animal was modified between reading and writing it
+     */
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<AnimalResponseDto> update(@PathVariable String id, @Valid @RequestBody AnimalUpdateDto dto) {
+        log.debug("Updating animal ID {}: {}", id, dto);
+        return service.get(id)
+                .flatMap(existing -> {
+                    mapper.updateFromDto(dto, existing);
+                    return service.update(id, existing);
+                })
+                .map(mapper::toResponseDto);
+    }
+
+    /**
+     * Deletes an animal by its ID.
+     *
+     * @param id the animal ID
+     * @return 204 No Content on success
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable String id) {
+        log.info("Deleting animal with ID: {}", id);
+        return service.delete(id).thenReturn(ResponseEntity.noContent().<Void>build());
+    }
+
+    /**
+     * Place an animal into a room (first placement or move).
+     *
+     * @param animalId the animal ID
+     * @param dto      contains roomId
+     * @return 200 OK with updated animal
+     */
+    @PostMapping(value = "/{animalId}/place", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<AnimalResponseDto> placeAnimal(@PathVariable String animalId,
+                                               @Valid @RequestBody PlaceRequestDto dto) {
+        log.info("Placing animal {} into room {}", animalId, dto.getRoomId());
+        return service.assignAnimalToRoom(animalId, dto.getRoomId()).map(mapper::toResponseDto);
+    }
+
+    /**
+     * Move an animal from one room to another.
+     *
+     * @param animalId the animal ID
+     * @param dto      contains target roomId
+     * @return 200 OK with updated animal
+     */
+    @PutMapping(value = "/{animalId}/move", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<AnimalResponseDto> moveAnimal(@PathVariable String animalId,
+                                              @Valid @RequestBody PlaceRequestDto dto) {
+        log.info("Moving animal {} to room {}", animalId, dto.getRoomId());
+        return service.assignAnimalToRoom(animalId, dto.getRoomId()).map(mapper::toResponseDto);
+    }
+
+    /**
+     * Remove an animal from its current room.
+     *
+     * @param id the animal ID
+     * @return 200 OK with updated animal (room cleared)
+     */
+    @DeleteMapping("/{id}/room")
+    public Mono<AnimalResponseDto> removeFromRoom(@PathVariable String id) {
+        log.info("Removing animal ID {} from current room", id);
+        return service.removeAnimalFromRoom(id).map(mapper::toResponseDto);
+    }
+
+    /**
+     * Assign a room to an animal as a favourite.
+     *
+     * @param id  the ID of the animal
+     * @param dto contains the roomId to be added as favourite
+     * @return 200 OK with the updated Animal data
+     */
+    @PostMapping(value = "/{id}/favourites", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<AnimalResponseDto> assignFavouriteRoom(@PathVariable String id,
+                                                       @Valid @RequestBody FavouriteRequestDto dto) {
+        log.info("Assigning room ID {} as favourite to animal ID {}", dto.getRoomId(), id);
+        return service.assignFavouriteRoom(id, dto.getRoomId()).map(mapper::toResponseDto);
+    }
+
+    /**
+     * Remove a room from the animal's favourite rooms.
+     *
+     * @param id     animal ID
+     * @param roomId room ID to remove
+     * @return 200 OK with updated animal
+     */
+    @DeleteMapping("/{id}/favourites/{roomId}")
+    public Mono<AnimalResponseDto> unassignFavouriteRoom(@PathVariable String id, @PathVariable String roomId) {
+        log.info("Removing room {} from favourites of animal {}", roomId, id);
+        return service.unassignFavouriteRoom(id, roomId).map(mapper::toResponseDto);
+    }
+
+    /**
+     * Returns paginated and sorted list of animals in a specific room.
+     *
+     * @param roomId the room ID to filter animals by
+     * @param sortBy allowed values: "title" or "located"
+     * @param order  allowed values: "asc" or "desc"
+     * @param page   zero-based page index
+     * @param size   number of elements per page
+     * @return a structured paginated response containing animals
+     */
+    @GetMapping("/room/{roomId}")
+    public Mono<AnimalPageResponseDto> listAnimalsInRoom(
+            @PathVariable String roomId,
+            @RequestParam(defaultValue = "title") String sortBy,
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        log.info("Fetching animals for roomId={}, sortBy={}, order={}, page={}, size={}",
+                roomId, sortBy, order, page, size);
+
+        return service.listAnimalsInRoom(roomId, sortBy, order, page, size)
+                .map(result -> new AnimalPageResponseDto(
+                        result.getContent().stream().map(mapper::toResponseDto).toList(),
+                        result.getNumber(),
+                        result.getSize(),
+                        result.getTotalElements(),
+                        result.getTotalPages()
+                ));
+    }
+}
@@ -0,0 +1,110 @@
+package com.eurail.zoo_app.controller;
+
+import com.eurail.zoo_app.controller.dto.RoomCreateDto;
+import com.eurail.zoo_app.controller.dto.RoomResponseDto;
+import com.eurail.zoo_app.controller.dto.RoomUpdateDto;
+import com.eurail.zoo_app.controller.mapper.RoomMapper;
+import com.eurail.zoo_app.service.ReactiveRoomService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * WebFlux version of {@link RoomController} for the reactive profile, with the same paths, bodies and status codes.
+ * Room patch, evacuation, cleanup status, favourite statistics and cache statistics are only served by the servlet stack.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping(value = "/rooms", produces = MediaType.APPLICATION_JSON_VALUE)
+@Validated
+public class ReactiveRoomController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveRoomController.class);
+
+    private final ReactiveRoomService service;
+    private final RoomMapper mapper;
+
+    public ReactiveRoomController(ReactiveRoomService service, RoomMapper mapper) {
+        this.service = service;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Create a new Room.
+     *
+     * @param dto the data for creating a new room
+     * @return 201 Created with the created Room data
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<RoomResponseDto>> create(@Valid @RequestBody RoomCreateDto dto) {
+        log.info("Creating room: {}", dto.getTitle());
+        return service.create(mapper.toEntity(dto))
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(mapper.toResponseDto(created)));
+    }
+
+    /**
+     * Stream all rooms as NDJSON, one room per line, as they arrive from the database cursor.
+     *
+     * @param updatedSince only rooms updated at or after this ISO-8601 instant (optional)
+     * @return 200 OK with the streamed rooms
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<RoomResponseDto> exportRooms(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant updatedSince) {
+        log.info("Exporting rooms updatedSince={}", updatedSince);
+        return service.export(updatedSince).map(mapper::toResponseDto);
+    }
+
+    /**
+     * Get a Room by its ID.
+     *
+     * @param id the room ID
+     * @return 200 OK with the Room data
+     */
+    @GetMapping("/{id}")
+    public Mono<RoomResponseDto> get(@PathVariable String id) {
+        log.info("Fetching room id={}", id);
+        return service.get(id).map(mapper::toResponseDto);
+    }
+
+    /**
+     * Update an existing Room.
+     *
+     * @param id  the room ID
+     * @param dto the fields to update
+     * @return 200 OK with the updated Room data
+     */
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<RoomResponseDto> update(@PathVariable String id, @Valid @RequestBody RoomUpdateDto dto) {
+        log.info("Updating room id={}", id);
+        return service.get(id)
+                .flatMap(existing -> {
+                    mapper.updateFromDto(dto, existing);
+                    return service.update(id, existing);
+                })
+                .map(mapper::toResponseDto);
+    }
+
+    /**
+     * Delete a Room by its ID.
+     *
+     * @param id the room ID
+     * @return 204 No Content on success
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable String id) {
+        log.info("Deleting room id={}", id);
+        return service.delete(id).thenReturn(ResponseEntity.noContent().<Void>build());
+    }
+}
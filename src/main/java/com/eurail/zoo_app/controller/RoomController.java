@@ -1,25 +1,46 @@
 package com.eurail.zoo_app.controller;
 
+import com.eurail.zoo_app.controller.dto.CounterReconciliationDto;
+import com.eurail.zoo_app.controller.dto.EvacuateRequestDto;
+import com.eurail.zoo_app.controller.dto.EvacuationResultDto;
 import com.eurail.zoo_app.controller.dto.FavouriteRoomStatsDto;
+import com.eurail.zoo_app.controller.dto.RoomCacheStatsDto;
+import com.eurail.zoo_app.controller.dto.RoomCleanupStatusDto;
 import com.eurail.zoo_app.controller.dto.RoomCreateDto;
+import com.eurail.zoo_app.controller.dto.RoomListItemDto;
+import com.eurail.zoo_app.controller.dto.RoomListResponseDto;
+import com.eurail.zoo_app.controller.dto.RoomPatchDto;
 import com.eurail.zoo_app.controller.dto.RoomResponseDto;
 import com.eurail.zoo_app.controller.dto.RoomUpdateDto;
+import com.eurail.zoo_app.controller.dto.TopFavouriteRoomDto;
 import com.eurail.zoo_app.respository.entity.Room;
 import com.eurail.zoo_app.controller.mapper.RoomMapper;
 import com.eurail.zoo_app.service.AnimalService;
+import com.eurail.zoo_app.service.ExportService;
+import com.eurail.zoo_app.service.FavouriteRoomCounterService;
+import com.eurail.zoo_app.service.RoomCleanupService;
+import com.eurail.zoo_app.service.RoomOccupancyService;
+import com.eurail.zoo_app.service.RoomScroll;
 import com.eurail.zoo_app.service.RoomService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping(value = "/rooms",
         produces = MediaType.APPLICATION_JSON_VALUE,  // All methods return JSON
         consumes = MediaType.APPLICATION_JSON_VALUE)  // All methods accept JSON)
@@ -31,11 +52,21 @@ public class RoomController {
     private final RoomService service;
     private final RoomMapper mapper;
     private final AnimalService animalService;
+    private final FavouriteRoomCounterService favouriteCounterService;
+    private final RoomCleanupService cleanupService;
+    private final ExportService exportService;
+    private final RoomOccupancyService occupancyService;
 
-    public RoomController(RoomService service, RoomMapper mapper, AnimalService animalService) {
+    public RoomController(RoomService service, RoomMapper mapper, AnimalService animalService,
+                          FavouriteRoomCounterService favouriteCounterService, RoomCleanupService cleanupService,
+                          ExportService exportService, RoomOccupancyService occupancyService) {
         this.service = service;
         this.mapper = mapper;
         this.animalService = animalService;
+        this.favouriteCounterService = favouriteCounterService;
+        this.cleanupService = cleanupService;
+        this.exportService = exportService;
+        this.occupancyService = occupancyService;
     }
 
     /**
@@ -45,6 +76,7 @@ public class RoomController {
      * @return 201 Created with the created Room data
      */
     @PostMapping
+    @QueryBudget(1)
     public ResponseEntity<RoomResponseDto> create(@Valid @RequestBody RoomCreateDto dto) {
         log.info("Creating room: {}", dto.getTitle());
         Room room = mapper.toEntity(dto);
@@ -52,48 +84,162 @@ public class RoomController {
         return ResponseEntity.status(HttpStatus.CREATED).body(mapper.toResponseDto(created));
     }
 
+    /**
+     * List all rooms with their occupancy, using keyset pagination.
+     * Occupancy is a counter kept on the room as animals are placed, moved and removed, so it costs
+     * nothing extra to read. Pass the {@code nextCursor} of a response as {@code cursor}, together
+     * with the same sortBy and order, to get the next page; the last page has no nextCursor.
+     *
+     * @param sortBy allowed values: "title" or "occupancy"
+     * @param order  allowed values: "asc" or "desc"
+     * @param size   number of elements per page
+     * @param cursor continuation token from the previous page, omitted for the first page
+     * @return the rooms of this page and the cursor for the next one
+     */
+    @GetMapping
+    @QueryBudget(1)
+    public ResponseEntity<RoomListResponseDto> listRooms(
+            @RequestParam(defaultValue = "title") String sortBy,
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor
+    ) {
+        log.info("Listing rooms sortBy={}, order={}, size={}", sortBy, order, size);
+
+        RoomScroll result = service.listRooms(sortBy, order, size, cursor);
+
+        List<RoomListItemDto> mapped = result.getContent()
+                .stream()
+                .map(mapper::toListItemDto)
+                .toList();
+
+        return ResponseEntity.ok(new RoomListResponseDto(mapped, mapped.size(), result.getNextCursor()));
+    }
+
+    /**
+     * Stream all rooms as NDJSON, one room per line, straight from a database cursor.
+     * The response is gzip-compressed when the client sends {@code Accept-Encoding: gzip}.
+     *
+     * @param updatedSince   only rooms updated at or after this ISO-8601 instant (optional)
+     * @param acceptEncoding the client's accepted encodings
+     * @return 200 OK with the streamed rooms
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportRooms(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant updatedSince,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("Exporting rooms updatedSince={}", updatedSince);
+        return StreamingResponses.ndjson(acceptEncoding, out -> exportService.exportRooms(updatedSince, out));
+    }
+
     /**
      * Get a Room by its ID.
      *
-     * @param id the room ID
-     * @return 200 OK with the Room data
+     * A conditional GET ({@code If-None-Match} / {@code If-Modified-Since}) is answered from the
+     * room's version and update time alone.
+     *
+     * @param id      the room ID
+     * @param request the request, for its conditional headers
+     * @return 200 OK with the Room data, ETag and Last-Modified, or 304 Not Modified
      */
     @GetMapping("/{id}")
-    public ResponseEntity<RoomResponseDto> get(@PathVariable String id) {
+    @QueryBudget(2)
+    public ResponseEntity<RoomResponseDto> get(@PathVariable String id, WebRequest request) {
         log.info("Fetching room id={}", id);
+        ResponseEntity<RoomResponseDto> notModified =
+                ConditionalRequests.notModified(request, () -> service.getVersionStamp(id));
+        if (notModified != null) {
+            return notModified;
+        }
         Room room = service.get(id);
-        return ResponseEntity.ok(mapper.toResponseDto(room));
+        return ConditionalRequests.ok(mapper.toResponseDto(room), room.getVersion(), room.getUpdated());
     }
 
     /**
      * Update an existing Room.
      *
-     * @param id  the room ID
-     * @param dto the fields to update
-     * @return 200 OK with the updated Room data
+     * @param id      the room ID
+     * @param dto     the fields to update
+     * @param ifMatch only update if the room's ETag still matches (optional)
+     * @return 200 OK with the updated Room data, 412 Precondition Failed if the ETag no longer matches
      */
     @PutMapping("/{id}")
-    public ResponseEntity<RoomResponseDto> update(@PathVariable String id, @Valid @RequestBody RoomUpdateDto dto) {
+    @QueryBudget(3)
+    public ResponseEntity<RoomResponseDto> update(@PathVariable String id, @Valid @RequestBody RoomUpdateDto dto,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Updating room id={}", id);
+        Long expectedVersion = ConditionalRequests.ifMatchVersion(ifMatch);
         Room existing = service.get(id);
         mapper.updateFromDto(dto, existing);
-        Room updated = service.update(id, existing);
-        return ResponseEntity.ok(mapper.toResponseDto(updated));
+        Room updated = expectedVersion == null
+                ? service.update(id, existing)
+                : service.update(id, existing, expectedVersion);
+        return ConditionalRequests.ok(mapper.toResponseDto(updated), updated.getVersion(), updated.getUpdated());
+    }
+
+    /**
+     * Partially update a Room. Only the fields present in the body are changed.
+     *
+     * @param id  the room ID
+     * @param dto the fields to change and the version the client last saw
+     * @return 200 OK with the updated Room data, 409 Conflict if the version is stale
+     */
+    @PatchMapping("/{id}")
+    @QueryBudget(2)
+    public ResponseEntity<RoomResponseDto> patch(@PathVariable String id, @Valid @RequestBody RoomPatchDto dto) {
+        log.info("Patching room id={}", id);
+        Room patched = service.patch(id, dto);
+        return ConditionalRequests.ok(mapper.toResponseDto(patched), patched.getVersion(), patched.getUpdated());
     }
 
     /**
      * Delete a Room by its ID.
      *
-     * @param id the room ID
-     * @return 204 No Content on success
+     * @param id      the room ID
+     * @param ifMatch only delete if the room's ETag still matches (optional)
+     * @return 204 No Content on success, 412 Precondition Failed if the ETag no longer matches
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable String id) {
+    @QueryBudget(3)
+    public ResponseEntity<Void> delete(@PathVariable String id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Deleting room id={}", id);
-        service.delete(id);
+        Long expectedVersion = ConditionalRequests.ifMatchVersion(ifMatch);
+        if (expectedVersion == null) {
+            service.delete(id);
+        } else {
+            service.delete(id, expectedVersion);
+        }
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Get the progress of the background cleanup that runs after a room is deleted.
+     *
+     * @param id the deleted room's ID
+     * @return 200 OK with the cleanup status and how many animals were updated so far
+     */
+    @GetMapping("/{id}/cleanup")
+    @QueryBudget(1)
+    public ResponseEntity<RoomCleanupStatusDto> getCleanupStatus(@PathVariable String id) {
+        log.info("Fetching cleanup status for room id={}", id);
+        return ResponseEntity.ok(cleanupService.status(id));
+    }
+
+    /**
+     * Move every animal out of a room, into another room or out of any room.
+     *
+     * @param id  the room ID to evacuate
+     * @param dto the target room or {@code unassign: true}, and an optional batch size
+     * @return 200 OK with the number of animals moved
+     */
+    @PostMapping("/{id}/evacuate")
+    public ResponseEntity<EvacuationResultDto> evacuate(@PathVariable String id,
+                                                        @Valid @RequestBody EvacuateRequestDto dto) {
+        log.info("Evacuating room id={}", id);
+        return ResponseEntity.ok(animalService.evacuateRoom(id, dto));
+    }
+
     /**
      * Get statistics for favourite rooms.
      * Each room in the response contains its title and the number of animals
@@ -103,10 +249,58 @@ public class RoomController {
      * @return 200 OK with a list of FavouriteRoomStatsDto
      */
     @GetMapping("/favourites/stats")
+    @QueryBudget(1)
     public ResponseEntity<List<FavouriteRoomStatsDto>> getFavouriteRoomStats() {
         log.info("Fetching favourite room statistics");
         List<FavouriteRoomStatsDto> stats = animalService.favouriteRoomStats();
         return ResponseEntity.ok(stats);
     }
-}
 
+    /**
+     * Get the rooms most often marked as favourite, highest count first.
+     *
+     * @param k number of rooms to return (1-100)
+     * @return 200 OK with up to k rooms and their favourite counts
+     */
+    @GetMapping("/favourites/top")
+    @QueryBudget(1)
+    public ResponseEntity<List<TopFavouriteRoomDto>> getTopFavouriteRooms(@RequestParam(defaultValue = "10") int k) {
+        log.info("Fetching top {} favourite rooms", k);
+        return ResponseEntity.ok(animalService.topFavouriteRooms(k));
+    }
+
+    /**
+     * Rebuild the favourite-room counters from the animals collection.
+     * The same job also runs on a schedule.
+     *
+     * @return 200 OK with a drift report, 409 Conflict if another instance is reconciling
+     */
+    @PostMapping("/favourites/reconcile")
+    public ResponseEntity<CounterReconciliationDto> reconcileFavouriteCounters() {
+        log.info("Reconciling favourite room counters");
+        return ResponseEntity.ok(favouriteCounterService.reconcile());
+    }
+
+    /**
+     * Rebuild the room occupancy counters from the animals' current rooms.
+     * The same job also runs on a schedule.
+     *
+     * @return 200 OK with a drift report, 409 Conflict if another instance is reconciling
+     */
+    @PostMapping("/occupancy/reconcile")
+    public ResponseEntity<CounterReconciliationDto> reconcileOccupancy() {
+        log.info("Reconciling room occupancy counters");
+        return ResponseEntity.ok(occupancyService.reconcile());
+    }
+
+    /**
+     * Get hit, miss and eviction counters of the in-process room cache.
+     *
+     * @return 200 OK with the cache statistics
+     */
+    @GetMapping("/cache/stats")
+    @QueryBudget(0)
+    public ResponseEntity<RoomCacheStatsDto> getCacheStats() {
+        return ResponseEntity.ok(service.cacheStats());
+    }
+}
@@ -0,0 +1,74 @@
+package com.eurail.zoo_app.controller;
+
+import com.eurail.zoo_app.controller.dto.AnimalResponseDto;
+import com.eurail.zoo_app.service.AnimalFields;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Leaves out the animal properties a client did not select with {@code fields=}. The handler has
+ * already read only those fields from MongoDB; this drops the remaining properties from the JSON
+ * instead of writing them as null. Applies only to handlers that declare a {@code fields} parameter.
+ */
+@RestControllerAdvice(assignableTypes = AnimalController.class)
+@Profile("!reactive")
+public class SparseFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    static final String FIELDS_PARAM = "fields";
+
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    private final Map<Method, Boolean> acceptsFields = new ConcurrentHashMap<>();
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!acceptsFields(returnType) || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        AnimalFields fields = AnimalFields.parse(servletRequest.getServletRequest().getParameter(FIELDS_PARAM));
+        if (fields.isAll()) {
+            return;
+        }
+        bodyContainer.setFilters(new SimpleFilterProvider().addFilter(AnimalResponseDto.FIELDS_FILTER,
+                SimpleBeanPropertyFilter.filterOutAllExcept(fields.getNames())));
+    }
+
+    private boolean acceptsFields(MethodParameter returnType) {
+        Method method = returnType.getMethod();
+        return method != null && acceptsFields.computeIfAbsent(method, SparseFieldsAdvice::declaresFieldsParam);
+    }
+
+    private static boolean declaresFieldsParam(Method method) {
+        for (int i = 0; i < method.getParameterCount(); i++) {
+            MethodParameter parameter = new MethodParameter(method, i);
+            RequestParam param = parameter.getParameterAnnotation(RequestParam.class);
+            if (param == null) continue;
+            parameter.initParameterNameDiscovery(PARAMETER_NAMES);
+            String name = !param.name().isEmpty() ? param.name()
+                    : !param.value().isEmpty() ? param.value()
+                    : parameter.getParameterName();
+            if (FIELDS_PARAM.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
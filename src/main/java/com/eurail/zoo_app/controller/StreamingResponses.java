@@ -0,0 +1,43 @@
+package com.eurail.zoo_app.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Builds streamed NDJSON responses, gzip-compressed when the client accepts it.
+ */
+final class StreamingResponses {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private StreamingResponses() {
+    }
+
+    static ResponseEntity<StreamingResponseBody> ndjson(String acceptEncoding, Consumer<OutputStream> writer) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                writer.accept(compressed);
+                compressed.finish();
+            } else {
+                writer.accept(out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
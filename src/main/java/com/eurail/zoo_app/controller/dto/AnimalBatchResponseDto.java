@@ -0,0 +1,30 @@
+package com.eurail.zoo_app.controller.dto;
+
+import java.util.List;
+
+public class AnimalBatchResponseDto {
+
+    private List<AnimalResponseDto> items;
+    private List<String> missing;
+
+    public AnimalBatchResponseDto(List<AnimalResponseDto> items, List<String> missing) {
+        this.items = items;
+        this.missing = missing;
+    }
+
+    public List<AnimalResponseDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<AnimalResponseDto> items) {
+        this.items = items;
+    }
+
+    public List<String> getMissing() {
+        return missing;
+    }
+
+    public void setMissing(List<String> missing) {
+        this.missing = missing;
+    }
+}
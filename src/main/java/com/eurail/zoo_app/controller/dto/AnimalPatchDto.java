@@ -0,0 +1,80 @@
+package com.eurail.zoo_app.controller.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Partial update of an animal. Null fields are left unchanged.
+ * {@code favouriteRoomIds} replaces the whole set; {@code addFavouriteRoomIds} and
+ * {@code removeFavouriteRoomIds} edit it in place and cannot be combined with a replacement.
+ */
+public class AnimalPatchDto {
+
+    private String title;
+    private LocalDate located;
+    private String currentRoomId;
+    private Set<String> favouriteRoomIds;
+    private Set<String> addFavouriteRoomIds;
+    private Set<String> removeFavouriteRoomIds;
+
+    @NotNull
+    private Long version;
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public LocalDate getLocated() {
+        return located;
+    }
+
+    public void setLocated(LocalDate located) {
+        this.located = located;
+    }
+
+    public String getCurrentRoomId() {
+        return currentRoomId;
+    }
+
+    public void setCurrentRoomId(String currentRoomId) {
+        this.currentRoomId = currentRoomId;
+    }
+
+    public Set<String> getFavouriteRoomIds() {
+        return favouriteRoomIds;
+    }
+
+    public void setFavouriteRoomIds(Set<String> favouriteRoomIds) {
+        this.favouriteRoomIds = favouriteRoomIds;
+    }
+
+    public Set<String> getAddFavouriteRoomIds() {
+        return addFavouriteRoomIds;
+    }
+
+    public void setAddFavouriteRoomIds(Set<String> addFavouriteRoomIds) {
+        this.addFavouriteRoomIds = addFavouriteRoomIds;
+    }
+
+    public Set<String> getRemoveFavouriteRoomIds() {
+        return removeFavouriteRoomIds;
+    }
+
+    public void setRemoveFavouriteRoomIds(Set<String> removeFavouriteRoomIds) {
+        this.removeFavouriteRoomIds = removeFavouriteRoomIds;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -1,15 +1,25 @@
 package com.eurail.zoo_app.controller.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Set;
 
+/**
+ * Serialized with all properties unless a request selects some with {@code fields=}, see
+ * {@link com.eurail.zoo_app.controller.SparseFieldsAdvice}.
+ */
+@JsonFilter(AnimalResponseDto.FIELDS_FILTER)
 public class AnimalResponseDto {
 
+    public static final String FIELDS_FILTER = "animalFields";
+
     private String id;
     private String title;
     private Instant created;
     private Instant updated;
+    private Long version;
     private LocalDate located;
     private String currentRoomId;
     private Set<String> favouriteRoomIds;
@@ -69,4 +79,12 @@ public class AnimalResponseDto {
     public void setFavouriteRoomIds(Set<String> favouriteRoomIds) {
         this.favouriteRoomIds = favouriteRoomIds;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,40 @@
+package com.eurail.zoo_app.controller.dto;
+
+import java.util.List;
+
+public class AnimalScrollResponseDto {
+
+    private List<AnimalResponseDto> items;
+    private int size;
+    private String nextCursor;
+
+    public AnimalScrollResponseDto(List<AnimalResponseDto> items, int size, String nextCursor) {
+        this.items = items;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<AnimalResponseDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<AnimalResponseDto> items) {
+        this.items = items;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,78 @@
+package com.eurail.zoo_app.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * A page of animals without an exact total. {@code estimatedTotal} is only present when requested;
+ * it is exact up to the configured cap, and {@code estimateCapped} tells when the real total is larger.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AnimalSliceResponseDto {
+
+    private List<AnimalResponseDto> items;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    private Long estimatedTotal;
+    private Boolean estimateCapped;
+
+    public AnimalSliceResponseDto(List<AnimalResponseDto> items, int page, int size, boolean hasNext,
+                                  Long estimatedTotal, Boolean estimateCapped) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.estimatedTotal = estimatedTotal;
+        this.estimateCapped = estimateCapped;
+    }
+
+    public List<AnimalResponseDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<AnimalResponseDto> items) {
+        this.items = items;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public Long getEstimatedTotal() {
+        return estimatedTotal;
+    }
+
+    public void setEstimatedTotal(Long estimatedTotal) {
+        this.estimatedTotal = estimatedTotal;
+    }
+
+    public Boolean getEstimateCapped() {
+        return estimateCapped;
+    }
+
+    public void setEstimateCapped(Boolean estimateCapped) {
+        this.estimateCapped = estimateCapped;
+    }
+}
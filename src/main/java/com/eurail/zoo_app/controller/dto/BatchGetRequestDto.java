@@ -0,0 +1,19 @@
+package com.eurail.zoo_app.controller.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class BatchGetRequestDto {
+
+    @NotEmpty
+    private List<String> ids;
+
+    public List<String> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<String> ids) {
+        this.ids = ids;
+    }
+}
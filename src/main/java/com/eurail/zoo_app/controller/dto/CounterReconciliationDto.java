@@ -0,0 +1,49 @@
+package com.eurail.zoo_app.controller.dto;
+
+import java.time.Instant;
+
+public class CounterReconciliationDto {
+    private int roomsChecked;
+    private int roomsDrifted;
+    private long totalDrift;
+    private Instant reconciledAt;
+
+    public CounterReconciliationDto(int roomsChecked, int roomsDrifted, long totalDrift, Instant reconciledAt) {
+        this.roomsChecked = roomsChecked;
+        this.roomsDrifted = roomsDrifted;
+        this.totalDrift = totalDrift;
+        this.reconciledAt = reconciledAt;
+    }
+
+    public int getRoomsChecked() {
+        return roomsChecked;
+    }
+
+    public void setRoomsChecked(int roomsChecked) {
+        this.roomsChecked = roomsChecked;
+    }
+
+    public int getRoomsDrifted() {
+        return roomsDrifted;
+    }
+
+    public void setRoomsDrifted(int roomsDrifted) {
+        this.roomsDrifted = roomsDrifted;
+    }
+
+    public long getTotalDrift() {
+        return totalDrift;
+    }
+
+    public void setTotalDrift(long totalDrift) {
+        this.totalDrift = totalDrift;
+    }
+
+    public Instant getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public void setReconciledAt(Instant reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+}
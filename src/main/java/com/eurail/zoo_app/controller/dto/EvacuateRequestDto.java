@@ -0,0 +1,40 @@
+package com.eurail.zoo_app.controller.dto;
+
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Where to move the occupants of a room: either {@code targetRoomId} or {@code unassign = true}.
+ * Without {@code batchSize} all occupants are moved with a single update.
+ */
+public class EvacuateRequestDto {
+    private String targetRoomId;
+
+    private boolean unassign;
+
+    @Positive
+    private Integer batchSize;
+
+    public String getTargetRoomId() {
+        return targetRoomId;
+    }
+
+    public void setTargetRoomId(String targetRoomId) {
+        this.targetRoomId = targetRoomId;
+    }
+
+    public boolean isUnassign() {
+        return unassign;
+    }
+
+    public void setUnassign(boolean unassign) {
+        this.unassign = unassign;
+    }
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+}
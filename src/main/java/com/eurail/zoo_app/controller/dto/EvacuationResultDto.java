@@ -0,0 +1,57 @@
+package com.eurail.zoo_app.controller.dto;
+
+public class EvacuationResultDto {
+    private String roomId;
+    private String targetRoomId;
+    private long moved;
+    private int batches;
+    private long durationMs;
+
+    public EvacuationResultDto(String roomId, String targetRoomId, long moved, int batches, long durationMs) {
+        this.roomId = roomId;
+        this.targetRoomId = targetRoomId;
+        this.moved = moved;
+        this.batches = batches;
+        this.durationMs = durationMs;
+    }
+
+    public String getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(String roomId) {
+        this.roomId = roomId;
+    }
+
+    public String getTargetRoomId() {
+        return targetRoomId;
+    }
+
+    public void setTargetRoomId(String targetRoomId) {
+        this.targetRoomId = targetRoomId;
+    }
+
+    public long getMoved() {
+        return moved;
+    }
+
+    public void setMoved(long moved) {
+        this.moved = moved;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public void setBatches(int batches) {
+        this.batches = batches;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+}
@@ -0,0 +1,61 @@
+package com.eurail.zoo_app.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of a single input line of a bulk import. One of these is streamed back per line.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportResultDto {
+    private long line;
+    private String status;
+    private String id;
+    private String error;
+
+    public ImportResultDto(long line, String status, String id, String error) {
+        this.line = line;
+        this.status = status;
+        this.id = id;
+        this.error = error;
+    }
+
+    public static ImportResultDto created(long line, String id) {
+        return new ImportResultDto(line, "created", id, null);
+    }
+
+    public static ImportResultDto failed(long line, String error) {
+        return new ImportResultDto(line, "error", null, error);
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,30 @@
+package com.eurail.zoo_app.controller.dto;
+
+import java.util.List;
+
+public class RoomBatchResponseDto {
+
+    private List<RoomResponseDto> items;
+    private List<String> missing;
+
+    public RoomBatchResponseDto(List<RoomResponseDto> items, List<String> missing) {
+        this.items = items;
+        this.missing = missing;
+    }
+
+    public List<RoomResponseDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<RoomResponseDto> items) {
+        this.items = items;
+    }
+
+    public List<String> getMissing() {
+        return missing;
+    }
+
+    public void setMissing(List<String> missing) {
+        this.missing = missing;
+    }
+}
@@ -0,0 +1,80 @@
+package com.eurail.zoo_app.controller.dto;
+
+import java.time.Instant;
+
+public class RoomCleanupStatusDto {
+    private String roomId;
+    private String status;
+    private long currentRoomCleared;
+    private long favouritesCleared;
+    private int batches;
+    private Instant created;
+    private Instant completed;
+
+    public RoomCleanupStatusDto(String roomId, String status, long currentRoomCleared, long favouritesCleared,
+                                int batches, Instant created, Instant completed) {
+        this.roomId = roomId;
+        this.status = status;
+        this.currentRoomCleared = currentRoomCleared;
+        this.favouritesCleared = favouritesCleared;
+        this.batches = batches;
+        this.created = created;
+        this.completed = completed;
+    }
+
+    public String getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(String roomId) {
+        this.roomId = roomId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getCurrentRoomCleared() {
+        return currentRoomCleared;
+    }
+
+    public void setCurrentRoomCleared(long currentRoomCleared) {
+        this.currentRoomCleared = currentRoomCleared;
+    }
+
+    public long getFavouritesCleared() {
+        return favouritesCleared;
+    }
+
+    public void setFavouritesCleared(long favouritesCleared) {
+        this.favouritesCleared = favouritesCleared;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public void setBatches(int batches) {
+        this.batches = batches;
+    }
+
+    public Instant getCreated() {
+        return created;
+    }
+
+    public void setCreated(Instant created) {
+        this.created = created;
+    }
+
+    public Instant getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Instant completed) {
+        this.completed = completed;
+    }
+}
@@ -0,0 +1,31 @@
+package com.eurail.zoo_app.controller.dto;
+
+public class RoomListItemDto {
+    private String id;
+    private String title;
+    private Long occupancy;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Long getOccupancy() {
+        return occupancy;
+    }
+
+    public void setOccupancy(Long occupancy) {
+        this.occupancy = occupancy;
+    }
+}
@@ -0,0 +1,40 @@
+package com.eurail.zoo_app.controller.dto;
+
+import java.util.List;
+
+public class RoomListResponseDto {
+
+    private List<RoomListItemDto> items;
+    private int size;
+    private String nextCursor;
+
+    public RoomListResponseDto(List<RoomListItemDto> items, int size, String nextCursor) {
+        this.items = items;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<RoomListItemDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<RoomListItemDto> items) {
+        this.items = items;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
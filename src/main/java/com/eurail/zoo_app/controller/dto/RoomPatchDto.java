@@ -0,0 +1,27 @@
+package com.eurail.zoo_app.controller.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public class RoomPatchDto {
+
+    private String title;
+
+    @NotNull
+    private Long version;
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -7,6 +7,7 @@ public class RoomResponseDto {
     private String title;
     private Instant created;
     private Instant updated;
+    private Long version;
 
     public String getId() {
         return id;
@@ -39,4 +40,12 @@ public class RoomResponseDto {
     public void setUpdated(Instant updated) {
         this.updated = updated;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,37 @@
+package com.eurail.zoo_app.controller.dto;
+
+public class TopFavouriteRoomDto {
+    private String roomId;
+    private String title;
+    private long count;
+
+    public TopFavouriteRoomDto(String roomId, String title, long count) {
+        this.roomId = roomId;
+        this.title = title;
+        this.count = count;
+    }
+
+    public String getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(String roomId) {
+        this.roomId = roomId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -1,6 +1,7 @@
 package com.eurail.zoo_app.controller.mapper;
 
 import com.eurail.zoo_app.controller.dto.RoomCreateDto;
+import com.eurail.zoo_app.controller.dto.RoomListItemDto;
 import com.eurail.zoo_app.controller.dto.RoomResponseDto;
 import com.eurail.zoo_app.controller.dto.RoomUpdateDto;
 import com.eurail.zoo_app.respository.entity.Room;
@@ -10,6 +11,8 @@ import org.mapstruct.*;
 public interface RoomMapper {
     RoomResponseDto toResponseDto(Room room);
 
+    RoomListItemDto toListItemDto(Room room);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "created", expression = "java(java.time.Instant.now())")
     @Mapping(target = "updated", expression = "java(java.time.Instant.now())")
@@ -0,0 +1,7 @@
+package com.eurail.zoo_app.exception;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
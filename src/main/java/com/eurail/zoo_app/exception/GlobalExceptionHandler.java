@@ -1,12 +1,16 @@
 package com.eurail.zoo_app.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.time.Instant;
 import java.util.HashMap;
@@ -17,6 +21,12 @@ public class GlobalExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final MeterRegistry registry;
+
+    public GlobalExceptionHandler(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
     private ApiError buildError(HttpStatus status, String message) {
         return new ApiError(
                 status.value(),
@@ -38,14 +48,46 @@ public class GlobalExceptionHandler {
                 .body(buildError(HttpStatus.BAD_REQUEST, ex.getMessage()));
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ApiError> handleConflict(ConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(buildError(HttpStatus.CONFLICT, ex.getMessage()));
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiError> handlePreconditionFailed(PreconditionFailedException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(buildError(HttpStatus.PRECONDITION_FAILED, ex.getMessage()));
+    }
+
     // Validation Errors
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidation(MethodArgumentNotValidException ex) {
-        Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getFieldErrors()
-                .forEach(err -> errors.put(err.getField(), err.getDefaultMessage()));
+        return ResponseEntity.badRequest().body(fieldErrors(ex.getBindingResult()));
+    }
 
-        return ResponseEntity.badRequest().body(errors);
+    // Validation Errors on the reactive stack
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, String>> handleValidation(WebExchangeBindException ex) {
+        return ResponseEntity.badRequest().body(fieldErrors(ex.getBindingResult()));
+    }
+
+    /**
+     * Collects the field errors and counts each one in {@code zoo.validation.failures},
+     * tagged with the validated object and field.
+     */
+    private Map<String, String> fieldErrors(BindingResult result) {
+        Map<String, String> errors = new HashMap<>();
+        result.getFieldErrors().forEach(err -> {
+            errors.put(err.getField(), err.getDefaultMessage());
+            Counter.builder("zoo.validation.failures")
+                    .description("Request body fields rejected by bean validation")
+                    .tag("object", err.getObjectName())
+                    .tag("field", err.getField())
+                    .register(registry)
+                    .increment();
+        });
+        return errors;
     }
 
     @ExceptionHandler(Exception.class)
@@ -3,8 +3,17 @@ package com.eurail.zoo_app.respository;
 import com.eurail.zoo_app.respository.entity.Animal;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface AnimalRepository extends MongoRepository<Animal, String> {
+public interface AnimalRepository extends MongoRepository<Animal, String>, AnimalRepositoryCustom {
     Page<Animal> findByCurrentRoomId(String roomId, Pageable pageable);
+
+    /**
+     * Same query as {@link #findByCurrentRoomId} but returns a {@link Slice}: Spring Data reads
+     * one extra row to fill {@code hasNext} and runs no count query.
+     */
+    Slice<Animal> findSliceByCurrentRoomId(String roomId, Pageable pageable);
+
+    long countByCurrentRoomId(String roomId);
 }
@@ -0,0 +1,201 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.controller.dto.AnimalPatchDto;
+import com.eurail.zoo_app.respository.entity.Animal;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Custom repository operations for {@link com.eurail.zoo_app.respository.entity.Animal}
+ * that cannot be expressed as derived queries.
+ */
+public interface AnimalRepositoryCustom {
+
+    /**
+     * Counts favourite references per room id, including references to rooms that no longer exist.
+     * Used to rebuild the favourite-room counters from scratch.
+     *
+     * @return room id to number of animals that have it as favourite
+     */
+    Map<String, Long> countFavouriteReferencesByRoom();
+
+    /**
+     * Counts animals per current room, including rooms that no longer exist.
+     * Used to rebuild the room occupancy counters from scratch.
+     *
+     * @return room id to number of animals currently in it
+     */
+    Map<String, Long> countByCurrentRoom();
+
+    /**
+     * Loads only the room references of an animal: its current room and favourite rooms.
+     *
+     * @param id the animal ID
+     * @return the animal with only id, currentRoomId and favouriteRoomIds set, or empty if it does not exist
+     */
+    Optional<Animal> findRoomReferences(String id);
+
+    /**
+     * Loads only the version and updated timestamp of an animal, for conditional requests.
+     *
+     * @param id the animal ID
+     * @return the animal with only id, version and updated set, or empty if it does not exist
+     */
+    Optional<Animal> findVersionInfo(String id);
+
+    /**
+     * Loads an animal with only the given document fields, so the others are neither read nor decoded.
+     *
+     * @param fields document field names to include, e.g. {@code _id}, {@code title}
+     * @return the animal with only those fields set, or empty if it does not exist
+     */
+    Optional<Animal> findProjectedById(String id, Collection<String> fields);
+
+    /**
+     * Same query as {@link AnimalRepository#findByCurrentRoomId} but returns only the given document
+     * fields and runs no count. When the room, the sort field and every projected field are in one
+     * index (e.g. {@code _id,title} sorted by title) the query is covered and reads no documents.
+     *
+     * @param fields document field names to include
+     */
+    List<Animal> findInRoom(String roomId, Pageable pageable, Collection<String> fields);
+
+    /**
+     * Sets the current room with a single findAndModify.
+     *
+     * @return the animal as it was before the update, or null if it does not exist
+     */
+    Animal setCurrentRoom(String id, String roomId, Instant updated);
+
+    /**
+     * Clears the current room with a single findAndModify ({@code $unset}).
+     *
+     * @return the animal as it was before the update, or null if it does not exist
+     */
+    Animal unsetCurrentRoom(String id, Instant updated);
+
+    /**
+     * Adds a favourite room with {@code $addToSet}, matching only animals that do not have it yet.
+     *
+     * @return the updated animal, or null if it does not exist or already has the room as favourite
+     */
+    Animal addFavouriteRoom(String id, String roomId, Instant updated);
+
+    /**
+     * Removes a favourite room with {@code $pull}, matching only animals that have it.
+     *
+     * @return the updated animal, or null if it does not exist or does not have the room as favourite
+     */
+    Animal removeFavouriteRoom(String id, String roomId, Instant updated);
+
+    /**
+     * Sets the favourite rooms of many animals in one unordered bulk write. Each animal is only updated
+     * while it is still at the version it carries, and its version goes up by one.
+     *
+     * @param animals the id, the version the favourite rooms were computed at and the new favourite rooms
+     * @return the number of animals updated
+     */
+    int setFavouriteRoomsIfVersion(Collection<Animal> animals, Instant updated);
+
+    /**
+     * Deletes an animal with a single findAndRemove.
+     *
+     * @return the deleted animal (only the fields needed for counter maintenance), or null if it did not exist
+     */
+    Animal deleteAndReturn(String id);
+
+    /**
+     * Deletes an animal with a single findAndRemove, but only if the stored version still equals
+     * {@code expectedVersion}. Documents without a version field are treated as version 0.
+     *
+     * @return the deleted animal (only the fields needed for counter maintenance), or null if it does not
+     * exist or the version did not match
+     */
+    Animal deleteIfVersion(String id, long expectedVersion);
+
+    /**
+     * Replaces the stored animal with {@code animal}, but only if the stored version still equals
+     * {@code expectedVersion}. Documents without a version field are treated as version 0.
+     *
+     * @return true if the animal was replaced
+     */
+    boolean replaceIfVersion(Animal animal, long expectedVersion);
+
+    /**
+     * Applies the non-null fields of a patch as a single {@code $set}/{@code $addToSet}/{@code $pullAll}
+     * and increments the version, but only if the stored version still equals {@code expectedVersion}.
+     * Documents without a version field are treated as version 0.
+     *
+     * @return the animal as it was before the update, or null if it does not exist or the version did not match
+     */
+    Animal patchIfVersion(String id, long expectedVersion, AnimalPatchDto patch, Instant updated);
+
+    /**
+     * Inserts all animals with one unordered bulk write, so a failing document does not stop the rest.
+     *
+     * @return error messages keyed by the index in {@code animals} of each document that was not inserted
+     */
+    Map<Integer, String> insertUnordered(List<Animal> animals);
+
+    /**
+     * Moves every animal whose current room is {@code fromRoomId} to {@code toRoomId}
+     * (or clears the current room when {@code toRoomId} is null) with a single updateMany.
+     *
+     * @return the number of animals modified
+     */
+    long relocateAll(String fromRoomId, String toRoomId, Instant updated);
+
+    /**
+     * Same as {@link #relocateAll} but limited to at most {@code limit} animals, so each call holds
+     * write locks on a bounded number of documents.
+     *
+     * @return the number of animals modified; 0 once the room is empty
+     */
+    long relocateBatch(String fromRoomId, String toRoomId, int limit, Instant updated);
+
+    /**
+     * Returns the IDs of all animals whose current room is {@code roomId}, read from the currentRoomId index.
+     */
+    List<String> findIdsInRoom(String roomId);
+
+    /**
+     * Moves the given animals to {@code toRoomId} (or clears their current room when {@code toRoomId} is null),
+     * skipping any that are no longer in {@code fromRoomId}.
+     *
+     * @return the number of animals modified
+     */
+    long relocate(Collection<String> ids, String fromRoomId, String toRoomId, Instant updated);
+
+    /**
+     * Removes {@code roomId} from the favourites of at most {@code limit} animals.
+     *
+     * @return the number of animals modified; 0 once no animal references the room
+     */
+    long pullFavouriteRoomBatch(String roomId, int limit, Instant updated);
+
+    /**
+     * Keyset page of the animals in a room ordered by {@code sortBy} then {@code _id}.
+     * Only animals strictly after ({@code afterValue}, {@code afterId}) in that order are returned,
+     * so the cost does not grow with the page number. Missing sort values sort first ascending
+     * and last descending, as in Mongo.
+     *
+     * @param afterId null for the first page
+     */
+    List<Animal> findInRoomAfter(String roomId, String sortBy, Sort.Direction direction,
+                                 Object afterValue, String afterId, int limit);
+
+    /**
+     * Counts the animals in a room but stops at {@code cap}, so the cost is bounded by the cap
+     * rather than by the size of the room.
+     *
+     * @return the exact count if it is below {@code cap}, otherwise {@code cap}
+     */
+    long countInRoomUpTo(String roomId, int cap);
+}
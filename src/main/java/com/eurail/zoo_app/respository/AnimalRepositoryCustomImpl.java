@@ -0,0 +1,281 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.controller.dto.AnimalPatchDto;
+import com.eurail.zoo_app.respository.entity.Animal;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+
+import java.util.*;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+
+public class AnimalRepositoryCustomImpl implements AnimalRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public AnimalRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Map<String, Long> countFavouriteReferencesByRoom() {
+        Aggregation aggregation = newAggregation(
+                project("favouriteRoomIds"),
+                unwind("favouriteRoomIds"),
+                group("favouriteRoomIds").count().as("count")
+        ).withOptions(newAggregationOptions().allowDiskUse(true).build());
+
+        Map<String, Long> counts = new HashMap<>();
+        mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Animal.class), Document.class)
+                .forEach(doc -> counts.put(doc.getString("_id"), ((Number) doc.get("count")).longValue()));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> countByCurrentRoom() {
+        Aggregation aggregation = newAggregation(
+                match(Criteria.where("currentRoomId").ne(null)),
+                group("currentRoomId").count().as("count")
+        ).withOptions(newAggregationOptions().allowDiskUse(true).build());
+
+        Map<String, Long> counts = new HashMap<>();
+        mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Animal.class), Document.class)
+                .forEach(doc -> counts.put(doc.getString("_id"), ((Number) doc.get("count")).longValue()));
+        return counts;
+    }
+
+    @Override
+    public Optional<Animal> findRoomReferences(String id) {
+        Query query = byId(id);
+        query.fields().include("currentRoomId", "favouriteRoomIds");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Animal.class));
+    }
+
+    @Override
+    public Optional<Animal> findVersionInfo(String id) {
+        Query query = byId(id);
+        query.fields().include("version", "updated");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Animal.class));
+    }
+
+    @Override
+    public Optional<Animal> findProjectedById(String id, Collection<String> fields) {
+        Query query = byId(id);
+        query.fields().include(fields.toArray(String[]::new));
+        return Optional.ofNullable(mongoTemplate.findOne(query, Animal.class));
+    }
+
+    @Override
+    public List<Animal> findInRoom(String roomId, Pageable pageable, Collection<String> fields) {
+        Query query = Query.query(Criteria.where("currentRoomId").is(roomId)).with(pageable);
+        query.fields().include(fields.toArray(String[]::new));
+        return mongoTemplate.find(query, Animal.class);
+    }
+
+    @Override
+    public Animal setCurrentRoom(String id, String roomId, Instant updated) {
+        return mongoTemplate.findAndModify(byId(id), touch(updated).set("currentRoomId", roomId),
+                FindAndModifyOptions.options().returnNew(false), Animal.class);
+    }
+
+    @Override
+    public Animal unsetCurrentRoom(String id, Instant updated) {
+        return mongoTemplate.findAndModify(byId(id), touch(updated).unset("currentRoomId"),
+                FindAndModifyOptions.options().returnNew(false), Animal.class);
+    }
+
+    @Override
+    public Animal addFavouriteRoom(String id, String roomId, Instant updated) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("favouriteRoomIds").ne(roomId));
+        return modify(query, touch(updated).addToSet("favouriteRoomIds", roomId));
+    }
+
+    @Override
+    public Animal removeFavouriteRoom(String id, String roomId, Instant updated) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("favouriteRoomIds").is(roomId));
+        return modify(query, touch(updated).pull("favouriteRoomIds", roomId));
+    }
+
+    @Override
+    public int setFavouriteRoomsIfVersion(Collection<Animal> animals, Instant updated) {
+        if (animals.isEmpty()) return 0;
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Animal.class);
+        for (Animal animal : animals) {
+            long version = animal.getVersion() == null ? 0L : animal.getVersion();
+            bulk.updateOne(byIdAndVersion(animal.getId(), version),
+                    touch(updated).set("favouriteRoomIds", animal.getFavouriteRoomIds()));
+        }
+        return bulk.execute().getModifiedCount();
+    }
+
+    @Override
+    public Animal deleteAndReturn(String id) {
+        Query query = byId(id);
+        query.fields().include("currentRoomId", "favouriteRoomIds");
+        return mongoTemplate.findAndRemove(query, Animal.class);
+    }
+
+    @Override
+    public Animal deleteIfVersion(String id, long expectedVersion) {
+        Query query = byIdAndVersion(id, expectedVersion);
+        query.fields().include("currentRoomId", "favouriteRoomIds");
+        return mongoTemplate.findAndRemove(query, Animal.class);
+    }
+
+    @Override
+    public boolean replaceIfVersion(Animal animal, long expectedVersion) {
+        return mongoTemplate.replace(byIdAndVersion(animal.getId(), expectedVersion), animal)
+                .getMatchedCount() > 0;
+    }
+
+    @Override
+    public Animal patchIfVersion(String id, long expectedVersion, AnimalPatchDto patch, Instant updated) {
+        Update update = touch(updated);
+        if (patch.getTitle() != null) update.set("title", patch.getTitle());
+        if (patch.getLocated() != null) update.set("located", patch.getLocated());
+        if (patch.getCurrentRoomId() != null) update.set("currentRoomId", patch.getCurrentRoomId());
+        if (patch.getFavouriteRoomIds() != null) update.set("favouriteRoomIds", patch.getFavouriteRoomIds());
+        if (patch.getAddFavouriteRoomIds() != null && !patch.getAddFavouriteRoomIds().isEmpty()) {
+            update.addToSet("favouriteRoomIds").each(patch.getAddFavouriteRoomIds().toArray());
+        }
+        if (patch.getRemoveFavouriteRoomIds() != null && !patch.getRemoveFavouriteRoomIds().isEmpty()) {
+            update.pullAll("favouriteRoomIds", patch.getRemoveFavouriteRoomIds().toArray());
+        }
+
+        return mongoTemplate.findAndModify(byIdAndVersion(id, expectedVersion), update,
+                FindAndModifyOptions.options().returnNew(false), Animal.class);
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Animal> animals) {
+        if (animals.isEmpty()) return Map.of();
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Animal.class);
+        bulk.insert(animals);
+        try {
+            bulk.execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            Map<Integer, String> errors = new HashMap<>();
+            for (BulkWriteError error : e.getErrors()) {
+                errors.put(error.getIndex(), error.getMessage());
+            }
+            return errors;
+        }
+    }
+
+    @Override
+    public long relocateAll(String fromRoomId, String toRoomId, Instant updated) {
+        Query query = Query.query(Criteria.where("currentRoomId").is(fromRoomId));
+        return mongoTemplate.updateMulti(query, relocation(toRoomId, updated), Animal.class).getModifiedCount();
+    }
+
+    /**
+     * Picks the next batch of IDs from the currentRoomId index, then updates only those.
+     * The room condition is repeated in the update so animals moved in the meantime are left alone.
+     */
+    @Override
+    public long relocateBatch(String fromRoomId, String toRoomId, int limit, Instant updated) {
+        Query idQuery = Query.query(Criteria.where("currentRoomId").is(fromRoomId)).limit(limit);
+        idQuery.fields().include("_id");
+        List<String> ids = mongoTemplate.find(idQuery, Animal.class).stream().map(Animal::getId).toList();
+        return relocate(ids, fromRoomId, toRoomId, updated);
+    }
+
+    @Override
+    public List<String> findIdsInRoom(String roomId) {
+        Query query = Query.query(Criteria.where("currentRoomId").is(roomId));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Animal.class).stream().map(Animal::getId).toList();
+    }
+
+    @Override
+    public long relocate(Collection<String> ids, String fromRoomId, String toRoomId, Instant updated) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        Query query = Query.query(Criteria.where("_id").in(ids).and("currentRoomId").is(fromRoomId));
+        return mongoTemplate.updateMulti(query, relocation(toRoomId, updated), Animal.class).getModifiedCount();
+    }
+
+    @Override
+    public long pullFavouriteRoomBatch(String roomId, int limit, Instant updated) {
+        Query idQuery = Query.query(Criteria.where("favouriteRoomIds").is(roomId)).limit(limit);
+        idQuery.fields().include("_id");
+        List<String> ids = mongoTemplate.find(idQuery, Animal.class).stream().map(Animal::getId).toList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        Query query = Query.query(Criteria.where("_id").in(ids).and("favouriteRoomIds").is(roomId));
+        return mongoTemplate.updateMulti(query, touch(updated).pull("favouriteRoomIds", roomId), Animal.class)
+                .getModifiedCount();
+    }
+
+    @Override
+    public List<Animal> findInRoomAfter(String roomId, String sortBy, Sort.Direction direction,
+                                        Object afterValue, String afterId, int limit) {
+        Criteria criteria = Criteria.where("currentRoomId").is(roomId);
+        if (afterId != null) {
+            criteria = criteria.andOperator(KeysetCriteria.after(sortBy, direction, afterValue, afterId));
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(direction, sortBy).and(Sort.by(direction, "_id")))
+                .limit(limit);
+        return mongoTemplate.find(query, Animal.class);
+    }
+
+    @Override
+    public long countInRoomUpTo(String roomId, int cap) {
+        Query query = Query.query(Criteria.where("currentRoomId").is(roomId)).limit(cap);
+        return mongoTemplate.count(query, Animal.class);
+    }
+
+    private static Update relocation(String toRoomId, Instant updated) {
+        Update update = touch(updated);
+        return toRoomId == null ? update.unset("currentRoomId") : update.set("currentRoomId", toRoomId);
+    }
+
+    private Animal modify(Query query, Update update) {
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Animal.class);
+    }
+
+    /**
+     * Every write bumps the updated timestamp and the version.
+     */
+    private static Update touch(Instant updated) {
+        return new Update().set("updated", updated).inc("version", 1);
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+
+    /**
+     * Matches the animal only at the expected version; a missing version field counts as version 0.
+     */
+    private static Query byIdAndVersion(String id, long expectedVersion) {
+        Criteria criteria = Criteria.where("_id").is(id);
+        if (expectedVersion == 0) {
+            criteria.and("version").in(0L, null);
+        } else {
+            criteria.and("version").is(expectedVersion);
+        }
+        return Query.query(criteria);
+    }
+}
@@ -0,0 +1,7 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.respository.entity.ChangeStreamToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ChangeStreamTokenRepository extends MongoRepository<ChangeStreamToken, String> {
+}
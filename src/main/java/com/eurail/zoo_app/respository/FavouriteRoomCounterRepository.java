@@ -0,0 +1,8 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.respository.entity.FavouriteRoomCounter;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface FavouriteRoomCounterRepository
+        extends MongoRepository<FavouriteRoomCounter, String>, FavouriteRoomCounterRepositoryCustom {
+}
@@ -0,0 +1,65 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.controller.dto.FavouriteRoomStatsDto;
+import com.eurail.zoo_app.controller.dto.TopFavouriteRoomDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Atomic maintenance and read operations for the favourite-room counters collection.
+ */
+public interface FavouriteRoomCounterRepositoryCustom {
+
+    /**
+     * Applies {@code $inc} with the given delta to the counter of every room in one unordered bulk write.
+     * Missing counters are created (upsert).
+     *
+     * @param roomIds the rooms whose counters change
+     * @param delta   the amount to add, negative to decrement
+     */
+    void increment(Collection<String> roomIds, long delta);
+
+    /**
+     * Applies a per-room delta in one unordered bulk write.
+     *
+     * @param deltas room id to amount to add
+     */
+    void incrementAll(Map<String, Long> deltas);
+
+    /**
+     * Loads every counter as a room id to count map.
+     */
+    Map<String, Long> findAllCounts();
+
+    /**
+     * Sets each room's counter to its target value in one unordered bulk write, but only while the counter
+     * still holds the value in {@code read}; a room missing from {@code read} must still have no counter
+     * (or 0). Counters that changed in the meantime are left alone.
+     *
+     * @param targets room id to the value its counter should have
+     * @param read    room id to the value read before the targets were computed
+     * @return the number of counters that were set
+     */
+    int setCountsIfUnchanged(Map<String, Long> targets, Map<String, Long> read);
+
+    /**
+     * Removes counters that dropped to zero or below.
+     *
+     * @return the number of removed counters
+     */
+    long deleteEmpty();
+
+    /**
+     * Sums the counters of existing rooms grouped by room title.
+     */
+    List<FavouriteRoomStatsDto> aggregateStatsByTitle();
+
+    /**
+     * Returns the {@code k} existing rooms with the highest favourite counts.
+     *
+     * @param k maximum number of rooms to return
+     */
+    List<TopFavouriteRoomDto> findTop(int k);
+}
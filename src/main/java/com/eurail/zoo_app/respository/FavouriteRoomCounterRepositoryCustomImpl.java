@@ -0,0 +1,145 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.controller.dto.FavouriteRoomStatsDto;
+import com.eurail.zoo_app.controller.dto.TopFavouriteRoomDto;
+import com.eurail.zoo_app.respository.entity.FavouriteRoomCounter;
+import com.eurail.zoo_app.respository.entity.Room;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+
+public class FavouriteRoomCounterRepositoryCustomImpl implements FavouriteRoomCounterRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public FavouriteRoomCounterRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void increment(Collection<String> roomIds, long delta) {
+        if (roomIds == null || roomIds.isEmpty() || delta == 0) return;
+
+        Map<String, Long> deltas = new HashMap<>();
+        for (String roomId : roomIds) {
+            deltas.merge(roomId, delta, Long::sum);
+        }
+        incrementAll(deltas);
+    }
+
+    @Override
+    public void incrementAll(Map<String, Long> deltas) {
+        if (deltas == null || deltas.isEmpty()) return;
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FavouriteRoomCounter.class);
+        Instant now = Instant.now();
+        boolean pending = false;
+        for (Map.Entry<String, Long> e : deltas.entrySet()) {
+            if (e.getValue() == 0) continue;
+            bulk.upsert(Query.query(Criteria.where("_id").is(e.getKey())),
+                    new Update().inc("count", e.getValue()).set("updated", now));
+            pending = true;
+        }
+        if (pending) {
+            bulk.execute();
+        }
+    }
+
+    @Override
+    public Map<String, Long> findAllCounts() {
+        Query query = new Query();
+        query.fields().include("count");
+
+        Map<String, Long> counts = new HashMap<>();
+        mongoTemplate.stream(query, FavouriteRoomCounter.class)
+                .forEach(c -> counts.put(c.getId(), c.getCount()));
+        return counts;
+    }
+
+    /**
+     * Counters that did not exist when read are matched with {@code count} 0 or missing and upserted. If
+     * one was created in the meantime, the insert fails with a duplicate key and only that write is lost.
+     */
+    @Override
+    public int setCountsIfUnchanged(Map<String, Long> targets, Map<String, Long> read) {
+        if (targets == null || targets.isEmpty()) return 0;
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FavouriteRoomCounter.class);
+        Instant now = Instant.now();
+        for (Map.Entry<String, Long> e : targets.entrySet()) {
+            Update update = new Update().set("count", e.getValue()).set("updated", now);
+            Long previous = read.get(e.getKey());
+            if (previous == null) {
+                bulk.upsert(Query.query(Criteria.where("_id").is(e.getKey()).and("count").in(0L, null)), update);
+            } else {
+                bulk.updateOne(Query.query(Criteria.where("_id").is(e.getKey()).and("count").is(previous)), update);
+            }
+        }
+
+        BulkWriteResult result;
+        try {
+            result = bulk.execute();
+        } catch (BulkOperationException e) {
+            result = e.getResult();
+        }
+        return result.getModifiedCount() + result.getUpserts().size();
+    }
+
+    @Override
+    public long deleteEmpty() {
+        return mongoTemplate.remove(Query.query(Criteria.where("count").lte(0)), FavouriteRoomCounter.class)
+                .getDeletedCount();
+    }
+
+    @Override
+    public List<FavouriteRoomStatsDto> aggregateStatsByTitle() {
+        Aggregation aggregation = newAggregation(
+                match(Criteria.where("count").gt(0)),
+                lookup(mongoTemplate.getCollectionName(Room.class), "_id", "_id", "room"),
+                unwind("room"),
+                group("room.title").sum("count").as("count")
+        );
+
+        List<FavouriteRoomStatsDto> stats = new ArrayList<>();
+        mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(FavouriteRoomCounter.class), Document.class)
+                .forEach(doc -> stats.add(new FavouriteRoomStatsDto(
+                        doc.getString("_id"),
+                        ((Number) doc.get("count")).longValue())));
+        return stats;
+    }
+
+    /**
+     * Sorting on the counter happens before the join, and the limit after it, so rooms that
+     * were deleted do not reduce the number of returned entries.
+     */
+    @Override
+    public List<TopFavouriteRoomDto> findTop(int k) {
+        Aggregation aggregation = newAggregation(
+                match(Criteria.where("count").gt(0)),
+                sort(Sort.by(Sort.Order.desc("count"), Sort.Order.asc("_id"))),
+                lookup(mongoTemplate.getCollectionName(Room.class), "_id", "_id", "room"),
+                unwind("room"),
+                limit(k)
+        );
+
+        List<TopFavouriteRoomDto> top = new ArrayList<>();
+        mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(FavouriteRoomCounter.class), Document.class)
+                .forEach(doc -> top.add(new TopFavouriteRoomDto(
+                        String.valueOf(doc.get("_id")),
+                        doc.get("room", Document.class).getString("title"),
+                        ((Number) doc.get("count")).longValue())));
+        return top;
+    }
+}
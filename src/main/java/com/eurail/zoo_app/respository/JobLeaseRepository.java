@@ -0,0 +1,7 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.respository.entity.JobLease;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface JobLeaseRepository extends MongoRepository<JobLease, String>, JobLeaseRepositoryCustom {
+}
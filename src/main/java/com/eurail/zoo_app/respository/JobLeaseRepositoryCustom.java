@@ -0,0 +1,21 @@
+package com.eurail.zoo_app.respository;
+
+import java.time.Instant;
+
+/**
+ * Lease-based mutual exclusion for jobs that must run on one replica at a time.
+ */
+public interface JobLeaseRepositoryCustom {
+
+    /**
+     * Atomically takes the lease on {@code job} if it is free, expired or already held by {@code owner}.
+     *
+     * @return false if another owner holds an unexpired lease
+     */
+    boolean tryAcquire(String job, String owner, Instant now, Instant leaseUntil);
+
+    /**
+     * Releases the lease, as long as {@code owner} still holds it.
+     */
+    void release(String job, String owner);
+}
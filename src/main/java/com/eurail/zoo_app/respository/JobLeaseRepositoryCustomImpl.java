@@ -0,0 +1,51 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.respository.entity.JobLease;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+
+public class JobLeaseRepositoryCustomImpl implements JobLeaseRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public JobLeaseRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Upsert matching only a free, expired or own lease. When another owner holds the lease the
+     * filter matches nothing and the insert of the same id fails with a duplicate key.
+     */
+    @Override
+    public boolean tryAcquire(String job, String owner, Instant now, Instant leaseUntil) {
+        Query query = Query.query(Criteria.where("_id").is(job)
+                .orOperator(Criteria.where("leaseUntil").is(null),
+                        Criteria.where("leaseUntil").lt(now),
+                        Criteria.where("owner").is(owner)));
+        Update update = new Update()
+                .set("owner", owner)
+                .set("leaseUntil", leaseUntil)
+                .set("updated", now);
+        try {
+            mongoTemplate.upsert(query, update, JobLease.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void release(String job, String owner) {
+        Update update = new Update()
+                .unset("owner")
+                .unset("leaseUntil")
+                .set("updated", Instant.now());
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(job).and("owner").is(owner)),
+                update, JobLease.class);
+    }
+}
@@ -0,0 +1,36 @@
+package com.eurail.zoo_app.respository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+/**
+ * Keyset pagination conditions shared by the scroll queries, for a sort on one field then {@code _id}.
+ */
+final class KeysetCriteria {
+
+    private KeysetCriteria() {
+    }
+
+    /**
+     * Builds "comes after (value, id)" for the given direction as a single range on the sort field
+     * plus a {@code $nor} that drops the already returned entries with the same value. Unlike an
+     * {@code $or} of two ranges this stays one index scan in sort order, so no in-memory sort is needed.
+     * Comparison operators never match null, so null sort values (first ascending, last descending)
+     * are handled explicitly.
+     */
+    static Criteria after(String field, Sort.Direction direction, Object value, String id) {
+        boolean asc = direction.isAscending();
+        if (value == null) {
+            return asc
+                    ? new Criteria().norOperator(Criteria.where(field).is(null).and("_id").lte(id))
+                    : Criteria.where(field).is(null).and("_id").lt(id);
+        }
+
+        // $not/$gt also matches nulls, which come last in descending order
+        Criteria range = asc ? Criteria.where(field).gte(value) : Criteria.where(field).not().gt(value);
+        Criteria seen = asc
+                ? Criteria.where(field).is(value).and("_id").lte(id)
+                : Criteria.where(field).is(value).and("_id").gte(id);
+        return range.norOperator(seen);
+    }
+}
@@ -0,0 +1,18 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.respository.entity.Animal;
+import org.springframework.data.domain.Pageable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link AnimalRepository}, used by the reactive profile.
+ */
+@Profile("reactive")
+public interface ReactiveAnimalRepository extends ReactiveMongoRepository<Animal, String>, ReactiveAnimalRepositoryCustom {
+    Flux<Animal> findByCurrentRoomId(String roomId, Pageable pageable);
+
+    Mono<Long> countByCurrentRoomId(String roomId);
+}
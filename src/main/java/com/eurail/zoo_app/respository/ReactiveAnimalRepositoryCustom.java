@@ -0,0 +1,55 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.respository.entity.Animal;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Atomic single-document writes of {@link AnimalRepositoryCustom}, returning publishers instead of blocking.
+ * Every write bumps {@code updated} and {@code version}; an empty result means no document matched.
+ */
+public interface ReactiveAnimalRepositoryCustom {
+
+    /**
+     * Loads only the current room and favourite room IDs of an animal; empty if the animal does not exist.
+     */
+    Mono<Animal> findRoomReferences(String id);
+
+    /**
+     * Sets the current room and emits the animal as it was before, so the previous room's occupancy can be adjusted.
+     */
+    Mono<Animal> setCurrentRoom(String id, String roomId, Instant updated);
+
+    /**
+     * Clears the current room and emits the animal as it was before.
+     */
+    Mono<Animal> unsetCurrentRoom(String id, Instant updated);
+
+    /**
+     * Adds the room with {@code $addToSet}; empty if the animal does not exist or already has the favourite.
+     */
+    Mono<Animal> addFavouriteRoom(String id, String roomId, Instant updated);
+
+    /**
+     * Removes the room with {@code $pull}; empty if the animal does not exist or does not have the favourite.
+     */
+    Mono<Animal> removeFavouriteRoom(String id, String roomId, Instant updated);
+
+    /**
+     * Deletes the animal with findAndRemove and returns its current room and favourite room IDs.
+     */
+    Mono<Animal> deleteAndReturn(String id);
+
+    /**
+     * Replaces the stored animal, but only if the stored version still equals {@code expectedVersion};
+     * like {@link AnimalRepositoryCustom#replaceIfVersion}. Emits false if nothing was replaced.
+     */
+    Mono<Boolean> replaceIfVersion(Animal animal, long expectedVersion);
+
+    /**
+     * Streams animals for an export, optionally filtered by current room and last update.
+     */
+    Flux<Animal> findForExport(String roomId, Instant updatedSince);
+}
@@ -0,0 +1,104 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.respository.entity.Animal;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+public class ReactiveAnimalRepositoryCustomImpl implements ReactiveAnimalRepositoryCustom {
+
+    private static final int EXPORT_BATCH_SIZE = 1000;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveAnimalRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Animal> findRoomReferences(String id) {
+        Query query = byId(id);
+        query.fields().include("currentRoomId", "favouriteRoomIds");
+        return mongoTemplate.findOne(query, Animal.class);
+    }
+
+    @Override
+    public Mono<Animal> setCurrentRoom(String id, String roomId, Instant updated) {
+        return mongoTemplate.findAndModify(byId(id), touch(updated).set("currentRoomId", roomId),
+                FindAndModifyOptions.options().returnNew(false), Animal.class);
+    }
+
+    @Override
+    public Mono<Animal> unsetCurrentRoom(String id, Instant updated) {
+        return mongoTemplate.findAndModify(byId(id), touch(updated).unset("currentRoomId"),
+                FindAndModifyOptions.options().returnNew(false), Animal.class);
+    }
+
+    @Override
+    public Mono<Animal> addFavouriteRoom(String id, String roomId, Instant updated) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("favouriteRoomIds").ne(roomId));
+        return modify(query, touch(updated).addToSet("favouriteRoomIds", roomId));
+    }
+
+    @Override
+    public Mono<Animal> removeFavouriteRoom(String id, String roomId, Instant updated) {
+        Query query = Query.query(Criteria.where("_id").is(id).and("favouriteRoomIds").is(roomId));
+        return modify(query, touch(updated).pull("favouriteRoomIds", roomId));
+    }
+
+    @Override
+    public Mono<Animal> deleteAndReturn(String id) {
+        Query query = byId(id);
+        query.fields().include("currentRoomId", "favouriteRoomIds");
+        return mongoTemplate.findAndRemove(query, Animal.class);
+    }
+
+    @Override
+    public Mono<Boolean> replaceIfVersion(Animal animal, long expectedVersion) {
+        return mongoTemplate.replace(byIdAndVersion(animal.getId(), expectedVersion), animal)
+                .map(result -> result.getMatchedCount() > 0);
+    }
+
+    @Override
+    public Flux<Animal> findForExport(String roomId, Instant updatedSince) {
+        Query query = new Query();
+        if (roomId != null) query.addCriteria(Criteria.where("currentRoomId").is(roomId));
+        if (updatedSince != null) query.addCriteria(Criteria.where("updated").gte(updatedSince));
+        query.cursorBatchSize(EXPORT_BATCH_SIZE);
+        return mongoTemplate.find(query, Animal.class);
+    }
+
+    private Mono<Animal> modify(Query query, Update update) {
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Animal.class);
+    }
+
+    /**
+     * Every write bumps the updated timestamp and the version.
+     */
+    private static Update touch(Instant updated) {
+        return new Update().set("updated", updated).inc("version", 1);
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+
+    /**
+     * Matches the animal only at the expected version; a missing version field counts as version 0.
+     */
+    private static Query byIdAndVersion(String id, long expectedVersion) {
+        Criteria criteria = Criteria.where("_id").is(id);
+        if (expectedVersion == 0) {
+            criteria.and("version").in(0L, null);
+        } else {
+            criteria.and("version").is(expectedVersion);
+        }
+        return Query.query(criteria);
+    }
+}
@@ -0,0 +1,13 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.respository.entity.FavouriteRoomCounter;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+/**
+ * Non-blocking counterpart of {@link FavouriteRoomCounterRepository}, used by the reactive profile.
+ */
+@Profile("reactive")
+public interface ReactiveFavouriteRoomCounterRepository
+        extends ReactiveMongoRepository<FavouriteRoomCounter, String>, ReactiveFavouriteRoomCounterRepositoryCustom {
+}
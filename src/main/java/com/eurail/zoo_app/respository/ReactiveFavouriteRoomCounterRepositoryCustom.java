@@ -0,0 +1,18 @@
+package com.eurail.zoo_app.respository;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Counter maintenance of {@link FavouriteRoomCounterRepositoryCustom}, returning publishers instead of blocking.
+ */
+public interface ReactiveFavouriteRoomCounterRepositoryCustom {
+
+    /**
+     * Applies a per-room delta in one unordered bulk write. Missing counters are created (upsert).
+     *
+     * @param deltas room id to amount to add
+     */
+    Mono<Void> incrementAll(Map<String, Long> deltas);
+}
@@ -0,0 +1,36 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.respository.entity.FavouriteRoomCounter;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class ReactiveFavouriteRoomCounterRepositoryCustomImpl implements ReactiveFavouriteRoomCounterRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveFavouriteRoomCounterRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Void> incrementAll(Map<String, Long> deltas) {
+        if (deltas == null || deltas.values().stream().allMatch(d -> d == 0)) return Mono.empty();
+
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FavouriteRoomCounter.class);
+        Instant now = Instant.now();
+        for (Map.Entry<String, Long> e : deltas.entrySet()) {
+            if (e.getValue() == 0) continue;
+            bulk.upsert(Query.query(Criteria.where("_id").is(e.getKey())),
+                    new Update().inc("count", e.getValue()).set("updated", now));
+        }
+        return bulk.execute().then();
+    }
+}
@@ -0,0 +1,16 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.respository.entity.Room;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+/**
+ * Non-blocking counterpart of {@link RoomRepository}, used by the reactive profile.
+ */
+@Profile("reactive")
+public interface ReactiveRoomRepository extends ReactiveMongoRepository<Room, String>, ReactiveRoomRepositoryCustom {
+    Flux<Room> findByUpdatedGreaterThanEqual(Instant updatedSince);
+}
@@ -0,0 +1,27 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.respository.entity.Room;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Atomic room writes of {@link RoomRepositoryCustom}, returning publishers instead of blocking.
+ */
+public interface ReactiveRoomRepositoryCustom {
+
+    /**
+     * Sets the title with a single findAndModify and increments the version, leaving the occupancy counter alone.
+     * Empty if the room does not exist.
+     */
+    Mono<Room> setTitle(String id, String title, Instant updated);
+
+    /**
+     * Applies a per-room {@code $inc} to the occupancy counters in one unordered bulk write, like
+     * {@link RoomRepositoryCustom#incrementOccupancy}. Rooms that do not exist are skipped.
+     *
+     * @param deltas room id to number of animals added, negative for animals that left
+     */
+    Mono<Void> incrementOccupancy(Map<String, Long> deltas);
+}
@@ -0,0 +1,42 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.respository.entity.Room;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class ReactiveRoomRepositoryCustomImpl implements ReactiveRoomRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveRoomRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Room> setTitle(String id, String title, Instant updated) {
+        Update update = new Update().set("updated", updated).inc("version", 1).set("title", title);
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(true), Room.class);
+    }
+
+    @Override
+    public Mono<Void> incrementOccupancy(Map<String, Long> deltas) {
+        if (deltas == null || deltas.values().stream().allMatch(d -> d == 0)) return Mono.empty();
+
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Room.class);
+        for (Map.Entry<String, Long> e : deltas.entrySet()) {
+            if (e.getValue() == 0) continue;
+            bulk.updateOne(Query.query(Criteria.where("_id").is(e.getKey())), new Update().inc("occupancy", e.getValue()));
+        }
+        return bulk.execute().then();
+    }
+}
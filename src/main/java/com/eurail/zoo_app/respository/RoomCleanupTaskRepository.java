@@ -0,0 +1,8 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.respository.entity.RoomCleanupTask;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface RoomCleanupTaskRepository
+        extends MongoRepository<RoomCleanupTask, String>, RoomCleanupTaskRepositoryCustom {
+}
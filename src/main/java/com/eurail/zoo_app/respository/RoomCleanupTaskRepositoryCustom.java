@@ -0,0 +1,36 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.respository.entity.RoomCleanupTask;
+
+import java.time.Instant;
+
+/**
+ * Lease-based claiming and progress tracking for room cleanup tasks.
+ */
+public interface RoomCleanupTaskRepositoryCustom {
+
+    /**
+     * Queues a cleanup for the room. Queuing a room twice keeps the existing task.
+     */
+    void enqueue(String roomId, Instant now);
+
+    /**
+     * Atomically claims the oldest unfinished task whose lease is free or expired.
+     *
+     * @return the claimed task, or null if there is nothing to do
+     */
+    RoomCleanupTask claimNext(String owner, Instant now, Instant leaseUntil);
+
+    /**
+     * Adds one batch worth of progress and extends the lease, as long as {@code owner} still holds it.
+     *
+     * @return false if the lease was lost to another worker
+     */
+    boolean recordProgress(String roomId, String owner, long currentRoomCleared, long favouritesCleared,
+                           Instant now, Instant leaseUntil);
+
+    /**
+     * Marks the task done and releases the lease.
+     */
+    void complete(String roomId, String owner, Instant now);
+}
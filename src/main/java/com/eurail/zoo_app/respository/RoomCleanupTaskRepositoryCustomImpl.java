@@ -0,0 +1,80 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.respository.entity.RoomCleanupTask;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+
+public class RoomCleanupTaskRepositoryCustomImpl implements RoomCleanupTaskRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public RoomCleanupTaskRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Upsert with {@code $setOnInsert}, so a repeated delete does not reset the progress of a running task.
+     */
+    @Override
+    public void enqueue(String roomId, Instant now) {
+        Update update = new Update()
+                .setOnInsert("status", RoomCleanupTask.Status.PENDING)
+                .setOnInsert("created", now)
+                .setOnInsert("updated", now)
+                .setOnInsert("currentRoomCleared", 0L)
+                .setOnInsert("favouritesCleared", 0L)
+                .setOnInsert("batches", 0);
+        mongoTemplate.upsert(byId(roomId), update, RoomCleanupTask.class);
+    }
+
+    @Override
+    public RoomCleanupTask claimNext(String owner, Instant now, Instant leaseUntil) {
+        Query query = Query.query(Criteria.where("status").in(RoomCleanupTask.Status.PENDING, RoomCleanupTask.Status.RUNNING)
+                        .orOperator(Criteria.where("leaseUntil").is(null), Criteria.where("leaseUntil").lt(now)))
+                .with(Sort.by("created"));
+        Update update = new Update()
+                .set("status", RoomCleanupTask.Status.RUNNING)
+                .set("owner", owner)
+                .set("leaseUntil", leaseUntil)
+                .set("updated", now);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                RoomCleanupTask.class);
+    }
+
+    @Override
+    public boolean recordProgress(String roomId, String owner, long currentRoomCleared, long favouritesCleared,
+                                  Instant now, Instant leaseUntil) {
+        Update update = new Update()
+                .inc("currentRoomCleared", currentRoomCleared)
+                .inc("favouritesCleared", favouritesCleared)
+                .inc("batches", 1)
+                .set("leaseUntil", leaseUntil)
+                .set("updated", now);
+        return mongoTemplate.updateFirst(ownedBy(roomId, owner), update, RoomCleanupTask.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public void complete(String roomId, String owner, Instant now) {
+        Update update = new Update()
+                .set("status", RoomCleanupTask.Status.DONE)
+                .set("completed", now)
+                .set("updated", now)
+                .unset("owner")
+                .unset("leaseUntil");
+        mongoTemplate.updateFirst(ownedBy(roomId, owner), update, RoomCleanupTask.class);
+    }
+
+    private static Query ownedBy(String roomId, String owner) {
+        return Query.query(Criteria.where("_id").is(roomId).and("owner").is(owner));
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+}
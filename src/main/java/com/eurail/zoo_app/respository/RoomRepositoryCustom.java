@@ -0,0 +1,94 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.controller.dto.RoomPatchDto;
+import com.eurail.zoo_app.respository.entity.Room;
+
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Custom repository operations for {@link Room}.
+ */
+public interface RoomRepositoryCustom {
+
+    /**
+     * Applies the non-null fields of a patch as a single {@code $set} and increments the version,
+     * but only if the stored version still equals {@code expectedVersion}.
+     * Documents without a version field are treated as version 0.
+     *
+     * @return the updated room, or null if it does not exist or the version did not match
+     */
+    Room patchIfVersion(String id, long expectedVersion, RoomPatchDto patch, Instant updated);
+
+    /**
+     * Loads only the version and updated timestamp of a room, for conditional requests.
+     *
+     * @return the room with only id, version and updated set, or empty if it does not exist
+     */
+    Optional<Room> findVersionInfo(String id);
+
+    /**
+     * Sets the title with a single findAndModify and increments the version. Unlike a replace this
+     * leaves the occupancy counter alone.
+     *
+     * @return the updated room, or null if it does not exist
+     */
+    Room setTitle(String id, String title, Instant updated);
+
+    /**
+     * Same as {@link #setTitle} but only if the stored version still equals {@code expectedVersion}.
+     * Documents without a version field are treated as version 0.
+     *
+     * @return the updated room, or null if it does not exist or the version did not match
+     */
+    Room setTitleIfVersion(String id, long expectedVersion, String title, Instant updated);
+
+    /**
+     * Deletes a room, but only if the stored version still equals {@code expectedVersion}.
+     *
+     * @return true if the room was deleted
+     */
+    boolean deleteIfVersion(String id, long expectedVersion);
+
+    /**
+     * Applies a per-room {@code $inc} to the occupancy counters in one unordered bulk write.
+     * Rooms that do not exist are skipped; the room's version and update time are not touched.
+     *
+     * @param deltas room id to number of animals added, negative for animals that left
+     */
+    void incrementOccupancy(Map<String, Long> deltas);
+
+    /**
+     * Sets each room's occupancy counter to its target value in one unordered bulk write, but only while
+     * the counter still holds the value in {@code read}, like
+     * {@link FavouriteRoomCounterRepositoryCustom#setCountsIfUnchanged}. A read value of 0 also matches
+     * a room without a counter. The room's version and update time are not touched.
+     *
+     * @return the number of counters that were set
+     */
+    int setOccupancyIfUnchanged(Map<String, Long> targets, Map<String, Long> read);
+
+    /**
+     * Loads every room's occupancy counter as a room id to count map; rooms without one map to 0.
+     */
+    Map<String, Long> findAllOccupancies();
+
+    /**
+     * Sets the occupancy counter to 0 on rooms that do not have one yet.
+     *
+     * @return the number of rooms updated
+     */
+    long initMissingOccupancy();
+
+    /**
+     * Keyset page of all rooms ordered by {@code sortBy} then {@code _id}, like
+     * {@link AnimalRepositoryCustom#findInRoomAfter}. Only id, title and occupancy are read.
+     *
+     * @param afterId null for the first page
+     */
+    List<Room> findAfter(String sortBy, Sort.Direction direction, Object afterValue, String afterId, int limit);
+}
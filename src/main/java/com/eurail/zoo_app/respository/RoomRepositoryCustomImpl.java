@@ -0,0 +1,140 @@
+package com.eurail.zoo_app.respository;
+
+import com.eurail.zoo_app.controller.dto.RoomPatchDto;
+import com.eurail.zoo_app.respository.entity.Room;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class RoomRepositoryCustomImpl implements RoomRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public RoomRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Room patchIfVersion(String id, long expectedVersion, RoomPatchDto patch, Instant updated) {
+        Update update = touch(updated);
+        if (patch.getTitle() != null) update.set("title", patch.getTitle());
+
+        return mongoTemplate.findAndModify(byIdAndVersion(id, expectedVersion), update,
+                FindAndModifyOptions.options().returnNew(true), Room.class);
+    }
+
+    @Override
+    public Optional<Room> findVersionInfo(String id) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("version", "updated");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Room.class));
+    }
+
+    @Override
+    public Room setTitle(String id, String title, Instant updated) {
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(id)), touch(updated).set("title", title),
+                FindAndModifyOptions.options().returnNew(true), Room.class);
+    }
+
+    @Override
+    public Room setTitleIfVersion(String id, long expectedVersion, String title, Instant updated) {
+        return mongoTemplate.findAndModify(byIdAndVersion(id, expectedVersion), touch(updated).set("title", title),
+                FindAndModifyOptions.options().returnNew(true), Room.class);
+    }
+
+    @Override
+    public boolean deleteIfVersion(String id, long expectedVersion) {
+        return mongoTemplate.remove(byIdAndVersion(id, expectedVersion), Room.class).getDeletedCount() > 0;
+    }
+
+    @Override
+    public void incrementOccupancy(Map<String, Long> deltas) {
+        if (deltas == null || deltas.isEmpty()) return;
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Room.class);
+        boolean pending = false;
+        for (Map.Entry<String, Long> e : deltas.entrySet()) {
+            if (e.getValue() == 0) continue;
+            bulk.updateOne(Query.query(Criteria.where("_id").is(e.getKey())), new Update().inc("occupancy", e.getValue()));
+            pending = true;
+        }
+        if (pending) {
+            bulk.execute();
+        }
+    }
+
+    @Override
+    public int setOccupancyIfUnchanged(Map<String, Long> targets, Map<String, Long> read) {
+        if (targets == null || targets.isEmpty()) return 0;
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Room.class);
+        for (Map.Entry<String, Long> e : targets.entrySet()) {
+            long previous = read.getOrDefault(e.getKey(), 0L);
+            Criteria criteria = Criteria.where("_id").is(e.getKey());
+            if (previous == 0) {
+                criteria.and("occupancy").in(0L, null);
+            } else {
+                criteria.and("occupancy").is(previous);
+            }
+            bulk.updateOne(Query.query(criteria), new Update().set("occupancy", e.getValue()));
+        }
+        return bulk.execute().getModifiedCount();
+    }
+
+    @Override
+    public Map<String, Long> findAllOccupancies() {
+        Query query = new Query();
+        query.fields().include("occupancy");
+
+        Map<String, Long> occupancies = new HashMap<>();
+        mongoTemplate.stream(query, Room.class)
+                .forEach(room -> occupancies.put(room.getId(), room.getOccupancy() == null ? 0L : room.getOccupancy()));
+        return occupancies;
+    }
+
+    @Override
+    public long initMissingOccupancy() {
+        return mongoTemplate.updateMulti(Query.query(Criteria.where("occupancy").exists(false)),
+                new Update().set("occupancy", 0L), Room.class).getModifiedCount();
+    }
+
+    @Override
+    public List<Room> findAfter(String sortBy, Sort.Direction direction, Object afterValue, String afterId, int limit) {
+        Query query = afterId == null
+                ? new Query()
+                : Query.query(KeysetCriteria.after(sortBy, direction, afterValue, afterId));
+        query.with(Sort.by(direction, sortBy).and(Sort.by(direction, "_id"))).limit(limit);
+        query.fields().include("title", "occupancy");
+        return mongoTemplate.find(query, Room.class);
+    }
+
+    /**
+     * Every write bumps the updated timestamp and the version.
+     */
+    private static Update touch(Instant updated) {
+        return new Update().set("updated", updated).inc("version", 1);
+    }
+
+    /**
+     * Matches the room only at the expected version; a missing version field counts as version 0.
+     */
+    private static Query byIdAndVersion(String id, long expectedVersion) {
+        Criteria criteria = Criteria.where("_id").is(id);
+        if (expectedVersion == 0) {
+            criteria.and("version").in(0L, null);
+        } else {
+            criteria.and("version").is(expectedVersion);
+        }
+        return Query.query(criteria);
+    }
+}
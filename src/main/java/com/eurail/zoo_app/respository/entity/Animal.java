@@ -3,7 +3,6 @@ package com.eurail.zoo_app.respository.entity;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
@@ -26,10 +25,17 @@ public class Animal {
     @NotNull
     private Instant updated;
 
+    /**
+     * Incremented by every write and used for optimistic concurrency checks.
+     * Managed explicitly rather than with {@code @Version}, so documents written
+     * before the field existed (version missing) keep working with {@code save()}.
+     */
+    private Long version;
+
     @NotNull
     private LocalDate located;
 
-    @Indexed
+    // indexed together with the sort fields, see IndexManager
     private String currentRoomId;
 
     private Set<String> favouriteRoomIds = new HashSet<>();
@@ -102,4 +108,12 @@ public class Animal {
     public void setFavouriteRoomIds(Set<String> favouriteRoomIds) {
         this.favouriteRoomIds = favouriteRoomIds;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
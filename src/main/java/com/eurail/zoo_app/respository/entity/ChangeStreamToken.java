@@ -0,0 +1,60 @@
+package com.eurail.zoo_app.respository.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Last change stream position a replica has processed, so its cache invalidation resumes
+ * there after a reconnect or restart. The document id is the replica's instance id.
+ * Pod names change on every rollout, so tokens not saved for {@link #EXPIRE_AFTER} are removed
+ * by a TTL index; by then they have usually rolled off the oplog and cannot be resumed from anyway.
+ */
+@Document("change_stream_tokens")
+public class ChangeStreamToken {
+
+    public static final Duration EXPIRE_AFTER = Duration.ofDays(1);
+
+    @Id
+    private String id;
+
+    // the resume token as extended JSON
+    private String resumeToken;
+
+    private Instant updated;
+
+    public ChangeStreamToken() {
+    }
+
+    public ChangeStreamToken(String id, String resumeToken, Instant updated) {
+        this.id = id;
+        this.resumeToken = resumeToken;
+        this.updated = updated;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getResumeToken() {
+        return resumeToken;
+    }
+
+    public void setResumeToken(String resumeToken) {
+        this.resumeToken = resumeToken;
+    }
+
+    public Instant getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(Instant updated) {
+        this.updated = updated;
+    }
+}
@@ -0,0 +1,54 @@
+package com.eurail.zoo_app.respository.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Number of animals that have a given room among their favourites.
+ * The document id is the room id, so reads are O(rooms) instead of O(animals).
+ */
+@Document("favourite_room_counters")
+public class FavouriteRoomCounter {
+
+    @Id
+    private String id;
+
+    private long count;
+
+    private Instant updated;
+
+    public FavouriteRoomCounter() {
+    }
+
+    public FavouriteRoomCounter(String id, long count, Instant updated) {
+        this.id = id;
+        this.count = count;
+        this.updated = updated;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public Instant getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(Instant updated) {
+        this.updated = updated;
+    }
+}
@@ -0,0 +1,59 @@
+package com.eurail.zoo_app.respository.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Lease on a scheduled job that every replica fires but only one should run, e.g. a counter
+ * reconciliation. The document id is the job name. Like {@link RoomCleanupTask}, a lease left
+ * behind by a crashed instance can be taken over once it expires.
+ */
+@Document("job_leases")
+public class JobLease {
+
+    @Id
+    private String id;
+
+    private String owner;
+
+    private Instant leaseUntil;
+
+    private Instant updated;
+
+    public JobLease() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public Instant getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public void setLeaseUntil(Instant leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+
+    public Instant getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(Instant updated) {
+        this.updated = updated;
+    }
+}
@@ -22,6 +22,12 @@ public class Room {
     @NotNull
     private Instant updated;
 
+    // Write counter for optimistic concurrency, managed the same way as Animal.version
+    private Long version;
+
+    // Number of animals whose current room this is, only ever changed with $inc
+    private Long occupancy;
+
     public Room() {
     }
 
@@ -63,4 +69,20 @@ public class Room {
     public void setUpdated(Instant updated) {
         this.updated = updated;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Long getOccupancy() {
+        return occupancy;
+    }
+
+    public void setOccupancy(Long occupancy) {
+        this.occupancy = occupancy;
+    }
 }
@@ -0,0 +1,128 @@
+package com.eurail.zoo_app.respository.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Pending removal of references to a deleted room from the animals collection.
+ * The document id is the deleted room's id. A worker claims the task by setting a lease,
+ * so a task left behind by a crashed instance is picked up again once the lease expires.
+ */
+@Document("room_cleanup_tasks")
+public class RoomCleanupTask {
+
+    public enum Status { PENDING, RUNNING, DONE }
+
+    @Id
+    private String id;
+
+    private Status status;
+
+    private String owner;
+
+    private Instant leaseUntil;
+
+    private long currentRoomCleared;
+
+    private long favouritesCleared;
+
+    private int batches;
+
+    private Instant created;
+
+    private Instant updated;
+
+    private Instant completed;
+
+    public RoomCleanupTask() {
+    }
+
+    public RoomCleanupTask(String id, Instant created) {
+        this.id = id;
+        this.status = Status.PENDING;
+        this.created = created;
+        this.updated = created;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public Instant getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public void setLeaseUntil(Instant leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+
+    public long getCurrentRoomCleared() {
+        return currentRoomCleared;
+    }
+
+    public void setCurrentRoomCleared(long currentRoomCleared) {
+        this.currentRoomCleared = currentRoomCleared;
+    }
+
+    public long getFavouritesCleared() {
+        return favouritesCleared;
+    }
+
+    public void setFavouritesCleared(long favouritesCleared) {
+        this.favouritesCleared = favouritesCleared;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public void setBatches(int batches) {
+        this.batches = batches;
+    }
+
+    public Instant getCreated() {
+        return created;
+    }
+
+    public void setCreated(Instant created) {
+        this.created = created;
+    }
+
+    public Instant getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(Instant updated) {
+        this.updated = updated;
+    }
+
+    public Instant getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Instant completed) {
+        this.completed = completed;
+    }
+}
@@ -0,0 +1,90 @@
+package com.eurail.zoo_app.respository.index;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Collation;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One index the application relies on: the collection, a stable name, the ordered key fields
+ * and, if the queries it serves use one, a collation. Queries only use an index whose collation
+ * matches their own, so a collation must be declared here and on the query together.
+ * A TTL index also declares how long after its date field a document expires.
+ */
+public class DeclaredIndex {
+
+    private final String collection;
+    private final String name;
+    private final Map<String, Sort.Direction> keys = new LinkedHashMap<>();
+    private Collation collation;
+    private Duration expireAfter;
+
+    private DeclaredIndex(String collection, String name) {
+        this.collection = collection;
+        this.name = name;
+    }
+
+    public static DeclaredIndex on(String collection, String name) {
+        return new DeclaredIndex(collection, name);
+    }
+
+    public DeclaredIndex asc(String field) {
+        keys.put(field, Sort.Direction.ASC);
+        return this;
+    }
+
+    public DeclaredIndex desc(String field) {
+        keys.put(field, Sort.Direction.DESC);
+        return this;
+    }
+
+    public DeclaredIndex collation(Collation collation) {
+        this.collation = collation;
+        return this;
+    }
+
+    public DeclaredIndex expireAfter(Duration expireAfter) {
+        this.expireAfter = expireAfter;
+        return this;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, Sort.Direction> getKeys() {
+        return keys;
+    }
+
+    public Collation getCollation() {
+        return collation;
+    }
+
+    public Duration getExpireAfter() {
+        return expireAfter;
+    }
+
+    Index toIndex() {
+        Index index = new Index().named(name);
+        keys.forEach(index::on);
+        if (collation != null) {
+            index.collation(collation);
+        }
+        if (expireAfter != null) {
+            index.expire(expireAfter);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return collection + "." + name + keys;
+    }
+}
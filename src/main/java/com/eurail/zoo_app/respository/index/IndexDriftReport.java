@@ -0,0 +1,41 @@
+package com.eurail.zoo_app.respository.index;
+
+import java.util.List;
+
+/**
+ * Difference between the declared indexes and the ones that exist in the database.
+ * Entries are formatted as {@code collection.indexName}.
+ */
+public class IndexDriftReport {
+
+    private final List<String> missing;
+    private final List<String> mismatched;
+    private final List<String> undeclared;
+
+    public IndexDriftReport(List<String> missing, List<String> mismatched, List<String> undeclared) {
+        this.missing = missing;
+        this.mismatched = mismatched;
+        this.undeclared = undeclared;
+    }
+
+    public List<String> getMissing() {
+        return missing;
+    }
+
+    public List<String> getMismatched() {
+        return mismatched;
+    }
+
+    public List<String> getUndeclared() {
+        return undeclared;
+    }
+
+    public boolean hasDrift() {
+        return !missing.isEmpty() || !mismatched.isEmpty() || !undeclared.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "missing=" + missing + ", mismatched=" + mismatched + ", undeclared=" + undeclared;
+    }
+}
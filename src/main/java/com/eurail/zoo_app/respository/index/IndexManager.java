@@ -0,0 +1,192 @@
+package com.eurail.zoo_app.respository.index;
+
+import com.eurail.zoo_app.config.IndexProperties;
+import com.eurail.zoo_app.respository.entity.Animal;
+import com.eurail.zoo_app.respository.entity.ChangeStreamToken;
+import com.eurail.zoo_app.respository.entity.FavouriteRoomCounter;
+import com.eurail.zoo_app.respository.entity.Room;
+import com.eurail.zoo_app.respository.entity.RoomCleanupTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Owns the indexes of every collection the application queries.
+ * Spring Boot leaves automatic index creation from {@code @Indexed} off, so the indexes the
+ * queries depend on are declared here, created at startup and compared against what exists.
+ * Any difference is logged as drift.
+ */
+@Component
+@EnableConfigurationProperties(IndexProperties.class)
+public class IndexManager {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexManager.class);
+
+    private static final String ID_INDEX = "_id_";
+
+    private final MongoTemplate mongoTemplate;
+    private final IndexProperties properties;
+    private final List<DeclaredIndex> declared;
+
+    public IndexManager(MongoTemplate mongoTemplate, IndexProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties;
+        this.declared = declare(mongoTemplate);
+    }
+
+    /**
+     * The indexes each query path relies on. The trailing {@code _id} on the room listings
+     * makes the sort total, which keyset pagination needs.
+     */
+    static List<DeclaredIndex> declare(MongoTemplate mongoTemplate) {
+        String animals = mongoTemplate.getCollectionName(Animal.class);
+        String rooms = mongoTemplate.getCollectionName(Room.class);
+        String counters = mongoTemplate.getCollectionName(FavouriteRoomCounter.class);
+        String cleanupTasks = mongoTemplate.getCollectionName(RoomCleanupTask.class);
+        String tokens = mongoTemplate.getCollectionName(ChangeStreamToken.class);
+
+        return List.of(
+                // GET /animals/room/{roomId}[/scroll] sorted by title, evacuation and cleanup batches
+                DeclaredIndex.on(animals, "room_title").asc("currentRoomId").asc("title").asc("_id"),
+                // GET /animals/room/{roomId}[/scroll] sorted by located
+                DeclaredIndex.on(animals, "room_located").asc("currentRoomId").asc("located").asc("_id"),
+                // cleanup of deleted rooms and favourite statistics
+                DeclaredIndex.on(animals, "favourite_rooms").asc("favouriteRoomIds"),
+                // incremental exports (updatedSince)
+                DeclaredIndex.on(animals, "updated").asc("updated"),
+                DeclaredIndex.on(rooms, "updated").asc("updated"),
+                // GET /rooms sorted by title or occupancy
+                DeclaredIndex.on(rooms, "title").asc("title").asc("_id"),
+                DeclaredIndex.on(rooms, "occupancy").asc("occupancy").asc("_id"),
+                // GET /rooms/favourites/top
+                DeclaredIndex.on(counters, "count_desc").desc("count").asc("_id"),
+                // sweeper claiming the oldest open task
+                DeclaredIndex.on(cleanupTasks, "status_created").asc("status").asc("created"),
+                // resume tokens of replicas that are gone (one per pod name)
+                DeclaredIndex.on(tokens, "updated_ttl").asc("updated").expireAfter(ChangeStreamToken.EXPIRE_AFTER)
+        );
+    }
+
+    public List<DeclaredIndex> getDeclared() {
+        return declared;
+    }
+
+    /**
+     * Index management must not keep the application from starting: if the database cannot be
+     * reached or a command fails, the error is logged and startup continues; the next start tries again.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isManageOnStartup()) {
+            log.info("Index management at startup is disabled");
+            return;
+        }
+        try {
+            ensureIndexes();
+        } catch (RuntimeException e) {
+            log.error("Could not check indexes at startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Creates missing declared indexes (if enabled), optionally drops undeclared ones, and logs the remaining drift.
+     */
+    public IndexDriftReport ensureIndexes() {
+        if (properties.isCreateOnStartup()) {
+            for (DeclaredIndex index : declared) {
+                try {
+                    mongoTemplate.indexOps(index.getCollection()).createIndex(index.toIndex());
+                } catch (RuntimeException e) {
+                    // typically an index with the same name but different keys or options already exists
+                    log.error("Could not create index {}: {}", index, e.getMessage());
+                }
+            }
+        }
+
+        IndexDriftReport report = drift();
+        if (properties.isDropUndeclared() && !report.getUndeclared().isEmpty()) {
+            for (String qualified : report.getUndeclared()) {
+                int dot = qualified.indexOf('.');
+                mongoTemplate.indexOps(qualified.substring(0, dot)).dropIndex(qualified.substring(dot + 1));
+                log.warn("Dropped undeclared index {}", qualified);
+            }
+            report = drift();
+        }
+
+        if (report.hasDrift()) {
+            log.warn("Index drift detected: {}", report);
+        } else {
+            log.info("All {} declared indexes are in place", declared.size());
+        }
+        return report;
+    }
+
+    /**
+     * Compares the declared indexes with the ones in the database without changing anything.
+     */
+    public IndexDriftReport drift() {
+        List<String> missing = new ArrayList<>();
+        List<String> mismatched = new ArrayList<>();
+        List<String> undeclared = new ArrayList<>();
+
+        Map<String, List<DeclaredIndex>> byCollection = new LinkedHashMap<>();
+        declared.forEach(d -> byCollection.computeIfAbsent(d.getCollection(), c -> new ArrayList<>()).add(d));
+
+        byCollection.forEach((collection, indexes) -> {
+            IndexOperations ops = mongoTemplate.indexOps(collection);
+            Map<String, IndexInfo> actual = new HashMap<>();
+            ops.getIndexInfo().forEach(info -> actual.put(info.getName(), info));
+
+            Set<String> declaredNames = new HashSet<>();
+            for (DeclaredIndex index : indexes) {
+                declaredNames.add(index.getName());
+                IndexInfo info = actual.get(index.getName());
+                if (info == null) {
+                    missing.add(collection + "." + index.getName());
+                } else if (!sameKeys(index, info) || !sameCollation(index, info) || !sameExpiry(index, info)) {
+                    mismatched.add(collection + "." + index.getName());
+                }
+            }
+            actual.keySet().stream()
+                    .filter(name -> !ID_INDEX.equals(name) && !declaredNames.contains(name))
+                    .sorted()
+                    .forEach(name -> undeclared.add(collection + "." + name));
+        });
+
+        return new IndexDriftReport(missing, mismatched, undeclared);
+    }
+
+    private static boolean sameKeys(DeclaredIndex declared, IndexInfo info) {
+        List<IndexField> fields = info.getIndexFields();
+        if (fields.size() != declared.getKeys().size()) return false;
+
+        int i = 0;
+        for (Map.Entry<String, Sort.Direction> key : declared.getKeys().entrySet()) {
+            IndexField field = fields.get(i++);
+            if (!field.getKey().equals(key.getKey()) || field.getDirection() != key.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameCollation(DeclaredIndex declared, IndexInfo info) {
+        Optional<String> actualLocale = info.getCollation().map(c -> c.getString("locale"));
+        String declaredLocale = declared.getCollation() == null ? null : declared.getCollation().toDocument().getString("locale");
+        return Objects.equals(actualLocale.orElse(null), declaredLocale);
+    }
+
+    private static boolean sameExpiry(DeclaredIndex declared, IndexInfo info) {
+        return Objects.equals(info.getExpireAfter().orElse(null), declared.getExpireAfter());
+    }
+}
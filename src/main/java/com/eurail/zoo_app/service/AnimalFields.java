@@ -0,0 +1,87 @@
+package com.eurail.zoo_app.service;
+
+import com.eurail.zoo_app.exception.BadRequestException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The animal fields a client asked for with {@code fields=}, as response property names and as the
+ * document fields to project in MongoDB. {@code id} is always selected.
+ */
+public class AnimalFields {
+
+    public static final AnimalFields ALL = new AnimalFields(null);
+
+    // response property -> document field
+    private static final Map<String, String> DOCUMENT_FIELDS = new LinkedHashMap<>();
+
+    static {
+        DOCUMENT_FIELDS.put("id", "_id");
+        DOCUMENT_FIELDS.put("title", "title");
+        DOCUMENT_FIELDS.put("created", "created");
+        DOCUMENT_FIELDS.put("updated", "updated");
+        DOCUMENT_FIELDS.put("version", "version");
+        DOCUMENT_FIELDS.put("located", "located");
+        DOCUMENT_FIELDS.put("currentRoomId", "currentRoomId");
+        DOCUMENT_FIELDS.put("favouriteRoomIds", "favouriteRoomIds");
+    }
+
+    private final Set<String> names;
+
+    private AnimalFields(Set<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * Parses a comma-separated list of response property names, e.g. {@code id,title}.
+     *
+     * @return {@link #ALL} if {@code fields} is null or blank
+     * @throws BadRequestException if a name is not an animal property
+     */
+    public static AnimalFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        names.add("id");
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) continue;
+            if (!DOCUMENT_FIELDS.containsKey(trimmed)) {
+                throw new BadRequestException("Unknown field: " + trimmed + ". Allowed fields: "
+                        + String.join(",", DOCUMENT_FIELDS.keySet()));
+            }
+            names.add(trimmed);
+        }
+        return names.size() == DOCUMENT_FIELDS.size() ? ALL : new AnimalFields(Collections.unmodifiableSet(names));
+    }
+
+    public boolean isAll() {
+        return names == null;
+    }
+
+    /**
+     * @return the selected response property names, or all of them
+     */
+    public Set<String> getNames() {
+        return names == null ? DOCUMENT_FIELDS.keySet() : names;
+    }
+
+    /**
+     * @return the document fields to include in a MongoDB projection
+     */
+    public Set<String> getDocumentFields() {
+        Set<String> fields = new LinkedHashSet<>();
+        getNames().forEach(name -> fields.add(DOCUMENT_FIELDS.get(name)));
+        return fields;
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", getNames());
+    }
+}
@@ -0,0 +1,36 @@
+package com.eurail.zoo_app.service;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface AnimalImportService {
+
+    enum Format { NDJSON, CSV }
+
+    /**
+     * Prepares an import of {@code in}. A CSV header is read and checked here, so an unusable upload is
+     * rejected before any part of the report is written.
+     *
+     * @throws com.eurail.zoo_app.exception.BadRequestException if the CSV header is missing, too long or
+     *                                                          lacks a required column
+     */
+    PreparedImport prepare(InputStream in, Format format);
+
+    /**
+     * Reads animals from {@code in} line by line and writes one NDJSON result line per input line to {@code out}.
+     */
+    default void importAnimals(InputStream in, Format format, OutputStream out) {
+        prepare(in, format).run(out);
+    }
+
+    /**
+     * An import whose header, if any, has been read.
+     */
+    interface PreparedImport {
+
+        /**
+         * Reads the remaining lines and writes one NDJSON result line per input line to {@code out}.
+         */
+        void run(OutputStream out);
+    }
+}
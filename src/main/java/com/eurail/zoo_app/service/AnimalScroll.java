@@ -0,0 +1,27 @@
+package com.eurail.zoo_app.service;
+
+import com.eurail.zoo_app.respository.entity.Animal;
+
+import java.util.List;
+
+/**
+ * One page of a keyset scroll and the opaque cursor for the next page (null on the last page).
+ */
+public class AnimalScroll {
+
+    private final List<Animal> content;
+    private final String nextCursor;
+
+    public AnimalScroll(List<Animal> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Animal> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
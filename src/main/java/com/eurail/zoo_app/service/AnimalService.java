@@ -1,20 +1,39 @@
 package com.eurail.zoo_app.service;
 
+import com.eurail.zoo_app.controller.dto.AnimalPatchDto;
+import com.eurail.zoo_app.controller.dto.EvacuateRequestDto;
+import com.eurail.zoo_app.controller.dto.EvacuationResultDto;
 import com.eurail.zoo_app.controller.dto.FavouriteRoomStatsDto;
+import com.eurail.zoo_app.controller.dto.TopFavouriteRoomDto;
 import com.eurail.zoo_app.respository.entity.Animal;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
 public interface AnimalService {
     Animal create(Animal animal);
     Animal get(String id);
+    Animal get(String id, AnimalFields fields);
+    BatchResult<Animal> getAll(List<String> ids);
+    VersionStamp getVersionStamp(String id);
+    VersionStamp getVersionStamp(Animal animal);
     Animal update(String id, Animal changes);
+    Animal update(String id, Animal changes, long expectedVersion);
+    Animal patch(String id, AnimalPatchDto patch);
     void delete(String id);
+    void delete(String id, long expectedVersion);
     Animal assignAnimalToRoom(String animalId, String roomId);
     Animal removeAnimalFromRoom(String animalId);
     Animal assignFavouriteRoom(String animalId, String roomId);
     Animal unassignFavouriteRoom(String animalId, String roomId);
+    EvacuationResultDto evacuateRoom(String roomId, EvacuateRequestDto request);
     Page<Animal> listAnimalsInRoom(String roomId, String sortBy, String order, int page, int size);
+    Page<Animal> listAnimalsInRoom(String roomId, String sortBy, String order, int page, int size,
+                                   AnimalFields fields);
+    Slice<Animal> sliceAnimalsInRoom(String roomId, String sortBy, String order, int page, int size);
+    CountEstimate estimateAnimalsInRoom(String roomId);
+    AnimalScroll scrollAnimalsInRoom(String roomId, String sortBy, String order, int size, String cursor);
     List<FavouriteRoomStatsDto> favouriteRoomStats();
+    List<TopFavouriteRoomDto> topFavouriteRooms(int k);
 }
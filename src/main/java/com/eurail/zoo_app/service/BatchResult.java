@@ -0,0 +1,70 @@
+package com.eurail.zoo_app.service;
+
+import com.eurail.zoo_app.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The result of a batch read: the items found and the IDs that matched nothing, both in request order.
+ */
+public class BatchResult<T> {
+
+    private final List<T> found;
+    private final List<String> missing;
+
+    public BatchResult(List<T> found, List<String> missing) {
+        this.found = found;
+        this.missing = missing;
+    }
+
+    /**
+     * Checks the requested IDs and drops duplicates, keeping the first occurrence.
+     *
+     * @throws BadRequestException if no IDs or more than {@code max} distinct IDs are requested
+     */
+    public static Set<String> requestedIds(Collection<String> ids, int max) {
+        Set<String> requested = new LinkedHashSet<>();
+        if (ids != null) {
+            for (String id : ids) {
+                if (id != null && !id.isBlank()) requested.add(id.trim());
+            }
+        }
+        if (requested.isEmpty()) {
+            throw new BadRequestException("ids must not be empty");
+        }
+        if (requested.size() > max) {
+            throw new BadRequestException("Too many ids: " + requested.size() + ". Allowed: 1-" + max);
+        }
+        return requested;
+    }
+
+    /**
+     * Orders the items looked up by ID as requested and lists the IDs that were not found.
+     */
+    public static <T> BatchResult<T> of(Collection<String> requested, Map<String, T> byId) {
+        List<T> found = new ArrayList<>(byId.size());
+        List<String> missing = new ArrayList<>();
+        for (String id : requested) {
+            T item = byId.get(id);
+            if (item != null) {
+                found.add(item);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new BatchResult<>(found, missing);
+    }
+
+    public List<T> getFound() {
+        return found;
+    }
+
+    public List<String> getMissing() {
+        return missing;
+    }
+}
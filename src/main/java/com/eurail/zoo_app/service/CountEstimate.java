@@ -0,0 +1,23 @@
+package com.eurail.zoo_app.service;
+
+/**
+ * A count that was stopped at a cap. When {@code capped} is true the real count is at least {@code value}.
+ */
+public class CountEstimate {
+
+    private final long value;
+    private final boolean capped;
+
+    public CountEstimate(long value, boolean capped) {
+        this.value = value;
+        this.capped = capped;
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    public boolean isCapped() {
+        return capped;
+    }
+}
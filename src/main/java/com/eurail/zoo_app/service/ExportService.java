@@ -0,0 +1,11 @@
+package com.eurail.zoo_app.service;
+
+import java.io.OutputStream;
+import java.time.Instant;
+
+public interface ExportService {
+
+    long exportAnimals(String roomId, Instant updatedSince, OutputStream out);
+
+    long exportRooms(Instant updatedSince, OutputStream out);
+}
@@ -0,0 +1,8 @@
+package com.eurail.zoo_app.service;
+
+import com.eurail.zoo_app.controller.dto.CounterReconciliationDto;
+
+public interface FavouriteRoomCounterService {
+
+    CounterReconciliationDto reconcile();
+}
@@ -0,0 +1,73 @@
+package com.eurail.zoo_app.service;
+
+import com.eurail.zoo_app.respository.entity.Animal;
+
+import java.util.Optional;
+
+/**
+ * Optional write-behind buffer for favourite-room edits ({@code zoo.favourites.write-behind}).
+ * Edits are merged per animal in memory and their net result is written periodically, so a burst
+ * of toggles costs one write per room that actually changed. Edits are visible to reads on the same
+ * instance right away; other instances see them once they are written.
+ */
+public interface FavouriteWriteBuffer {
+
+    boolean isEnabled();
+
+    /**
+     * Buffers adding a favourite room; adding a room that is already a favourite changes nothing.
+     *
+     * @return the animal as it will be once the edit is written, or empty if the edit was not buffered
+     * (buffer disabled or full) and has to be written directly
+     * @throws com.eurail.zoo_app.exception.ResourceNotFoundException if the animal does not exist
+     */
+    Optional<Animal> add(String animalId, String roomId);
+
+    /**
+     * Buffers removing a favourite room.
+     *
+     * @return the animal as it will be once the edit is written, or empty if the edit was not buffered
+     * (buffer disabled or full) and has to be written directly
+     * @throws com.eurail.zoo_app.exception.ResourceNotFoundException if the animal does not exist
+     * @throws com.eurail.zoo_app.exception.BadRequestException       if the room is not a favourite
+     */
+    Optional<Animal> remove(String animalId, String roomId);
+
+    /**
+     * Applies the unwritten edits of the animal to its favourite rooms, for read-your-writes.
+     * Animals read without their favourite rooms are left as they are.
+     */
+    void applyPending(Animal animal);
+
+    /**
+     * Whether the animal has edits that are not written yet, i.e. reads on this instance differ from
+     * the stored animal at its stored version.
+     */
+    boolean hasPending(String animalId);
+
+    /**
+     * Writes the unwritten edits of one animal now, before another write to it.
+     */
+    default void flush(String animalId) {
+        flush(animalId, 0L);
+    }
+
+    /**
+     * Writes the unwritten edits of one animal now, before a write that is conditional on {@code readVersion}.
+     * The edits are written as one update that raises the version by one. A caller that read the animal at the
+     * version the edits were written on top of has seen nothing but those edits change since, so its version
+     * is moved past them.
+     *
+     * @param readVersion the version the caller read the animal at
+     * @return the version to make the write conditional on: the version after the edits if they were written
+     * on top of {@code readVersion}, otherwise {@code readVersion}
+     */
+    long flush(String animalId, long readVersion);
+
+    /**
+     * Writes all unwritten edits.
+     *
+     * @return the number of edits written
+     */
+    int flush();
+}
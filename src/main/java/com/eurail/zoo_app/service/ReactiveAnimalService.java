@@ -0,0 +1,25 @@
+package com.eurail.zoo_app.service;
+
+import com.eurail.zoo_app.respository.entity.Animal;
+import org.springframework.data.domain.Page;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Non-blocking counterpart of {@link AnimalService}, used by the reactive profile.
+ * Errors are signalled with the same exceptions as the blocking service.
+ */
+public interface ReactiveAnimalService {
+    Mono<Animal> create(Animal animal);
+    Mono<Animal> get(String id);
+    Mono<Animal> update(String id, Animal changes);
+    Mono<Void> delete(String id);
+    Mono<Animal> assignAnimalToRoom(String animalId, String roomId);
+    Mono<Animal> removeAnimalFromRoom(String animalId);
+    Mono<Animal> assignFavouriteRoom(String animalId, String roomId);
+    Mono<Animal> unassignFavouriteRoom(String animalId, String roomId);
+    Mono<Page<Animal>> listAnimalsInRoom(String roomId, String sortBy, String order, int page, int size);
+    Flux<Animal> export(String roomId, Instant updatedSince);
+}
@@ -0,0 +1,32 @@
+package com.eurail.zoo_app.service;
+
+import com.eurail.zoo_app.respository.entity.Room;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Non-blocking counterpart of {@link RoomService}, used by the reactive profile.
+ * Errors are signalled with the same exceptions as the blocking service.
+ */
+public interface ReactiveRoomService {
+
+    Mono<Room> create(Room room);
+
+    Mono<Room> get(String id);
+
+    Mono<Room> update(String id, Room changes);
+
+    Mono<Void> delete(String id);
+
+    Mono<Set<String>> findMissingIds(Collection<String> ids);
+
+    Flux<Room> export(Instant updatedSince);
+
+    Mono<Void> adjustOccupancy(Map<String, Long> deltas);
+
+}
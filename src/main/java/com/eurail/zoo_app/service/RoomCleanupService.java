@@ -0,0 +1,12 @@
+package com.eurail.zoo_app.service;
+
+import com.eurail.zoo_app.controller.dto.RoomCleanupStatusDto;
+
+public interface RoomCleanupService {
+
+    void enqueue(String roomId);
+
+    int sweep();
+
+    RoomCleanupStatusDto status(String roomId);
+}
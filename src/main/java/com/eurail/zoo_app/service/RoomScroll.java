@@ -0,0 +1,27 @@
+package com.eurail.zoo_app.service;
+
+import com.eurail.zoo_app.respository.entity.Room;
+
+import java.util.List;
+
+/**
+ * One page of the room listing and the opaque cursor for the next page (null on the last page).
+ */
+public class RoomScroll {
+
+    private final List<Room> content;
+    private final String nextCursor;
+
+    public RoomScroll(List<Room> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Room> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
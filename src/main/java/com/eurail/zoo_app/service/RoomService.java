@@ -1,7 +1,13 @@
 package com.eurail.zoo_app.service;
 
+import com.eurail.zoo_app.controller.dto.RoomCacheStatsDto;
+import com.eurail.zoo_app.controller.dto.RoomPatchDto;
 import com.eurail.zoo_app.respository.entity.Room;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface RoomService {
 
@@ -9,10 +15,28 @@ public interface RoomService {
 
     Room get(String id);
 
+    BatchResult<Room> getAll(List<String> ids);
+
+    RoomScroll listRooms(String sortBy, String order, int size, String cursor);
+
+    VersionStamp getVersionStamp(String id);
+
     Room update(String id, Room changes);
 
+    Room update(String id, Room changes, long expectedVersion);
+
+    Room patch(String id, RoomPatchDto patch);
+
     void delete(String id);
 
+    void delete(String id, long expectedVersion);
+
     boolean exists(String id);
 
+    Set<String> findMissingIds(Collection<String> ids);
+
+    void adjustOccupancy(Map<String, Long> deltas);
+
+    RoomCacheStatsDto cacheStats();
+
 }
@@ -0,0 +1,55 @@
+package com.eurail.zoo_app.service;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * The version and last update time of a stored document, enough to answer a conditional request
+ * without loading the document. A missing version counts as version 0.
+ * <p>
+ * A document served with changes that are not written yet (buffered favourite-room edits) has the
+ * stored version, but not the stored representation; its stamp also carries a variant that
+ * identifies those changes, and is served as a weak ETag.
+ */
+public class VersionStamp {
+
+    private final long version;
+    private final Instant updated;
+    private final String variant;
+
+    public VersionStamp(Long version, Instant updated) {
+        this(version, updated, null);
+    }
+
+    public VersionStamp(Long version, Instant updated, String variant) {
+        this.version = version == null ? 0L : version;
+        this.updated = updated;
+        this.variant = variant;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the last update time, or null for documents written without one
+     */
+    public Instant getUpdated() {
+        return updated;
+    }
+
+    /**
+     * @return what the served representation adds to the stored version, or null if it is the stored one
+     */
+    public String getVariant() {
+        return variant;
+    }
+
+    /**
+     * A variant naming a set of room IDs, independent of their order.
+     */
+    public static String variantOf(Collection<String> roomIds) {
+        return Integer.toHexString(String.join(",", new TreeSet<>(roomIds)).hashCode());
+    }
+}
@@ -0,0 +1,318 @@
+package com.eurail.zoo_app.service.cache;
+
+import com.eurail.zoo_app.config.CacheInvalidationProperties;
+import com.eurail.zoo_app.respository.ChangeStreamTokenRepository;
+import com.eurail.zoo_app.respository.entity.ChangeStreamToken;
+import com.mongodb.MongoException;
+import com.mongodb.MongoServerException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the in-process caches of every replica in sync with writes made by the others. One change
+ * stream on the collections of the registered {@link InvalidatableCache}s evicts each updated,
+ * replaced or deleted document from the local caches; the stream only carries ids, operation types
+ * and the fields an update changed, never the documents. Inserts are ignored, as nothing can be cached
+ * for a new id yet, and so are updates that only change fields the caches do not hold (room occupancy).
+ * <p>
+ * The resume token is saved per replica every {@code zoo.cache.invalidation.token-save-interval},
+ * so the stream continues where it stopped after a reconnect or restart. Whenever evictions may have
+ * been missed the caches are flushed instead: when the token has rolled off the oplog, when the
+ * stream was invalidated (collection dropped or renamed) and when the stream lags more than
+ * {@code max-lag} behind the cluster. Change streams need a replica set; on a standalone server
+ * the listener stops and entries only expire by their TTL.
+ */
+@Component
+@EnableConfigurationProperties(CacheInvalidationProperties.class)
+public class ChangeStreamCacheInvalidator {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeStreamCacheInvalidator.class);
+
+    // ChangeStreamHistoryLost and ChangeStreamFatalError: the token can no longer be resumed from
+    private static final Set<Integer> HISTORY_LOST = Set.of(286, 280);
+    // $changeStream is only supported on replica sets and sharded clusters
+    private static final int NOT_SUPPORTED = 40573;
+    // how long one poll blocks on the server, which bounds how long stop() waits
+    private static final Duration MAX_AWAIT = Duration.ofMillis(500);
+
+    private final MongoTemplate mongoTemplate;
+    private final ChangeStreamTokenRepository tokens;
+    private final CacheInvalidationProperties properties;
+    private final Map<String, List<InvalidatableCache>> cachesByCollection = new LinkedHashMap<>();
+    private final Map<String, Set<String>> uncachedFieldsByCollection = new HashMap<>();
+    private final MeterRegistry registry;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread worker;
+    private Instant lastFlush = Instant.EPOCH;
+
+    public ChangeStreamCacheInvalidator(MongoTemplate mongoTemplate,
+                                        ChangeStreamTokenRepository tokens,
+                                        CacheInvalidationProperties properties,
+                                        List<InvalidatableCache> caches,
+                                        MeterRegistry registry) {
+        this.mongoTemplate = mongoTemplate;
+        this.tokens = tokens;
+        this.properties = properties;
+        this.registry = registry;
+        for (InvalidatableCache cache : caches) {
+            cachesByCollection.computeIfAbsent(mongoTemplate.getCollectionName(cache.getDocumentType()),
+                    collection -> new ArrayList<>()).add(cache);
+        }
+        // a field may be ignored only if no cache of the collection holds it
+        cachesByCollection.forEach((collection, collectionCaches) -> {
+            Set<String> uncached = new HashSet<>(collectionCaches.get(0).getUncachedFields());
+            collectionCaches.forEach(cache -> uncached.retainAll(cache.getUncachedFields()));
+            uncachedFieldsByCollection.put(collection, uncached);
+        });
+        Gauge.builder("zoo.cache.invalidation.lag", lagSeconds, AtomicLong::get)
+                .description("Seconds the cache invalidation change stream is behind the cluster")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled() || cachesByCollection.isEmpty()) {
+            log.info("Cache invalidation across replicas is disabled");
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "cache-invalidation");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Whether the change stream is open, i.e. writes from now on are evicted from the local caches.
+     */
+    public boolean isListening() {
+        return listening;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(MAX_AWAIT.multipliedBy(4).toMillis());
+        }
+    }
+
+    private void run() {
+        BsonDocument resumeToken = loadToken();
+        BsonDocument savedToken = resumeToken;
+        Instant lastSave = Instant.now();
+
+        while (running) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = open(resumeToken)) {
+                listening = true;
+                log.info("Evicting cached {} written by other replicas ({})", cachesByCollection.keySet(),
+                        resumeToken == null ? "from now" : "resumed");
+                boolean invalidated = false;
+                while (running && !invalidated) {
+                    ChangeStreamDocument<Document> event = cursor.tryNext();
+                    if (event == null) {
+                        lagSeconds.set(0);
+                    } else {
+                        invalidated = apply(event);
+                    }
+                    BsonDocument current = cursor.getResumeToken();
+                    if (invalidated) {
+                        resumeToken = null;
+                    } else if (current != null) {
+                        resumeToken = current;
+                    }
+                    if (resumeToken != null && !resumeToken.equals(savedToken)
+                            && Duration.between(lastSave, Instant.now()).compareTo(properties.getTokenSaveInterval()) >= 0) {
+                        saveToken(resumeToken);
+                        savedToken = resumeToken;
+                        lastSave = Instant.now();
+                    }
+                }
+            } catch (MongoServerException e) {
+                if (e.getCode() == NOT_SUPPORTED) {
+                    log.error("Change streams need a replica set; cached entries written by other replicas "
+                            + "are only dropped by their TTL", e);
+                    running = false;
+                } else if (HISTORY_LOST.contains(e.getCode())) {
+                    log.warn("Change stream cannot resume from its token, flushing caches: {}", e.getMessage());
+                    flushAll("resume token lost");
+                    resumeToken = null;
+                } else {
+                    backOff(e);
+                }
+            } catch (MongoException e) {
+                backOff(e);
+            } finally {
+                listening = false;
+            }
+        }
+        if (resumeToken != null && !resumeToken.equals(savedToken)) {
+            saveToken(resumeToken);
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> open(BsonDocument resumeToken) {
+        List<Bson> pipeline = List.of(
+                Aggregates.match(Filters.or(
+                        Filters.in("ns.coll", cachesByCollection.keySet()),
+                        // database-wide events carry no collection
+                        Filters.in("operationType", "dropDatabase", "invalidate"))),
+                Aggregates.project(Projections.include("operationType", "ns", "documentKey", "clusterTime",
+                        "updateDescription.updatedFields", "updateDescription.removedFields",
+                        "updateDescription.truncatedArrays")));
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb().watch(pipeline)
+                .maxAwaitTime(MAX_AWAIT.toMillis(), TimeUnit.MILLISECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+        return stream.cursor();
+    }
+
+    /**
+     * @return true if the stream was invalidated and has to be reopened
+     */
+    private boolean apply(ChangeStreamDocument<Document> event) {
+        checkLag(event.getClusterTime());
+        OperationType type = event.getOperationType();
+        String collection = event.getNamespace() == null ? null : event.getNamespace().getCollectionName();
+        switch (type) {
+            case INSERT:
+                return false;
+            case UPDATE, REPLACE, DELETE:
+                if (type == OperationType.UPDATE && changesOnlyUncachedFields(collection, event.getUpdateDescription())) {
+                    return false;
+                }
+                String id = documentId(event.getDocumentKey());
+                List<InvalidatableCache> caches = cachesByCollection.getOrDefault(collection, List.of());
+                caches.forEach(cache -> cache.invalidate(id));
+                if (!caches.isEmpty()) {
+                    invalidations(collection, "entry").increment();
+                }
+                return false;
+            case INVALIDATE:
+                flushAll("change stream invalidated");
+                return true;
+            default:
+                // drop, rename, dropDatabase
+                flushAll(type.getValue() + (collection == null ? "" : " on " + collection));
+                return false;
+        }
+    }
+
+    private boolean changesOnlyUncachedFields(String collection, UpdateDescription update) {
+        Set<String> uncached = uncachedFieldsByCollection.getOrDefault(collection, Set.of());
+        if (uncached.isEmpty() || update == null) return false;
+
+        List<String> changed = new ArrayList<>();
+        if (update.getUpdatedFields() != null) changed.addAll(update.getUpdatedFields().keySet());
+        if (update.getRemovedFields() != null) changed.addAll(update.getRemovedFields());
+        if (update.getTruncatedArrays() != null) {
+            update.getTruncatedArrays().forEach(array -> changed.add(array.getField()));
+        }
+        return !changed.isEmpty() && changed.stream()
+                .allMatch(path -> uncached.contains(path.split("\\.", 2)[0]));
+    }
+
+    private void checkLag(BsonTimestamp clusterTime) {
+        if (clusterTime == null) return;
+        long lag = Math.max(0, Instant.now().getEpochSecond() - clusterTime.getTime());
+        lagSeconds.set(lag);
+        Instant now = Instant.now();
+        if (lag > properties.getMaxLag().toSeconds()
+                && Duration.between(lastFlush, now).compareTo(properties.getMaxLag()) >= 0) {
+            flushAll("change stream is " + lag + "s behind");
+        }
+    }
+
+    private void flushAll(String reason) {
+        log.warn("Flushing caches of {}: {}", cachesByCollection.keySet(), reason);
+        lastFlush = Instant.now();
+        cachesByCollection.forEach((collection, caches) -> {
+            caches.forEach(InvalidatableCache::invalidateAll);
+            invalidations(collection, "flush").increment();
+        });
+    }
+
+    private Counter invalidations(String collection, String type) {
+        return Counter.builder("zoo.cache.invalidations")
+                .description("Cache entries evicted (entry) and caches flushed (flush) for writes from other replicas")
+                .tag("collection", collection)
+                .tag("type", type)
+                .register(registry);
+    }
+
+    private static String documentId(BsonDocument documentKey) {
+        BsonValue id = documentKey == null ? null : documentKey.get("_id");
+        if (id == null) return null;
+        if (id.isObjectId()) return id.asObjectId().getValue().toHexString();
+        if (id.isString()) return id.asString().getValue();
+        return id.toString();
+    }
+
+    private BsonDocument loadToken() {
+        try {
+            return tokens.findById(properties.getInstanceId())
+                    .map(token -> BsonDocument.parse(token.getResumeToken()))
+                    .orElse(null);
+        } catch (RuntimeException e) {
+            log.warn("Could not load the change stream resume token, starting from now", e);
+            return null;
+        }
+    }
+
+    private void saveToken(BsonDocument resumeToken) {
+        try {
+            tokens.save(new ChangeStreamToken(properties.getInstanceId(), resumeToken.toJson(), Instant.now()));
+        } catch (RuntimeException e) {
+            log.warn("Could not save the change stream resume token", e);
+        }
+    }
+
+    private void backOff(MongoException e) {
+        log.warn("Change stream failed, reopening in {}: {}", properties.getRetryBackoff(), e.getMessage());
+        // writes made before the stream is reopened are replayed from the resume token
+        try {
+            Thread.sleep(properties.getRetryBackoff().toMillis());
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.eurail.zoo_app.service.cache;
+
+import java.util.Set;
+
+/**
+ * An in-process cache of documents of one collection. Every bean implementing it is kept in
+ * sync with writes from other replicas by {@link ChangeStreamCacheInvalidator}.
+ */
+public interface InvalidatableCache {
+
+    /**
+     * @return the entity class whose collection this cache holds documents of
+     */
+    Class<?> getDocumentType();
+
+    /**
+     * @return top-level fields of the documents that this cache does not hold, such as counters that are
+     * always read from the database; updates that change only these fields do not evict the document
+     */
+    default Set<String> getUncachedFields() {
+        return Set.of();
+    }
+
+    void invalidate(String id);
+
+    void invalidateAll();
+}
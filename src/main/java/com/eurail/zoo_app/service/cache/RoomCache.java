@@ -0,0 +1,96 @@
+package com.eurail.zoo_app.service.cache;
+
+import com.eurail.zoo_app.config.RoomCacheProperties;
+import com.eurail.zoo_app.controller.dto.RoomCacheStatsDto;
+import com.eurail.zoo_app.respository.entity.Room;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Bounded, TTL-based in-process cache of {@link Room} documents keyed by room ID.
+ * Entries are copied on the way in and out, so callers may modify what they get back
+ * without corrupting the cached state.
+ * Hits, misses, evictions and size are published as the {@code cache.*} meters tagged {@code cache=rooms}.
+ * Rooms written by other replicas are evicted by {@link ChangeStreamCacheInvalidator}.
+ */
+@Component
+@EnableConfigurationProperties(RoomCacheProperties.class)
+public class RoomCache implements InvalidatableCache, MeterBinder {
+
+    private final boolean enabled;
+    private final Cache<String, Room> cache;
+
+    public RoomCache(RoomCacheProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Room> get(String id) {
+        if (!enabled || id == null) return Optional.empty();
+        return Optional.ofNullable(cache.getIfPresent(id)).map(RoomCache::copy);
+    }
+
+    public void put(Room room) {
+        if (!enabled || room == null || room.getId() == null) return;
+        cache.put(room.getId(), copy(room));
+    }
+
+    @Override
+    public Class<?> getDocumentType() {
+        return Room.class;
+    }
+
+    /**
+     * Occupancy is not copied into the cache (see {@link #copy}), so its {@code $inc} on every animal move
+     * does not evict the room.
+     */
+    @Override
+    public Set<String> getUncachedFields() {
+        return Set.of("occupancy");
+    }
+
+    @Override
+    public void invalidate(String id) {
+        if (id != null) cache.invalidate(id);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public RoomCacheStatsDto stats() {
+        CacheStats stats = cache.stats();
+        return new RoomCacheStatsDto(
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate(),
+                cache.estimatedSize()
+        );
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "rooms");
+    }
+
+    private static Room copy(Room room) {
+        Room copy = new Room(room.getId(), room.getTitle(), room.getCreated(), room.getUpdated());
+        copy.setVersion(room.getVersion());
+        return copy;
+    }
+}
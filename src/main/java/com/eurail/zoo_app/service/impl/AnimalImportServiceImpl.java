@@ -0,0 +1,414 @@
+package com.eurail.zoo_app.service.impl;
+
+import com.eurail.zoo_app.config.ImportProperties;
+import com.eurail.zoo_app.controller.dto.AnimalCreateDto;
+import com.eurail.zoo_app.controller.dto.ImportResultDto;
+import com.eurail.zoo_app.controller.mapper.AnimalMapper;
+import com.eurail.zoo_app.exception.BadRequestException;
+import com.eurail.zoo_app.respository.AnimalRepository;
+import com.eurail.zoo_app.respository.FavouriteRoomCounterRepository;
+import com.eurail.zoo_app.respository.entity.Animal;
+import com.eurail.zoo_app.service.AnimalImportService;
+import com.eurail.zoo_app.service.RoomService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Imports animals from a streamed NDJSON or CSV body.
+ * The input is read one line at a time and processed in chunks of {@code zoo.import.chunk-size} lines:
+ * room references of a whole chunk are checked with one lookup, valid animals are written with one
+ * unordered bulk insert, and the per-line results are flushed before the next chunk is read.
+ * Memory use is bounded by the chunk size and {@code zoo.import.max-line-length}, not by the size of the upload.
+ */
+@Service
+@EnableConfigurationProperties(ImportProperties.class)
+public class AnimalImportServiceImpl implements AnimalImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnimalImportServiceImpl.class);
+
+    private static final String[] CSV_COLUMNS = {"title", "located", "currentRoomId", "favouriteRoomIds"};
+
+    private final AnimalRepository repository;
+    private final RoomService roomService;
+    private final FavouriteRoomCounterRepository favouriteCounters;
+    private final AnimalMapper mapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader dtoReader;
+    private final int chunkSize;
+    private final int maxLineLength;
+
+    public AnimalImportServiceImpl(AnimalRepository repository, RoomService roomService,
+                                   FavouriteRoomCounterRepository favouriteCounters, AnimalMapper mapper,
+                                   Validator validator, ObjectMapper objectMapper, ImportProperties properties) {
+        this.repository = repository;
+        this.roomService = roomService;
+        this.favouriteCounters = favouriteCounters;
+        this.mapper = mapper;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.dtoReader = objectMapper.readerFor(AnimalCreateDto.class);
+        this.chunkSize = Math.max(1, properties.getChunkSize());
+        this.maxLineLength = Math.max(1, properties.getMaxLineLength());
+    }
+
+    @Override
+    public PreparedImport prepare(InputStream in, Format format) {
+        LineReader lines = new LineReader(new InputStreamReader(in, StandardCharsets.UTF_8), maxLineLength);
+        if (format != Format.CSV) {
+            return out -> importLines(lines, 0, format, null, out);
+        }
+
+        String header;
+        try {
+            header = lines.next();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (header == null) {
+            throw new BadRequestException("CSV input is empty, expected a header line");
+        }
+        if (lines.isTooLong()) {
+            throw new BadRequestException("CSV header line is longer than " + maxLineLength + " characters");
+        }
+        Map<String, Integer> csvHeader = parseCsvHeader(header);
+        return out -> importLines(lines, 1, format, csvHeader, out);
+    }
+
+    private void importLines(LineReader lines, long lineNo, Format format, Map<String, Integer> csvHeader,
+                             OutputStream out) {
+        long processed = 0;
+        long created = 0;
+
+        try {
+            List<ParsedLine> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = lines.next()) != null) {
+                lineNo++;
+                if (lines.isTooLong()) {
+                    chunk.add(ParsedLine.failed(lineNo, "Line is longer than " + maxLineLength + " characters"));
+                } else if (line.isBlank()) {
+                    continue;
+                } else {
+                    chunk.add(parse(lineNo, line, format, csvHeader));
+                }
+                if (chunk.size() == chunkSize) {
+                    List<ImportResultDto> results = processChunk(chunk);
+                    created += writeResults(results, out);
+                    processed += results.size();
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                List<ImportResultDto> results = processChunk(chunk);
+                created += writeResults(results, out);
+                processed += results.size();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        log.info("Bulk import finished: {} records, {} created, {} failed", processed, created, processed - created);
+    }
+
+    /**
+     * Validates the chunk's room references with one lookup and inserts the valid animals with one bulk write.
+     *
+     * @return one result per line of the chunk, in input order
+     */
+    private List<ImportResultDto> processChunk(List<ParsedLine> chunk) {
+        Set<String> roomIds = new LinkedHashSet<>();
+        for (ParsedLine parsed : chunk) {
+            if (parsed.animal == null) continue;
+            if (parsed.animal.getCurrentRoomId() != null) roomIds.add(parsed.animal.getCurrentRoomId());
+            if (parsed.animal.getFavouriteRoomIds() != null) roomIds.addAll(parsed.animal.getFavouriteRoomIds());
+        }
+        Set<String> missing = roomIds.isEmpty() ? Set.of() : roomService.findMissingIds(roomIds);
+
+        Instant now = Instant.now();
+        List<Animal> toInsert = new ArrayList<>(chunk.size());
+        List<ParsedLine> inserted = new ArrayList<>(chunk.size());
+        for (ParsedLine parsed : chunk) {
+            if (parsed.animal == null) continue;
+
+            List<String> missingForLine = referencedRooms(parsed.animal).stream()
+                    .filter(missing::contains)
+                    .toList();
+            if (!missingForLine.isEmpty()) {
+                parsed.error = "Room not found: " + String.join(", ", missingForLine);
+                continue;
+            }
+
+            parsed.animal.setId(new ObjectId().toHexString());
+            parsed.animal.setCreated(now);
+            parsed.animal.setUpdated(now);
+            parsed.animal.setVersion(0L);
+            toInsert.add(parsed.animal);
+            inserted.add(parsed);
+        }
+
+        Map<Integer, String> insertErrors = toInsert.isEmpty() ? Map.of() : repository.insertUnordered(toInsert);
+
+        Map<String, Long> favouriteDeltas = new HashMap<>();
+        Map<String, Long> occupancyDeltas = new HashMap<>();
+        for (int i = 0; i < inserted.size(); i++) {
+            ParsedLine parsed = inserted.get(i);
+            String error = insertErrors.get(i);
+            if (error != null) {
+                parsed.error = error;
+                continue;
+            }
+            for (String roomId : parsed.animal.getFavouriteRoomIds()) {
+                favouriteDeltas.merge(roomId, 1L, Long::sum);
+            }
+            if (parsed.animal.getCurrentRoomId() != null) {
+                occupancyDeltas.merge(parsed.animal.getCurrentRoomId(), 1L, Long::sum);
+            }
+        }
+        favouriteCounters.incrementAll(favouriteDeltas);
+        if (!occupancyDeltas.isEmpty()) {
+            roomService.adjustOccupancy(occupancyDeltas);
+        }
+
+        List<ImportResultDto> results = new ArrayList<>(chunk.size());
+        for (ParsedLine parsed : chunk) {
+            results.add(parsed.error != null
+                    ? ImportResultDto.failed(parsed.lineNo, parsed.error)
+                    : ImportResultDto.created(parsed.lineNo, parsed.animal.getId()));
+        }
+        return results;
+    }
+
+    /**
+     * Writes the results as NDJSON and flushes, so the client sees progress chunk by chunk.
+     *
+     * @return the number of created animals among the results
+     */
+    private long writeResults(List<ImportResultDto> results, OutputStream out) throws IOException {
+        long created = 0;
+        for (ImportResultDto result : results) {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+            if (result.getError() == null) created++;
+        }
+        out.flush();
+        return created;
+    }
+
+    private ParsedLine parse(long lineNo, String line, Format format, Map<String, Integer> csvHeader) {
+        AnimalCreateDto dto;
+        try {
+            dto = format == Format.CSV ? parseCsvLine(line, csvHeader) : dtoReader.readValue(line);
+        } catch (IOException | IllegalArgumentException e) {
+            return ParsedLine.failed(lineNo, "Malformed line: " + e.getMessage());
+        }
+
+        Set<ConstraintViolation<AnimalCreateDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            return ParsedLine.failed(lineNo, message);
+        }
+
+        Animal animal = mapper.toEntity(dto);
+        if (animal.getCurrentRoomId() != null && animal.getCurrentRoomId().isBlank()) {
+            animal.setCurrentRoomId(null);
+        }
+        if (animal.getFavouriteRoomIds() == null) {
+            animal.setFavouriteRoomIds(new HashSet<>());
+        }
+        return new ParsedLine(lineNo, animal);
+    }
+
+    private static Map<String, Integer> parseCsvHeader(String header) {
+        List<String> columns = splitCsv(header);
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            index.put(columns.get(i).trim(), i);
+        }
+        for (String required : List.of("title", "located")) {
+            if (!index.containsKey(required)) {
+                throw new BadRequestException("CSV header must contain columns: " + String.join(",", CSV_COLUMNS));
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Maps a CSV record to the create DTO. Favourite room IDs are separated by {@code ;}.
+     */
+    private static AnimalCreateDto parseCsvLine(String line, Map<String, Integer> header) {
+        List<String> values = splitCsv(line);
+
+        AnimalCreateDto dto = new AnimalCreateDto();
+        dto.setTitle(column(values, header, "title"));
+        String located = column(values, header, "located");
+        if (located != null) {
+            try {
+                dto.setLocated(LocalDate.parse(located));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("invalid located date '" + located + "'");
+            }
+        }
+        dto.setCurrentRoomId(column(values, header, "currentRoomId"));
+        String favourites = column(values, header, "favouriteRoomIds");
+        if (favourites != null) {
+            dto.setFavouriteRoomIds(Arrays.stream(favourites.split(";"))
+                    .map(String::trim)
+                    .filter(s -> !s.isEmpty())
+                    .collect(Collectors.toCollection(LinkedHashSet::new)));
+        }
+        return dto;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> header, String name) {
+        Integer i = header.get(name);
+        if (i == null || i >= values.size()) return null;
+        String value = values.get(i).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits one CSV record. Fields may be wrapped in double quotes; a doubled quote inside is a literal quote.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static Set<String> referencedRooms(Animal animal) {
+        Set<String> ids = new LinkedHashSet<>();
+        if (animal.getCurrentRoomId() != null) ids.add(animal.getCurrentRoomId());
+        ids.addAll(animal.getFavouriteRoomIds());
+        return ids;
+    }
+
+    /**
+     * Reads lines like {@link BufferedReader#readLine()}, but keeps at most {@code maxLength} characters of
+     * a line: the rest of a longer line is skipped and {@link #isTooLong()} reports it.
+     */
+    private static final class LineReader {
+        private final Reader in;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+        private final StringBuilder line = new StringBuilder();
+        private boolean tooLong;
+        private boolean skipLineFeed;
+
+        private LineReader(Reader in, int maxLength) {
+            this.in = in;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * @return the next line without its terminator, or null at the end of the input
+         */
+        String next() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            boolean read = false;
+            int c;
+            while ((c = read()) != -1) {
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (c == '\n') continue;
+                }
+                read = true;
+                if (c == '\n') {
+                    return line.toString();
+                }
+                if (c == '\r') {
+                    skipLineFeed = true;
+                    return line.toString();
+                }
+                if (line.length() < maxLength) {
+                    line.append((char) c);
+                } else {
+                    tooLong = true;
+                }
+            }
+            return read ? line.toString() : null;
+        }
+
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++];
+        }
+
+        /**
+         * @return whether the line last returned by {@link #next()} was cut off
+         */
+        boolean isTooLong() {
+            return tooLong;
+        }
+    }
+
+    private static final class ParsedLine {
+        private final long lineNo;
+        private final Animal animal;
+        private String error;
+
+        private ParsedLine(long lineNo, Animal animal) {
+            this.lineNo = lineNo;
+            this.animal = animal;
+        }
+
+        private static ParsedLine failed(long lineNo, String error) {
+            ParsedLine parsed = new ParsedLine(lineNo, null);
+            parsed.error = error;
+            return parsed;
+        }
+    }
+}
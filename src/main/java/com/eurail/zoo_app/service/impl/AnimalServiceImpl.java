@@ -1,40 +1,84 @@
 package com.eurail.zoo_app.service.impl;
 
+import com.eurail.zoo_app.config.PagingProperties;
+import com.eurail.zoo_app.controller.dto.AnimalPatchDto;
+import com.eurail.zoo_app.controller.dto.EvacuateRequestDto;
+import com.eurail.zoo_app.controller.dto.EvacuationResultDto;
 import com.eurail.zoo_app.controller.dto.FavouriteRoomStatsDto;
+import com.eurail.zoo_app.controller.dto.TopFavouriteRoomDto;
 import com.eurail.zoo_app.exception.BadRequestException;
+import com.eurail.zoo_app.exception.ConflictException;
+import com.eurail.zoo_app.exception.PreconditionFailedException;
 import com.eurail.zoo_app.exception.ResourceNotFoundException;
 import com.eurail.zoo_app.respository.AnimalRepository;
+import com.eurail.zoo_app.respository.FavouriteRoomCounterRepository;
 import com.eurail.zoo_app.respository.entity.Animal;
+import com.eurail.zoo_app.respository.entity.Room;
+import com.eurail.zoo_app.service.AnimalFields;
+import com.eurail.zoo_app.service.AnimalScroll;
 import com.eurail.zoo_app.service.AnimalService;
+import com.eurail.zoo_app.service.BatchResult;
+import com.eurail.zoo_app.service.CountEstimate;
+import com.eurail.zoo_app.service.FavouriteWriteBuffer;
 import com.eurail.zoo_app.service.RoomService;
+import com.eurail.zoo_app.service.VersionStamp;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @Service
+@Timed(value = "zoo.service", histogram = true)
+@EnableConfigurationProperties(PagingProperties.class)
 public class AnimalServiceImpl implements AnimalService {
 
     private static final Logger log = LoggerFactory.getLogger(AnimalServiceImpl.class);
 
+    static final int MAX_TOP_FAVOURITES = 100;
+
     private final AnimalRepository repository;
     private final RoomService roomService;
-
-    public AnimalServiceImpl(AnimalRepository repository, RoomService roomService) {
+    private final FavouriteRoomCounterRepository favouriteCounters;
+    private final FavouriteWriteBuffer favouriteBuffer;
+    private final int maxPageSize;
+    private final int countCap;
+    private final int maxBatchSize;
+    private final Executor fanOut;
+    private final WriteTransactions transactions;
+
+    public AnimalServiceImpl(AnimalRepository repository, RoomService roomService,
+                             FavouriteRoomCounterRepository favouriteCounters, FavouriteWriteBuffer favouriteBuffer,
+                             PagingProperties paging, @Qualifier("fanOutExecutor") Executor fanOut,
+                             WriteTransactions transactions) {
         this.repository = repository;
         this.roomService = roomService;
+        this.favouriteCounters = favouriteCounters;
+        this.favouriteBuffer = favouriteBuffer;
+        this.maxPageSize = paging.getMaxSize();
+        this.countCap = paging.getCountCap();
+        this.maxBatchSize = paging.getMaxBatchSize();
+        this.fanOut = fanOut;
+        this.transactions = transactions;
     }
 
     /**
      * Creates a new animal in the database.
-     * Sets the created and updated timestamps to now.
+     * Sets the created and updated timestamps to now. The insert and the counter updates are one transaction.
      *
      * @param animal the Animal entity to create
      * @return the created Animal with generated ID and timestamps
@@ -48,12 +92,18 @@ public class AnimalServiceImpl implements AnimalService {
 
         animal.setCreated(Instant.now());
         animal.setUpdated(Instant.now());
-
-        return repository.save(animal);
+        animal.setVersion(0L);
+
+        return transactions.call(() -> {
+            Animal saved = repository.save(animal);
+            favouriteCounters.increment(saved.getFavouriteRoomIds(), 1);
+            adjustOccupancy(null, saved.getCurrentRoomId());
+            return saved;
+        });
     }
 
     /**
-     * Retrieves an animal by its ID.
+     * Retrieves an animal by its ID, with favourite-room edits not written yet applied.
      *
      * @param id the ID of the animal
      * @return the Animal entity
@@ -62,32 +112,201 @@ public class AnimalServiceImpl implements AnimalService {
     @Override
     public Animal get(String id) {
         log.debug("Getting animal by id={}", id);
-        return repository.findById(id)
+        Animal animal = repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Animal not found: " + id));
+        favouriteBuffer.applyPending(animal);
+        return animal;
+    }
+
+    /**
+     * Retrieves many animals by ID with a single {@code $in} query.
+     *
+     * @param ids the IDs to look up, at most {@code zoo.paging.max-batch-size}; duplicates are ignored
+     * @return the animals found and the IDs not found, both in request order
+     * @throws BadRequestException if no IDs or too many IDs are given
+     */
+    @Override
+    public BatchResult<Animal> getAll(List<String> ids) {
+        Set<String> requested = BatchResult.requestedIds(ids, maxBatchSize);
+        log.debug("Getting {} animals by id", requested.size());
+
+        Map<String, Animal> byId = new HashMap<>();
+        repository.findAllById(requested).forEach(animal -> {
+            favouriteBuffer.applyPending(animal);
+            byId.put(animal.getId(), animal);
+        });
+        return BatchResult.of(requested, byId);
+    }
+
+    /**
+     * Retrieves an animal with only the selected fields read from the database.
+     * The version and update time are read as well, for the response's ETag and Last-Modified.
+     *
+     * @param id     the ID of the animal
+     * @param fields the fields the client asked for
+     * @return the Animal entity with only those fields set
+     * @throws ResourceNotFoundException if no animal with the given ID exists
+     */
+    @Override
+    public Animal get(String id, AnimalFields fields) {
+        if (fields.isAll()) {
+            return get(id);
+        }
+        log.debug("Getting animal by id={} fields={}", id, fields);
+        Set<String> projection = new LinkedHashSet<>(fields.getDocumentFields());
+        projection.add("version");
+        projection.add("updated");
+        Animal animal = repository.findProjectedById(id, projection)
                 .orElseThrow(() -> new ResourceNotFoundException("Animal not found: " + id));
+        if (fields.getNames().contains("favouriteRoomIds")) {
+            favouriteBuffer.applyPending(animal);
+        }
+        return animal;
+    }
+
+    /**
+     * Reads only the version and update time of an animal. While favourite-room edits of the animal are
+     * buffered, its favourite rooms are read as well, and the stamp's variant names them with the edits applied.
+     *
+     * @param id the ID of the animal
+     * @return the animal's {@link VersionStamp}
+     * @throws ResourceNotFoundException if no animal with the given ID exists
+     */
+    @Override
+    public VersionStamp getVersionStamp(String id) {
+        if (favouriteBuffer.hasPending(id)) {
+            return repository.findProjectedById(id, List.of("version", "updated", "favouriteRoomIds"))
+                    .map(animal -> {
+                        animal.setId(id);
+                        return getVersionStamp(animal);
+                    })
+                    .orElseThrow(() -> new ResourceNotFoundException("Animal not found: " + id));
+        }
+        return repository.findVersionInfo(id)
+                .map(animal -> new VersionStamp(animal.getVersion(), animal.getUpdated()))
+                .orElseThrow(() -> new ResourceNotFoundException("Animal not found: " + id));
+    }
+
+    /**
+     * The stamp of an animal as read by {@link #get}: if it was served with buffered favourite-room edits
+     * applied, the variant names the favourite rooms it was served with.
+     */
+    @Override
+    public VersionStamp getVersionStamp(Animal animal) {
+        if (animal.getFavouriteRoomIds() == null || !favouriteBuffer.hasPending(animal.getId())) {
+            return new VersionStamp(animal.getVersion(), animal.getUpdated());
+        }
+        favouriteBuffer.applyPending(animal);
+        return new VersionStamp(animal.getVersion(), animal.getUpdated(),
+                VersionStamp.variantOf(animal.getFavouriteRoomIds()));
     }
 
     /**
      * Updates an existing animal.
-     * Sets the updated timestamp to now.
+     * Sets the updated timestamp to now. The replace only succeeds if the stored animal is still at the
+     * version {@code animal} was read at, so a write that lands in between is not overwritten.
      *
      * @param id     the ID of the animal to update
      * @param animal the animal object containing updated fields
      * @return the updated Animal
+     * @throws ResourceNotFoundException if the animal or a referenced room does not exist
+     * @throws ConflictException         if the animal was modified since it was read
      */
     @Override
     public Animal update(String id, Animal animal) {
-        log.debug("Updating animal id={} with animal={}", id, animal);
+        return applyUpdate(id, animal, null);
+    }
 
-        // Validate room references exist
+    /**
+     * Updates an existing animal only if it is still at {@code expectedVersion}, e.g. from an {@code If-Match} header.
+     * The version check and the write are one conditional replace.
+     *
+     * @throws PreconditionFailedException if the stored animal is no longer at the expected version
+     */
+    @Override
+    public Animal update(String id, Animal animal, long expectedVersion) {
+        return applyUpdate(id, animal, expectedVersion);
+    }
+
+    private Animal applyUpdate(String id, Animal animal, Long expectedVersion) {
+        log.debug("Updating animal id={} with animal={}", id, animal);
         validateRoomReferences(animal.getCurrentRoomId(), animal.getFavouriteRoomIds());
 
+        // the animal was read with its buffered favourite edits on top of the stored version,
+        // so the version they are written at is the one the replace is conditional on
+        long readVersion = favouriteBuffer.flush(id, expectedVersion != null ? expectedVersion
+                : animal.getVersion() == null ? 0L : animal.getVersion());
+        animal.setId(id);
         animal.setUpdated(Instant.now());
+        animal.setVersion(readVersion + 1);
+
+        // the previous room references are read in the transaction, so they are the ones the replace overwrites
+        return transactions.call(() -> {
+            Animal previous = repository.findRoomReferences(id).orElseGet(Animal::new);
+            if (!repository.replaceIfVersion(animal, readVersion)) {
+                if (expectedVersion != null) {
+                    throw new PreconditionFailedException("Animal " + id + " is no longer at version " + expectedVersion);
+                }
+                if (!repository.existsById(id)) {
+                    throw new ResourceNotFoundException("Animal not found: " + id);
+                }
+                throw new ConflictException("Animal " + id + " was modified concurrently (read at version "
+                        + readVersion + ")");
+            }
+            adjustFavouriteCounters(previous.getFavouriteRoomIds(), animal.getFavouriteRoomIds());
+            adjustOccupancy(previous.getCurrentRoomId(), animal.getCurrentRoomId());
+            return animal;
+        });
+    }
+
+    /**
+     * Applies a partial update with a single conditional findAndModify, without reading the animal first.
+     * The write only succeeds if the stored version still matches the version in the patch.
+     * Only the room references touched by the patch are validated.
+     *
+     * @param id    the ID of the animal to patch
+     * @param patch the fields to change and the version the client last saw
+     * @return the updated Animal
+     * @throws BadRequestException       if the patch is malformed
+     * @throws ResourceNotFoundException if the animal or a referenced room does not exist
+     * @throws ConflictException         if the animal was modified since the given version
+     */
+    @Override
+    public Animal patch(String id, AnimalPatchDto patch) {
+        log.debug("Patching animal id={} at version={}", id, patch.getVersion());
+
+        validatePatch(patch);
+        // the version the client read does not include buffered favourite edits, so it follows them past the flush
+        long expectedVersion = favouriteBuffer.flush(id, patch.getVersion());
+
+        Set<String> touchedRooms = new LinkedHashSet<>();
+        if (patch.getFavouriteRoomIds() != null) touchedRooms.addAll(patch.getFavouriteRoomIds());
+        if (patch.getAddFavouriteRoomIds() != null) touchedRooms.addAll(patch.getAddFavouriteRoomIds());
+        validateRoomReferences(patch.getCurrentRoomId(), touchedRooms);
+
+        Instant now = Instant.now();
+        return transactions.call(() -> {
+            Animal before = repository.patchIfVersion(id, expectedVersion, patch, now);
+            if (before == null) {
+                if (!repository.existsById(id)) {
+                    throw new ResourceNotFoundException("Animal not found: " + id);
+                }
+                throw new ConflictException("Animal " + id + " was modified concurrently (expected version "
+                        + patch.getVersion() + ")");
+            }
 
-        return repository.save(animal);
+            Set<String> previousFavourites = before.getFavouriteRoomIds() == null
+                    ? Set.of() : new HashSet<>(before.getFavouriteRoomIds());
+            String previousRoomId = before.getCurrentRoomId();
+            Animal after = applyPatch(before, patch, now);
+            adjustFavouriteCounters(previousFavourites, after.getFavouriteRoomIds());
+            adjustOccupancy(previousRoomId, after.getCurrentRoomId());
+            return after;
+        });
     }
 
     /**
-     * Deletes an animal by its ID.
+     * Deletes an animal by its ID with a single findAndRemove.
      *
      * @param id the ID of the animal to delete
      * @throws ResourceNotFoundException if no animal with the given ID exists
@@ -95,11 +314,42 @@ public class AnimalServiceImpl implements AnimalService {
     @Override
     public void delete(String id) {
         log.debug("Deleting animal id={}", id);
+        favouriteBuffer.flush(id);
 
-        // validate existence (throws 404)
-        get(id);
+        transactions.run(() -> {
+            Animal deleted = repository.deleteAndReturn(id);
+            if (deleted == null) {
+                throw new ResourceNotFoundException("Animal not found: " + id);
+            }
+
+            favouriteCounters.increment(deleted.getFavouriteRoomIds(), -1);
+            adjustOccupancy(deleted.getCurrentRoomId(), null);
+        });
+    }
+
+    /**
+     * Deletes an animal only if it is still at {@code expectedVersion}, with a single conditional findAndRemove.
+     *
+     * @throws ResourceNotFoundException   if no animal with the given ID exists
+     * @throws PreconditionFailedException if the stored animal is no longer at the expected version
+     */
+    @Override
+    public void delete(String id, long expectedVersion) {
+        log.debug("Deleting animal id={} at version={}", id, expectedVersion);
+        long flushedVersion = favouriteBuffer.flush(id, expectedVersion);
+
+        transactions.run(() -> {
+            Animal deleted = repository.deleteIfVersion(id, flushedVersion);
+            if (deleted == null) {
+                if (!repository.existsById(id)) {
+                    throw new ResourceNotFoundException("Animal not found: " + id);
+                }
+                throw new PreconditionFailedException("Animal " + id + " is no longer at version " + expectedVersion);
+            }
 
-        repository.deleteById(id);
+            favouriteCounters.increment(deleted.getFavouriteRoomIds(), -1);
+            adjustOccupancy(deleted.getCurrentRoomId(), null);
+        });
     }
 
     /**
@@ -109,67 +359,162 @@ public class AnimalServiceImpl implements AnimalService {
      * @param sortBy allowed values: "title", "located"
      * @param order  allowed values: "asc", "desc"
      * @param page   zero-based page index
-     * @param size   number of items per page
+     * @param size   number of items per page, at most {@code zoo.paging.max-size}
      * @return a Page of Animal entities
      */
     @Override
     public Page<Animal> listAnimalsInRoom(String roomId, String sortBy, String order, int page, int size) {
-        log.debug("Listing animals in room={} sortBy={} order={} page={} size={}",
-                roomId, sortBy, order, page, size);
-
-        roomService.get(roomId); // validate room exists
+        return listAnimalsInRoom(roomId, sortBy, order, page, size, AnimalFields.ALL);
+    }
 
-        // Validate sortBy
-        if (!sortBy.equals("title") && !sortBy.equals("located")) {
-            log.error("Invalid sort field: {}", sortBy);
-            throw new BadRequestException("Invalid sort field: " + sortBy + ". Allowed: title, located");
+    /**
+     * Lists animals in a specific room like {@link #listAnimalsInRoom(String, String, String, int, int)},
+     * reading only the selected fields from the database.
+     *
+     * @param fields the fields the client asked for
+     */
+    @Override
+    public Page<Animal> listAnimalsInRoom(String roomId, String sortBy, String order, int page, int size,
+                                          AnimalFields fields) {
+        log.debug("Listing animals in room={} sortBy={} order={} page={} size={} fields={}",
+                roomId, sortBy, order, page, size, fields);
+
+        Sort.Direction direction = validateSort(sortBy, order);
+        validatePageSize(size);
+        if (page < 0) {
+            throw new BadRequestException("Invalid page: " + page + ". Must be 0 or greater");
         }
 
-        // Validate order
-        Sort.Direction direction;
-        if (order.equalsIgnoreCase("asc")) {
-            direction = Sort.Direction.ASC;
-        } else if (order.equalsIgnoreCase("desc")) {
-            direction = Sort.Direction.DESC;
-        } else {
-            log.error("Invalid order: {}", order);
-            throw new BadRequestException("Invalid order: " + order + ". Allowed: asc, desc");
+        CompletableFuture<Room> roomCheck = checkRoomAsync(roomId);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        Page<Animal> result = fields.isAll()
+                ? repository.findByCurrentRoomId(roomId, pageable)
+                : PageableExecutionUtils.getPage(repository.findInRoom(roomId, pageable, fields.getDocumentFields()),
+                        pageable, () -> repository.countByCurrentRoomId(roomId));
+        await(roomCheck);
+        return result;
+    }
+
+    /**
+     * Lists animals in a specific room like {@link #listAnimalsInRoom} but without counting them.
+     * One extra row is read to tell whether another page follows.
+     *
+     * @param roomId the room ID to filter animals
+     * @param sortBy allowed values: "title", "located"
+     * @param order  allowed values: "asc", "desc"
+     * @param page   zero-based page index
+     * @param size   number of items per page, at most {@code zoo.paging.max-size}
+     * @return a Slice of Animal entities
+     */
+    @Override
+    public Slice<Animal> sliceAnimalsInRoom(String roomId, String sortBy, String order, int page, int size) {
+        log.debug("Slicing animals in room={} sortBy={} order={} page={} size={}",
+                roomId, sortBy, order, page, size);
+
+        Sort.Direction direction = validateSort(sortBy, order);
+        validatePageSize(size);
+        if (page < 0) {
+            throw new BadRequestException("Invalid page: " + page + ". Must be 0 or greater");
         }
 
+        CompletableFuture<Room> roomCheck = checkRoomAsync(roomId);
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
-        return repository.findByCurrentRoomId(roomId, pageable);
+        Slice<Animal> result = repository.findSliceByCurrentRoomId(roomId, pageable);
+        await(roomCheck);
+        return result;
+    }
+
+    /**
+     * Counts the animals in a room up to {@code zoo.paging.count-cap}.
+     *
+     * @param roomId the room ID
+     * @return the count, flagged as capped when the room holds more animals than the cap
+     */
+    @Override
+    public CountEstimate estimateAnimalsInRoom(String roomId) {
+        long count = repository.countInRoomUpTo(roomId, countCap + 1);
+        return count > countCap ? new CountEstimate(countCap, true) : new CountEstimate(count, false);
+    }
+
+    /**
+     * Lists animals in a specific room with keyset pagination.
+     * Each page continues after the (sort value, id) of the previous page's last animal,
+     * so deep pages cost the same as the first one.
+     *
+     * @param roomId the room ID to filter animals
+     * @param sortBy allowed values: "title", "located"
+     * @param order  allowed values: "asc", "desc"
+     * @param size   number of items per page, at most {@code zoo.paging.max-size}
+     * @param cursor the {@code nextCursor} of the previous page, or null for the first page
+     * @return the page and the cursor for the next one (null on the last page)
+     * @throws BadRequestException if a parameter is invalid or the cursor was issued for another sort
+     */
+    @Override
+    public AnimalScroll scrollAnimalsInRoom(String roomId, String sortBy, String order, int size, String cursor) {
+        log.debug("Scrolling animals in room={} sortBy={} order={} size={} cursor={}",
+                roomId, sortBy, order, size, cursor);
+
+        Sort.Direction direction = validateSort(sortBy, order);
+        validatePageSize(size);
+
+        KeysetCursor after = cursor == null || cursor.isBlank() ? null
+                : KeysetCursor.decode(cursor, sortBy, order, sortBy.equals("located") ? LocalDate::parse : v -> v);
+        CompletableFuture<Room> roomCheck = checkRoomAsync(roomId);
+        List<Animal> animals = repository.findInRoomAfter(roomId, sortBy, direction,
+                after == null ? null : after.getValue(),
+                after == null ? null : after.getId(),
+                size + 1);
+        await(roomCheck);
+
+        if (animals.size() <= size) {
+            return new AnimalScroll(animals, null);
+        }
+        List<Animal> content = animals.subList(0, size);
+        Animal last = content.get(size - 1);
+        String next = new KeysetCursor(sortBy, order.toLowerCase(),
+                sortBy.equals("title") ? last.getTitle() : last.getLocated(), last.getId()).encode();
+        return new AnimalScroll(new ArrayList<>(content), next);
     }
 
     /**
      * Calculates favourite-room statistics grouped by room title.
      * Each returned entry contains the room title and the number of animals
      * that have any room with that title marked as favourite.
-     * Rooms with zero favourites are excluded.
+     * Rooms with zero favourites and stale room references are excluded.
+     * Served from the incrementally maintained favourite-room counters, so the cost
+     * depends on the number of rooms rather than the number of animals.
      *
      * @return list of FavouriteRoomStatsDto containing room title and favourite count
      */
     @Override
     public List<FavouriteRoomStatsDto> favouriteRoomStats() {
-        Map<String, Long> counts = new HashMap<>();
+        log.debug("Reading favourite room statistics from counters");
+        return favouriteCounters.aggregateStatsByTitle();
+    }
 
-        for (Animal animal : repository.findAll()) {
-            if (animal.getFavouriteRoomIds() == null) continue;
+    /**
+     * Returns the rooms most often marked as favourite, highest count first.
+     *
+     * @param k number of rooms to return, between 1 and {@value #MAX_TOP_FAVOURITES}
+     * @return up to k rooms with their favourite counts
+     * @throws BadRequestException if k is out of range
+     */
+    @Override
+    public List<TopFavouriteRoomDto> topFavouriteRooms(int k) {
+        log.debug("Reading top {} favourite rooms", k);
 
-            for (String roomId : animal.getFavouriteRoomIds()) {
-                if (!roomService.exists(roomId)) continue; // skip stale references
-                String title = roomService.get(roomId).getTitle();
-                counts.put(title, counts.getOrDefault(title, 0L) + 1);
-            }
+        if (k < 1 || k > MAX_TOP_FAVOURITES) {
+            throw new BadRequestException("Invalid k: " + k + ". Allowed: 1-" + MAX_TOP_FAVOURITES);
         }
 
-        return counts.entrySet().stream()
-                .map(e -> new FavouriteRoomStatsDto(e.getKey(), e.getValue()))
-                .collect(Collectors.toList());
+        return favouriteCounters.findTop(k);
     }
 
 
     /**
      * Assigns an animal to a room. Can be used for initial placement or moving the animal.
+     * The change is applied atomically with a single findAndModify, whose pre-image tells which
+     * room's occupancy goes down; the move and both occupancy updates are one transaction.
      *
      * @param animalId the ID of the animal
      * @param roomId   the ID of the room
@@ -180,17 +525,25 @@ public class AnimalServiceImpl implements AnimalService {
     public Animal assignAnimalToRoom(String animalId, String roomId) {
         log.debug("Moving animal id={} to room={}", animalId, roomId);
 
-        Animal animal = get(animalId);
         roomService.get(roomId); // Validate room exists
 
-        animal.setCurrentRoomId(roomId);
-        animal.setUpdated(Instant.now());
+        Instant now = Instant.now();
+        Animal before = transactions.call(() -> {
+            Animal previous = repository.setCurrentRoom(animalId, roomId, now);
+            if (previous == null) {
+                throw new ResourceNotFoundException("Animal not found: " + animalId);
+            }
+            adjustOccupancy(previous.getCurrentRoomId(), roomId);
+            return previous;
+        });
 
-        return repository.save(animal);
+        before.setCurrentRoomId(roomId);
+        favouriteBuffer.applyPending(before);
+        return touch(before, now);
     }
 
     /**
-     * Removes an animal from its current room.
+     * Removes an animal from its current room with a single findAndModify.
      *
      * @param id the ID of the animal
      * @return the updated Animal with room cleared
@@ -200,15 +553,25 @@ public class AnimalServiceImpl implements AnimalService {
     public Animal removeAnimalFromRoom(String id) {
         log.debug("Removing animal id={} from current room", id);
 
-        Animal a = get(id);
-        a.setCurrentRoomId(null);
-        a.setUpdated(Instant.now());
+        Instant now = Instant.now();
+        Animal before = transactions.call(() -> {
+            Animal previous = repository.unsetCurrentRoom(id, now);
+            if (previous == null) {
+                throw new ResourceNotFoundException("Animal not found: " + id);
+            }
+            adjustOccupancy(previous.getCurrentRoomId(), null);
+            return previous;
+        });
 
-        return repository.save(a);
+        before.setCurrentRoomId(null);
+        favouriteBuffer.applyPending(before);
+        return touch(before, now);
     }
 
     /**
-     * Adds a room to the animal's favourites.
+     * Adds a room to the animal's favourites with an atomic {@code $addToSet}, or buffers the edit
+     * if write-behind is enabled ({@link FavouriteWriteBuffer}).
+     * Adding a room that is already a favourite leaves the animal unchanged.
      *
      * @param id     the ID of the animal
      * @param roomId the ID of the room to add
@@ -219,17 +582,27 @@ public class AnimalServiceImpl implements AnimalService {
     public Animal assignFavouriteRoom(String id, String roomId) {
         log.debug("Adding favourite room={} to animal={}", roomId, id);
 
-        Animal a = get(id);
         roomService.get(roomId); // validate room existence
 
-        a.getFavouriteRoomIds().add(roomId);
-        a.setUpdated(Instant.now());
+        Optional<Animal> buffered = favouriteBuffer.add(id, roomId);
+        if (buffered.isPresent()) {
+            return buffered.get();
+        }
 
-        return repository.save(a);
+        Animal updated = transactions.call(() -> {
+            Animal added = repository.addFavouriteRoom(id, roomId, Instant.now());
+            if (added != null) {
+                favouriteCounters.increment(Set.of(roomId), 1);
+            }
+            return added;
+        });
+        // null if either the animal does not exist (404) or the room is already a favourite (no-op)
+        return updated != null ? updated : get(id);
     }
 
     /**
-     * Removes a room from the animal's favourites.
+     * Removes a room from the animal's favourites with an atomic {@code $pull}, or buffers the edit
+     * if write-behind is enabled ({@link FavouriteWriteBuffer}).
      *
      * @param animalId the ID of the animal
      * @param roomId   the ID of the room to remove
@@ -241,34 +614,246 @@ public class AnimalServiceImpl implements AnimalService {
     public Animal unassignFavouriteRoom(String animalId, String roomId) {
         log.debug("Removing favourite room={} from animal={}", roomId, animalId);
 
-        Animal animal = get(animalId);
-
         // validate room exists
         roomService.get(roomId);
 
-        if (!animal.getFavouriteRoomIds().contains(roomId)) {
+        Optional<Animal> buffered = favouriteBuffer.remove(animalId, roomId);
+        if (buffered.isPresent()) {
+            return buffered.get();
+        }
+
+        Animal updated = transactions.call(() -> {
+            Animal removed = repository.removeFavouriteRoom(animalId, roomId, Instant.now());
+            if (removed != null) {
+                favouriteCounters.increment(Set.of(roomId), -1);
+            }
+            return removed;
+        });
+        if (updated == null) {
+            get(animalId); // 404 if the animal does not exist
             throw new BadRequestException(
                     "Room " + roomId + " is not in favourites for animal " + animalId
             );
         }
+        return updated;
+    }
 
-        animal.getFavouriteRoomIds().remove(roomId);
-        animal.setUpdated(Instant.now());
+    /**
+     * Moves all animals out of a room, either into another room or out of any room.
+     * Without a batch size this is one updateMany; with a batch size the IDs of the current occupants
+     * are read once and moved in bounded batches, so animals placed into the room meanwhile do not keep
+     * the loop going. Each write and its occupancy update are one transaction.
+     *
+     * @param roomId  the ID of the room to evacuate
+     * @param request the target room or {@code unassign}, and an optional batch size
+     * @return how many animals were moved and in how many batches
+     * @throws BadRequestException       if neither or both of target and unassign are given, or target equals source
+     * @throws ResourceNotFoundException if the source or target room does not exist
+     */
+    @Override
+    public EvacuationResultDto evacuateRoom(String roomId, EvacuateRequestDto request) {
+        log.debug("Evacuating room={} target={} unassign={} batchSize={}",
+                roomId, request.getTargetRoomId(), request.isUnassign(), request.getBatchSize());
+
+        String target = request.getTargetRoomId();
+        boolean hasTarget = target != null && !target.isBlank();
+        if (hasTarget == request.isUnassign()) {
+            throw new BadRequestException("Exactly one of targetRoomId or unassign=true must be given");
+        }
+        if (roomId.equals(target)) {
+            throw new BadRequestException("Target room must differ from the evacuated room");
+        }
 
-        return repository.save(animal);
+        // validate source and target rooms exist
+        CompletableFuture<Room> sourceCheck = checkRoomAsync(roomId);
+        CompletableFuture<Room> targetCheck = hasTarget ? checkRoomAsync(target) : CompletableFuture.completedFuture(null);
+        await(sourceCheck);
+        await(targetCheck);
+
+        long start = System.nanoTime();
+        long moved = 0;
+        int batches = 0;
+        if (request.getBatchSize() == null) {
+            moved = transactions.call(() -> {
+                long relocated = repository.relocateAll(roomId, target, Instant.now());
+                adjustOccupancy(roomId, target, relocated);
+                return relocated;
+            });
+            batches = moved > 0 ? 1 : 0;
+        } else {
+            List<String> occupants = repository.findIdsInRoom(roomId);
+            int batchSize = request.getBatchSize();
+            for (int from = 0; from < occupants.size(); from += batchSize) {
+                List<String> ids = occupants.subList(from, Math.min(from + batchSize, occupants.size()));
+                long batch = transactions.call(() -> {
+                    long relocated = repository.relocate(ids, roomId, target, Instant.now());
+                    adjustOccupancy(roomId, target, relocated);
+                    return relocated;
+                });
+                if (batch > 0) {
+                    moved += batch;
+                    batches++;
+                }
+            }
+        }
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+
+        log.info("Evacuated {} animals from room={} to {} in {} batch(es), {} ms",
+                moved, roomId, hasTarget ? target : "no room", batches, durationMs);
+        return new EvacuationResultDto(roomId, target, moved, batches, durationMs);
     }
 
-    private void validateRoomReferences(String currentRoomId, Set<String> favouriteRoomIds) {
-        if (currentRoomId != null && !currentRoomId.isBlank() && !roomService.exists(currentRoomId)) {
-                throw new ResourceNotFoundException("Room not found: " + currentRoomId);
-            }
+    static Sort.Direction validateSort(String sortBy, String order) {
+        // Validate sortBy
+        if (!sortBy.equals("title") && !sortBy.equals("located")) {
+            log.error("Invalid sort field: {}", sortBy);
+            throw new BadRequestException("Invalid sort field: " + sortBy + ". Allowed: title, located");
+        }
 
-        if (favouriteRoomIds != null && !favouriteRoomIds.isEmpty()) {
-            for (String roomId : favouriteRoomIds) {
-                if (!roomService.exists(roomId)) {
-                    throw new ResourceNotFoundException("Room not found: " + roomId);
-                }
+        // Validate order
+        if (order.equalsIgnoreCase("asc")) {
+            return Sort.Direction.ASC;
+        } else if (order.equalsIgnoreCase("desc")) {
+            return Sort.Direction.DESC;
+        }
+        log.error("Invalid order: {}", order);
+        throw new BadRequestException("Invalid order: " + order + ". Allowed: asc, desc");
+    }
+
+    /**
+     * Starts a room existence check on the fan-out executor so it overlaps with the query that follows.
+     * With virtual threads enabled this runs on its own virtual thread, otherwise inline on the caller;
+     * an inline check that fails throws here, before the query that follows is sent.
+     */
+    private CompletableFuture<Room> checkRoomAsync(String roomId) {
+        CompletableFuture<Room> check = CompletableFuture.supplyAsync(() -> roomService.get(roomId), fanOut);
+        if (check.isCompletedExceptionally()) {
+            await(check);
+        }
+        return check;
+    }
+
+    /**
+     * Waits for a fanned-out task and rethrows its exception unwrapped, so callers see the same
+     * {@link ResourceNotFoundException} as with a direct call.
+     */
+    private static <T> T await(CompletableFuture<T> task) {
+        try {
+            return task.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
+            throw e;
+        }
+    }
+
+    private void validatePageSize(int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new BadRequestException("Invalid size: " + size + ". Allowed: 1-" + maxPageSize);
+        }
+    }
+
+    private void validatePatch(AnimalPatchDto patch) {
+        int favouriteOperations = 0;
+        if (patch.getFavouriteRoomIds() != null) favouriteOperations++;
+        if (patch.getAddFavouriteRoomIds() != null) favouriteOperations++;
+        if (patch.getRemoveFavouriteRoomIds() != null) favouriteOperations++;
+        if (favouriteOperations > 1) {
+            throw new BadRequestException(
+                    "Only one of favouriteRoomIds, addFavouriteRoomIds, removeFavouriteRoomIds may be given");
+        }
+        if (patch.getTitle() != null && patch.getTitle().isBlank()) {
+            throw new BadRequestException("Animal title must not be blank");
+        }
+        if (patch.getCurrentRoomId() != null && patch.getCurrentRoomId().isBlank()) {
+            throw new BadRequestException("currentRoomId must not be blank");
+        }
+    }
+
+    /**
+     * Rebuilds the stored state from the pre-image so the patched animal is returned without another read.
+     */
+    private static Animal applyPatch(Animal animal, AnimalPatchDto patch, Instant updated) {
+        if (patch.getTitle() != null) animal.setTitle(patch.getTitle());
+        if (patch.getLocated() != null) animal.setLocated(patch.getLocated());
+        if (patch.getCurrentRoomId() != null) animal.setCurrentRoomId(patch.getCurrentRoomId());
+
+        Set<String> favourites = animal.getFavouriteRoomIds() == null
+                ? new HashSet<>() : new HashSet<>(animal.getFavouriteRoomIds());
+        if (patch.getFavouriteRoomIds() != null) favourites = new HashSet<>(patch.getFavouriteRoomIds());
+        if (patch.getAddFavouriteRoomIds() != null) favourites.addAll(patch.getAddFavouriteRoomIds());
+        if (patch.getRemoveFavouriteRoomIds() != null) favourites.removeAll(patch.getRemoveFavouriteRoomIds());
+        animal.setFavouriteRoomIds(favourites);
+        return touch(animal, updated);
+    }
+
+    /**
+     * Applies what every write does to the stored document (see the repository's {@code touch}) to a pre-image.
+     */
+    private static Animal touch(Animal animal, Instant updated) {
+        animal.setUpdated(updated);
+        animal.setVersion(animal.getVersion() == null ? 1L : animal.getVersion() + 1);
+        return animal;
+    }
+
+    private void adjustFavouriteCounters(Set<String> before, Set<String> after) {
+        Set<String> previous = before == null ? Set.of() : before;
+        Set<String> current = after == null ? Set.of() : after;
+
+        Map<String, Long> deltas = new HashMap<>();
+        for (String roomId : current) {
+            if (!previous.contains(roomId)) deltas.put(roomId, 1L);
+        }
+        for (String roomId : previous) {
+            if (!current.contains(roomId)) deltas.put(roomId, -1L);
+        }
+        favouriteCounters.incrementAll(deltas);
+    }
+
+    /**
+     * Moves one animal's worth of occupancy from {@code previousRoomId} to {@code currentRoomId}.
+     */
+    private void adjustOccupancy(String previousRoomId, String currentRoomId) {
+        adjustOccupancy(previousRoomId, currentRoomId, 1);
+    }
+
+    /**
+     * Moves {@code count} animals' worth of occupancy between rooms; a null or blank room ID means no room.
+     */
+    private void adjustOccupancy(String fromRoomId, String toRoomId, long count) {
+        boolean hasFrom = fromRoomId != null && !fromRoomId.isBlank();
+        boolean hasTo = toRoomId != null && !toRoomId.isBlank();
+        if (count == 0 || (hasFrom && hasTo && fromRoomId.equals(toRoomId))) return;
+
+        Map<String, Long> deltas = new HashMap<>();
+        if (hasFrom) deltas.put(fromRoomId, -count);
+        if (hasTo) deltas.put(toRoomId, count);
+        if (!deltas.isEmpty()) {
+            roomService.adjustOccupancy(deltas);
+        }
+    }
+
+    /**
+     * Checks the current room and all favourite rooms with one bulk lookup.
+     *
+     * @throws ResourceNotFoundException listing every referenced room that does not exist
+     */
+    private void validateRoomReferences(String currentRoomId, Set<String> favouriteRoomIds) {
+        Set<String> roomIds = new LinkedHashSet<>();
+        if (currentRoomId != null && !currentRoomId.isBlank()) {
+            roomIds.add(currentRoomId);
+        }
+        if (favouriteRoomIds != null) {
+            roomIds.addAll(favouriteRoomIds);
+        }
+        if (roomIds.isEmpty()) {
+            return;
+        }
+
+        Set<String> missing = roomService.findMissingIds(roomIds);
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("Room not found: " + String.join(", ", missing));
         }
     }
 
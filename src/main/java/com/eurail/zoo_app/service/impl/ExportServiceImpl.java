@@ -0,0 +1,103 @@
+package com.eurail.zoo_app.service.impl;
+
+import com.eurail.zoo_app.controller.mapper.AnimalMapper;
+import com.eurail.zoo_app.controller.mapper.RoomMapper;
+import com.eurail.zoo_app.respository.entity.Animal;
+import com.eurail.zoo_app.respository.entity.Room;
+import com.eurail.zoo_app.service.ExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams whole collections as NDJSON straight from a Mongo cursor.
+ * Documents are mapped and written one at a time, so heap use does not depend on how many are exported.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportServiceImpl.class);
+
+    private static final int CURSOR_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final AnimalMapper animalMapper;
+    private final RoomMapper roomMapper;
+    private final ObjectWriter writer;
+
+    public ExportServiceImpl(MongoTemplate mongoTemplate, AnimalMapper animalMapper, RoomMapper roomMapper,
+                             ObjectMapper objectMapper) {
+        this.mongoTemplate = mongoTemplate;
+        this.animalMapper = animalMapper;
+        this.roomMapper = roomMapper;
+        this.writer = objectMapper.writer();
+    }
+
+    /**
+     * Writes every matching animal as one JSON line.
+     *
+     * @param roomId       only animals currently in this room, or null for all animals (including unplaced ones)
+     * @param updatedSince only animals updated at or after this instant, or null
+     * @param out          the stream to write to; it is flushed but not closed
+     * @return the number of animals written
+     */
+    @Override
+    public long exportAnimals(String roomId, Instant updatedSince, OutputStream out) {
+        Query query = new Query();
+        if (roomId != null) query.addCriteria(Criteria.where("currentRoomId").is(roomId));
+        if (updatedSince != null) query.addCriteria(Criteria.where("updated").gte(updatedSince));
+
+        return export("animals", query, Animal.class, animalMapper::toResponseDto, out);
+    }
+
+    /**
+     * Writes every matching room as one JSON line.
+     *
+     * @param updatedSince only rooms updated at or after this instant, or null
+     * @param out          the stream to write to; it is flushed but not closed
+     * @return the number of rooms written
+     */
+    @Override
+    public long exportRooms(Instant updatedSince, OutputStream out) {
+        Query query = new Query();
+        if (updatedSince != null) query.addCriteria(Criteria.where("updated").gte(updatedSince));
+
+        return export("rooms", query, Room.class, roomMapper::toResponseDto, out);
+    }
+
+    private <T> long export(String name, Query query, Class<T> type, Function<T, ?> toDto, OutputStream out) {
+        log.info("Starting {} export, filter={}", name, query.getQueryObject().toJson());
+        long start = System.nanoTime();
+        long count = 0;
+
+        query.cursorBatchSize(CURSOR_BATCH_SIZE);
+        try (Stream<T> documents = mongoTemplate.stream(query, type)) {
+            Iterator<T> it = documents.iterator();
+            while (it.hasNext()) {
+                out.write(writer.writeValueAsBytes(toDto.apply(it.next())));
+                out.write('\n');
+                count++;
+            }
+            out.flush();
+        } catch (IOException e) {
+            // usually the client went away; the cursor is closed by try-with-resources
+            throw new UncheckedIOException("Export of " + name + " aborted after " + count + " documents", e);
+        }
+
+        log.info("Exported {} {} in {} ms", count, name, (System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+}
@@ -0,0 +1,124 @@
+package com.eurail.zoo_app.service.impl;
+
+import com.eurail.zoo_app.controller.dto.CounterReconciliationDto;
+import com.eurail.zoo_app.exception.ConflictException;
+import com.eurail.zoo_app.respository.AnimalRepository;
+import com.eurail.zoo_app.respository.FavouriteRoomCounterRepository;
+import com.eurail.zoo_app.respository.JobLeaseRepository;
+import com.eurail.zoo_app.service.FavouriteRoomCounterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+public class FavouriteRoomCounterServiceImpl implements FavouriteRoomCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(FavouriteRoomCounterServiceImpl.class);
+
+    private static final String LEASE_NAME = "favourite-counter-reconcile";
+    private static final Duration LEASE = Duration.ofMinutes(10);
+
+    private final AnimalRepository animalRepository;
+    private final FavouriteRoomCounterRepository counterRepository;
+    private final JobLeaseRepository leases;
+    private final String owner = UUID.randomUUID().toString();
+
+    public FavouriteRoomCounterServiceImpl(AnimalRepository animalRepository,
+                                           FavouriteRoomCounterRepository counterRepository,
+                                           JobLeaseRepository leases) {
+        this.animalRepository = animalRepository;
+        this.counterRepository = counterRepository;
+        this.leases = leases;
+    }
+
+    /**
+     * Rebuilds the favourite-room counters from the animals collection and reports drift.
+     *
+     * @return a summary of how many counters were checked and how far they had drifted
+     * @throws ConflictException if a reconciliation is already running on another instance
+     */
+    @Override
+    public CounterReconciliationDto reconcile() {
+        return reconcileUnderLease().orElseThrow(() ->
+                new ConflictException("Favourite room counters are being reconciled by another instance"));
+    }
+
+    /**
+     * Every replica fires the schedule; only the one that gets the lease reconciles.
+     */
+    @Scheduled(cron = "${zoo.favourites.reconcile-cron:0 0 3 * * *}")
+    public void reconcileOnSchedule() {
+        if (reconcileUnderLease().isEmpty()) {
+            log.debug("Skipping favourite counter reconciliation, another instance holds the lease");
+        }
+    }
+
+    private Optional<CounterReconciliationDto> reconcileUnderLease() {
+        Instant now = Instant.now();
+        if (!leases.tryAcquire(LEASE_NAME, owner, now, now.plus(LEASE))) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(recount());
+        } finally {
+            leases.release(LEASE_NAME, owner);
+        }
+    }
+
+    /**
+     * The counters are read before the recount, and each correction is a {@code $set} to the recounted
+     * value that only applies while the counter still holds the value read. A counter changed by a
+     * favourite edit during the run is left as it is, so no edit is counted twice; the next run checks it again.
+     */
+    private CounterReconciliationDto recount() {
+        log.debug("Reconciling favourite room counters");
+
+        Map<String, Long> actual = counterRepository.findAllCounts();
+        Map<String, Long> expected = animalRepository.countFavouriteReferencesByRoom();
+
+        Map<String, Long> deltas = computeDrift(expected, actual);
+        Map<String, Long> targets = new HashMap<>();
+        deltas.keySet().forEach(roomId -> targets.put(roomId, expected.getOrDefault(roomId, 0L)));
+        int corrected = counterRepository.setCountsIfUnchanged(targets, actual);
+        counterRepository.deleteEmpty();
+
+        long totalDrift = deltas.values().stream().mapToLong(Math::abs).sum();
+        Set<String> rooms = new HashSet<>(expected.keySet());
+        rooms.addAll(actual.keySet());
+
+        if (deltas.isEmpty()) {
+            log.info("Favourite room counters are consistent ({} rooms checked)", rooms.size());
+        } else {
+            log.warn("Favourite room counters drifted: {} rooms off by {} in total, {} corrected "
+                    + "(the rest changed during the run)", deltas.size(), totalDrift, corrected);
+        }
+
+        return new CounterReconciliationDto(rooms.size(), deltas.size(), totalDrift, Instant.now());
+    }
+
+    /**
+     * Computes the per-room correction that turns {@code actual} into {@code expected}.
+     * Rooms whose counters already match are left out.
+     */
+    public static Map<String, Long> computeDrift(Map<String, Long> expected, Map<String, Long> actual) {
+        Map<String, Long> deltas = new HashMap<>();
+        expected.forEach((roomId, count) -> {
+            long delta = count - actual.getOrDefault(roomId, 0L);
+            if (delta != 0) deltas.put(roomId, delta);
+        });
+        actual.forEach((roomId, count) -> {
+            if (!expected.containsKey(roomId) && count != 0) deltas.put(roomId, -count);
+        });
+        return deltas;
+    }
+}
@@ -0,0 +1,419 @@
+package com.eurail.zoo_app.service.impl;
+
+import com.eurail.zoo_app.config.FavouriteWriteBehindProperties;
+import com.eurail.zoo_app.exception.BadRequestException;
+import com.eurail.zoo_app.exception.ResourceNotFoundException;
+import com.eurail.zoo_app.respository.AnimalRepository;
+import com.eurail.zoo_app.respository.FavouriteRoomCounterRepository;
+import com.eurail.zoo_app.respository.entity.Animal;
+import com.eurail.zoo_app.service.FavouriteWriteBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the unwritten favourite-room edits of each animal as the net change against the animal as it
+ * was read at its first edit: toggling a room on and off again leaves nothing to write. Every
+ * {@code zoo.favourites.write-behind.window} the resulting favourite rooms of all animals are written in
+ * one bulk write, one update per animal that only applies while the animal is still at the version it was
+ * read at and raises that version by one, and the favourite-room counters are adjusted in one more, both
+ * in one transaction. If some animals were changed since they were read, the bulk write does not say which,
+ * so the transaction is rolled back and each animal is read again and written in its own transaction with
+ * the edits that still apply to it.
+ * <p>
+ * At most {@code max-pending-animals} animals are buffered; edits to other animals are then written
+ * directly. Everything is written on shutdown, and edits are kept for the next flush if a write fails.
+ * The coalescing ratio is {@code zoo.favourites.write_behind.edits} over {@code ...writes}.
+ */
+@Service
+@EnableConfigurationProperties(FavouriteWriteBehindProperties.class)
+public class FavouriteWriteBufferImpl implements FavouriteWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(FavouriteWriteBufferImpl.class);
+
+    private final AnimalRepository animals;
+    private final FavouriteRoomCounterRepository favouriteCounters;
+    private final WriteTransactions transactions;
+    private final boolean enabled;
+    private final int maxPendingAnimals;
+    private final Map<String, PendingEdits> pending = new ConcurrentHashMap<>();
+    // the scheduled flush and the flush before another write to an animal must not take the same edits
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter edits;
+    private final Counter writes;
+    private final Counter rejected;
+    private final Counter conflicts;
+
+    private volatile boolean shuttingDown;
+
+    public FavouriteWriteBufferImpl(AnimalRepository animals, FavouriteRoomCounterRepository favouriteCounters,
+                                    WriteTransactions transactions, FavouriteWriteBehindProperties properties,
+                                    MeterRegistry registry) {
+        this.animals = animals;
+        this.favouriteCounters = favouriteCounters;
+        this.transactions = transactions;
+        this.enabled = properties.isEnabled();
+        this.maxPendingAnimals = properties.getMaxPendingAnimals();
+
+        this.edits = Counter.builder("zoo.favourites.write_behind.edits")
+                .description("Favourite-room edits accepted by the write-behind buffer")
+                .register(registry);
+        this.writes = Counter.builder("zoo.favourites.write_behind.writes")
+                .description("Animal updates written for the buffered favourite-room edits")
+                .register(registry);
+        this.rejected = Counter.builder("zoo.favourites.write_behind.rejected")
+                .description("Favourite-room edits written directly because the buffer was full")
+                .register(registry);
+        this.conflicts = Counter.builder("zoo.favourites.write_behind.conflicts")
+                .description("Animals whose buffered favourite-room edits were written one at a time because they had changed")
+                .register(registry);
+        Gauge.builder("zoo.favourites.write_behind.pending", pending, Map::size)
+                .description("Animals with unwritten favourite-room edits")
+                .register(registry);
+        Gauge.builder("zoo.favourites.write_behind.coalescing_ratio", this, FavouriteWriteBufferImpl::coalescingRatio)
+                .description("Favourite-room edits per animal update written")
+                .register(registry);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public Optional<Animal> add(String animalId, String roomId) {
+        return edit(animalId, roomId, true);
+    }
+
+    @Override
+    public Optional<Animal> remove(String animalId, String roomId) {
+        return edit(animalId, roomId, false);
+    }
+
+    private Optional<Animal> edit(String animalId, String roomId, boolean add) {
+        if (!enabled || shuttingDown) return Optional.empty();
+
+        while (true) {
+            PendingEdits entry = pending.get(animalId);
+            if (entry == null) {
+                if (pending.size() >= maxPendingAnimals) {
+                    rejected.increment();
+                    return Optional.empty();
+                }
+                Animal stored = animals.findById(animalId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Animal not found: " + animalId));
+                PendingEdits created = new PendingEdits(stored);
+                entry = Optional.ofNullable(pending.putIfAbsent(animalId, created)).orElse(created);
+            }
+            synchronized (entry) {
+                if (entry.closed) {
+                    // taken by a flush: continue from the state that flush writes
+                    pending.replace(animalId, entry, new PendingEdits(entry.view()));
+                    continue;
+                }
+                boolean favourite = entry.favourites().contains(roomId);
+                if (!add && !favourite) {
+                    throw new BadRequestException("Room " + roomId + " is not in favourites for animal " + animalId);
+                }
+                entry.edit(roomId, add);
+                edits.increment();
+                return Optional.of(entry.view());
+            }
+        }
+    }
+
+    @Override
+    public void applyPending(Animal animal) {
+        if (animal == null || animal.getId() == null) return;
+        PendingEdits entry = pending.get(animal.getId());
+        if (entry == null) return;
+
+        Set<String> favourites = animal.getFavouriteRoomIds() == null
+                ? new LinkedHashSet<>() : new LinkedHashSet<>(animal.getFavouriteRoomIds());
+        synchronized (entry) {
+            entry.applyTo(favourites);
+        }
+        animal.setFavouriteRoomIds(favourites);
+    }
+
+    @Override
+    public boolean hasPending(String animalId) {
+        PendingEdits entry = pending.get(animalId);
+        if (entry == null) return false;
+        synchronized (entry) {
+            return !entry.edits.isEmpty();
+        }
+    }
+
+    @Override
+    public long flush(String animalId, long readVersion) {
+        if (!pending.containsKey(animalId)) return readVersion;
+        flushLock.lock();
+        try {
+            Map<String, Long> writtenAt = new HashMap<>();
+            write(List.of(animalId), writtenAt);
+            Long version = writtenAt.get(animalId);
+            return version != null && version == readVersion ? version + 1 : readVersion;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${zoo.favourites.write-behind.window:200ms}")
+    public int flush() {
+        if (pending.isEmpty()) return 0;
+        flushLock.lock();
+        try {
+            return write(new ArrayList<>(pending.keySet()), new HashMap<>());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        try {
+            int written = flush();
+            if (written > 0) {
+                log.info("Wrote {} buffered favourite-room edits on shutdown", written);
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not write {} buffered favourite-room edits on shutdown", pendingEdits(), e);
+        }
+    }
+
+    /**
+     * @param writtenAt receives, per animal whose edits were written, the version they were written on top of
+     * @return the number of edits written
+     */
+    private int write(Collection<String> animalIds, Map<String, Long> writtenAt) {
+        Map<String, PendingEdits> taken = new LinkedHashMap<>();
+        Map<String, Map<String, Boolean>> batch = new LinkedHashMap<>();
+        List<Animal> targets = new ArrayList<>();
+        for (String animalId : animalIds) {
+            PendingEdits entry = pending.get(animalId);
+            if (entry == null) continue;
+            synchronized (entry) {
+                entry.closed = true;
+                if (!entry.edits.isEmpty()) {
+                    batch.put(animalId, new LinkedHashMap<>(entry.edits));
+                    targets.add(entry.view());
+                }
+            }
+            taken.put(animalId, entry);
+        }
+        int count = batch.values().stream().mapToInt(Map::size).sum();
+
+        if (count > 0) {
+            Instant now = Instant.now();
+            try {
+                transactions.run(() -> {
+                    int modified = animals.setFavouriteRoomsIfVersion(targets, now);
+                    if (modified < targets.size()) {
+                        throw new StaleEdits(targets.size() - modified);
+                    }
+                    favouriteCounters.incrementAll(counterDeltas(batch));
+                });
+                targets.forEach(target -> writtenAt.put(target.getId(), versionOf(target)));
+            } catch (StaleEdits e) {
+                conflicts.increment(e.stale);
+                log.warn("{} of {} animals with buffered favourite-room edits changed since they were read, "
+                        + "writing them one at a time", e.stale, targets.size());
+                writeEach(batch, now, taken, writtenAt);
+            } catch (RuntimeException e) {
+                restore(taken);
+                throw e;
+            }
+            writes.increment(writtenAt.size());
+        }
+        taken.forEach((animalId, entry) -> {
+            if (!pending.remove(animalId, entry) && writtenAt.containsKey(animalId)) {
+                // edits made during the write continue from the version it produced
+                pending.computeIfPresent(animalId, (id, next) -> {
+                    synchronized (next) {
+                        next.written(writtenAt.get(animalId));
+                    }
+                    return next;
+                });
+            }
+        });
+        log.debug("Wrote {} favourite-room edits of {} animals", count, writtenAt.size());
+        return count;
+    }
+
+    /**
+     * Reads each animal again and writes the edits that still apply to it with the same conditional update,
+     * adjusting the counters only for those edits.
+     */
+    private void writeEach(Map<String, Map<String, Boolean>> batch, Instant now, Map<String, PendingEdits> taken,
+                           Map<String, Long> writtenAt) {
+        try {
+            batch.forEach((animalId, edits) -> transactions.run(() -> {
+                Optional<Animal> current = animals.findProjectedById(animalId, List.of("version", "favouriteRoomIds"));
+                if (current.isEmpty()) return;
+
+                Animal target = current.get();
+                target.setId(animalId);
+                Set<String> favourites = target.getFavouriteRoomIds() == null
+                        ? new LinkedHashSet<>() : new LinkedHashSet<>(target.getFavouriteRoomIds());
+                Map<String, Boolean> applicable = new LinkedHashMap<>();
+                edits.forEach((roomId, add) -> {
+                    if (favourites.contains(roomId) != add) applicable.put(roomId, add);
+                });
+                if (applicable.isEmpty()) return;
+
+                applicable.forEach((roomId, add) -> {
+                    if (add) favourites.add(roomId);
+                    else favourites.remove(roomId);
+                });
+                target.setFavouriteRoomIds(favourites);
+                if (animals.setFavouriteRoomsIfVersion(List.of(target), now) == 1) {
+                    favouriteCounters.incrementAll(counterDeltas(Map.of(animalId, applicable)));
+                    writtenAt.put(animalId, versionOf(target));
+                }
+            }));
+        } catch (RuntimeException e) {
+            // edits written so far no longer differ from the stored animal when they are written again
+            restore(taken);
+            throw e;
+        }
+    }
+
+    private static long versionOf(Animal animal) {
+        return animal.getVersion() == null ? 0L : animal.getVersion();
+    }
+
+    /**
+     * Puts edits back after a failed write. Edits made to an animal since its edits were taken are
+     * rebased onto the state before the failed write, so both are written by the next flush.
+     */
+    private void restore(Map<String, PendingEdits> taken) {
+        taken.forEach((animalId, failed) -> {
+            synchronized (failed) {
+                failed.closed = false;
+            }
+            PendingEdits current = pending.putIfAbsent(animalId, failed);
+            if (current != null && current != failed) {
+                synchronized (current) {
+                    current.rebase(failed);
+                }
+            }
+        });
+    }
+
+    private static Map<String, Long> counterDeltas(Map<String, Map<String, Boolean>> batch) {
+        Map<String, Long> deltas = new HashMap<>();
+        batch.values().forEach(edits -> edits.forEach((roomId, add) -> deltas.merge(roomId, add ? 1L : -1L, Long::sum)));
+        deltas.values().removeIf(delta -> delta == 0);
+        return deltas;
+    }
+
+    private long pendingEdits() {
+        return pending.values().stream().mapToLong(entry -> entry.edits.size()).sum();
+    }
+
+    private double coalescingRatio() {
+        double written = writes.count();
+        return written == 0 ? 0 : edits.count() / written;
+    }
+
+    /**
+     * Rolls back a bulk write in which some animals were no longer at the version they were read at.
+     */
+    private static final class StaleEdits extends RuntimeException {
+
+        private final int stale;
+
+        StaleEdits(int stale) {
+            super(stale + " animals changed since their favourite-room edits were buffered", null, false, false);
+            this.stale = stale;
+        }
+    }
+
+    /**
+     * The unwritten favourite-room edits of one animal. Guarded by its own monitor.
+     */
+    private static final class PendingEdits {
+
+        // the animal as read at the first edit, with the favourites the edits are relative to
+        private final Animal snapshot;
+        private Set<String> stored;
+        // room id -> true to add, false to remove; only rooms whose state differs from stored
+        private final Map<String, Boolean> edits = new LinkedHashMap<>();
+        // taken by a flush, later edits go to a new entry
+        private boolean closed;
+
+        PendingEdits(Animal snapshot) {
+            this.snapshot = snapshot;
+            this.stored = snapshot.getFavouriteRoomIds() == null
+                    ? Set.of() : new LinkedHashSet<>(snapshot.getFavouriteRoomIds());
+        }
+
+        void edit(String roomId, boolean add) {
+            if (stored.contains(roomId) == add) {
+                edits.remove(roomId);
+            } else {
+                edits.put(roomId, add);
+            }
+        }
+
+        void applyTo(Set<String> favourites) {
+            edits.forEach((roomId, add) -> {
+                if (add) favourites.add(roomId);
+                else favourites.remove(roomId);
+            });
+        }
+
+        Set<String> favourites() {
+            Set<String> favourites = new LinkedHashSet<>(stored);
+            applyTo(favourites);
+            return favourites;
+        }
+
+        /**
+         * The edits this entry is relative to were written on top of {@code version}, raising it by one.
+         */
+        void written(long version) {
+            if (snapshot.getVersion() == null ? version == 0 : snapshot.getVersion() == version) {
+                snapshot.setVersion(version + 1);
+            }
+        }
+
+        void rebase(PendingEdits failed) {
+            Set<String> target = favourites();
+            Set<String> rooms = new LinkedHashSet<>(failed.edits.keySet());
+            rooms.addAll(edits.keySet());
+            stored = failed.stored;
+            edits.clear();
+            rooms.forEach(roomId -> edit(roomId, target.contains(roomId)));
+        }
+
+        Animal view() {
+            Animal animal = new Animal(snapshot.getId(), snapshot.getTitle(), snapshot.getCreated(),
+                    snapshot.getUpdated(), snapshot.getLocated(), snapshot.getCurrentRoomId(), favourites());
+            animal.setVersion(snapshot.getVersion());
+            return animal;
+        }
+    }
+}
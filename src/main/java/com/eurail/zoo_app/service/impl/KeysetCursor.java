@@ -0,0 +1,78 @@
+package com.eurail.zoo_app.service.impl;
+
+import com.eurail.zoo_app.exception.BadRequestException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Continuation token for keyset pagination: the sort field, direction, and the sort value and
+ * {@code _id} of the last document on the previous page, as base64url-encoded JSON.
+ * The token is opaque to clients; it is only checked against the request it is sent with.
+ * Used by the animal and room listings, which each say how their sort values are parsed back.
+ */
+final class KeysetCursor {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String sortBy;
+    private final String order;
+    private final Object value;
+    private final String id;
+
+    KeysetCursor(String sortBy, String order, Object value, String id) {
+        this.sortBy = sortBy;
+        this.order = order;
+        this.value = value;
+        this.id = id;
+    }
+
+    String encode() {
+        ObjectNode node = JSON.createObjectNode()
+                .put("s", sortBy)
+                .put("o", order)
+                .put("id", id);
+        if (value == null) {
+            node.putNull("v");
+        } else {
+            node.put("v", value.toString());
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(node.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param parseValue turns the sort value, encoded with {@code toString()}, back into the type of the sort field
+     * @throws BadRequestException if the token is malformed or was issued for a different sort
+     */
+    static KeysetCursor decode(String token, String sortBy, String order, Function<String, ?> parseValue) {
+        try {
+            JsonNode node = JSON.readTree(Base64.getUrlDecoder().decode(token));
+            String s = node.path("s").asText();
+            String o = node.path("o").asText();
+            String id = node.path("id").asText(null);
+            if (!sortBy.equals(s) || !order.equalsIgnoreCase(o) || id == null) {
+                throw new BadRequestException("Cursor does not match sortBy=" + sortBy + " and order=" + order);
+            }
+            JsonNode v = node.path("v");
+            Object value = v.isNull() || v.isMissingNode() ? null : parseValue.apply(v.asText());
+            return new KeysetCursor(s, o, value, id);
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    Object getValue() {
+        return value;
+    }
+
+    String getId() {
+        return id;
+    }
+}
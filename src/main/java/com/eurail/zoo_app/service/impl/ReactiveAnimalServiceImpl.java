@@ -0,0 +1,317 @@
+package com.eurail.zoo_app.service.impl;
+
+import com.eurail.zoo_app.config.PagingProperties;
+import com.eurail.zoo_app.exception.BadRequestException;
+import com.eurail.zoo_app.exception.ConflictException;
+import com.eurail.zoo_app.exception.ResourceNotFoundException;
+import com.eurail.zoo_app.respository.ReactiveAnimalRepository;
+import com.eurail.zoo_app.respository.ReactiveFavouriteRoomCounterRepository;
+import com.eurail.zoo_app.respository.entity.Animal;
+import com.eurail.zoo_app.service.ReactiveAnimalService;
+import com.eurail.zoo_app.service.ReactiveRoomService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Animal operations on the reactive Mongo driver, with the same validation, atomic single-document
+ * writes and favourite-counter and occupancy maintenance as {@link AnimalServiceImpl}. Each write and its
+ * counter updates run in one transaction.
+ */
+@Service
+@Profile("reactive")
+@EnableConfigurationProperties(PagingProperties.class)
+public class ReactiveAnimalServiceImpl implements ReactiveAnimalService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveAnimalServiceImpl.class);
+
+    private final ReactiveAnimalRepository repository;
+    private final ReactiveRoomService roomService;
+    private final ReactiveFavouriteRoomCounterRepository favouriteCounters;
+    private final ReactiveWriteTransactions transactions;
+    private final int maxPageSize;
+
+    public ReactiveAnimalServiceImpl(ReactiveAnimalRepository repository, ReactiveRoomService roomService,
+                                     ReactiveFavouriteRoomCounterRepository favouriteCounters,
+                                     ReactiveWriteTransactions transactions, PagingProperties paging) {
+        this.repository = repository;
+        this.roomService = roomService;
+        this.favouriteCounters = favouriteCounters;
+        this.transactions = transactions;
+        this.maxPageSize = paging.getMaxSize();
+    }
+
+    /**
+     * Creates a new animal after checking its room references with one lookup.
+     *
+     * @param animal the Animal entity to create
+     * @return the created Animal with generated ID and timestamps
+     */
+    @Override
+    public Mono<Animal> create(Animal animal) {
+        log.debug("Creating new animal: {}", animal);
+
+        return validateRoomReferences(animal.getCurrentRoomId(), animal.getFavouriteRoomIds())
+                .then(Mono.defer(() -> {
+                    animal.setCreated(Instant.now());
+                    animal.setUpdated(Instant.now());
+                    animal.setVersion(0L);
+                    return transactions.call(() -> repository.save(animal)
+                            .flatMap(saved -> favouriteCounters.incrementAll(deltas(Set.of(), saved.getFavouriteRoomIds()))
+                                    .then(adjustOccupancy(null, saved.getCurrentRoomId()))
+                                    .thenReturn(saved)));
+                }));
+    }
+
+    /**
+     * Retrieves an animal by its ID.
+     *
+     * @param id the ID of the animal
+     * @return the Animal, or an error with {@link ResourceNotFoundException} if it does not exist
+     */
+    @Override
+    public Mono<Animal> get(String id) {
+        log.debug("Getting animal by id={}", id);
+        return repository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Animal not found: " + id)));
+    }
+
+    /**
+     * Replaces an existing animal and adjusts the favourite counters and occupancy by the difference in rooms.
+     * The replace only succeeds if the stored animal is still at the version {@code animal} was read at.
+     *
+     * @param id     the ID of the animal to update
+     * @param animal the animal object containing updated fields
+     * @return the updated Animal, or an error with {@link ConflictException} if it was modified since it was read
+     */
+    @Override
+    public Mono<Animal> update(String id, Animal animal) {
+        log.debug("Updating animal id={} with animal={}", id, animal);
+
+        long readVersion = animal.getVersion() == null ? 0L : animal.getVersion();
+        return validateRoomReferences(animal.getCurrentRoomId(), animal.getFavouriteRoomIds())
+                .then(Mono.defer(() -> {
+                    animal.setId(id);
+                    animal.setUpdated(Instant.now());
+                    animal.setVersion(readVersion + 1);
+                    // the previous room references are read in the transaction, so they are the ones the replace overwrites
+                    return transactions.call(() -> repository.findRoomReferences(id).defaultIfEmpty(new Animal())
+                            .flatMap(previous -> repository.replaceIfVersion(animal, readVersion)
+                                    .flatMap(replaced -> replaced
+                                            ? favouriteCounters.incrementAll(deltas(previous.getFavouriteRoomIds(), animal.getFavouriteRoomIds()))
+                                                    .then(adjustOccupancy(previous.getCurrentRoomId(), animal.getCurrentRoomId()))
+                                                    .thenReturn(animal)
+                                            : repository.existsById(id).flatMap(exists -> Mono.<Animal>error(exists
+                                                    ? new ConflictException("Animal " + id
+                                                            + " was modified concurrently (read at version " + readVersion + ")")
+                                                    : new ResourceNotFoundException("Animal not found: " + id))))));
+                }));
+    }
+
+    /**
+     * Deletes an animal by its ID with a single findAndRemove.
+     *
+     * @param id the ID of the animal to delete
+     */
+    @Override
+    public Mono<Void> delete(String id) {
+        log.debug("Deleting animal id={}", id);
+
+        return transactions.call(() -> repository.deleteAndReturn(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Animal not found: " + id)))
+                .flatMap(deleted -> favouriteCounters.incrementAll(deltas(deleted.getFavouriteRoomIds(), Set.of()))
+                        .then(adjustOccupancy(deleted.getCurrentRoomId(), null))));
+    }
+
+    /**
+     * Assigns an animal to a room with a single findAndModify, whose pre-image tells which room's occupancy goes down.
+     *
+     * @param animalId the ID of the animal
+     * @param roomId   the ID of the room
+     * @return the updated Animal with the new room assigned
+     */
+    @Override
+    public Mono<Animal> assignAnimalToRoom(String animalId, String roomId) {
+        log.debug("Moving animal id={} to room={}", animalId, roomId);
+
+        Instant now = Instant.now();
+        return roomService.get(roomId)
+                .then(transactions.call(() -> repository.setCurrentRoom(animalId, roomId, now)
+                        .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Animal not found: " + animalId)))
+                        .flatMap(before -> adjustOccupancy(before.getCurrentRoomId(), roomId).thenReturn(before))))
+                .map(before -> {
+                    before.setCurrentRoomId(roomId);
+                    return touch(before, now);
+                });
+    }
+
+    /**
+     * Removes an animal from its current room with a single findAndModify.
+     *
+     * @param id the ID of the animal
+     * @return the updated Animal with room cleared
+     */
+    @Override
+    public Mono<Animal> removeAnimalFromRoom(String id) {
+        log.debug("Removing animal id={} from current room", id);
+
+        Instant now = Instant.now();
+        return transactions.call(() -> repository.unsetCurrentRoom(id, now)
+                        .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Animal not found: " + id)))
+                        .flatMap(before -> adjustOccupancy(before.getCurrentRoomId(), null).thenReturn(before)))
+                .map(before -> {
+                    before.setCurrentRoomId(null);
+                    return touch(before, now);
+                });
+    }
+
+    /**
+     * Adds a room to the animal's favourites with an atomic {@code $addToSet}.
+     * Adding a room that is already a favourite leaves the animal unchanged.
+     *
+     * @param id     the ID of the animal
+     * @param roomId the ID of the room to add
+     * @return the updated Animal
+     */
+    @Override
+    public Mono<Animal> assignFavouriteRoom(String id, String roomId) {
+        log.debug("Adding favourite room={} to animal={}", roomId, id);
+
+        return roomService.get(roomId)
+                .then(transactions.call(() -> repository.addFavouriteRoom(id, roomId, Instant.now())
+                        .flatMap(updated -> favouriteCounters.incrementAll(Map.of(roomId, 1L)).thenReturn(updated))))
+                // either the animal does not exist (404) or the room is already a favourite (no-op)
+                .switchIfEmpty(Mono.defer(() -> get(id)));
+    }
+
+    /**
+     * Removes a room from the animal's favourites with an atomic {@code $pull}.
+     *
+     * @param animalId the ID of the animal
+     * @param roomId   the ID of the room to remove
+     * @return the updated Animal, or an error with {@link BadRequestException} if the room is not a favourite
+     */
+    @Override
+    public Mono<Animal> unassignFavouriteRoom(String animalId, String roomId) {
+        log.debug("Removing favourite room={} from animal={}", roomId, animalId);
+
+        return roomService.get(roomId)
+                .then(transactions.call(() -> repository.removeFavouriteRoom(animalId, roomId, Instant.now())
+                        .flatMap(updated -> favouriteCounters.incrementAll(Map.of(roomId, -1L)).thenReturn(updated))))
+                .switchIfEmpty(Mono.defer(() -> get(animalId) // 404 if the animal does not exist
+                        .then(Mono.<Animal>error(new BadRequestException(
+                                "Room " + roomId + " is not in favourites for animal " + animalId)))));
+    }
+
+    /**
+     * Lists animals in a specific room with pagination and sorting. The page and the count query run concurrently.
+     *
+     * @param roomId the room ID to filter animals
+     * @param sortBy allowed values: "title", "located"
+     * @param order  allowed values: "asc", "desc"
+     * @param page   zero-based page index
+     * @param size   number of items per page, at most {@code zoo.paging.max-size}
+     * @return a Page of Animal entities
+     */
+    @Override
+    public Mono<Page<Animal>> listAnimalsInRoom(String roomId, String sortBy, String order, int page, int size) {
+        log.debug("Listing animals in room={} sortBy={} order={} page={} size={}",
+                roomId, sortBy, order, page, size);
+
+        Sort.Direction direction;
+        try {
+            direction = AnimalServiceImpl.validateSort(sortBy, order);
+        } catch (BadRequestException e) {
+            return Mono.error(e);
+        }
+        if (size < 1 || size > maxPageSize) {
+            return Mono.error(new BadRequestException("Invalid size: " + size + ". Allowed: 1-" + maxPageSize));
+        }
+        if (page < 0) {
+            return Mono.error(new BadRequestException("Invalid page: " + page + ". Must be 0 or greater"));
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        return roomService.get(roomId) // validate room exists
+                .then(Mono.zip(
+                        repository.findByCurrentRoomId(roomId, pageable).collectList(),
+                        repository.countByCurrentRoomId(roomId)))
+                .<Page<Animal>>map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+    }
+
+    /**
+     * Streams animals for an export, optionally filtered by current room and last update.
+     */
+    @Override
+    public Flux<Animal> export(String roomId, Instant updatedSince) {
+        return repository.findForExport(roomId, updatedSince);
+    }
+
+    /**
+     * Checks the current room and all favourite rooms with one bulk lookup.
+     * Completes empty when all rooms exist, otherwise errors with {@link ResourceNotFoundException}.
+     */
+    private Mono<Void> validateRoomReferences(String currentRoomId, Set<String> favouriteRoomIds) {
+        Set<String> roomIds = new LinkedHashSet<>();
+        if (currentRoomId != null && !currentRoomId.isBlank()) {
+            roomIds.add(currentRoomId);
+        }
+        if (favouriteRoomIds != null) {
+            roomIds.addAll(favouriteRoomIds);
+        }
+        if (roomIds.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return roomService.findMissingIds(roomIds)
+                .flatMap(missing -> missing.isEmpty()
+                        ? Mono.empty()
+                        : Mono.error(new ResourceNotFoundException("Room not found: " + String.join(", ", missing))));
+    }
+
+    /**
+     * Moves one animal's worth of occupancy between rooms; a null or blank room ID means no room.
+     */
+    private Mono<Void> adjustOccupancy(String fromRoomId, String toRoomId) {
+        boolean hasFrom = fromRoomId != null && !fromRoomId.isBlank();
+        boolean hasTo = toRoomId != null && !toRoomId.isBlank();
+        if (hasFrom && hasTo && fromRoomId.equals(toRoomId)) return Mono.empty();
+
+        Map<String, Long> deltas = new HashMap<>();
+        if (hasFrom) deltas.put(fromRoomId, -1L);
+        if (hasTo) deltas.put(toRoomId, 1L);
+        return deltas.isEmpty() ? Mono.empty() : roomService.adjustOccupancy(deltas);
+    }
+
+    private static Animal touch(Animal animal, Instant updated) {
+        animal.setUpdated(updated);
+        animal.setVersion(animal.getVersion() == null ? 1L : animal.getVersion() + 1);
+        return animal;
+    }
+
+    private static Map<String, Long> deltas(Set<String> before, Set<String> after) {
+        Set<String> previous = before == null ? Set.of() : before;
+        Set<String> current = after == null ? Set.of() : after;
+
+        Map<String, Long> deltas = new HashMap<>();
+        for (String roomId : current) {
+            if (!previous.contains(roomId)) deltas.put(roomId, 1L);
+        }
+        for (String roomId : previous) {
+            if (!current.contains(roomId)) deltas.put(roomId, -1L);
+        }
+        return deltas;
+    }
+}
@@ -0,0 +1,153 @@
+package com.eurail.zoo_app.service.impl;
+
+import com.eurail.zoo_app.exception.ResourceNotFoundException;
+import com.eurail.zoo_app.respository.ReactiveRoomRepository;
+import com.eurail.zoo_app.respository.entity.Room;
+import com.eurail.zoo_app.service.ReactiveRoomService;
+import com.eurail.zoo_app.service.RoomCleanupService;
+import com.eurail.zoo_app.service.cache.RoomCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Room operations on the reactive Mongo driver. Shares the {@link RoomCache} with the blocking service,
+ * so cache hits complete without touching the database.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveRoomServiceImpl implements ReactiveRoomService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveRoomServiceImpl.class);
+
+    private final ReactiveRoomRepository repo;
+    private final RoomCache cache;
+    private final RoomCleanupService cleanup;
+
+    public ReactiveRoomServiceImpl(ReactiveRoomRepository repo, RoomCache cache, RoomCleanupService cleanup) {
+        this.repo = repo;
+        this.cache = cache;
+        this.cleanup = cleanup;
+    }
+
+    /**
+     * Creates a new room and sets creation and update timestamps.
+     *
+     * @param room the room to create
+     * @return the created {@link Room}
+     */
+    @Override
+    public Mono<Room> create(Room room) {
+        log.debug("Creating new room: {}", room);
+        room.setCreated(Instant.now());
+        room.setUpdated(Instant.now());
+        room.setVersion(0L);
+        room.setOccupancy(0L);
+        return repo.save(room).doOnNext(cache::put);
+    }
+
+    /**
+     * Retrieves a room by its ID, serving it from the room cache when possible.
+     *
+     * @param id the ID of the room
+     * @return the {@link Room}, or an error with {@link ResourceNotFoundException} if it does not exist
+     */
+    @Override
+    public Mono<Room> get(String id) {
+        log.debug("Getting room by id={}", id);
+        return Mono.justOrEmpty(cache.get(id))
+                .switchIfEmpty(Mono.defer(() -> repo.findById(id).doOnNext(cache::put)))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Room not found: " + id)));
+    }
+
+    /**
+     * Updates an existing room by ID with a single {@code $set}, so concurrent occupancy
+     * changes are not overwritten.
+     *
+     * @param id      the ID of the room to update
+     * @param changes the new values for the room
+     * @return the updated {@link Room}, or an error with {@link ResourceNotFoundException} if it does not exist
+     */
+    @Override
+    public Mono<Room> update(String id, Room changes) {
+        log.debug("Updating room id={} with changes={}", id, changes);
+        return repo.setTitle(id, changes.getTitle(), Instant.now())
+                .doFinally(signal -> cache.invalidate(id))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Room not found: " + id)));
+    }
+
+    /**
+     * Deletes a room by its ID and queues the removal of animal references to it.
+     * Queuing goes through the blocking {@link RoomCleanupService}, so it runs on the bounded elastic scheduler.
+     *
+     * @param id the ID of the room to delete
+     */
+    @Override
+    public Mono<Void> delete(String id) {
+        log.debug("Deleting room id={}", id);
+        return get(id)
+                .flatMap(room -> repo.deleteById(id))
+                .then(Mono.fromRunnable(() -> {
+                    cache.invalidate(id);
+                    cleanup.enqueue(id);
+                }).subscribeOn(Schedulers.boundedElastic()))
+                .then();
+    }
+
+    /**
+     * Resolves a set of room IDs and returns the ones that do not exist.
+     * Cached rooms are checked in memory; all remaining IDs are looked up with a single {@code $in} query.
+     *
+     * @param ids the room IDs to check
+     * @return the IDs that do not match any room, in the order they were given
+     */
+    @Override
+    public Mono<Set<String>> findMissingIds(Collection<String> ids) {
+        Set<String> unresolved = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (cache.get(id).isEmpty()) unresolved.add(id);
+        }
+        if (unresolved.isEmpty()) {
+            return Mono.just(Set.of());
+        }
+
+        log.debug("Resolving {} room ids with one query", unresolved.size());
+        return repo.findAllById(unresolved)
+                .doOnNext(cache::put)
+                .map(Room::getId)
+                .collectList()
+                .map(found -> {
+                    Set<String> missing = new LinkedHashSet<>(unresolved);
+                    found.forEach(missing::remove);
+                    return missing;
+                });
+    }
+
+    /**
+     * Streams all rooms, or the rooms updated at or after the given instant.
+     */
+    @Override
+    public Flux<Room> export(Instant updatedSince) {
+        return updatedSince == null ? repo.findAll() : repo.findByUpdatedGreaterThanEqual(updatedSince);
+    }
+
+    /**
+     * Applies occupancy changes caused by animal moves to the room counters with one bulk write.
+     *
+     * @param deltas room id to number of animals added, negative for animals that left
+     */
+    @Override
+    public Mono<Void> adjustOccupancy(Map<String, Long> deltas) {
+        return repo.incrementOccupancy(deltas);
+    }
+}
@@ -0,0 +1,34 @@
+package com.eurail.zoo_app.service.impl;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.function.Supplier;
+
+/**
+ * Reactive counterpart of {@link WriteTransactions}: runs a document write and its counter updates in one
+ * MongoDB transaction and retries from the start on a transient transaction error.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveWriteTransactions {
+
+    private final TransactionalOperator operator;
+
+    public ReactiveWriteTransactions(ReactiveTransactionManager transactionManager) {
+        this.operator = TransactionalOperator.create(transactionManager);
+    }
+
+    /**
+     * Subscribes to a fresh publisher from {@code work} in a transaction, once per attempt.
+     */
+    public <T> Mono<T> call(Supplier<Mono<T>> work) {
+        return operator.transactional(Mono.defer(work))
+                .retryWhen(Retry.max(WriteTransactions.MAX_ATTEMPTS - 1).filter(WriteTransactions::isTransient)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+}
@@ -0,0 +1,136 @@
+package com.eurail.zoo_app.service.impl;
+
+import com.eurail.zoo_app.config.RoomCleanupProperties;
+import com.eurail.zoo_app.controller.dto.RoomCleanupStatusDto;
+import com.eurail.zoo_app.exception.ResourceNotFoundException;
+import com.eurail.zoo_app.respository.AnimalRepository;
+import com.eurail.zoo_app.respository.FavouriteRoomCounterRepository;
+import com.eurail.zoo_app.respository.RoomCleanupTaskRepository;
+import com.eurail.zoo_app.respository.entity.RoomCleanupTask;
+import com.eurail.zoo_app.service.RoomCleanupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Removes references to deleted rooms from the animals collection in the background.
+ * Deleting a room only queues a task; the sweeper claims tasks with a lease and clears
+ * {@code currentRoomId} and {@code favouriteRoomIds} in small, paced batches so it does not
+ * compete with foreground traffic.
+ */
+@Service
+@EnableConfigurationProperties(RoomCleanupProperties.class)
+public class RoomCleanupServiceImpl implements RoomCleanupService {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomCleanupServiceImpl.class);
+
+    private final RoomCleanupTaskRepository tasks;
+    private final AnimalRepository animals;
+    private final FavouriteRoomCounterRepository favouriteCounters;
+    private final int batchSize;
+    private final Duration pause;
+    private final Duration lease;
+    private final String owner = UUID.randomUUID().toString();
+
+    public RoomCleanupServiceImpl(RoomCleanupTaskRepository tasks, AnimalRepository animals,
+                                  FavouriteRoomCounterRepository favouriteCounters,
+                                  RoomCleanupProperties properties) {
+        this.tasks = tasks;
+        this.animals = animals;
+        this.favouriteCounters = favouriteCounters;
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        this.pause = properties.getPause();
+        this.lease = properties.getLease();
+    }
+
+    /**
+     * Queues the removal of all references to a deleted room.
+     *
+     * @param roomId the ID of the deleted room
+     */
+    @Override
+    public void enqueue(String roomId) {
+        log.debug("Queueing reference cleanup for deleted room={}", roomId);
+        tasks.enqueue(roomId, Instant.now());
+    }
+
+    /**
+     * Processes queued cleanup tasks until none can be claimed.
+     *
+     * @return the number of tasks completed by this run
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${zoo.cleanup.poll-interval:5s}")
+    public int sweep() {
+        int completed = 0;
+        RoomCleanupTask task;
+        while ((task = tasks.claimNext(owner, Instant.now(), Instant.now().plus(lease))) != null) {
+            if (cleanUp(task.getId())) {
+                completed++;
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * Returns the progress of the cleanup for a deleted room.
+     *
+     * @param roomId the ID of the deleted room
+     * @throws ResourceNotFoundException if no cleanup was queued for the room
+     */
+    @Override
+    public RoomCleanupStatusDto status(String roomId) {
+        RoomCleanupTask task = tasks.findById(roomId)
+                .orElseThrow(() -> new ResourceNotFoundException("No cleanup queued for room: " + roomId));
+        return new RoomCleanupStatusDto(task.getId(), task.getStatus().name(), task.getCurrentRoomCleared(),
+                task.getFavouritesCleared(), task.getBatches(), task.getCreated(), task.getCompleted());
+    }
+
+    /**
+     * @return true if the task ran to completion, false if the lease was lost or the thread was interrupted
+     */
+    private boolean cleanUp(String roomId) {
+        log.info("Cleaning up references to deleted room={}", roomId);
+
+        while (true) {
+            Instant now = Instant.now();
+            long currentCleared = animals.relocateBatch(roomId, null, batchSize, now);
+            long favouritesCleared = animals.pullFavouriteRoomBatch(roomId, batchSize, now);
+            if (currentCleared == 0 && favouritesCleared == 0) {
+                break;
+            }
+
+            if (!tasks.recordProgress(roomId, owner, currentCleared, favouritesCleared, now, now.plus(lease))) {
+                log.warn("Lost lease on cleanup of room={}, leaving it to the new owner", roomId);
+                return false;
+            }
+            if (!pause()) {
+                return false;
+            }
+        }
+
+        favouriteCounters.deleteById(roomId);
+        tasks.complete(roomId, owner, Instant.now());
+        log.info("Finished cleanup of deleted room={}", roomId);
+        return true;
+    }
+
+    private boolean pause() {
+        if (pause.isZero() || pause.isNegative()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
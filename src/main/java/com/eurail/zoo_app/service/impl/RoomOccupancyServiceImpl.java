@@ -0,0 +1,107 @@
+package com.eurail.zoo_app.service.impl;
+
+import com.eurail.zoo_app.controller.dto.CounterReconciliationDto;
+import com.eurail.zoo_app.exception.ConflictException;
+import com.eurail.zoo_app.respository.AnimalRepository;
+import com.eurail.zoo_app.respository.JobLeaseRepository;
+import com.eurail.zoo_app.respository.RoomRepository;
+import com.eurail.zoo_app.service.RoomOccupancyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class RoomOccupancyServiceImpl implements RoomOccupancyService {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomOccupancyServiceImpl.class);
+
+    private static final String LEASE_NAME = "room-occupancy-reconcile";
+    private static final Duration LEASE = Duration.ofMinutes(10);
+
+    private final AnimalRepository animalRepository;
+    private final RoomRepository roomRepository;
+    private final JobLeaseRepository leases;
+    private final String owner = UUID.randomUUID().toString();
+
+    public RoomOccupancyServiceImpl(AnimalRepository animalRepository, RoomRepository roomRepository,
+                                    JobLeaseRepository leases) {
+        this.animalRepository = animalRepository;
+        this.roomRepository = roomRepository;
+        this.leases = leases;
+    }
+
+    /**
+     * Rebuilds the room occupancy counters from the animals' current rooms and reports drift.
+     * Rooms created before the counters existed get one first.
+     *
+     * @return a summary of how many rooms were checked and how far their counters had drifted
+     * @throws ConflictException if a reconciliation is already running on another instance
+     */
+    @Override
+    public CounterReconciliationDto reconcile() {
+        return reconcileUnderLease().orElseThrow(() ->
+                new ConflictException("Room occupancy counters are being reconciled by another instance"));
+    }
+
+    /**
+     * Every replica fires the schedule; only the one that gets the lease reconciles.
+     */
+    @Scheduled(cron = "${zoo.occupancy.reconcile-cron:0 30 3 * * *}")
+    public void reconcileOnSchedule() {
+        if (reconcileUnderLease().isEmpty()) {
+            log.debug("Skipping room occupancy reconciliation, another instance holds the lease");
+        }
+    }
+
+    private Optional<CounterReconciliationDto> reconcileUnderLease() {
+        Instant now = Instant.now();
+        if (!leases.tryAcquire(LEASE_NAME, owner, now, now.plus(LEASE))) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(recount());
+        } finally {
+            leases.release(LEASE_NAME, owner);
+        }
+    }
+
+    /**
+     * As with the favourite-room counters, the counters are read before the recount and each correction
+     * is a {@code $set} that only applies while the counter still holds the value read, so a move during
+     * the run is never counted twice; its room is checked again on the next run.
+     */
+    private CounterReconciliationDto recount() {
+        log.debug("Reconciling room occupancy counters");
+
+        long initialised = roomRepository.initMissingOccupancy();
+        Map<String, Long> actual = roomRepository.findAllOccupancies();
+        // animals still pointing at deleted rooms are cleared by the room cleanup, not counted here
+        Map<String, Long> expected = new HashMap<>(animalRepository.countByCurrentRoom());
+        expected.keySet().retainAll(actual.keySet());
+
+        Map<String, Long> deltas = FavouriteRoomCounterServiceImpl.computeDrift(expected, actual);
+        Map<String, Long> targets = new HashMap<>();
+        deltas.keySet().forEach(roomId -> targets.put(roomId, expected.getOrDefault(roomId, 0L)));
+        int corrected = roomRepository.setOccupancyIfUnchanged(targets, actual);
+
+        long totalDrift = deltas.values().stream().mapToLong(Math::abs).sum();
+        if (deltas.isEmpty()) {
+            log.info("Room occupancy counters are consistent ({} rooms checked, {} initialised)",
+                    actual.size(), initialised);
+        } else {
+            log.warn("Room occupancy counters drifted: {} rooms off by {} in total, {} corrected "
+                    + "(the rest changed during the run), {} initialised",
+                    deltas.size(), totalDrift, corrected, initialised);
+        }
+
+        return new CounterReconciliationDto(actual.size(), deltas.size(), totalDrift, Instant.now());
+    }
+}
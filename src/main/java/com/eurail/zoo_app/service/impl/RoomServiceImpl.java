@@ -1,24 +1,54 @@
 package com.eurail.zoo_app.service.impl;
 
+import com.eurail.zoo_app.config.PagingProperties;
+import com.eurail.zoo_app.controller.dto.RoomCacheStatsDto;
+import com.eurail.zoo_app.controller.dto.RoomPatchDto;
+import com.eurail.zoo_app.exception.BadRequestException;
+import com.eurail.zoo_app.exception.ConflictException;
+import com.eurail.zoo_app.exception.PreconditionFailedException;
 import com.eurail.zoo_app.exception.ResourceNotFoundException;
 import com.eurail.zoo_app.respository.RoomRepository;
 import com.eurail.zoo_app.respository.entity.Room;
+import com.eurail.zoo_app.service.BatchResult;
+import com.eurail.zoo_app.service.RoomCleanupService;
+import com.eurail.zoo_app.service.RoomScroll;
 import com.eurail.zoo_app.service.RoomService;
+import com.eurail.zoo_app.service.VersionStamp;
+import com.eurail.zoo_app.service.cache.RoomCache;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Timed(value = "zoo.service", histogram = true)
 public class RoomServiceImpl implements RoomService {
 
     private static final Logger log = LoggerFactory.getLogger(RoomServiceImpl.class);
 
     private final RoomRepository repo;
+    private final RoomCache cache;
+    private final RoomCleanupService cleanup;
+    private final int maxPageSize;
+    private final int maxBatchSize;
 
-    public RoomServiceImpl(RoomRepository repo) {
+    public RoomServiceImpl(RoomRepository repo, RoomCache cache, RoomCleanupService cleanup, PagingProperties paging) {
         this.repo = repo;
+        this.cache = cache;
+        this.cleanup = cleanup;
+        this.maxPageSize = paging.getMaxSize();
+        this.maxBatchSize = paging.getMaxBatchSize();
     }
 
     /**
@@ -32,11 +62,15 @@ public class RoomServiceImpl implements RoomService {
         log.debug("Creating new room: {}", room);
         room.setCreated(Instant.now());
         room.setUpdated(Instant.now());
-        return repo.save(room);
+        room.setVersion(0L);
+        room.setOccupancy(0L);
+        Room saved = repo.save(room);
+        cache.put(saved);
+        return saved;
     }
 
     /**
-     * Retrieves a room by its ID.
+     * Retrieves a room by its ID, serving it from the room cache when possible.
      *
      * @param id the ID of the room
      * @return the {@link Room} entity
@@ -45,12 +79,14 @@ public class RoomServiceImpl implements RoomService {
     @Override
     public Room get(String id) {
         log.debug("Getting room by id={}", id);
-        return repo.findById(id)
+        return cache.get(id)
+                .or(() -> load(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Room not found: " + id));
     }
 
     /**
-     * Updates an existing room by ID.
+     * Updates an existing room by ID with a single {@code $set}, so concurrent occupancy
+     * changes are not overwritten.
      *
      * @param id      the ID of the room to update
      * @param changes the new values for the room
@@ -60,14 +96,68 @@ public class RoomServiceImpl implements RoomService {
     @Override
     public Room update(String id, Room changes) {
         log.debug("Updating room id={} with changes={}", id, changes);
-        Room existing = get(id);
-        existing.setTitle(changes.getTitle());
-        existing.setUpdated(Instant.now());
-        return repo.save(existing);
+        Room saved = repo.setTitle(id, changes.getTitle(), Instant.now());
+        cache.invalidate(id);
+        if (saved == null) {
+            throw new ResourceNotFoundException("Room not found: " + id);
+        }
+        return saved;
     }
 
     /**
-     * Deletes a room by its ID.
+     * Updates a room only if it is still at {@code expectedVersion}, e.g. from an {@code If-Match} header.
+     * The version check and the write are one conditional {@code $set}.
+     *
+     * @throws ResourceNotFoundException   if no room with the given ID exists
+     * @throws PreconditionFailedException if the stored room is no longer at the expected version
+     */
+    @Override
+    public Room update(String id, Room changes, long expectedVersion) {
+        log.debug("Updating room id={} at version={} with changes={}", id, expectedVersion, changes);
+        Room saved = repo.setTitleIfVersion(id, expectedVersion, changes.getTitle(), Instant.now());
+        cache.invalidate(id);
+        if (saved == null) {
+            if (!repo.existsById(id)) {
+                throw new ResourceNotFoundException("Room not found: " + id);
+            }
+            throw new PreconditionFailedException("Room " + id + " is no longer at version " + expectedVersion);
+        }
+        return saved;
+    }
+
+    /**
+     * Applies a partial update with a single conditional {@code $set}, without reading the room first.
+     *
+     * @param id    the ID of the room to patch
+     * @param patch the fields to change and the version the client last saw
+     * @return the updated {@link Room}
+     * @throws ResourceNotFoundException if no room with the given ID exists
+     * @throws ConflictException         if the room was modified since the given version
+     */
+    @Override
+    public Room patch(String id, RoomPatchDto patch) {
+        log.debug("Patching room id={} at version={}", id, patch.getVersion());
+
+        if (patch.getTitle() != null && patch.getTitle().isBlank()) {
+            throw new BadRequestException("Room title must not be blank");
+        }
+
+        Room patched = repo.patchIfVersion(id, patch.getVersion(), patch, Instant.now());
+        if (patched == null) {
+            if (!repo.existsById(id)) {
+                throw new ResourceNotFoundException("Room not found: " + id);
+            }
+            throw new ConflictException("Room " + id + " was modified concurrently (expected version "
+                    + patch.getVersion() + ")");
+        }
+
+        cache.put(patched);
+        return patched;
+    }
+
+    /**
+     * Deletes a room by its ID and queues the removal of animal references to it.
+     * The references are cleared in the background by {@link RoomCleanupService}.
      *
      * @param id the ID of the room to delete
      * @throws ResourceNotFoundException if no room with the given ID exists
@@ -77,10 +167,177 @@ public class RoomServiceImpl implements RoomService {
         log.debug("Deleting room id={}", id);
         get(id); // validate existence
         repo.deleteById(id);
+        cache.invalidate(id);
+        cleanup.enqueue(id);
+    }
+
+    /**
+     * Deletes a room only if it is still at {@code expectedVersion}, then queues the reference cleanup.
+     *
+     * @throws ResourceNotFoundException   if no room with the given ID exists
+     * @throws PreconditionFailedException if the stored room is no longer at the expected version
+     */
+    @Override
+    public void delete(String id, long expectedVersion) {
+        log.debug("Deleting room id={} at version={}", id, expectedVersion);
+        if (!repo.deleteIfVersion(id, expectedVersion)) {
+            if (!repo.existsById(id)) {
+                throw new ResourceNotFoundException("Room not found: " + id);
+            }
+            throw new PreconditionFailedException("Room " + id + " is no longer at version " + expectedVersion);
+        }
+        cache.invalidate(id);
+        cleanup.enqueue(id);
+    }
+
+    /**
+     * Reads only the version and update time of a room, from the room cache when possible.
+     *
+     * @throws ResourceNotFoundException if no room with the given ID exists
+     */
+    @Override
+    public VersionStamp getVersionStamp(String id) {
+        return cache.get(id)
+                .or(() -> repo.findVersionInfo(id))
+                .map(room -> new VersionStamp(room.getVersion(), room.getUpdated()))
+                .orElseThrow(() -> new ResourceNotFoundException("Room not found: " + id));
     }
 
+    /**
+     * Checks whether a room exists. Cached rooms are answered without a database round trip;
+     * a miss loads the room so later lookups are served from the cache.
+     *
+     * @param id the ID of the room
+     * @return true if the room exists
+     */
+    @Override
     public boolean exists(String id) {
-        return repo.existsById(id);
+        return cache.get(id).isPresent() || load(id).isPresent();
+    }
+
+    /**
+     * Retrieves many rooms by ID. Cached rooms are served from memory; all remaining IDs are
+     * looked up with a single {@code $in} query and the rooms found are added to the cache.
+     *
+     * @param ids the IDs to look up, at most {@code zoo.paging.max-batch-size}; duplicates are ignored
+     * @return the rooms found and the IDs not found, both in request order
+     * @throws BadRequestException if no IDs or too many IDs are given
+     */
+    @Override
+    public BatchResult<Room> getAll(List<String> ids) {
+        Set<String> requested = BatchResult.requestedIds(ids, maxBatchSize);
+
+        Map<String, Room> byId = new HashMap<>();
+        Set<String> unresolved = new LinkedHashSet<>();
+        for (String id : requested) {
+            cache.get(id).ifPresentOrElse(room -> byId.put(id, room), () -> unresolved.add(id));
+        }
+        if (!unresolved.isEmpty()) {
+            log.debug("Resolving {} of {} room ids with one query", unresolved.size(), requested.size());
+            for (Room room : repo.findAllById(unresolved)) {
+                cache.put(room);
+                byId.put(room.getId(), room);
+            }
+        }
+        return BatchResult.of(requested, byId);
+    }
+
+    /**
+     * Resolves a set of room IDs and returns the ones that do not exist.
+     * Cached rooms are checked in memory; all remaining IDs are looked up with a single
+     * {@code $in} query and the rooms found are added to the cache.
+     *
+     * @param ids the room IDs to check
+     * @return the IDs that do not match any room, in the order they were given
+     */
+    @Override
+    public Set<String> findMissingIds(Collection<String> ids) {
+        Set<String> unresolved = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (cache.get(id).isEmpty()) unresolved.add(id);
+        }
+        if (unresolved.isEmpty()) {
+            return Set.of();
+        }
+
+        log.debug("Resolving {} room ids with one query", unresolved.size());
+        Set<String> missing = new LinkedHashSet<>(unresolved);
+        for (Room room : repo.findAllById(unresolved)) {
+            cache.put(room);
+            missing.remove(room.getId());
+        }
+        return missing;
+    }
+
+    /**
+     * Lists all rooms with keyset pagination, with their occupancy read from the per-room counter.
+     * Each page continues after the (sort value, id) of the previous page's last room.
+     *
+     * @param sortBy allowed values: "title", "occupancy"
+     * @param order  allowed values: "asc", "desc"
+     * @param size   number of items per page, at most {@code zoo.paging.max-size}
+     * @param cursor the {@code nextCursor} of the previous page, or null for the first page
+     * @return the page and the cursor for the next one (null on the last page)
+     * @throws BadRequestException if a parameter is invalid or the cursor was issued for another sort
+     */
+    @Override
+    public RoomScroll listRooms(String sortBy, String order, int size, String cursor) {
+        log.debug("Listing rooms sortBy={} order={} size={} cursor={}", sortBy, order, size, cursor);
+
+        if (!sortBy.equals("title") && !sortBy.equals("occupancy")) {
+            throw new BadRequestException("Invalid sort field: " + sortBy + ". Allowed: title, occupancy");
+        }
+        Sort.Direction direction;
+        if (order.equalsIgnoreCase("asc")) {
+            direction = Sort.Direction.ASC;
+        } else if (order.equalsIgnoreCase("desc")) {
+            direction = Sort.Direction.DESC;
+        } else {
+            throw new BadRequestException("Invalid order: " + order + ". Allowed: asc, desc");
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new BadRequestException("Invalid size: " + size + ". Allowed: 1-" + maxPageSize);
+        }
+
+        KeysetCursor after = cursor == null || cursor.isBlank() ? null
+                : KeysetCursor.decode(cursor, sortBy, order, sortBy.equals("occupancy") ? Long::valueOf : v -> v);
+        List<Room> rooms = repo.findAfter(sortBy, direction,
+                after == null ? null : after.getValue(),
+                after == null ? null : after.getId(),
+                size + 1);
+
+        if (rooms.size() <= size) {
+            return new RoomScroll(rooms, null);
+        }
+        List<Room> content = rooms.subList(0, size);
+        Room last = content.get(size - 1);
+        String next = new KeysetCursor(sortBy, order.toLowerCase(),
+                sortBy.equals("title") ? last.getTitle() : last.getOccupancy(), last.getId()).encode();
+        return new RoomScroll(new ArrayList<>(content), next);
+    }
+
+    /**
+     * Applies occupancy changes caused by animal moves to the room counters with one bulk write.
+     *
+     * @param deltas room id to number of animals added, negative for animals that left
+     */
+    @Override
+    public void adjustOccupancy(Map<String, Long> deltas) {
+        repo.incrementOccupancy(deltas);
+    }
+
+    /**
+     * Returns hit, miss and eviction counters of the room cache.
+     */
+    @Override
+    public RoomCacheStatsDto cacheStats() {
+        return cache.stats();
+    }
+
+    private Optional<Room> load(String id) {
+        Optional<Room> room = repo.findById(id);
+        room.ifPresent(cache::put);
+        return room;
     }
 
 }
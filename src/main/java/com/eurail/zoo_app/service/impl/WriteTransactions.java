@@ -0,0 +1,70 @@
+package com.eurail.zoo_app.service.impl;
+
+import com.mongodb.MongoException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs a document write and the counter updates that follow from it in one MongoDB transaction, so an
+ * error or crash between the two cannot leave a counter drifted.
+ * Concurrent transactions that touch the same counter do not wait for each other: one of them aborts with
+ * a write conflict, labelled {@code TransientTransactionError}. Those are retried from the start, as the
+ * driver's {@code withTransaction} does, so the work must not depend on state changed by a previous attempt.
+ */
+@Component
+public class WriteTransactions {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteTransactions.class);
+
+    static final int MAX_ATTEMPTS = 5;
+
+    private final TransactionTemplate template;
+
+    public WriteTransactions(PlatformTransactionManager transactionManager) {
+        this.template = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Runs {@code work} in a transaction and returns its result.
+     */
+    public <T> T call(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return template.execute(status -> work.get());
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS || !isTransient(e)) {
+                    throw e;
+                }
+                log.debug("Retrying transaction after a transient error (attempt {}): {}", attempt, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Runs {@code work} in a transaction.
+     */
+    public void run(Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * True if the exception, or one of its causes, is a MongoDB error that aborted the transaction and
+     * can be retried. Spring translates driver exceptions but keeps them as the cause.
+     */
+    static boolean isTransient(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof MongoException mongo && mongo.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,5 +1,6 @@
 package com.eurail.zoo_app.integration;
 
+import com.eurail.zoo_app.config.QueryCountFilter;
 import com.eurail.zoo_app.controller.dto.AnimalCreateDto;
 import com.eurail.zoo_app.controller.dto.AnimalUpdateDto;
 import com.eurail.zoo_app.controller.dto.FavouriteRequestDto;
@@ -11,23 +12,36 @@ import com.eurail.zoo_app.respository.RoomRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -35,6 +49,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @Testcontainers
 class AnimalControllerIT {
 
+    @RegisterExtension
+    QueryBudgetExtension queryBudget = new QueryBudgetExtension();
+
     @Container
     static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0.0");
 
@@ -259,4 +276,401 @@ class AnimalControllerIT {
         assertThat(updated.getFavouriteRoomIds()).doesNotContain(room.getId());
     }
 
+    @Test
+    void bulkImport_shouldInsertValidLinesAndReportEachLine() throws Exception {
+        Room room = new Room();
+        room.setTitle("Savannah");
+        room = roomRepository.save(room);
+
+        String body = "{\"title\":\"Lion\",\"located\":\"2025-01-01\",\"currentRoomId\":\"" + room.getId() + "\"}\n"
+                + "{\"title\":\"Ghost\",\"located\":\"2025-01-01\",\"currentRoomId\":\"missing\"}\n"
+                + "not json\n";
+
+        MvcResult started = mockMvc.perform(post("/animals/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String report = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = report.strip().split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).contains("\"line\":1", "\"status\":\"created\"");
+        assertThat(lines[1]).contains("\"line\":2", "Room not found: missing");
+        assertThat(lines[2]).contains("\"line\":3", "\"status\":\"error\"");
+
+        assertThat(repository.findAll()).extracting(Animal::getTitle).containsExactly("Lion");
+    }
+
+    @Test
+    void bulkImport_shouldAcceptCsv() throws Exception {
+        Room room = new Room();
+        room.setTitle("Jungle");
+        room = roomRepository.save(room);
+
+        String body = "title,located,currentRoomId,favouriteRoomIds\n"
+                + "Tiger,2025-02-01," + room.getId() + "," + room.getId() + "\n"
+                + "\"Bear, Brown\",2025-02-02,,\n";
+
+        MvcResult started = mockMvc.perform(post("/animals/bulk")
+                        .contentType("text/csv")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk());
+
+        assertThat(repository.findAll()).extracting(Animal::getTitle)
+                .containsExactlyInAnyOrder("Tiger", "Bear, Brown");
+    }
+
+    @Test
+    void bulkImport_csvWithoutRequiredColumns_shouldReturn400() throws Exception {
+        mockMvc.perform(post("/animals/bulk")
+                        .contentType("text/csv")
+                        .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON)
+                        .content("name,born\nTiger,2025-02-01\n"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(repository.findAll()).isEmpty();
+    }
+
+    @Test
+    void exportAnimals_shouldStreamOneLinePerAnimalAndFilterByRoom() throws Exception {
+        Room desert = new Room();
+        desert.setTitle("Desert");
+        Room room = roomRepository.save(desert);
+
+        for (int i = 0; i < 5; i++) {
+            Animal animal = new Animal();
+            animal.setTitle("Camel " + i);
+            animal.setCurrentRoomId(i < 3 ? room.getId() : null);
+            repository.save(animal);
+        }
+
+        MvcResult all = mockMvc.perform(get("/animals/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String exported = mockMvc.perform(asyncDispatch(all))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(exported.strip().split("\n")).hasSize(5);
+
+        MvcResult inRoom = mockMvc.perform(get("/animals/export").param("roomId", room.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String filtered = mockMvc.perform(asyncDispatch(inRoom))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = filtered.strip().split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines).allSatisfy(line -> assertThat(line).contains("\"currentRoomId\":\"" + room.getId() + "\""));
+    }
+
+    @Test
+    void exportAnimals_shouldGzipWhenAccepted() throws Exception {
+        Animal animal = new Animal();
+        animal.setTitle("Zebra");
+        repository.save(animal);
+
+        MvcResult started = mockMvc.perform(get("/animals/export").header("Accept-Encoding", "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String exported = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(exported).contains("\"title\":\"Zebra\"").endsWith("\n");
+        }
+    }
+
+    @Test
+    void scrollAnimalsInRoom_shouldVisitEveryAnimalOnceAcrossPages() throws Exception {
+        Room room = new Room();
+        room.setTitle("Scroll Room");
+        room = roomRepository.save(room);
+
+        String[] titles = {"B", "A", "B", null, "C"};
+        for (String title : titles) {
+            Animal animal = new Animal();
+            animal.setTitle(title);
+            animal.setCurrentRoomId(room.getId());
+            repository.save(animal);
+        }
+
+        for (String order : List.of("asc", "desc")) {
+            List<String> seen = new ArrayList<>();
+            String cursor = null;
+            do {
+                var request = get("/animals/room/{roomId}/scroll", room.getId())
+                        .param("sortBy", "title")
+                        .param("order", order)
+                        .param("size", "2");
+                if (cursor != null) {
+                    request.param("cursor", cursor);
+                }
+                String body = mockMvc.perform(request)
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString();
+                var page = objectMapper.readTree(body);
+                page.get("items").forEach(item -> seen.add(item.get("id").asText()));
+                cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+            } while (cursor != null);
+
+            assertThat(seen).hasSize(titles.length).doesNotHaveDuplicates();
+        }
+    }
+
+    @Test
+    void listAnimalsInRoom_shouldRejectOversizedPage() throws Exception {
+        Room room = new Room();
+        room.setTitle("Big Room");
+        room = roomRepository.save(room);
+
+        mockMvc.perform(get("/animals/room/{roomId}", room.getId()).param("size", "1000000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void sliceAnimalsInRoom_shouldReturnHasNextWithoutTotals() throws Exception {
+        Room room = new Room();
+        room.setTitle("Slice Room");
+        room = roomRepository.save(room);
+
+        for (int i = 0; i < 3; i++) {
+            Animal animal = new Animal();
+            animal.setTitle("Animal " + i);
+            animal.setCurrentRoomId(room.getId());
+            repository.save(animal);
+        }
+
+        mockMvc.perform(get("/animals/room/{roomId}/slice", room.getId()).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.estimatedTotal").doesNotExist());
+
+        mockMvc.perform(get("/animals/room/{roomId}/slice", room.getId())
+                        .param("size", "2").param("page", "1").param("estimate", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.estimatedTotal").value(3))
+                .andExpect(jsonPath("$.estimateCapped").value(false));
+    }
+
+    @Test
+    void getAnimal_shouldReportQueryCountHeader() throws Exception {
+        Animal animal = new Animal();
+        animal.setTitle("Counted");
+        animal = repository.save(animal);
+
+        mockMvc.perform(get("/animals/{id}", animal.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryCountFilter.HEADER, "1"));
+    }
+
+    @Test
+    void createAnimal_queryCountShouldNotDependOnFavouriteCount() throws Exception {
+        queryBudget.assertQueriesIndependentOf(List.of(1, 5, 20), size -> {
+            AnimalCreateDto dto = new AnimalCreateDto();
+            dto.setTitle("Lion");
+            dto.setLocated(LocalDate.of(2025, 11, 23));
+            dto.setFavouriteRoomIds(newRooms(size));
+
+            mockMvc.perform(post("/animals")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isCreated());
+        });
+    }
+
+    @Test
+    void updateAnimal_queryCountShouldNotDependOnFavouriteCount() throws Exception {
+        queryBudget.assertQueriesIndependentOf(List.of(1, 5, 20), size -> {
+            Animal animal = new Animal();
+            animal.setTitle("Elephant");
+            animal.setFavouriteRoomIds(newRooms(size));
+            animal = repository.save(animal);
+
+            AnimalUpdateDto dto = new AnimalUpdateDto();
+            dto.setTitle("Elephant Updated");
+            dto.setLocated(LocalDate.of(2025, 11, 23));
+            dto.setFavouriteRoomIds(newRooms(size));
+
+            mockMvc.perform(put("/animals/{id}", animal.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isOk());
+        });
+    }
+
+    @Test
+    void getAnimal_shouldAnswerConditionalGetWithNotModified() throws Exception {
+        Animal animal = new Animal();
+        animal.setTitle("Zebra");
+        animal.setVersion(3L);
+        animal = repository.save(animal);
+
+        MvcResult result = mockMvc.perform(get("/animals/{id}", animal.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn();
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/animals/{id}", animal.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // any write bumps the version, so the old tag no longer matches
+        animal.setVersion(4L);
+        repository.save(animal);
+        mockMvc.perform(get("/animals/{id}", animal.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    void updateAnimal_shouldRejectStaleIfMatch() throws Exception {
+        Animal animal = new Animal();
+        animal.setTitle("Elephant");
+        animal.setVersion(2L);
+        animal = repository.save(animal);
+
+        AnimalUpdateDto dto = new AnimalUpdateDto();
+        dto.setTitle("Elephant Updated");
+        dto.setLocated(LocalDate.of(2025, 11, 23));
+
+        mockMvc.perform(put("/animals/{id}", animal.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(repository.findById(animal.getId()).orElseThrow().getTitle()).isEqualTo("Elephant");
+
+        mockMvc.perform(put("/animals/{id}", animal.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.title").value("Elephant Updated"));
+    }
+
+    @Test
+    void deleteAnimal_shouldHonourIfMatch() throws Exception {
+        Animal animal = new Animal();
+        animal.setTitle("Monkey");
+        animal.setVersion(5L);
+        animal = repository.save(animal);
+
+        mockMvc.perform(delete("/animals/{id}", animal.getId()).header(HttpHeaders.IF_MATCH, "\"4\""))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(repository.existsById(animal.getId())).isTrue();
+
+        mockMvc.perform(delete("/animals/{id}", animal.getId()).header(HttpHeaders.IF_MATCH, "\"5\""))
+                .andExpect(status().isNoContent());
+        assertThat(repository.existsById(animal.getId())).isFalse();
+    }
+
+    @Test
+    void getAnimal_shouldReturnOnlySelectedFields() throws Exception {
+        Animal animal = new Animal();
+        animal.setTitle("Giraffe");
+        animal.setCurrentRoomId("r1");
+        animal.setFavouriteRoomIds(Set.of("r1", "r2"));
+        animal = repository.save(animal);
+
+        mockMvc.perform(get("/animals/{id}", animal.getId()).param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.id").value(animal.getId()))
+                .andExpect(jsonPath("$.title").value("Giraffe"))
+                .andExpect(jsonPath("$.currentRoomId").doesNotExist())
+                .andExpect(jsonPath("$.favouriteRoomIds").doesNotExist())
+                .andExpect(jsonPath("$.version").doesNotExist());
+
+        mockMvc.perform(get("/animals/{id}", animal.getId()).param("fields", "title,secret"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listAnimalsInRoom_shouldReturnOnlySelectedFields() throws Exception {
+        String board = newRooms(1).iterator().next();
+        for (String title : List.of("Ant", "Bee", "Cat")) {
+            Animal animal = new Animal();
+            animal.setTitle(title);
+            animal.setCurrentRoomId(board);
+            animal.setFavouriteRoomIds(Set.of("r1"));
+            repository.save(animal);
+        }
+
+        mockMvc.perform(get("/animals/room/{roomId}", board).param("fields", "id,title").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.items[0].title").value("Ant"))
+                .andExpect(jsonPath("$.items[0].id").isNotEmpty())
+                .andExpect(jsonPath("$.items[0].favouriteRoomIds").doesNotExist())
+                .andExpect(jsonPath("$.items[1].title").value("Bee"));
+
+        // without fields every property is returned
+        mockMvc.perform(get("/animals/room/{roomId}", board))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].favouriteRoomIds[0]").value("r1"));
+    }
+
+    @Test
+    void batchGetAnimals_shouldReturnFoundInRequestOrderAndMissing() throws Exception {
+        Animal lion = new Animal();
+        lion.setTitle("Lion");
+        lion = repository.save(lion);
+        Animal tiger = new Animal();
+        tiger.setTitle("Tiger");
+        tiger = repository.save(tiger);
+        String missing = "0123456789abcdef01234567";
+
+        mockMvc.perform(get("/animals:batchGet").param("ids", tiger.getId() + "," + missing + "," + lion.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryCountFilter.HEADER, "1"))
+                .andExpect(jsonPath("$.items[0].title").value("Tiger"))
+                .andExpect(jsonPath("$.items[1].title").value("Lion"))
+                .andExpect(jsonPath("$.missing[0]").value(missing));
+
+        mockMvc.perform(post("/animals:batchGet")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("ids", List.of(lion.getId())))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(lion.getId()))
+                .andExpect(jsonPath("$.missing").isEmpty());
+
+        mockMvc.perform(post("/animals:batchGet")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Rooms written directly to the database, so they are not in the room cache yet.
+     */
+    private Set<String> newRooms(int count) {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            Room room = new Room();
+            room.setTitle("Room " + i);
+            ids.add(roomRepository.save(room).getId());
+        }
+        return ids;
+    }
 }
@@ -0,0 +1,138 @@
+package com.eurail.zoo_app.integration;
+
+import com.eurail.zoo_app.respository.ChangeStreamTokenRepository;
+import com.eurail.zoo_app.respository.RoomRepository;
+import com.eurail.zoo_app.respository.entity.Room;
+import com.eurail.zoo_app.service.RoomService;
+import com.eurail.zoo_app.service.cache.ChangeStreamCacheInvalidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Writes go straight to the database, as if another replica had made them; the cached rooms of
+ * this instance have to be evicted by the change stream.
+ */
+@SpringBootTest
+@Testcontainers
+class CacheInvalidationIT {
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0.0");
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+        registry.add("zoo.cleanup.poll-interval", () -> "1h");
+        registry.add("zoo.cache.invalidation.instance-id", () -> "cache-invalidation-it");
+        registry.add("zoo.cache.invalidation.token-save-interval", () -> "0s");
+    }
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private RoomRepository repository;
+
+    @Autowired
+    private ChangeStreamTokenRepository tokenRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ChangeStreamCacheInvalidator invalidator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        await().atMost(Duration.ofSeconds(10)).until(invalidator::isListening);
+    }
+
+    @Test
+    void updateFromOtherReplica_shouldEvictCachedRoom() {
+        Room room = cachedRoom("Old Title");
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(room.getId())),
+                new Update().set("title", "New Title").inc("version", 1), Room.class);
+
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> roomService.get(room.getId()).getTitle().equals("New Title"));
+    }
+
+    @Test
+    void occupancyOnlyUpdate_shouldNotEvictCachedRoom() {
+        Room room = cachedRoom("Busy");
+        // once this change is visible, the events of earlier writes (e.g. the cleanup in setup) have been processed
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(room.getId())),
+                new Update().set("title", "Busy Again").inc("version", 1), Room.class);
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> roomService.get(room.getId()).getTitle().equals("Busy Again"));
+        double evictionsBefore = roomEvictions();
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(room.getId())),
+                new Update().inc("occupancy", 1), Room.class);
+        // a later title change shows the occupancy event has been processed
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(room.getId())),
+                new Update().set("title", "Busier").inc("version", 1), Room.class);
+
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> roomService.get(room.getId()).getTitle().equals("Busier"));
+        assertThat(roomEvictions() - evictionsBefore).isEqualTo(1.0);
+    }
+
+    @Test
+    void deleteFromOtherReplica_shouldEvictCachedRoom() {
+        Room room = cachedRoom("Doomed");
+
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(room.getId())), Room.class);
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> !roomService.exists(room.getId()));
+    }
+
+    @Test
+    void processedEvents_shouldPersistResumeToken() {
+        Room room = cachedRoom("Tracked");
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(room.getId())),
+                new Update().set("title", "Tracked Again"), Room.class);
+
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> tokenRepository.findById("cache-invalidation-it").isPresent());
+        assertThat(tokenRepository.findById("cache-invalidation-it").orElseThrow().getResumeToken())
+                .contains("_data");
+    }
+
+    private double roomEvictions() {
+        Counter counter = meterRegistry.find("zoo.cache.invalidations")
+                .tags("collection", "rooms", "type", "entry").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private Room cachedRoom(String title) {
+        Room room = roomService.create(new Room(null, title, null, null));
+        // served from the cache from now on
+        assertThat(roomService.get(room.getId()).getTitle()).isEqualTo(title);
+        return room;
+    }
+}
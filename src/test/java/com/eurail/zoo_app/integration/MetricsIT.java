@@ -0,0 +1,102 @@
+package com.eurail.zoo_app.integration;
+
+import com.eurail.zoo_app.controller.dto.RoomCreateDto;
+import com.eurail.zoo_app.respository.entity.Room;
+import com.eurail.zoo_app.respository.RoomRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@Testcontainers
+class MetricsIT {
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0.0");
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+        registry.add("zoo.cleanup.poll-interval", () -> "1h");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RoomRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void prometheus_shouldExposeEndpointServiceMongoAndCacheMetrics() throws Exception {
+        Room room = new Room();
+        room.setTitle("Metrics Room");
+        room = repository.save(room);
+
+        mockMvc.perform(get("/rooms/{id}", room.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/rooms/{id}", room.getId())).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("uri=\"/rooms/{id}\"")
+                .contains("zoo_service_seconds_bucket{")
+                .contains("class=\"com.eurail.zoo_app.service.impl.RoomServiceImpl\"")
+                .contains("mongodb_driver_commands_seconds_count{")
+                .contains("mongodb_driver_pool_size{")
+                .contains("cache_gets_total{");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "rooms").tag("result", "hit")
+                .functionCounter().count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void validationFailure_shouldBeCountedPerField() throws Exception {
+        double before = validationFailures();
+
+        mockMvc.perform(post("/rooms")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RoomCreateDto())))
+                .andExpect(status().isBadRequest());
+
+        assertThat(validationFailures()).isEqualTo(before + 1);
+    }
+
+    private double validationFailures() {
+        var counter = meterRegistry.find("zoo.validation.failures")
+                .tag("object", "roomCreateDto")
+                .tag("field", "title")
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
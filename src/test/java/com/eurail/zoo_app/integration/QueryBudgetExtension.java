@@ -0,0 +1,80 @@
+package com.eurail.zoo_app.integration;
+
+import com.eurail.zoo_app.config.QueryCounter;
+import com.eurail.zoo_app.config.RequestQueries;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Records the MongoDB query count of every request a test makes and fails the test if any request went
+ * over its endpoint's {@link com.eurail.zoo_app.controller.QueryBudget}. Register it as an instance field
+ * with {@code @RegisterExtension}; {@link #assertQueriesIndependentOf} checks that an endpoint's query count
+ * does not grow with the size of its input.
+ */
+class QueryBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private final List<RequestQueries> requests = new CopyOnWriteArrayList<>();
+    private final Consumer<RequestQueries> listener = requests::add;
+    private QueryCounter counter;
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        counter = SpringExtension.getApplicationContext(context).getBean(QueryCounter.class);
+        requests.clear();
+        counter.addListener(listener);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        counter.removeListener(listener);
+        List<String> overBudget = requests.stream()
+                .filter(RequestQueries::isOverBudget)
+                .map(RequestQueries::toString)
+                .toList();
+        assertThat(overBudget).as("requests over their query budget").isEmpty();
+    }
+
+    /**
+     * The requests completed so far in the current test, in completion order.
+     */
+    List<RequestQueries> requests() {
+        return new ArrayList<>(requests);
+    }
+
+    /**
+     * Runs {@code action} once per size and fails if the requests it makes send a different number of
+     * queries for different sizes. The action should set up its own data (e.g. fresh rooms) so that
+     * caching does not make later runs cheaper.
+     */
+    void assertQueriesIndependentOf(List<Integer> sizes, SizedAction action) throws Exception {
+        Map<Integer, Integer> queriesBySize = new LinkedHashMap<>();
+        Map<Integer, String> detail = new LinkedHashMap<>();
+        for (int size : sizes) {
+            int from = requests.size();
+            action.run(size);
+            List<RequestQueries> made = requests.subList(from, requests.size());
+            queriesBySize.put(size, made.stream().mapToInt(RequestQueries::getCount).sum());
+            detail.put(size, made.stream().map(RequestQueries::toString).collect(Collectors.joining("; ")));
+        }
+        assertThat(queriesBySize.values().stream().distinct().count())
+                .as("queries per input size %s: %s", queriesBySize, detail)
+                .isEqualTo(1);
+    }
+
+    @FunctionalInterface
+    interface SizedAction {
+        void run(int size) throws Exception;
+    }
+}
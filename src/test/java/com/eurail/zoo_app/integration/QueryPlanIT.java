@@ -0,0 +1,324 @@
+package com.eurail.zoo_app.integration;
+
+import com.eurail.zoo_app.controller.dto.EvacuateRequestDto;
+import com.eurail.zoo_app.respository.AnimalRepository;
+import com.eurail.zoo_app.respository.FavouriteRoomCounterRepository;
+import com.eurail.zoo_app.respository.RoomCleanupTaskRepository;
+import com.eurail.zoo_app.respository.RoomRepository;
+import com.eurail.zoo_app.respository.entity.Animal;
+import com.eurail.zoo_app.respository.entity.Room;
+import com.eurail.zoo_app.respository.index.IndexManager;
+import com.eurail.zoo_app.service.RoomCleanupService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Records every query the application sends while serving the hot endpoints, then runs
+ * {@code explain} on each one and fails if any winning plan scans the whole collection
+ * (COLLSCAN) or sorts in memory (SORT). Add new query paths to {@link #exerciseHotPaths()}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+@Import(QueryPlanIT.CaptureConfig.class)
+class QueryPlanIT {
+
+    private static final Set<String> EXPLAINABLE =
+            Set.of("find", "aggregate", "count", "distinct", "findAndModify", "update", "delete");
+
+    private static final Set<String> NOT_EXPLAINABLE_FIELDS = Set.of(
+            "$db", "lsid", "$clusterTime", "txnNumber", "$readPreference", "readConcern", "writeConcern",
+            "apiVersion", "apiStrict", "apiDeprecationErrors");
+
+    private static final Set<String> BAD_STAGES = Set.of("COLLSCAN", "SORT");
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0.0");
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+        registry.add("zoo.cleanup.poll-interval", () -> "1h");
+    }
+
+    @TestConfiguration
+    static class CaptureConfig {
+
+        @Bean
+        CommandCapture commandCapture() {
+            return new CommandCapture();
+        }
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer commandCaptureCustomizer(CommandCapture capture) {
+            return builder -> builder.addCommandListener(capture);
+        }
+    }
+
+    /**
+     * Keeps a copy of every explainable command sent while recording is on.
+     */
+    static class CommandCapture implements CommandListener {
+
+        private final List<BsonDocument> commands = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean recording;
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            if (recording && EXPLAINABLE.contains(event.getCommandName())) {
+                commands.add(event.getCommand().clone());
+            }
+        }
+
+        void start() {
+            commands.clear();
+            recording = true;
+        }
+
+        List<BsonDocument> stop() {
+            recording = false;
+            return new ArrayList<>(commands);
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CommandCapture capture;
+
+    @Autowired
+    private IndexManager indexManager;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private AnimalRepository animalRepository;
+
+    @Autowired
+    private FavouriteRoomCounterRepository counterRepository;
+
+    @Autowired
+    private RoomCleanupTaskRepository cleanupTaskRepository;
+
+    @Autowired
+    private RoomCleanupService cleanupService;
+
+    private Room source;
+    private Room target;
+
+    @BeforeEach
+    void setup() {
+        animalRepository.deleteAll();
+        roomRepository.deleteAll();
+        counterRepository.deleteAll();
+        cleanupTaskRepository.deleteAll();
+
+        source = roomRepository.save(room("Source"));
+        target = roomRepository.save(room("Target"));
+
+        // enough documents that the planner has a real choice between a scan and an index
+        List<Animal> animals = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Animal animal = new Animal();
+            animal.setTitle(i % 10 == 0 ? null : "Animal " + (i % 37));
+            animal.setLocated(LocalDate.of(2025, 1, 1).plusDays(i % 50));
+            animal.setCurrentRoomId(i % 2 == 0 ? source.getId() : target.getId());
+            animal.setFavouriteRoomIds(Set.of(i % 3 == 0 ? source.getId() : target.getId()));
+            animals.add(animal);
+        }
+        animalRepository.saveAll(animals);
+        mongoTemplate.getCollection("favourite_room_counters").insertMany(List.of(
+                new Document("_id", source.getId()).append("count", 67L),
+                new Document("_id", target.getId()).append("count", 133L)));
+    }
+
+    @Test
+    void declaredIndexes_shouldExistWithoutDrift() {
+        assertThat(indexManager.drift().hasDrift()).as(indexManager.drift().toString()).isFalse();
+    }
+
+    @Test
+    void hotQueries_shouldUseIndexesAndNoInMemorySort() throws Exception {
+        capture.start();
+        exerciseHotPaths();
+        List<BsonDocument> commands = capture.stop();
+
+        assertThat(commands).isNotEmpty();
+
+        List<String> offenders = new ArrayList<>();
+        for (BsonDocument command : commands) {
+            for (BsonDocument single : splitStatements(command)) {
+                Set<String> stages = badStages(explain(single));
+                if (!stages.isEmpty()) {
+                    offenders.add(stages + " in " + single.toJson());
+                }
+            }
+        }
+        assertThat(offenders).as("queries without a usable index").isEmpty();
+    }
+
+    @Test
+    void sparseRoomListing_shouldBeCoveredByIndex() throws Exception {
+        capture.start();
+        mockMvc.perform(get("/animals/room/{roomId}", source.getId())
+                        .param("sortBy", "title").param("page", "2").param("fields", "title"))
+                .andExpect(status().isOk());
+        List<BsonDocument> finds = capture.stop().stream()
+                .filter(command -> command.containsKey("find"))
+                .toList();
+
+        assertThat(finds).hasSize(1);
+        // id and title come straight from the room_title index keys
+        assertThat(winningStages(explain(finds.get(0)), Set.of("FETCH", "COLLSCAN"))).isEmpty();
+    }
+
+    private void exerciseHotPaths() throws Exception {
+        for (String sortBy : List.of("title", "located")) {
+            for (String order : List.of("asc", "desc")) {
+                mockMvc.perform(get("/animals/room/{roomId}", source.getId())
+                                .param("sortBy", sortBy).param("order", order).param("page", "2"))
+                        .andExpect(status().isOk());
+                mockMvc.perform(get("/animals/room/{roomId}/slice", source.getId())
+                                .param("sortBy", sortBy).param("order", order).param("page", "2")
+                                .param("estimate", "true"))
+                        .andExpect(status().isOk());
+
+                String first = mockMvc.perform(get("/animals/room/{roomId}/scroll", source.getId())
+                                .param("sortBy", sortBy).param("order", order).param("size", "7"))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString();
+                JsonNode page = objectMapper.readTree(first);
+                mockMvc.perform(get("/animals/room/{roomId}/scroll", source.getId())
+                                .param("sortBy", sortBy).param("order", order).param("size", "7")
+                                .param("cursor", page.get("nextCursor").asText()))
+                        .andExpect(status().isOk());
+            }
+        }
+
+        mockMvc.perform(get("/rooms/favourites/top").param("k", "5"))
+                .andExpect(status().isOk());
+
+        for (String sortBy : List.of("title", "occupancy")) {
+            for (String order : List.of("asc", "desc")) {
+                String first = mockMvc.perform(get("/rooms")
+                                .param("sortBy", sortBy).param("order", order).param("size", "1"))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString();
+                mockMvc.perform(get("/rooms")
+                                .param("sortBy", sortBy).param("order", order).param("size", "1")
+                                .param("cursor", objectMapper.readTree(first).get("nextCursor").asText()))
+                        .andExpect(status().isOk());
+            }
+        }
+
+        EvacuateRequestDto evacuate = new EvacuateRequestDto();
+        evacuate.setTargetRoomId(target.getId());
+        evacuate.setBatchSize(30);
+        mockMvc.perform(post("/rooms/{id}/evacuate", source.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(evacuate)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/rooms/{id}", target.getId()))
+                .andExpect(status().isNoContent());
+        cleanupService.sweep();
+    }
+
+    /**
+     * explain accepts a single update or delete statement, so batched writes are explained one statement at a time.
+     */
+    private static List<BsonDocument> splitStatements(BsonDocument command) {
+        for (String key : List.of("updates", "deletes")) {
+            if (command.containsKey(key) && command.getArray(key).size() > 1) {
+                List<BsonDocument> singles = new ArrayList<>();
+                command.getArray(key).forEach(statement -> {
+                    BsonDocument single = command.clone();
+                    single.put(key, new BsonArray(List.of(statement)));
+                    singles.add(single);
+                });
+                return singles;
+            }
+        }
+        return List.of(command);
+    }
+
+    private Document explain(BsonDocument command) {
+        BsonDocument inner = command.clone();
+        NOT_EXPLAINABLE_FIELDS.forEach(inner::remove);
+        BsonDocument explain = new BsonDocument("explain", inner).append("verbosity", new BsonString("queryPlanner"));
+        return mongoTemplate.getDb().runCommand(explain);
+    }
+
+    private static Set<String> badStages(Object node) {
+        return winningStages(node, BAD_STAGES);
+    }
+
+    /**
+     * Collects the named stages from every winning plan in the explain output,
+     * including the ones nested in aggregation stages. Rejected plans are ignored.
+     */
+    private static Set<String> winningStages(Object node, Set<String> stages) {
+        Set<String> found = new TreeSet<>();
+        collect(node, false, stages, found);
+        return found;
+    }
+
+    private static void collect(Object node, boolean inWinningPlan, Set<String> stages, Set<String> found) {
+        if (node instanceof Document doc) {
+            for (Map.Entry<String, Object> e : doc.entrySet()) {
+                if (e.getKey().equals("rejectedPlans")) continue;
+                boolean winning = inWinningPlan || e.getKey().equals("winningPlan");
+                if (winning && e.getKey().equals("stage") && stages.contains(String.valueOf(e.getValue()))) {
+                    found.add((String) e.getValue());
+                }
+                collect(e.getValue(), winning, stages, found);
+            }
+        } else if (node instanceof List<?> list) {
+            list.forEach(item -> collect(item, inWinningPlan, stages, found));
+        }
+    }
+
+    private static Room room(String title) {
+        Room room = new Room();
+        room.setTitle(title);
+        return room;
+    }
+}
@@ -0,0 +1,152 @@
+package com.eurail.zoo_app.integration;
+
+import com.eurail.zoo_app.controller.dto.AnimalResponseDto;
+import com.eurail.zoo_app.controller.dto.RoomResponseDto;
+import com.eurail.zoo_app.respository.AnimalRepository;
+import com.eurail.zoo_app.respository.FavouriteRoomCounterRepository;
+import com.eurail.zoo_app.respository.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the REST contract against the WebFlux stack of the reactive profile.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+@Testcontainers
+class ReactiveApiIT {
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0.0");
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+        registry.add("zoo.cleanup.poll-interval", () -> "1h");
+    }
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private AnimalRepository animalRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private FavouriteRoomCounterRepository counterRepository;
+
+    @BeforeEach
+    void setup() {
+        animalRepository.deleteAll();
+        roomRepository.deleteAll();
+        counterRepository.deleteAll();
+    }
+
+    @Test
+    void animalLifecycle_shouldMatchServletContract() {
+        RoomResponseDto room = createRoom("Savannah");
+
+        AnimalResponseDto lion = client.post().uri("/animals")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\":\"Lion\",\"located\":\"2025-01-01\",\"favouriteRoomIds\":[\"" + room.getId() + "\"]}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().exists("Location")
+                .expectBody(AnimalResponseDto.class)
+                .returnResult().getResponseBody();
+        assertThat(lion).isNotNull();
+        assertThat(counterRepository.findById(room.getId())).get()
+                .extracting(c -> c.getCount()).isEqualTo(1L);
+
+        client.post().uri("/animals/{id}/place", lion.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"roomId\":\"" + room.getId() + "\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.currentRoomId").isEqualTo(room.getId());
+
+        client.get().uri("/animals/room/{roomId}?size=5", room.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(1)
+                .jsonPath("$.totalElements").isEqualTo(1);
+
+        client.delete().uri("/animals/{id}/favourites/{roomId}", lion.getId(), room.getId())
+                .exchange()
+                .expectStatus().isOk();
+        assertThat(counterRepository.findById(room.getId())).get()
+                .extracting(c -> c.getCount()).isEqualTo(0L);
+
+        client.delete().uri("/animals/{id}", lion.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        client.get().uri("/animals/{id}", lion.getId())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.status").isEqualTo(404);
+    }
+
+    @Test
+    void createAnimal_shouldRejectInvalidBodyAndMissingRoom() {
+        client.post().uri("/animals")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"located\":\"2025-01-01\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.title").exists();
+
+        client.post().uri("/animals")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\":\"Ghost\",\"located\":\"2025-01-01\",\"currentRoomId\":\"missing\"}")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void exportRooms_shouldStreamNdjson() {
+        createRoom("North");
+        createRoom("South");
+
+        List<RoomResponseDto> rooms = client.get().uri("/rooms/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(RoomResponseDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(rooms).extracting(RoomResponseDto::getTitle).containsExactlyInAnyOrder("North", "South");
+    }
+
+    private RoomResponseDto createRoom(String title) {
+        return client.post().uri("/rooms")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\":\"" + title + "\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(RoomResponseDto.class)
+                .returnResult().getResponseBody();
+    }
+}
@@ -1,23 +1,41 @@
 package com.eurail.zoo_app.integration;
 
+import com.eurail.zoo_app.config.QueryCountFilter;
+import com.eurail.zoo_app.controller.dto.EvacuateRequestDto;
 import com.eurail.zoo_app.controller.dto.RoomCreateDto;
+import com.eurail.zoo_app.controller.dto.RoomPatchDto;
 import com.eurail.zoo_app.controller.dto.RoomUpdateDto;
+import com.eurail.zoo_app.respository.entity.Animal;
 import com.eurail.zoo_app.respository.entity.Room;
+import com.eurail.zoo_app.respository.AnimalRepository;
+import com.eurail.zoo_app.respository.FavouriteRoomCounterRepository;
+import com.eurail.zoo_app.respository.RoomCleanupTaskRepository;
 import com.eurail.zoo_app.respository.RoomRepository;
+import com.eurail.zoo_app.service.RoomCleanupService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -27,12 +45,17 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @Testcontainers
 class RoomControllerIT {
 
+    @RegisterExtension
+    QueryBudgetExtension queryBudget = new QueryBudgetExtension();
+
     @Container
     static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0.0");
 
     @DynamicPropertySource
     static void setProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+        // the tests run the cleanup sweeper themselves
+        registry.add("zoo.cleanup.poll-interval", () -> "1h");
     }
 
     @Autowired
@@ -44,9 +67,24 @@ class RoomControllerIT {
     @Autowired
     private RoomRepository repository;
 
+    @Autowired
+    private AnimalRepository animalRepository;
+
+    @Autowired
+    private FavouriteRoomCounterRepository counterRepository;
+
+    @Autowired
+    private RoomCleanupTaskRepository cleanupTaskRepository;
+
+    @Autowired
+    private RoomCleanupService cleanupService;
+
     @BeforeEach
     void setup() {
         repository.deleteAll();
+        animalRepository.deleteAll();
+        counterRepository.deleteAll();
+        cleanupTaskRepository.deleteAll();
     }
 
     @Test
@@ -97,6 +135,142 @@ class RoomControllerIT {
         assertThat(updated.getTitle()).isEqualTo("Updated Room");
     }
 
+    @Test
+    void getRoom_shouldAnswerConditionalGetWithNotModified() throws Exception {
+        Room room = new Room();
+        room.setTitle("Jungle Room");
+        room.setVersion(1L);
+        room.setUpdated(Instant.parse("2025-11-23T10:00:00Z"));
+        room = repository.save(room);
+
+        mockMvc.perform(get("/rooms/{id}", room.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+
+        mockMvc.perform(get("/rooms/{id}", room.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/rooms/{id}", room.getId())
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Sun, 23 Nov 2025 10:00:00 GMT"))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void updateAndDeleteRoom_shouldHonourIfMatch() throws Exception {
+        Room room = new Room();
+        room.setTitle("Old Room");
+        room = repository.save(room);
+
+        RoomUpdateDto dto = new RoomUpdateDto();
+        dto.setTitle("Updated Room");
+
+        mockMvc.perform(put("/rooms/{id}", room.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        // the first write moved the room to version 1
+        mockMvc.perform(put("/rooms/{id}", room.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/rooms/{id}", room.getId()).header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(repository.existsById(room.getId())).isTrue();
+
+        mockMvc.perform(delete("/rooms/{id}", room.getId()).header(HttpHeaders.IF_MATCH, "\"1\""))
+                .andExpect(status().isNoContent());
+        assertThat(repository.existsById(room.getId())).isFalse();
+    }
+
+    @Test
+    void batchGetRooms_shouldReturnFoundInRequestOrderAndMissing() throws Exception {
+        Room first = new Room();
+        first.setTitle("First");
+        first = repository.save(first);
+        Room second = new Room();
+        second.setTitle("Second");
+        second = repository.save(second);
+
+        mockMvc.perform(get("/rooms:batchGet").param("ids", second.getId(), "nope", first.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Second"))
+                .andExpect(jsonPath("$.items[1].title").value("First"))
+                .andExpect(jsonPath("$.missing[0]").value("nope"));
+
+        // both rooms are cached now
+        mockMvc.perform(post("/rooms:batchGet")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("ids", List.of(first.getId(), second.getId())))))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryCountFilter.HEADER, "0"))
+                .andExpect(jsonPath("$.items.length()").value(2));
+    }
+
+    @Test
+    void patchRoom_shouldApplyOnceAndRejectStaleVersion() throws Exception {
+        Room room = new Room();
+        room.setTitle("Old Room");
+        room = repository.save(room);
+
+        RoomPatchDto dto = new RoomPatchDto();
+        dto.setTitle("Patched Room");
+        dto.setVersion(0L);
+
+        mockMvc.perform(patch("/rooms/{id}", room.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Patched Room"))
+                .andExpect(jsonPath("$.version").value(1));
+
+        // same version again is now stale
+        mockMvc.perform(patch("/rooms/{id}", room.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isConflict());
+
+        Room updated = repository.findById(room.getId()).orElseThrow();
+        assertThat(updated.getTitle()).isEqualTo("Patched Room");
+        assertThat(updated.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void evacuateRoom_shouldMoveAllOccupantsInBatches() throws Exception {
+        Room source = new Room();
+        source.setTitle("Closing Room");
+        source = repository.save(source);
+        Room target = new Room();
+        target.setTitle("New Room");
+        target = repository.save(target);
+
+        for (int i = 0; i < 5; i++) {
+            Animal animal = new Animal();
+            animal.setTitle("Animal " + i);
+            animal.setCurrentRoomId(source.getId());
+            animalRepository.save(animal);
+        }
+
+        EvacuateRequestDto dto = new EvacuateRequestDto();
+        dto.setTargetRoomId(target.getId());
+        dto.setBatchSize(2);
+
+        mockMvc.perform(post("/rooms/{id}/evacuate", source.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.moved").value(5))
+                .andExpect(jsonPath("$.batches").value(3));
+
+        String targetId = target.getId();
+        assertThat(animalRepository.findAll())
+                .allMatch(a -> targetId.equals(a.getCurrentRoomId()));
+    }
+
     @Test
     void deleteRoom_shouldRemoveRoom() throws Exception {
         Room room = new Room();
@@ -109,10 +283,283 @@ class RoomControllerIT {
         assertThat(repository.existsById(room.getId())).isFalse();
     }
 
+    @Test
+    void deleteRoom_shouldClearAnimalReferencesInBackground() throws Exception {
+        Room room = new Room();
+        room.setTitle("Doomed Room");
+        room = repository.save(room);
+
+        Animal animal = new Animal();
+        animal.setTitle("Lemur");
+        animal.setCurrentRoomId(room.getId());
+        animal.setFavouriteRoomIds(Set.of(room.getId(), "other"));
+        animal = animalRepository.save(animal);
+
+        mockMvc.perform(delete("/rooms/{id}", room.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/rooms/{id}/cleanup", room.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        cleanupService.sweep();
+
+        Animal cleaned = animalRepository.findById(animal.getId()).orElseThrow();
+        assertThat(cleaned.getCurrentRoomId()).isNull();
+        assertThat(cleaned.getFavouriteRoomIds()).containsExactly("other");
+
+        mockMvc.perform(get("/rooms/{id}/cleanup", room.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("DONE"))
+                .andExpect(jsonPath("$.currentRoomCleared").value(1))
+                .andExpect(jsonPath("$.favouritesCleared").value(1));
+    }
+
     @Test
     void favouriteStats_shouldReturnEmptyListIfNoAnimals() throws Exception {
         mockMvc.perform(get("/rooms/favourites/stats"))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[]"));
     }
+
+    @Test
+    void favouriteStats_shouldGroupByTitleAndSkipStaleReferences() throws Exception {
+        Room safari1 = new Room();
+        safari1.setTitle("Safari");
+        safari1 = repository.save(safari1);
+
+        Room safari2 = new Room();
+        safari2.setTitle("Safari");
+        safari2 = repository.save(safari2);
+
+        Room jungle = new Room();
+        jungle.setTitle("Jungle");
+        jungle = repository.save(jungle);
+
+        Animal lion = new Animal();
+        lion.setTitle("Lion");
+        lion.setFavouriteRoomIds(Set.of(safari1.getId(), jungle.getId(), "deleted-room"));
+        animalRepository.save(lion);
+
+        Animal zebra = new Animal();
+        zebra.setTitle("Zebra");
+        zebra.setFavouriteRoomIds(Set.of(safari2.getId()));
+        animalRepository.save(zebra);
+
+        // animals were written directly, so rebuild the counters before reading them
+        mockMvc.perform(post("/rooms/favourites/reconcile"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roomsDrifted").value(4));
+
+        mockMvc.perform(get("/rooms/favourites/stats"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("""
+                        [{"title":"Safari","count":2},{"title":"Jungle","count":1}]
+                        """));
+    }
+
+    @Test
+    void favouriteStats_queryCountShouldNotDependOnRoomCount() throws Exception {
+        queryBudget.assertQueriesIndependentOf(List.of(1, 10, 50), size -> {
+            Map<String, Long> favourites = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                Room room = new Room();
+                room.setTitle("Room " + size + "-" + i);
+                favourites.put(repository.save(room).getId(), 1L);
+            }
+            counterRepository.incrementAll(favourites);
+
+            mockMvc.perform(get("/rooms/favourites/stats"))
+                    .andExpect(status().isOk());
+        });
+    }
+
+    @Test
+    void topFavourites_shouldFollowFavouriteEdits() throws Exception {
+        Room popular = new Room();
+        popular.setTitle("Popular");
+        popular = repository.save(popular);
+
+        Room quiet = new Room();
+        quiet.setTitle("Quiet");
+        quiet = repository.save(quiet);
+
+        for (String title : new String[]{"Lion", "Tiger"}) {
+            Animal animal = new Animal();
+            animal.setTitle(title);
+            animal = animalRepository.save(animal);
+            mockMvc.perform(post("/animals/{id}/favourites", animal.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"roomId\":\"" + popular.getId() + "\"}"))
+                    .andExpect(status().isOk());
+        }
+
+        Animal bear = new Animal();
+        bear.setTitle("Bear");
+        bear = animalRepository.save(bear);
+        mockMvc.perform(post("/animals/{id}/favourites", bear.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"roomId\":\"" + quiet.getId() + "\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/rooms/favourites/top").param("k", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].roomId").value(popular.getId()))
+                .andExpect(jsonPath("$[0].title").value("Popular"))
+                .andExpect(jsonPath("$[0].count").value(2));
+
+        mockMvc.perform(post("/rooms/favourites/reconcile"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roomsDrifted").value(0));
+    }
+
+    @Test
+    void exportRooms_shouldStreamRoomsUpdatedSince() throws Exception {
+        Room old = new Room();
+        old.setTitle("Old");
+        old.setUpdated(Instant.parse("2024-01-01T00:00:00Z"));
+        repository.save(old);
+
+        Room recent = new Room();
+        recent.setTitle("Recent");
+        recent.setUpdated(Instant.parse("2025-06-01T00:00:00Z"));
+        repository.save(recent);
+
+        MvcResult started = mockMvc.perform(get("/rooms/export").param("updatedSince", "2025-01-01T00:00:00Z"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String exported = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = exported.strip().split("\n");
+        assertThat(lines).hasSize(1);
+        assertThat(lines[0]).contains("\"title\":\"Recent\"");
+    }
+
+    @Test
+    void listRooms_shouldFollowPlacementMovesAndRemovals() throws Exception {
+        String savannah = createRoom("Savannah");
+        String plains = createRoom("Plains");
+        String empty = createRoom("Empty");
+
+        Map<String, String> animals = new HashMap<>();
+        for (String title : List.of("Lion", "Tiger", "Bear", "Zebra")) {
+            Animal animal = new Animal();
+            animal.setTitle(title);
+            animals.put(title, animalRepository.save(animal).getId());
+        }
+        for (String title : List.of("Lion", "Tiger", "Bear")) {
+            place(animals.get(title), savannah);
+        }
+        place(animals.get("Zebra"), plains);
+
+        mockMvc.perform(put("/animals/{id}/move", animals.get("Tiger"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"roomId\":\"" + plains + "\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/animals/{id}/room", animals.get("Bear")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/rooms").param("sortBy", "occupancy").param("order", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryCountFilter.HEADER, "1"))
+                .andExpect(jsonPath("$.items[0].id").value(plains))
+                .andExpect(jsonPath("$.items[0].occupancy").value(2))
+                .andExpect(jsonPath("$.items[1].id").value(savannah))
+                .andExpect(jsonPath("$.items[1].occupancy").value(1))
+                .andExpect(jsonPath("$.items[2].id").value(empty))
+                .andExpect(jsonPath("$.items[2].occupancy").value(0))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        // renaming the room does not reset its counter, deleting an animal decrements it
+        RoomUpdateDto rename = new RoomUpdateDto();
+        rename.setTitle("Open Plains");
+        mockMvc.perform(put("/rooms/{id}", plains)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rename)))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/animals/{id}", animals.get("Zebra")))
+                .andExpect(status().isNoContent());
+
+        assertThat(repository.findById(plains).orElseThrow().getOccupancy()).isEqualTo(1L);
+        assertThat(repository.findById(plains).orElseThrow().getTitle()).isEqualTo("Open Plains");
+
+        mockMvc.perform(post("/rooms/occupancy/reconcile"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roomsChecked").value(3))
+                .andExpect(jsonPath("$.roomsDrifted").value(0));
+    }
+
+    @Test
+    void listRooms_shouldPageByTitleWithCursor() throws Exception {
+        for (String title : List.of("Delta", "Alpha", "Echo", "Charlie", "Bravo")) {
+            createRoom(title);
+        }
+
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/rooms").param("sortBy", "title").param("size", "2");
+            if (cursor != null) request.param("cursor", cursor);
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            var page = objectMapper.readTree(body);
+            page.get("items").forEach(item -> titles.add(item.get("title").asText()));
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+
+        assertThat(titles).containsExactly("Alpha", "Bravo", "Charlie", "Delta", "Echo");
+
+        mockMvc.perform(get("/rooms").param("sortBy", "created"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void reconcileOccupancy_shouldBackfillRoomsWithoutCounters() throws Exception {
+        Room full = new Room();
+        full.setTitle("Full");
+        full = repository.save(full);
+
+        Room unused = new Room();
+        unused.setTitle("Unused");
+        unused = repository.save(unused);
+
+        for (String title : List.of("Lion", "Tiger")) {
+            Animal animal = new Animal();
+            animal.setTitle(title);
+            animal.setCurrentRoomId(full.getId());
+            animalRepository.save(animal);
+        }
+
+        // rooms and animals were written directly, so neither room has a counter yet
+        mockMvc.perform(post("/rooms/occupancy/reconcile"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roomsChecked").value(2))
+                .andExpect(jsonPath("$.roomsDrifted").value(1))
+                .andExpect(jsonPath("$.totalDrift").value(2));
+
+        assertThat(repository.findById(full.getId()).orElseThrow().getOccupancy()).isEqualTo(2L);
+        assertThat(repository.findById(unused.getId()).orElseThrow().getOccupancy()).isEqualTo(0L);
+    }
+
+    private String createRoom(String title) throws Exception {
+        RoomCreateDto dto = new RoomCreateDto();
+        dto.setTitle(title);
+        String body = mockMvc.perform(post("/rooms")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asText();
+    }
+
+    private void place(String animalId, String roomId) throws Exception {
+        mockMvc.perform(post("/animals/{id}/place", animalId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"roomId\":\"" + roomId + "\"}"))
+                .andExpect(status().isOk());
+    }
 }
@@ -0,0 +1,82 @@
+package com.eurail.zoo_app.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counters of one operation. Latencies are recorded in microseconds
+ * from the request's scheduled send time, so queueing caused by a slow server is included
+ * (no coordinated omission). Requests dropped at the in-flight limit were never sent and have no
+ * latency; once any were dropped the percentiles leave out the slowest part of the run and are invalid.
+ */
+final class EndpointStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    final String name;
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    void success(long latencyNanos) {
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+    }
+
+    void error(long latencyNanos) {
+        errors.increment();
+        success(latencyNanos);
+    }
+
+    void dropped() {
+        dropped.increment();
+    }
+
+    void reset() {
+        latencies.reset();
+        errors.reset();
+        dropped.reset();
+    }
+
+    long count() {
+        return latencies.getTotalCount();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    long droppedCount() {
+        return dropped.sum();
+    }
+
+    boolean percentilesValid() {
+        return dropped.sum() == 0;
+    }
+
+    double percentileMillis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    double maxMillis() {
+        return latencies.getMaxValue() / 1000.0;
+    }
+
+    /**
+     * Writes the full percentile distribution in HdrHistogram's .hgrm format (milliseconds), for plotting.
+     */
+    void writeDistribution(Path dir) throws FileNotFoundException {
+        try (PrintStream out = new PrintStream(dir.resolve(name + ".hgrm").toFile())) {
+            latencies.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+}
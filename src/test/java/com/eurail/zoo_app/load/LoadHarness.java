@@ -0,0 +1,320 @@
+package com.eurail.zoo_app.load;
+
+import com.eurail.zoo_app.ZooApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MongoDBContainer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the REST API.
+ * <p>
+ * Boots the application against a Testcontainers MongoDB (like the integration tests) unless
+ * {@code load.base-url} points at a running instance, seeds rooms and animals, then sends requests at a
+ * fixed arrival rate regardless of response times, so a slow server builds up queueing delay instead of
+ * slowing the load down. After a warm-up, throughput and latency percentiles are reported per operation.
+ * <p>
+ * Run from the project root (see {@link LoadOptions} for all settings):
+ * <pre>
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.eurail.zoo_app.load.LoadHarness -Dload.rate=500 -Dload.duration=120
+ * </pre>
+ */
+public final class LoadHarness {
+
+    private static final int ID_POOL_SIZE = 100_000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadOptions options;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ObjectMapper json = new ObjectMapper();
+
+    private final List<String> roomIds = new ArrayList<>();
+    private final AtomicReferenceArray<String> animalIds = new AtomicReferenceArray<>(ID_POOL_SIZE);
+    // slots handed out to writers, and the count of slots filled (readers only pick below it)
+    private final AtomicLong animalSlots = new AtomicLong();
+    private final AtomicLong animalCount = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final String[] operations;
+    private final int[] cumulativeWeights;
+
+    private LoadHarness(LoadOptions options, String baseUrl, ExecutorService httpExecutor) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(httpExecutor)
+                .build();
+
+        List<String> ops = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<String, Integer> e : options.mix.entrySet()) {
+            if (e.getValue() <= 0) continue;
+            total += e.getValue();
+            ops.add(e.getKey());
+            weights.add(total);
+            stats.put(e.getKey(), new EndpointStats(e.getKey()));
+        }
+        if (ops.isEmpty()) {
+            throw new IllegalArgumentException("load.mix has no operation with a positive weight");
+        }
+        this.operations = ops.toArray(String[]::new);
+        this.cumulativeWeights = weights.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.fromSystemProperties();
+        System.out.println("Load run: " + options);
+
+        MongoDBContainer mongo = null;
+        ConfigurableApplicationContext app = null;
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        try {
+            String baseUrl = options.baseUrl;
+            if (baseUrl == null) {
+                mongo = new MongoDBContainer("mongo:7.0.0");
+                mongo.start();
+                String profiles = options.profiles.isBlank() ? "dev" : "dev," + options.profiles;
+                app = new SpringApplicationBuilder(ZooApplication.class).run(
+                        "--spring.profiles.active=" + profiles,
+                        "--spring.data.mongodb.uri=" + mongo.getReplicaSetUrl(),
+                        "--server.port=0",
+                        "--logging.level.com.eurail.zoo_app=WARN");
+                baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            }
+
+            LoadHarness harness = new LoadHarness(options, baseUrl, httpExecutor);
+            harness.seed();
+            harness.run();
+        } finally {
+            httpExecutor.shutdownNow();
+            if (app != null) app.close();
+            if (mongo != null) mongo.stop();
+        }
+    }
+
+    private void seed() throws IOException, InterruptedException {
+        for (int i = 0; i < options.rooms; i++) {
+            HttpResponse<String> response = send(post("/rooms", "{\"title\":\"Load room " + i + "\"}"));
+            roomIds.add(json.readTree(response.body()).get("id").asText());
+        }
+
+        if (options.profiles.contains("reactive")) {
+            // the reactive stack has no bulk import, so seed one animal per request
+            for (int i = 0; i < options.seedAnimals; i++) {
+                HttpResponse<String> response = send(post("/animals", "{\"title\":\"Seed " + i
+                        + "\",\"located\":\"2025-01-01\",\"currentRoomId\":\"" + randomRoom() + "\"}"));
+                addAnimal(json.readTree(response.body()).get("id").asText());
+            }
+        } else if (options.seedAnimals > 0) {
+            StringBuilder ndjson = new StringBuilder();
+            for (int i = 0; i < options.seedAnimals; i++) {
+                ndjson.append("{\"title\":\"Seed ").append(i).append("\",\"located\":\"2025-01-01\",\"currentRoomId\":\"")
+                        .append(randomRoom()).append("\"}\n");
+            }
+            HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/animals/bulk"))
+                    .header("Content-Type", "application/x-ndjson")
+                    .header("Accept", "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+                    .build());
+            for (String line : response.body().split("\n")) {
+                JsonNode result = line.isBlank() ? null : json.readTree(line);
+                if (result != null && result.hasNonNull("id")) addAnimal(result.get("id").asText());
+            }
+        }
+        System.out.printf("Seeded %d rooms and %d animals%n", roomIds.size(), animalCount.get());
+    }
+
+    private void run() throws IOException {
+        System.out.printf("Warming up for %s%n", options.warmup);
+        drive(options.warmup);
+        awaitInFlight();
+        stats.values().forEach(EndpointStats::reset);
+
+        System.out.printf("Measuring for %s at %d requests/s%n", options.duration, options.rate);
+        long start = System.nanoTime();
+        drive(options.duration);
+        awaitInFlight();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        report(seconds);
+    }
+
+    /**
+     * Issues requests on a fixed schedule. Each request's latency is measured from its scheduled time,
+     * so delays in sending (e.g. a stalled generator) count against the server, not in its favour.
+     */
+    private void drive(Duration phase) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / options.rate;
+        long start = System.nanoTime();
+        long end = start + phase.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) break;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            String operation = pickOperation();
+            EndpointStats endpoint = stats.get(operation);
+            if (inFlight.get() >= options.maxInFlight) {
+                endpoint.dropped();
+                continue;
+            }
+
+            HttpRequest request = request(operation);
+            inFlight.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        long latency = System.nanoTime() - intended;
+                        inFlight.decrementAndGet();
+                        if (error != null || response.statusCode() >= 400) {
+                            endpoint.error(latency);
+                        } else {
+                            endpoint.success(latency);
+                            if (operation.equals("create")) rememberCreated(response.body());
+                        }
+                    });
+        }
+    }
+
+    private HttpRequest request(String operation) {
+        String room = randomRoom();
+        return switch (operation) {
+            case "create" -> post("/animals", "{\"title\":\"Load " + ThreadLocalRandom.current().nextInt(1_000_000)
+                    + "\",\"located\":\"2025-01-01\",\"currentRoomId\":\"" + room + "\"}");
+            case "place" -> post("/animals/" + randomAnimal() + "/place", "{\"roomId\":\"" + room + "\"}");
+            case "move" -> jsonRequest("/animals/" + randomAnimal() + "/move")
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"roomId\":\"" + room + "\"}")).build();
+            case "favourite" -> post("/animals/" + randomAnimal() + "/favourites", "{\"roomId\":\"" + room + "\"}");
+            case "list" -> jsonRequest("/animals/room/" + room + "?sortBy=title&page="
+                    + ThreadLocalRandom.current().nextInt(3) + "&size=20").GET().build();
+            case "stats" -> jsonRequest("/rooms/favourites/stats").GET().build();
+            default -> throw new IllegalArgumentException("Unknown operation: " + operation);
+        };
+    }
+
+    private void report(double seconds) throws IOException {
+        Path dir = Path.of(options.outputDir);
+        Files.createDirectories(dir);
+
+        System.out.println();
+        System.out.printf("%-10s %9s %9s %8s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "req/s", "errors", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long total = 0;
+        long dropped = 0;
+        for (EndpointStats s : stats.values()) {
+            total += s.count();
+            dropped += s.droppedCount();
+            System.out.printf("%-10s %9d %9.1f %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%s%n",
+                    s.name, s.count(), s.count() / seconds, s.errors(), s.droppedCount(),
+                    s.percentileMillis(50), s.percentileMillis(90), s.percentileMillis(99),
+                    s.percentileMillis(99.9), s.maxMillis(), s.percentilesValid() ? "" : "  INVALID");
+            s.writeDistribution(dir);
+        }
+        System.out.printf("%ntotal %.1f req/s (offered %d req/s); percentile distributions written to %s%n",
+                total / seconds, options.rate, dir.toAbsolutePath());
+        if (dropped > 0) {
+            System.out.printf("%d requests were dropped at load.max-in-flight=%d and are missing from the histograms, "
+                            + "so the percentiles marked INVALID understate latency. Lower load.rate or raise "
+                            + "load.max-in-flight.%n", dropped, options.maxInFlight);
+        }
+    }
+
+    private void awaitInFlight() {
+        long deadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+    }
+
+    private String pickOperation() {
+        int r = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (r < cumulativeWeights[i]) return operations[i];
+        }
+        return operations[operations.length - 1];
+    }
+
+    private String randomRoom() {
+        return roomIds.get(ThreadLocalRandom.current().nextInt(roomIds.size()));
+    }
+
+    /**
+     * A random known animal; falls back to an unknown id (a 404) before any animal exists.
+     */
+    private String randomAnimal() {
+        long known = Math.min(animalCount.get(), ID_POOL_SIZE);
+        if (known == 0) return "000000000000000000000000";
+        return animalIds.get(ThreadLocalRandom.current().nextInt((int) known));
+    }
+
+    private void rememberCreated(String body) {
+        try {
+            addAnimal(json.readTree(body).get("id").asText());
+        } catch (IOException | NullPointerException e) {
+            // not fatal for the run; the animal is just not reused by later operations
+        }
+    }
+
+    /**
+     * Keeps the most recent {@value #ID_POOL_SIZE} animal ids in a ring. The id is stored before the
+     * count moves past its slot, and the count advances in slot order, so readers never pick an empty slot.
+     */
+    private void addAnimal(String id) {
+        long n = animalSlots.getAndIncrement();
+        animalIds.set((int) (n % ID_POOL_SIZE), id);
+        while (!animalCount.compareAndSet(n, n + 1)) {
+            // a writer holding an earlier slot has not stored its id yet
+            Thread.onSpinWait();
+        }
+    }
+
+    private HttpRequest post(String path, String body) {
+        return jsonRequest(path).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private HttpRequest.Builder jsonRequest(String path) {
+        return HttpRequest.newBuilder(uri(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " failed with "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,89 @@
+package com.eurail.zoo_app.load;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of a load run, read from system properties:
+ * <ul>
+ *   <li>{@code load.base-url} – target an already running instance instead of booting one against Testcontainers</li>
+ *   <li>{@code load.profiles} – extra Spring profiles for the booted instance, e.g. {@code virtual-threads} or {@code reactive}</li>
+ *   <li>{@code load.rate} – requests per second offered, independent of how fast responses come back (default 200)</li>
+ *   <li>{@code load.duration} / {@code load.warmup} – ISO-8601 or seconds (default 60s / 15s)</li>
+ *   <li>{@code load.mix} – weights per operation, e.g. {@code create=15,place=10,move=10,favourite=15,list=40,stats=10}</li>
+ *   <li>{@code load.rooms} / {@code load.seed-animals} – data created before the run (default 50 / 1000)</li>
+ *   <li>{@code load.max-in-flight} – requests allowed to be outstanding before new arrivals are dropped (default 2000)</li>
+ *   <li>{@code load.output-dir} – where per-operation .hgrm percentile files are written (default target/load)</li>
+ * </ul>
+ */
+final class LoadOptions {
+
+    static final Map<String, Integer> DEFAULT_MIX = Map.of(
+            "create", 15, "place", 10, "move", 10, "favourite", 15, "list", 40, "stats", 10);
+
+    final String baseUrl;
+    final String profiles;
+    final int rate;
+    final Duration duration;
+    final Duration warmup;
+    final Map<String, Integer> mix;
+    final int rooms;
+    final int seedAnimals;
+    final int maxInFlight;
+    final String outputDir;
+
+    private LoadOptions(String baseUrl, String profiles, int rate, Duration duration, Duration warmup, Map<String, Integer> mix,
+                        int rooms, int seedAnimals, int maxInFlight, String outputDir) {
+        this.baseUrl = baseUrl;
+        this.profiles = profiles;
+        this.rate = rate;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.mix = mix;
+        this.rooms = rooms;
+        this.seedAnimals = seedAnimals;
+        this.maxInFlight = maxInFlight;
+        this.outputDir = outputDir;
+    }
+
+    static LoadOptions fromSystemProperties() {
+        return new LoadOptions(
+                System.getProperty("load.base-url"),
+                System.getProperty("load.profiles", ""),
+                Integer.getInteger("load.rate", 200),
+                duration(System.getProperty("load.duration", "60")),
+                duration(System.getProperty("load.warmup", "15")),
+                mix(System.getProperty("load.mix")),
+                Integer.getInteger("load.rooms", 50),
+                Integer.getInteger("load.seed-animals", 1000),
+                Integer.getInteger("load.max-in-flight", 2000),
+                System.getProperty("load.output-dir", "target/load"));
+    }
+
+    private static Duration duration(String value) {
+        return value.startsWith("P") ? Duration.parse(value) : Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static Map<String, Integer> mix(String value) {
+        if (value == null || value.isBlank()) {
+            return new LinkedHashMap<>(DEFAULT_MIX);
+        }
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2 || !DEFAULT_MIX.containsKey(parts[0].trim())) {
+                throw new IllegalArgumentException("Invalid load.mix entry '" + entry + "'. Operations: "
+                        + DEFAULT_MIX.keySet());
+            }
+            mix.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+
+    @Override
+    public String toString() {
+        return "profiles=" + (profiles.isBlank() ? "-" : profiles) + ", rate=" + rate + "/s, duration=" + duration + ", warmup=" + warmup + ", mix=" + mix
+                + ", rooms=" + rooms + ", seedAnimals=" + seedAnimals + ", maxInFlight=" + maxInFlight;
+    }
+}
@@ -0,0 +1,35 @@
+package com.eurail.zoo_app.respository.index;
+
+import com.eurail.zoo_app.config.IndexProperties;
+import com.mongodb.MongoTimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.Mockito.*;
+
+class IndexManagerTest {
+
+    @Test
+    void testStartup_DatabaseUnreachable_DoesNotFail() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getCollectionName(any())).thenReturn("animals");
+        when(mongoTemplate.indexOps(anyString())).thenThrow(new MongoTimeoutException("no server"));
+        IndexManager manager = new IndexManager(mongoTemplate, new IndexProperties());
+
+        assertDoesNotThrow(manager::onApplicationReady);
+    }
+
+    @Test
+    void testStartup_Disabled_NoDatabaseAccess() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        IndexProperties properties = new IndexProperties();
+        properties.setManageOnStartup(false);
+        IndexManager manager = new IndexManager(mongoTemplate, properties);
+        clearInvocations(mongoTemplate);
+
+        manager.onApplicationReady();
+
+        verifyNoInteractions(mongoTemplate);
+    }
+}
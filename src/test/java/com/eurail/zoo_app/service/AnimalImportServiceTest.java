@@ -0,0 +1,175 @@
+package com.eurail.zoo_app.service;
+
+import com.eurail.zoo_app.config.ImportProperties;
+import com.eurail.zoo_app.controller.mapper.AnimalMapper;
+import com.eurail.zoo_app.exception.BadRequestException;
+import com.eurail.zoo_app.respository.AnimalRepository;
+import com.eurail.zoo_app.respository.FavouriteRoomCounterRepository;
+import com.eurail.zoo_app.respository.entity.Animal;
+import com.eurail.zoo_app.service.impl.AnimalImportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AnimalImportServiceTest {
+
+    private AnimalRepository repository;
+    private RoomService roomService;
+    private FavouriteRoomCounterRepository favouriteCounters;
+    private AnimalImportServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(AnimalRepository.class);
+        roomService = mock(RoomService.class);
+        favouriteCounters = mock(FavouriteRoomCounterRepository.class);
+
+        ImportProperties properties = new ImportProperties();
+        properties.setChunkSize(2);
+
+        service = new AnimalImportServiceImpl(repository, roomService, favouriteCounters,
+                Mappers.getMapper(AnimalMapper.class),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().findAndRegisterModules(),
+                properties);
+
+        when(repository.insertUnordered(anyList())).thenReturn(Map.of());
+        when(roomService.findMissingIds(anyCollection())).thenReturn(Set.of());
+    }
+
+    @Test
+    void testNdjson_InsertsInChunksAndReportsEveryLine() {
+        String input = """
+                {"title":"Lion","located":"2025-01-01","favouriteRoomIds":["r1"]}
+                {"title":"Tiger","located":"2025-01-02"}
+                {"title":"Bear","located":"2025-01-03","favouriteRoomIds":["r1"]}
+                """;
+
+        List<String> report = run(input, AnimalImportService.Format.NDJSON);
+
+        assertEquals(3, report.size());
+        assertTrue(report.stream().allMatch(l -> l.contains("\"status\":\"created\"")));
+        verify(repository, times(2)).insertUnordered(anyList());
+        verify(roomService, times(2)).findMissingIds(anyCollection());
+        // one counter update per chunk
+        verify(favouriteCounters, times(2)).incrementAll(Map.of("r1", 1L));
+    }
+
+    @Test
+    void testNdjson_InvalidLinesAreReportedAndSkipped() {
+        String input = """
+                {"title":"","located":"2025-01-01"}
+                {broken
+                {"title":"Ghost","located":"2025-01-01","currentRoomId":"gone"}
+                """;
+        when(roomService.findMissingIds(anyCollection())).thenReturn(Set.of("gone"));
+
+        List<String> report = run(input, AnimalImportService.Format.NDJSON);
+
+        assertEquals(3, report.size());
+        assertTrue(report.get(0).contains("\"line\":1") && report.get(0).contains("title"));
+        assertTrue(report.get(1).contains("\"line\":2") && report.get(1).contains("Malformed line"));
+        assertTrue(report.get(2).contains("\"line\":3") && report.get(2).contains("Room not found: gone"));
+        verify(repository, never()).insertUnordered(anyList());
+    }
+
+    @Test
+    void testNdjson_FailedInsertIsReportedAndNotCounted() {
+        String input = """
+                {"title":"Lion","located":"2025-01-01","favouriteRoomIds":["r1"]}
+                {"title":"Tiger","located":"2025-01-02","favouriteRoomIds":["r2"]}
+                """;
+        when(repository.insertUnordered(anyList())).thenReturn(Map.of(1, "duplicate key"));
+
+        List<String> report = run(input, AnimalImportService.Format.NDJSON);
+
+        assertTrue(report.get(0).contains("\"status\":\"created\""));
+        assertTrue(report.get(1).contains("duplicate key"));
+        verify(favouriteCounters).incrementAll(Map.of("r1", 1L));
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void testCsv_ParsesQuotedFieldsAndFavourites() {
+        String input = """
+                title,located,currentRoomId,favouriteRoomIds
+                "Bear, Brown",2025-03-01,r1,r2;r3
+                """;
+
+        List<String> report = run(input, AnimalImportService.Format.CSV);
+
+        assertEquals(1, report.size());
+        assertTrue(report.get(0).contains("\"line\":2"));
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).insertUnordered(captor.capture());
+        Animal animal = (Animal) captor.getValue().get(0);
+        assertEquals("Bear, Brown", animal.getTitle());
+        assertEquals("r1", animal.getCurrentRoomId());
+        assertEquals(Set.of("r2", "r3"), animal.getFavouriteRoomIds());
+        assertEquals(0L, animal.getVersion());
+        assertNotNull(animal.getId());
+    }
+
+    @Test
+    void testOverlongLine_IsReportedAndTheNextLineStillImported() {
+        String input = "{\"title\":\"" + "x".repeat(200) + "\",\"located\":\"2025-01-01\"}\r\n"
+                + "{\"title\":\"Lion\",\"located\":\"2025-01-01\"}\r\n";
+
+        List<String> report = run(input, AnimalImportService.Format.NDJSON, 100);
+
+        assertEquals(2, report.size());
+        assertTrue(report.get(0).contains("\"line\":1") && report.get(0).contains("longer than 100 characters"));
+        assertTrue(report.get(1).contains("\"line\":2") && report.get(1).contains("\"status\":\"created\""));
+    }
+
+    @Test
+    void testCsv_InvalidHeader_RejectedBeforeAnythingIsRead() {
+        ByteArrayInputStream in = new ByteArrayInputStream("name,born\nLion,2025-01-01\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(BadRequestException.class, () -> service.prepare(in, AnimalImportService.Format.CSV));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testCsv_OverlongHeader_Rejected() {
+        ByteArrayInputStream in = new ByteArrayInputStream(("title,located," + "x".repeat(200) + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(BadRequestException.class, () -> service(100).prepare(in, AnimalImportService.Format.CSV));
+    }
+
+    private List<String> run(String input, AnimalImportService.Format format, int maxLineLength) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service(maxLineLength).importAnimals(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), format, out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private AnimalImportServiceImpl service(int maxLineLength) {
+        ImportProperties properties = new ImportProperties();
+        properties.setChunkSize(2);
+        properties.setMaxLineLength(maxLineLength);
+        return new AnimalImportServiceImpl(repository, roomService, favouriteCounters,
+                Mappers.getMapper(AnimalMapper.class),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().findAndRegisterModules(),
+                properties);
+    }
+
+    private List<String> run(String input, AnimalImportService.Format format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.importAnimals(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), format, out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
@@ -1,18 +1,30 @@
 package com.eurail.zoo_app.service;
 
+import com.eurail.zoo_app.config.PagingProperties;
+import com.eurail.zoo_app.controller.dto.AnimalPatchDto;
+import com.eurail.zoo_app.controller.dto.EvacuateRequestDto;
+import com.eurail.zoo_app.controller.dto.EvacuationResultDto;
+import com.eurail.zoo_app.controller.dto.FavouriteRoomStatsDto;
 import com.eurail.zoo_app.respository.entity.Animal;
 import com.eurail.zoo_app.respository.entity.Room;
 import com.eurail.zoo_app.exception.BadRequestException;
+import com.eurail.zoo_app.exception.ConflictException;
+import com.eurail.zoo_app.exception.PreconditionFailedException;
 import com.eurail.zoo_app.exception.ResourceNotFoundException;
 import com.eurail.zoo_app.respository.AnimalRepository;
+import com.eurail.zoo_app.respository.FavouriteRoomCounterRepository;
 import com.eurail.zoo_app.service.impl.AnimalServiceImpl;
+import com.eurail.zoo_app.service.impl.WriteTransactions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.*;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -21,13 +33,19 @@ class AnimalServiceImplTest {
 
     private AnimalRepository repository;
     private RoomService roomService;
+    private FavouriteRoomCounterRepository favouriteCounters;
+    private FavouriteWriteBuffer favouriteBuffer;
     private AnimalServiceImpl service;
 
     @BeforeEach
     void setUp() {
         repository = mock(AnimalRepository.class);
         roomService = mock(RoomService.class);
-        service = new AnimalServiceImpl(repository, roomService);
+        favouriteCounters = mock(FavouriteRoomCounterRepository.class);
+        favouriteBuffer = mock(FavouriteWriteBuffer.class);
+        when(favouriteBuffer.flush(anyString(), anyLong())).thenAnswer(inv -> inv.getArgument(1));
+        service = new AnimalServiceImpl(repository, roomService, favouriteCounters, favouriteBuffer,
+                new PagingProperties(), Runnable::run, new WriteTransactions(mock(PlatformTransactionManager.class)));
         MockitoAnnotations.openMocks(this);
     }
 
@@ -46,8 +64,8 @@ class AnimalServiceImplTest {
         savedAnimal.setCreated(Instant.now());
         savedAnimal.setUpdated(Instant.now());
 
-        // Mock roomService.exists() to return true for room "r1"
-        when(roomService.exists("r1")).thenReturn(true);
+        // Mock roomService.findMissingIds() to report room "r1" as existing
+        when(roomService.findMissingIds(Set.of("r1"))).thenReturn(Set.of());
         when(repository.save(any())).thenReturn(savedAnimal);
 
         Animal result = service.create(animal);
@@ -55,7 +73,8 @@ class AnimalServiceImplTest {
         assertNotNull(result.getId());
         assertEquals("Lion", result.getTitle());
         verify(repository, times(1)).save(any());
-        verify(roomService, times(1)).exists("r1");
+        verify(roomService, times(1)).findMissingIds(Set.of("r1"));
+        verify(roomService, never()).exists(anyString());
     }
 
     @Test
@@ -93,28 +112,41 @@ class AnimalServiceImplTest {
         updated.setCurrentRoomId("r2");
 
         when(repository.findById("a1")).thenReturn(Optional.of(existing));
-        // Mock roomService.exists() for the new room "r2"
-        when(roomService.exists("r2")).thenReturn(true);
-        when(repository.save(any(Animal.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // Mock roomService.findMissingIds() for the new room "r2"
+        when(roomService.findMissingIds(Set.of("r2"))).thenReturn(Set.of());
+        when(repository.replaceIfVersion(any(Animal.class), eq(0L))).thenReturn(true);
 
         Animal result = service.update("a1", updated);
 
         assertEquals("Tiger", result.getTitle());
         assertEquals("r2", result.getCurrentRoomId());
+        assertEquals("a1", result.getId());
+        assertEquals(1L, result.getVersion());
 
-        verify(repository, times(1)).save(any(Animal.class));
-        verify(roomService, times(1)).exists("r2");
+        verify(repository, times(1)).replaceIfVersion(any(Animal.class), eq(0L));
+        verify(repository, never()).save(any(Animal.class));
+        verify(roomService, times(1)).findMissingIds(Set.of("r2"));
     }
 
 
     @Test
     void testDeleteAnimal() {
-        Animal existing = new Animal();
-        existing.setId("a1");
-        when(repository.findById("a1")).thenReturn(Optional.of(existing));
+        Animal deleted = new Animal();
+        deleted.setId("a1");
+        when(repository.deleteAndReturn("a1")).thenReturn(deleted);
 
         service.delete("a1");
-        verify(repository, times(1)).deleteById("a1");
+        verify(repository, times(1)).deleteAndReturn("a1");
+        verify(repository, never()).findById(anyString());
+        verify(repository, never()).deleteById(anyString());
+    }
+
+    @Test
+    void testDeleteAnimalNotFound() {
+        when(repository.deleteAndReturn("unknown")).thenReturn(null);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.delete("unknown"));
+        verifyNoInteractions(favouriteCounters);
     }
 
     @Test
@@ -156,60 +188,54 @@ class AnimalServiceImplTest {
         String animalId = "a1";
         String roomId = "r2";
 
-        Animal existing = new Animal();
-        existing.setId(animalId);
-        existing.setTitle("Lion");
-        existing.setCurrentRoomId("r1");
-        existing.setCreated(Instant.now());
-        existing.setUpdated(Instant.now());
+        Animal updated = new Animal();
+        updated.setId(animalId);
+        updated.setTitle("Lion");
+        updated.setCurrentRoomId(roomId);
 
         Room room = new Room();
         room.setId(roomId);
         room.setTitle("New Room");
 
-        when(repository.findById(animalId)).thenReturn(Optional.of(existing));
-
         when(roomService.get(roomId)).thenReturn(room);
-
-        when(repository.save(any(Animal.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(repository.setCurrentRoom(eq(animalId), eq(roomId), any(Instant.class))).thenReturn(updated);
 
         Animal result = service.assignAnimalToRoom(animalId, roomId);
 
         assertNotNull(result);
         assertEquals(roomId, result.getCurrentRoomId(), "Animal must be assigned to new room");
 
-        assertTrue(result.getUpdated().isAfter(existing.getCreated()));
-
-        verify(repository, times(1)).findById(animalId);
         verify(roomService, times(1)).get(roomId);
-        verify(repository, times(1)).save(existing);
+        verify(repository, times(1)).setCurrentRoom(eq(animalId), eq(roomId), any(Instant.class));
+        verify(repository, never()).findById(anyString());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testAssignAnimalToRoom_AnimalNotFound() {
+        when(roomService.get("r2")).thenReturn(new Room());
+        when(repository.setCurrentRoom(eq("unknown"), eq("r2"), any(Instant.class))).thenReturn(null);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.assignAnimalToRoom("unknown", "r2"));
     }
 
     @Test
     void testRemoveAnimalFromRoom() {
         String id = "a1";
 
-        Animal existing = new Animal();
-        existing.setId(id);
-        existing.setTitle("Tiger");
-        existing.setCurrentRoomId("r5");
-        existing.setCreated(Instant.now());
-        existing.setUpdated(Instant.now().minusSeconds(10));
-
-        when(repository.findById(id)).thenReturn(Optional.of(existing));
+        Animal updated = new Animal();
+        updated.setId(id);
+        updated.setTitle("Tiger");
 
-        when(repository.save(any(Animal.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(repository.unsetCurrentRoom(eq(id), any(Instant.class))).thenReturn(updated);
 
         Animal result = service.removeAnimalFromRoom(id);
 
         assertNull(result.getCurrentRoomId(), "Room must be cleared");
-
-        assertTrue(result.getUpdated().isAfter(existing.getCreated()));
-
         assertEquals("Tiger", result.getTitle());
 
-        verify(repository, times(1)).findById(id);
-        verify(repository, times(1)).save(existing);
+        verify(repository, times(1)).unsetCurrentRoom(eq(id), any(Instant.class));
+        verify(repository, never()).save(any());
     }
 
     @Test
@@ -217,16 +243,10 @@ class AnimalServiceImplTest {
         String animalId = "a1";
         String roomId = "r10";
 
-        Animal existing = new Animal();
-        existing.setId(animalId);
-        existing.setTitle("Elephant");
-        existing.setFavouriteRoomIds(new LinkedHashSet<>());
-        existing.setCreated(Instant.now());
-        existing.setUpdated(Instant.now().minusSeconds(20));
-
-        existing.setFavouriteRoomIds(new LinkedHashSet<>());
-
-        when(repository.findById(animalId)).thenReturn(Optional.of(existing));
+        Animal updated = new Animal();
+        updated.setId(animalId);
+        updated.setTitle("Elephant");
+        updated.setFavouriteRoomIds(new LinkedHashSet<>(Set.of(roomId)));
 
         // mock roomService.get
         Room room = new Room();
@@ -234,16 +254,98 @@ class AnimalServiceImplTest {
         room.setTitle("Big Safari Room");
         when(roomService.get(roomId)).thenReturn(room);
 
-        when(repository.save(any(Animal.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(repository.addFavouriteRoom(eq(animalId), eq(roomId), any(Instant.class))).thenReturn(updated);
 
         Animal result = service.assignFavouriteRoom(animalId, roomId);
 
         assertTrue(result.getFavouriteRoomIds().contains(roomId),
                 "Favourite room was not added!");
 
-        verify(repository).findById(animalId);
         verify(roomService).get(roomId);
-        verify(repository).save(existing);
+        verify(repository).addFavouriteRoom(eq(animalId), eq(roomId), any(Instant.class));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testAssignFavouriteRoom_WriteBehind_NoWrite() {
+        Animal pending = new Animal();
+        pending.setId("a1");
+        pending.setFavouriteRoomIds(new LinkedHashSet<>(Set.of("r10")));
+        when(roomService.get("r10")).thenReturn(new Room());
+        when(favouriteBuffer.add("a1", "r10")).thenReturn(Optional.of(pending));
+
+        Animal result = service.assignFavouriteRoom("a1", "r10");
+
+        assertSame(pending, result);
+        verify(repository, never()).addFavouriteRoom(anyString(), anyString(), any());
+        verifyNoInteractions(favouriteCounters);
+    }
+
+    @Test
+    void testUnassignFavouriteRoom_WriteBehind_NoWrite() {
+        Animal pending = new Animal();
+        pending.setId("a1");
+        when(roomService.get("r10")).thenReturn(new Room());
+        when(favouriteBuffer.remove("a1", "r10")).thenReturn(Optional.of(pending));
+
+        assertSame(pending, service.unassignFavouriteRoom("a1", "r10"));
+        verify(repository, never()).removeFavouriteRoom(anyString(), anyString(), any());
+        verifyNoInteractions(favouriteCounters);
+    }
+
+    @Test
+    void testGetAnimal_AppliesPendingFavouriteEdits() {
+        Animal stored = new Animal();
+        stored.setId("a1");
+        when(repository.findById("a1")).thenReturn(Optional.of(stored));
+
+        service.get("a1");
+
+        verify(favouriteBuffer).applyPending(stored);
+    }
+
+    @Test
+    void testGetVersionStamp_NoPendingEdits_StoredVersionOnly() {
+        Animal info = new Animal();
+        info.setVersion(3L);
+        when(repository.findVersionInfo("a1")).thenReturn(Optional.of(info));
+
+        VersionStamp stamp = service.getVersionStamp("a1");
+
+        assertEquals(3L, stamp.getVersion());
+        assertNull(stamp.getVariant());
+        verify(repository, never()).findProjectedById(any(), any());
+    }
+
+    @Test
+    void testGetVersionStamp_PendingEdits_VariantNamesServedFavourites() {
+        Animal stored = new Animal();
+        stored.setVersion(3L);
+        stored.setFavouriteRoomIds(new LinkedHashSet<>(Set.of("r1")));
+        when(favouriteBuffer.hasPending("a1")).thenReturn(true);
+        when(repository.findProjectedById("a1", List.of("version", "updated", "favouriteRoomIds")))
+                .thenReturn(Optional.of(stored));
+        doAnswer(inv -> inv.<Animal>getArgument(0).getFavouriteRoomIds().add("r2"))
+                .when(favouriteBuffer).applyPending(any());
+
+        VersionStamp stamp = service.getVersionStamp("a1");
+
+        assertEquals(3L, stamp.getVersion());
+        assertEquals(VersionStamp.variantOf(Set.of("r2", "r1")), stamp.getVariant());
+        verify(repository, never()).findVersionInfo(any());
+    }
+
+    @Test
+    void testDeleteAnimal_WritesPendingFavouriteEditsFirst() {
+        Animal deleted = new Animal();
+        deleted.setId("a1");
+        when(repository.deleteAndReturn("a1")).thenReturn(deleted);
+
+        service.delete("a1");
+
+        InOrder inOrder = inOrder(favouriteBuffer, repository);
+        inOrder.verify(favouriteBuffer).flush("a1");
+        inOrder.verify(repository).deleteAndReturn("a1");
     }
 
     @Test
@@ -251,21 +353,17 @@ class AnimalServiceImplTest {
         String animalId = "a1";
         String roomId = "r10";
 
-        Animal existing = new Animal();
-        existing.setId(animalId);
-        existing.setTitle("Lion");
-
-        existing.setUpdated(Instant.now().minusSeconds(10));
-
-        existing.setFavouriteRoomIds(new LinkedHashSet<>(Set.of(roomId, "r20")));
+        Animal updated = new Animal();
+        updated.setId(animalId);
+        updated.setTitle("Lion");
+        updated.setFavouriteRoomIds(new LinkedHashSet<>(Set.of("r20")));
 
         Room room = new Room();
         room.setId(roomId);
         room.setTitle("Desert Room");
 
-        when(repository.findById(animalId)).thenReturn(Optional.of(existing));
         when(roomService.get(roomId)).thenReturn(room);
-        when(repository.save(any(Animal.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(repository.removeFavouriteRoom(eq(animalId), eq(roomId), any(Instant.class))).thenReturn(updated);
 
         Animal result = service.unassignFavouriteRoom(animalId, roomId);
 
@@ -274,9 +372,10 @@ class AnimalServiceImplTest {
 
         assertTrue(result.getFavouriteRoomIds().contains("r20"));
 
-        verify(repository).findById(animalId);
         verify(roomService).get(roomId);
-        verify(repository).save(existing);
+        verify(repository).removeFavouriteRoom(eq(animalId), eq(roomId), any(Instant.class));
+        verify(repository, never()).save(any());
+        verify(favouriteCounters).increment(Set.of(roomId), -1);
     }
 
     @Test
@@ -288,6 +387,7 @@ class AnimalServiceImplTest {
         existing.setId(animalId);
         existing.setFavouriteRoomIds(new LinkedHashSet<>(Set.of("x1", "x2")));
 
+        when(repository.removeFavouriteRoom(eq(animalId), eq(roomId), any(Instant.class))).thenReturn(null);
         when(repository.findById(animalId)).thenReturn(Optional.of(existing));
 
         Room room = new Room();
@@ -301,6 +401,17 @@ class AnimalServiceImplTest {
         verify(repository).findById(animalId);
         verify(roomService).get(roomId);
         verify(repository, never()).save(any());
+        verifyNoInteractions(favouriteCounters);
+    }
+
+    @Test
+    void testUnassignFavouriteRoom_AnimalNotFound() {
+        when(roomService.get("r10")).thenReturn(new Room());
+        when(repository.removeFavouriteRoom(eq("unknown"), eq("r10"), any(Instant.class))).thenReturn(null);
+        when(repository.findById("unknown")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> service.unassignFavouriteRoom("unknown", "r10"));
     }
 
     @Test
@@ -310,14 +421,670 @@ class AnimalServiceImplTest {
         animal.setCurrentRoomId("non-existent-room");
         animal.setFavouriteRoomIds(new LinkedHashSet<>());
 
-        // Mock roomService.exists() to return false
-        when(roomService.exists("non-existent-room")).thenReturn(false);
+        // Mock roomService.findMissingIds() to report the room as missing
+        when(roomService.findMissingIds(Set.of("non-existent-room"))).thenReturn(Set.of("non-existent-room"));
 
         assertThrows(ResourceNotFoundException.class, () -> service.create(animal));
 
-        verify(roomService, times(1)).exists("non-existent-room");
+        verify(roomService, times(1)).findMissingIds(Set.of("non-existent-room"));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testCreateAnimal_ValidatesAllRoomsInOneCall_AndReportsEveryMissingRoom() {
+        Animal animal = new Animal();
+        animal.setTitle("Lion");
+        animal.setCurrentRoomId("r1");
+        animal.setFavouriteRoomIds(new LinkedHashSet<>(List.of("r2", "r3", "r4")));
+
+        when(roomService.findMissingIds(any())).thenReturn(new LinkedHashSet<>(List.of("r2", "r4")));
+
+        ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class, () -> service.create(animal));
+
+        assertEquals("Room not found: r2, r4", ex.getMessage());
+        verify(roomService, times(1)).findMissingIds(Set.of("r1", "r2", "r3", "r4"));
+        verify(roomService, never()).exists(anyString());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testFavouriteRoomStats_ReadsCounters() {
+        when(favouriteCounters.aggregateStatsByTitle())
+                .thenReturn(List.of(new FavouriteRoomStatsDto("Safari", 3)));
+
+        List<FavouriteRoomStatsDto> result = service.favouriteRoomStats();
+
+        assertEquals(1, result.size());
+        assertEquals("Safari", result.get(0).getTitle());
+        assertEquals(3, result.get(0).getCount());
+
+        verify(favouriteCounters, times(1)).aggregateStatsByTitle();
+        verify(repository, never()).findAll();
+        verifyNoInteractions(roomService);
+    }
+
+    @Test
+    void testTopFavouriteRooms_InvalidK_ShouldThrow() {
+        assertThrows(BadRequestException.class, () -> service.topFavouriteRooms(0));
+        assertThrows(BadRequestException.class, () -> service.topFavouriteRooms(101));
+        verifyNoInteractions(favouriteCounters);
+    }
+
+    @Test
+    void testAssignFavouriteRoom_IncrementsCounter() {
+        Animal updated = new Animal();
+        updated.setId("a1");
+        updated.setFavouriteRoomIds(new LinkedHashSet<>(Set.of("r1")));
+
+        when(roomService.get("r1")).thenReturn(new Room());
+        when(repository.addFavouriteRoom(eq("a1"), eq("r1"), any(Instant.class))).thenReturn(updated);
+
+        service.assignFavouriteRoom("a1", "r1");
+
+        verify(favouriteCounters).increment(Set.of("r1"), 1);
+    }
+
+    @Test
+    void testAssignFavouriteRoom_AlreadyFavourite_DoesNotIncrementCounter() {
+        Animal existing = new Animal();
+        existing.setId("a1");
+        existing.setFavouriteRoomIds(new LinkedHashSet<>(Set.of("r1")));
+
+        when(roomService.get("r1")).thenReturn(new Room());
+        when(repository.addFavouriteRoom(eq("a1"), eq("r1"), any(Instant.class))).thenReturn(null);
+        when(repository.findById("a1")).thenReturn(Optional.of(existing));
+
+        Animal result = service.assignFavouriteRoom("a1", "r1");
+
+        assertTrue(result.getFavouriteRoomIds().contains("r1"));
+        verify(favouriteCounters, never()).increment(any(), anyLong());
+    }
+
+    @Test
+    void testUpdateAnimal_AdjustsCountersForChangedFavourites() {
+        Animal changes = new Animal();
+        changes.setId("a1");
+        changes.setFavouriteRoomIds(new LinkedHashSet<>(Set.of("r1", "r3")));
+
+        Animal previous = new Animal();
+        previous.setFavouriteRoomIds(Set.of("r1", "r2"));
+        when(repository.findRoomReferences("a1")).thenReturn(Optional.of(previous));
+        when(repository.replaceIfVersion(any(Animal.class), anyLong())).thenReturn(true);
+
+        service.update("a1", changes);
+
+        verify(favouriteCounters).incrementAll(Map.of("r3", 1L, "r2", -1L));
+    }
+
+    @Test
+    void testUpdateAnimal_MovesOccupancyWhenRoomChanges() {
+        Animal changes = new Animal();
+        changes.setId("a1");
+        changes.setCurrentRoomId("r2");
+
+        Animal previous = new Animal();
+        previous.setCurrentRoomId("r1");
+        when(repository.findRoomReferences("a1")).thenReturn(Optional.of(previous));
+        when(roomService.findMissingIds(anyCollection())).thenReturn(Set.of());
+        when(repository.replaceIfVersion(any(Animal.class), anyLong())).thenReturn(true);
+
+        service.update("a1", changes);
+
+        verify(roomService).adjustOccupancy(Map.of("r1", -1L, "r2", 1L));
+    }
+
+    @Test
+    void testUpdateAnimal_SameRoom_LeavesOccupancyAlone() {
+        Animal changes = new Animal();
+        changes.setId("a1");
+        changes.setCurrentRoomId("r1");
+
+        Animal previous = new Animal();
+        previous.setCurrentRoomId("r1");
+        when(repository.findRoomReferences("a1")).thenReturn(Optional.of(previous));
+        when(roomService.findMissingIds(anyCollection())).thenReturn(Set.of());
+        when(repository.replaceIfVersion(any(Animal.class), anyLong())).thenReturn(true);
+
+        service.update("a1", changes);
+
+        verify(roomService, never()).adjustOccupancy(any());
+    }
+
+    @Test
+    void testUpdateAnimal_ModifiedSinceRead_ThrowsConflictAndLeavesCountersAlone() {
+        Animal changes = new Animal();
+        changes.setId("a1");
+        changes.setVersion(4L);
+        changes.setFavouriteRoomIds(new LinkedHashSet<>(Set.of("r1")));
+
+        when(repository.findRoomReferences("a1")).thenReturn(Optional.of(new Animal()));
+        when(roomService.findMissingIds(anyCollection())).thenReturn(Set.of());
+        when(repository.replaceIfVersion(any(Animal.class), eq(4L))).thenReturn(false);
+        when(repository.existsById("a1")).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> service.update("a1", changes));
+
+        verify(repository, never()).save(any(Animal.class));
+        verify(favouriteCounters, never()).incrementAll(any());
+        verify(roomService, never()).adjustOccupancy(any());
+    }
+
+    @Test
+    void testUpdateAnimal_PendingFavouriteEdits_ReplacesTheFlushedVersion() {
+        // read at version 4 with a buffered edit adding r2 on top of the stored r1
+        Animal changes = new Animal();
+        changes.setId("a1");
+        changes.setTitle("Tiger");
+        changes.setVersion(4L);
+        changes.setFavouriteRoomIds(new LinkedHashSet<>(Set.of("r1", "r2")));
+
+        Animal flushed = new Animal();
+        flushed.setFavouriteRoomIds(Set.of("r1", "r2"));
+        when(favouriteBuffer.flush("a1", 4L)).thenReturn(5L);
+        when(repository.findRoomReferences("a1")).thenReturn(Optional.of(flushed));
+        when(roomService.findMissingIds(anyCollection())).thenReturn(Set.of());
+        when(repository.replaceIfVersion(any(Animal.class), eq(5L))).thenReturn(true);
+
+        Animal result = service.update("a1", changes);
+
+        assertEquals(6L, result.getVersion());
+        InOrder inOrder = inOrder(favouriteBuffer, repository);
+        inOrder.verify(favouriteBuffer).flush("a1", 4L);
+        inOrder.verify(repository).replaceIfVersion(any(Animal.class), eq(5L));
+        // the flush already counted r2
+        verify(favouriteCounters).incrementAll(Map.of());
+    }
+
+    @Test
+    void testDeleteAnimal_DecrementsCounters() {
+        Animal deleted = new Animal();
+        deleted.setId("a1");
+        deleted.setFavouriteRoomIds(new LinkedHashSet<>(Set.of("r1")));
+        when(repository.deleteAndReturn("a1")).thenReturn(deleted);
+
+        service.delete("a1");
+
+        verify(favouriteCounters).increment(Set.of("r1"), -1);
+    }
+
+    @Test
+    void testCreateAnimal_IncrementsOccupancy() {
+        Animal animal = new Animal();
+        animal.setTitle("Lion");
+        animal.setCurrentRoomId("r1");
+        when(roomService.findMissingIds(Set.of("r1"))).thenReturn(Set.of());
+        when(repository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        service.create(animal);
+
+        verify(roomService).adjustOccupancy(Map.of("r1", 1L));
+    }
+
+    @Test
+    void testDeleteAnimal_DecrementsOccupancy() {
+        Animal deleted = new Animal();
+        deleted.setId("a1");
+        deleted.setCurrentRoomId("r1");
+        when(repository.deleteAndReturn("a1")).thenReturn(deleted);
+
+        service.delete("a1");
+
+        verify(roomService).adjustOccupancy(Map.of("r1", -1L));
+    }
+
+    @Test
+    void testAssignAnimalToRoom_MovesOccupancyFromPreviousRoom() {
+        Animal before = new Animal();
+        before.setId("a1");
+        before.setCurrentRoomId("r1");
+        before.setVersion(3L);
+        when(roomService.get("r2")).thenReturn(new Room());
+        when(repository.setCurrentRoom(eq("a1"), eq("r2"), any(Instant.class))).thenReturn(before);
+
+        Animal result = service.assignAnimalToRoom("a1", "r2");
+
+        assertEquals("r2", result.getCurrentRoomId());
+        assertEquals(4L, result.getVersion());
+        assertNotNull(result.getUpdated());
+        verify(roomService).adjustOccupancy(Map.of("r1", -1L, "r2", 1L));
+    }
+
+    @Test
+    void testRemoveAnimalFromRoom_DecrementsOccupancy() {
+        Animal before = new Animal();
+        before.setId("a1");
+        before.setCurrentRoomId("r1");
+        when(repository.unsetCurrentRoom(eq("a1"), any(Instant.class))).thenReturn(before);
+
+        Animal result = service.removeAnimalFromRoom("a1");
+
+        assertNull(result.getCurrentRoomId());
+        verify(roomService).adjustOccupancy(Map.of("r1", -1L));
+    }
+
+    @Test
+    void testRemoveAnimalFromRoom_NotInRoom_LeavesOccupancyAlone() {
+        Animal before = new Animal();
+        before.setId("a1");
+        when(repository.unsetCurrentRoom(eq("a1"), any(Instant.class))).thenReturn(before);
+
+        service.removeAnimalFromRoom("a1");
+
+        verify(roomService, never()).adjustOccupancy(any());
+    }
+
+    @Test
+    void testPatchAnimal_AppliesFieldsAndBumpsVersion() {
+        AnimalPatchDto patch = new AnimalPatchDto();
+        patch.setTitle("Tiger");
+        patch.setAddFavouriteRoomIds(Set.of("r2"));
+        patch.setVersion(4L);
+
+        Animal before = new Animal();
+        before.setId("a1");
+        before.setTitle("Lion");
+        before.setFavouriteRoomIds(new LinkedHashSet<>(Set.of("r1")));
+        before.setVersion(4L);
+
+        when(roomService.findMissingIds(Set.of("r2"))).thenReturn(Set.of());
+        when(repository.patchIfVersion(eq("a1"), eq(4L), eq(patch), any())).thenReturn(before);
+
+        Animal result = service.patch("a1", patch);
+
+        assertEquals("Tiger", result.getTitle());
+        assertEquals(Set.of("r1", "r2"), result.getFavouriteRoomIds());
+        assertEquals(5L, result.getVersion());
+        verify(repository, never()).findById(anyString());
+        verify(repository, never()).save(any());
+        verify(favouriteCounters).incrementAll(Map.of("r2", 1L));
+    }
+
+    @Test
+    void testPatchAnimal_PendingFavouriteEdits_PatchesTheFlushedVersion() {
+        AnimalPatchDto patch = new AnimalPatchDto();
+        patch.setTitle("Tiger");
+        patch.setVersion(3L);
+
+        Animal before = new Animal();
+        before.setId("a1");
+        before.setTitle("Lion");
+        before.setFavouriteRoomIds(new LinkedHashSet<>(Set.of("r1")));
+        before.setVersion(4L);
+
+        when(favouriteBuffer.flush("a1", 3L)).thenReturn(4L);
+        when(repository.patchIfVersion(eq("a1"), eq(4L), eq(patch), any())).thenReturn(before);
+
+        Animal result = service.patch("a1", patch);
+
+        assertEquals("Tiger", result.getTitle());
+        assertEquals(5L, result.getVersion());
+        InOrder inOrder = inOrder(favouriteBuffer, repository);
+        inOrder.verify(favouriteBuffer).flush("a1", 3L);
+        inOrder.verify(repository).patchIfVersion(eq("a1"), eq(4L), eq(patch), any());
+    }
+
+    @Test
+    void testPatchAnimal_StaleVersion_Conflict() {
+        AnimalPatchDto patch = new AnimalPatchDto();
+        patch.setTitle("Tiger");
+        patch.setVersion(1L);
+
+        when(repository.patchIfVersion(eq("a1"), eq(1L), eq(patch), any())).thenReturn(null);
+        when(repository.existsById("a1")).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> service.patch("a1", patch));
+        verify(favouriteCounters, never()).incrementAll(any());
+    }
+
+    @Test
+    void testPatchAnimal_NotFound() {
+        AnimalPatchDto patch = new AnimalPatchDto();
+        patch.setTitle("Tiger");
+        patch.setVersion(0L);
+
+        when(repository.patchIfVersion(eq("a1"), eq(0L), eq(patch), any())).thenReturn(null);
+        when(repository.existsById("a1")).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.patch("a1", patch));
+    }
+
+    @Test
+    void testPatchAnimal_ReplaceAndAddFavourites_ShouldThrow() {
+        AnimalPatchDto patch = new AnimalPatchDto();
+        patch.setFavouriteRoomIds(Set.of("r1"));
+        patch.setAddFavouriteRoomIds(Set.of("r2"));
+        patch.setVersion(0L);
+
+        assertThrows(BadRequestException.class, () -> service.patch("a1", patch));
+        verify(repository, never()).patchIfVersion(anyString(), anyLong(), any(), any());
+    }
+
+    @Test
+    void testEvacuateRoom_SingleUpdateMany() {
+        EvacuateRequestDto request = new EvacuateRequestDto();
+        request.setTargetRoomId("r2");
+        when(repository.relocateAll(eq("r1"), eq("r2"), any())).thenReturn(25_000L);
+
+        EvacuationResultDto result = service.evacuateRoom("r1", request);
+
+        assertEquals(25_000L, result.getMoved());
+        assertEquals(1, result.getBatches());
+        verify(roomService).get("r1");
+        verify(roomService).get("r2");
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testEvacuateRoom_Batched_MovesTheOccupantsReadUpFront() {
+        EvacuateRequestDto request = new EvacuateRequestDto();
+        request.setUnassign(true);
+        request.setBatchSize(100);
+        List<String> occupants = IntStream.range(0, 230).mapToObj(i -> "a" + i).toList();
+        when(repository.findIdsInRoom("r1")).thenReturn(occupants);
+        when(repository.relocate(anyCollection(), eq("r1"), isNull(), any()))
+                .thenAnswer(invocation -> (long) invocation.getArgument(0, Collection.class).size());
+
+        EvacuationResultDto result = service.evacuateRoom("r1", request);
+
+        assertEquals(230L, result.getMoved());
+        assertEquals(3, result.getBatches());
+        assertNull(result.getTargetRoomId());
+        verify(repository, times(3)).relocate(anyCollection(), eq("r1"), isNull(), any());
+        verify(repository, never()).relocateAll(any(), any(), any());
+        // one occupancy update per batch
+        verify(roomService, times(2)).adjustOccupancy(Map.of("r1", -100L));
+        verify(roomService).adjustOccupancy(Map.of("r1", -30L));
+    }
+
+    @Test
+    void testEvacuateRoom_EmptyRoom_ReportsNoBatches() {
+        EvacuateRequestDto request = new EvacuateRequestDto();
+        request.setUnassign(true);
+        request.setBatchSize(100);
+        when(repository.findIdsInRoom("r1")).thenReturn(List.of());
+
+        EvacuationResultDto result = service.evacuateRoom("r1", request);
+
+        assertEquals(0L, result.getMoved());
+        assertEquals(0, result.getBatches());
+        verify(repository, never()).relocate(anyCollection(), any(), any(), any());
+    }
+
+    @Test
+    void testEvacuateRoom_SingleUpdateMany_NothingMoved_ReportsNoBatches() {
+        EvacuateRequestDto request = new EvacuateRequestDto();
+        request.setTargetRoomId("r2");
+        when(repository.relocateAll(eq("r1"), eq("r2"), any())).thenReturn(0L);
+
+        EvacuationResultDto result = service.evacuateRoom("r1", request);
+
+        assertEquals(0, result.getBatches());
+    }
+
+    @Test
+    void testEvacuateRoom_MovesOccupancyToTarget() {
+        EvacuateRequestDto request = new EvacuateRequestDto();
+        request.setTargetRoomId("r2");
+        when(repository.relocateAll(eq("r1"), eq("r2"), any())).thenReturn(25L);
+
+        service.evacuateRoom("r1", request);
+
+        verify(roomService).adjustOccupancy(Map.of("r1", -25L, "r2", 25L));
+    }
+
+    @Test
+    void testEvacuateRoom_TargetAndUnassign_ShouldThrow() {
+        EvacuateRequestDto request = new EvacuateRequestDto();
+        request.setTargetRoomId("r2");
+        request.setUnassign(true);
+
+        assertThrows(BadRequestException.class, () -> service.evacuateRoom("r1", request));
+        verify(repository, never()).relocateAll(any(), any(), any());
+    }
+
+    @Test
+    void testEvacuateRoom_TargetRoomNotFound_ShouldThrow() {
+        EvacuateRequestDto request = new EvacuateRequestDto();
+        request.setTargetRoomId("missing");
+        when(roomService.get("missing")).thenThrow(new ResourceNotFoundException("Room not found: missing"));
+
+        assertThrows(ResourceNotFoundException.class, () -> service.evacuateRoom("r1", request));
+        verify(repository, never()).relocateAll(any(), any(), any());
+    }
+
+    @Test
+    void testListAnimalsInRoom_RoomNotFound_ShouldThrowUnwrapped() {
+        when(roomService.get("gone")).thenThrow(new ResourceNotFoundException("Room not found: gone"));
+
+        ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class,
+                () -> service.listAnimalsInRoom("gone", "title", "asc", 0, 10));
+        assertEquals("Room not found: gone", ex.getMessage());
+    }
+
+    @Test
+    void testListAnimalsInRoom_RoomNotFound_InlineCheck_SkipsTheQuery() {
+        when(roomService.get("gone")).thenThrow(new ResourceNotFoundException("Room not found: gone"));
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> service.listAnimalsInRoom("gone", "title", "asc", 0, 10));
+        assertThrows(ResourceNotFoundException.class,
+                () -> service.scrollAnimalsInRoom("gone", "title", "asc", 10, null));
+        verify(repository, never()).findByCurrentRoomId(anyString(), any());
+        verify(repository, never()).findInRoomAfter(any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testListAnimalsInRoom_SizeAboveMax_ShouldThrow() {
+        when(roomService.get("r1")).thenReturn(new Room());
+
+        assertThrows(BadRequestException.class,
+                () -> service.listAnimalsInRoom("r1", "title", "asc", 0, 1_000_000));
+        verify(repository, never()).findByCurrentRoomId(anyString(), any());
+    }
+
+    @Test
+    void testScrollAnimalsInRoom_ReturnsCursorThatContinuesAfterLastAnimal() {
+        when(roomService.get("r1")).thenReturn(new Room());
+
+        Animal a1 = new Animal();
+        a1.setId("a1");
+        a1.setTitle("Lion");
+        Animal a2 = new Animal();
+        a2.setId("a2");
+        a2.setTitle("Tiger");
+        Animal a3 = new Animal();
+        a3.setId("a3");
+        a3.setTitle("Zebra");
+
+        when(repository.findInRoomAfter("r1", "title", Sort.Direction.ASC, null, null, 3))
+                .thenReturn(List.of(a1, a2, a3));
+
+        AnimalScroll first = service.scrollAnimalsInRoom("r1", "title", "asc", 2, null);
+
+        assertEquals(2, first.getContent().size());
+        assertNotNull(first.getNextCursor());
+
+        when(repository.findInRoomAfter("r1", "title", Sort.Direction.ASC, "Tiger", "a2", 3))
+                .thenReturn(List.of(a3));
+
+        AnimalScroll second = service.scrollAnimalsInRoom("r1", "title", "asc", 2, first.getNextCursor());
+
+        assertEquals(List.of(a3), second.getContent());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void testScrollAnimalsInRoom_CursorFromOtherSort_ShouldThrow() {
+        when(roomService.get("r1")).thenReturn(new Room());
+
+        Animal a1 = new Animal();
+        a1.setId("a1");
+        a1.setTitle("Lion");
+        Animal a2 = new Animal();
+        a2.setId("a2");
+        a2.setTitle("Tiger");
+        when(repository.findInRoomAfter("r1", "title", Sort.Direction.ASC, null, null, 2))
+                .thenReturn(List.of(a1, a2));
+
+        String cursor = service.scrollAnimalsInRoom("r1", "title", "asc", 1, null).getNextCursor();
+
+        assertThrows(BadRequestException.class,
+                () -> service.scrollAnimalsInRoom("r1", "located", "asc", 1, cursor));
+        assertThrows(BadRequestException.class,
+                () -> service.scrollAnimalsInRoom("r1", "title", "asc", 1, "not-a-cursor"));
+    }
+
+    @Test
+    void testSliceAnimalsInRoom_DoesNotCount() {
+        Animal a1 = new Animal();
+        a1.setId("a1");
+        a1.setTitle("Lion");
+
+        Pageable pageable = PageRequest.of(0, 1, Sort.by(Sort.Direction.ASC, "title"));
+        when(roomService.get("r1")).thenReturn(new Room());
+        when(repository.findSliceByCurrentRoomId("r1", pageable)).thenReturn(new SliceImpl<>(List.of(a1), pageable, true));
+
+        Slice<Animal> result = service.sliceAnimalsInRoom("r1", "title", "asc", 0, 1);
+
+        assertTrue(result.hasNext());
+        verify(repository, never()).findByCurrentRoomId(anyString(), any());
+        verify(repository, never()).countInRoomUpTo(anyString(), anyInt());
+    }
+
+    @Test
+    void testEstimateAnimalsInRoom_CappedAboveLimit() {
+        int cap = new PagingProperties().getCountCap();
+        when(repository.countInRoomUpTo("r1", cap + 1)).thenReturn((long) cap + 1);
+        when(repository.countInRoomUpTo("r2", cap + 1)).thenReturn(42L);
+
+        CountEstimate big = service.estimateAnimalsInRoom("r1");
+        CountEstimate small = service.estimateAnimalsInRoom("r2");
+
+        assertEquals(cap, big.getValue());
+        assertTrue(big.isCapped());
+        assertEquals(42L, small.getValue());
+        assertFalse(small.isCapped());
+    }
+
+    @Test
+    void testUpdateAnimal_IfMatchStale_PreconditionFailed() {
+        Animal animal = new Animal();
+        animal.setId("a1");
+        animal.setTitle("Lion");
+        animal.setFavouriteRoomIds(new LinkedHashSet<>());
+        when(repository.findRoomReferences("a1")).thenReturn(Optional.of(new Animal()));
+        when(repository.replaceIfVersion(animal, 3L)).thenReturn(false);
+
+        assertThrows(PreconditionFailedException.class, () -> service.update("a1", animal, 3L));
+        assertEquals(4L, animal.getVersion());
         verify(repository, never()).save(any());
+        verify(favouriteCounters, never()).increment(any(), anyLong());
+        verify(roomService, never()).adjustOccupancy(any());
+    }
+
+    @Test
+    void testDeleteAnimal_IfMatch() {
+        Animal deleted = new Animal();
+        deleted.setId("a1");
+        deleted.setFavouriteRoomIds(Set.of("r1"));
+        when(repository.deleteIfVersion("a1", 2L)).thenReturn(deleted);
+
+        service.delete("a1", 2L);
+
+        verify(favouriteCounters).increment(Set.of("r1"), -1);
+        verify(repository, never()).existsById(anyString());
+    }
+
+    @Test
+    void testDeleteAnimal_IfMatch_PendingFavouriteEdits_DeletesTheFlushedVersion() {
+        Animal deleted = new Animal();
+        deleted.setId("a1");
+        deleted.setFavouriteRoomIds(Set.of("r1", "r2"));
+        when(favouriteBuffer.flush("a1", 2L)).thenReturn(3L);
+        when(repository.deleteIfVersion("a1", 3L)).thenReturn(deleted);
+
+        service.delete("a1", 2L);
+
+        verify(repository, never()).deleteIfVersion("a1", 2L);
+        verify(favouriteCounters).increment(Set.of("r1", "r2"), -1);
     }
 
+    @Test
+    void testDeleteAnimal_IfMatchStale_PreconditionFailedOrNotFound() {
+        when(repository.deleteIfVersion(anyString(), anyLong())).thenReturn(null);
+        when(repository.existsById("a1")).thenReturn(true);
+        when(repository.existsById("gone")).thenReturn(false);
+
+        assertThrows(PreconditionFailedException.class, () -> service.delete("a1", 1L));
+        assertThrows(ResourceNotFoundException.class, () -> service.delete("gone", 1L));
+        verify(favouriteCounters, never()).increment(any(), anyLong());
+    }
+
+    @Test
+    void testGetAnimal_WithFields_ProjectsSelectedFieldsAndValidators() {
+        Animal projected = new Animal();
+        projected.setId("a1");
+        projected.setTitle("Lion");
+        when(repository.findProjectedById("a1", Set.of("_id", "title", "version", "updated")))
+                .thenReturn(Optional.of(projected));
+
+        Animal result = service.get("a1", AnimalFields.parse("title"));
+
+        assertEquals("Lion", result.getTitle());
+        verify(repository, never()).findById(anyString());
+    }
+
+    @Test
+    void testListAnimalsInRoom_WithFields_ProjectsAndCountsOnlyWhenNeeded() {
+        Animal a1 = new Animal();
+        a1.setId("a1");
+        a1.setTitle("Lion");
+
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "title"));
+        when(roomService.get("r1")).thenReturn(new Room());
+        when(repository.findInRoom("r1", pageable, Set.of("_id", "title"))).thenReturn(List.of(a1));
+
+        Page<Animal> result = service.listAnimalsInRoom("r1", "title", "asc", 0, 10, AnimalFields.parse("id, title"));
+
+        assertEquals(List.of(a1), result.getContent());
+        assertEquals(1, result.getTotalElements());
+        verify(repository, never()).findByCurrentRoomId(anyString(), any());
+        // a short first page already tells the total
+        verify(repository, never()).countByCurrentRoomId(anyString());
+    }
+
+    @Test
+    void testAnimalFields_UnknownField_ShouldThrow() {
+        assertThrows(BadRequestException.class, () -> AnimalFields.parse("title,secret"));
+        assertTrue(AnimalFields.parse(" ").isAll());
+        assertTrue(AnimalFields.parse("id,title,created,updated,version,located,currentRoomId,favouriteRoomIds").isAll());
+    }
+
+    @Test
+    void testGetAll_OneQueryInRequestOrderWithMissing() {
+        Animal a1 = new Animal();
+        a1.setId("a1");
+        Animal a2 = new Animal();
+        a2.setId("a2");
+        when(repository.findAllById(Set.of("a2", "x", "a1"))).thenReturn(List.of(a1, a2));
+
+        BatchResult<Animal> result = service.getAll(List.of("a2", "x", "a1", "a2"));
+
+        assertEquals(List.of(a2, a1), result.getFound());
+        assertEquals(List.of("x"), result.getMissing());
+        verify(repository, times(1)).findAllById(any());
+        verify(repository, never()).findById(anyString());
+    }
+
+    @Test
+    void testGetAll_EmptyOrTooMany_ShouldThrow() {
+        int max = new PagingProperties().getMaxBatchSize();
+        List<String> tooMany = new ArrayList<>();
+        for (int i = 0; i <= max; i++) tooMany.add("a" + i);
+
+        assertThrows(BadRequestException.class, () -> service.getAll(List.of()));
+        assertThrows(BadRequestException.class, () -> service.getAll(tooMany));
+        verify(repository, never()).findAllById(any());
+    }
 
 }
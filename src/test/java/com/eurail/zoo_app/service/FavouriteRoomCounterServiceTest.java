@@ -0,0 +1,87 @@
+package com.eurail.zoo_app.service;
+
+import com.eurail.zoo_app.controller.dto.CounterReconciliationDto;
+import com.eurail.zoo_app.exception.ConflictException;
+import com.eurail.zoo_app.respository.AnimalRepository;
+import com.eurail.zoo_app.respository.FavouriteRoomCounterRepository;
+import com.eurail.zoo_app.respository.JobLeaseRepository;
+import com.eurail.zoo_app.service.impl.FavouriteRoomCounterServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class FavouriteRoomCounterServiceTest {
+
+    private AnimalRepository animalRepository;
+    private FavouriteRoomCounterRepository counterRepository;
+    private JobLeaseRepository leases;
+    private FavouriteRoomCounterServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        animalRepository = mock(AnimalRepository.class);
+        counterRepository = mock(FavouriteRoomCounterRepository.class);
+        leases = mock(JobLeaseRepository.class);
+        when(leases.tryAcquire(anyString(), anyString(), any(), any())).thenReturn(true);
+        service = new FavouriteRoomCounterServiceImpl(animalRepository, counterRepository, leases);
+    }
+
+    @Test
+    void testReconcile_SetsDriftedCountersIfUnchangedSinceRead() {
+        when(animalRepository.countFavouriteReferencesByRoom()).thenReturn(Map.of("r1", 3L, "r2", 1L));
+        when(counterRepository.findAllCounts()).thenReturn(Map.of("r1", 2L, "r2", 1L, "r3", 4L));
+
+        CounterReconciliationDto report = service.reconcile();
+
+        assertEquals(3, report.getRoomsChecked());
+        assertEquals(2, report.getRoomsDrifted());
+        assertEquals(5, report.getTotalDrift());
+        Map<String, Long> read = Map.of("r1", 2L, "r2", 1L, "r3", 4L);
+        verify(counterRepository).setCountsIfUnchanged(Map.of("r1", 3L, "r3", 0L), read);
+        verify(counterRepository).deleteEmpty();
+        verify(counterRepository, never()).incrementAll(any());
+        verify(leases).release(anyString(), anyString());
+    }
+
+    @Test
+    void testReconcile_ReadsCountersBeforeRecount() {
+        when(animalRepository.countFavouriteReferencesByRoom()).thenReturn(Map.of());
+        when(counterRepository.findAllCounts()).thenReturn(Map.of());
+
+        service.reconcile();
+
+        InOrder order = inOrder(counterRepository, animalRepository);
+        order.verify(counterRepository).findAllCounts();
+        order.verify(animalRepository).countFavouriteReferencesByRoom();
+    }
+
+    @Test
+    void testReconcile_LeaseHeldElsewhere_DoesNothing() {
+        when(leases.tryAcquire(anyString(), anyString(), any(), any())).thenReturn(false);
+
+        assertThrows(ConflictException.class, service::reconcile);
+        service.reconcileOnSchedule();
+
+        verifyNoInteractions(animalRepository, counterRepository);
+        verify(leases, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    void testReconcile_NoDrift() {
+        when(animalRepository.countFavouriteReferencesByRoom()).thenReturn(Map.of("r1", 2L));
+        when(counterRepository.findAllCounts()).thenReturn(Map.of("r1", 2L));
+
+        CounterReconciliationDto report = service.reconcile();
+
+        assertEquals(1, report.getRoomsChecked());
+        assertEquals(0, report.getRoomsDrifted());
+        assertEquals(0, report.getTotalDrift());
+        verify(counterRepository).setCountsIfUnchanged(Map.of(), Map.of("r1", 2L));
+    }
+}
@@ -0,0 +1,280 @@
+package com.eurail.zoo_app.service;
+
+import com.eurail.zoo_app.config.FavouriteWriteBehindProperties;
+import com.eurail.zoo_app.exception.BadRequestException;
+import com.eurail.zoo_app.exception.ResourceNotFoundException;
+import com.eurail.zoo_app.respository.AnimalRepository;
+import com.eurail.zoo_app.respository.FavouriteRoomCounterRepository;
+import com.eurail.zoo_app.respository.entity.Animal;
+import com.eurail.zoo_app.service.impl.FavouriteWriteBufferImpl;
+import com.eurail.zoo_app.service.impl.WriteTransactions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FavouriteWriteBufferTest {
+
+    private AnimalRepository animalRepository;
+    private FavouriteRoomCounterRepository counterRepository;
+    private SimpleMeterRegistry registry;
+    private FavouriteWriteBufferImpl buffer;
+
+    @BeforeEach
+    void setUp() {
+        animalRepository = mock(AnimalRepository.class);
+        counterRepository = mock(FavouriteRoomCounterRepository.class);
+        registry = new SimpleMeterRegistry();
+        buffer = buffer(true, 100);
+        when(animalRepository.setFavouriteRoomsIfVersion(anyCollection(), any()))
+                .thenAnswer(inv -> inv.<Collection<Animal>>getArgument(0).size());
+    }
+
+    @Test
+    void testToggles_CoalescedIntoNetEdit() {
+        stored("a1", "r1");
+
+        buffer.add("a1", "r2");
+        buffer.remove("a1", "r2");
+        buffer.add("a1", "r2");
+        buffer.remove("a1", "r1");
+        buffer.add("a1", "r1");
+
+        assertEquals(1, buffer.flush());
+        verify(animalRepository, times(1)).findById("a1");
+        verify(animalRepository).setFavouriteRoomsIfVersion(argThat(written("a1", 0, "r1", "r2")), any());
+        verify(counterRepository).incrementAll(Map.of("r2", 1L));
+        assertEquals(5.0, registry.get("zoo.favourites.write_behind.coalescing_ratio").gauge().value());
+    }
+
+    @Test
+    void testToggleBackToStored_NothingWritten() {
+        stored("a1", "r1");
+
+        buffer.remove("a1", "r1");
+        buffer.add("a1", "r1");
+
+        assertEquals(0, buffer.flush());
+        verify(animalRepository, never()).setFavouriteRoomsIfVersion(anyCollection(), any());
+        verifyNoInteractions(counterRepository);
+    }
+
+    @Test
+    void testPendingEdits_VisibleToReads() {
+        stored("a1", "r1");
+
+        Animal returned = buffer.add("a1", "r2").orElseThrow();
+        assertEquals(Set.of("r1", "r2"), returned.getFavouriteRoomIds());
+
+        Animal read = animal("a1", "r1");
+        buffer.applyPending(read);
+        assertEquals(Set.of("r1", "r2"), read.getFavouriteRoomIds());
+
+        buffer.flush();
+        Animal afterFlush = animal("a1", "r1");
+        buffer.applyPending(afterFlush);
+        assertEquals(Set.of("r1"), afterFlush.getFavouriteRoomIds());
+    }
+
+    @Test
+    void testHasPending_OnlyWhileNetEditsAreUnwritten() {
+        stored("a1", "r1");
+
+        buffer.add("a1", "r2");
+        assertTrue(buffer.hasPending("a1"));
+
+        buffer.remove("a1", "r2");
+        assertFalse(buffer.hasPending("a1"));
+
+        buffer.add("a1", "r2");
+        buffer.flush();
+        assertFalse(buffer.hasPending("a1"));
+    }
+
+    @Test
+    void testStaleEdits_OnlyEditsThatStillApplyAreCounted() {
+        stored("a1");
+        stored("a2");
+        buffer.add("a1", "r1");
+        buffer.add("a2", "r1");
+        when(animalRepository.setFavouriteRoomsIfVersion(anyCollection(), any())).thenReturn(1);
+        // a2 was changed by another instance, which also added r1
+        Animal a2 = animal("a2", "r1");
+        a2.setVersion(1L);
+        when(animalRepository.findProjectedById(eq("a1"), anyCollection())).thenReturn(Optional.of(animal("a1")));
+        when(animalRepository.findProjectedById(eq("a2"), anyCollection())).thenReturn(Optional.of(a2));
+
+        assertEquals(2, buffer.flush());
+
+        verify(animalRepository).setFavouriteRoomsIfVersion(argThat(written("a1", 0, "r1")), any());
+        verify(animalRepository, never()).setFavouriteRoomsIfVersion(argThat(written("a2", 1, "r1")), any());
+        verify(counterRepository, times(1)).incrementAll(Map.of("r1", 1L));
+        assertEquals(1.0, registry.get("zoo.favourites.write_behind.conflicts").counter().count());
+        assertEquals(0.0, registry.get("zoo.favourites.write_behind.pending").gauge().value());
+    }
+
+    @Test
+    void testRemoveNotFavourite_ShouldThrow() {
+        stored("a1", "r1");
+
+        assertThrows(BadRequestException.class, () -> buffer.remove("a1", "r9"));
+    }
+
+    @Test
+    void testMissingAnimal_ShouldThrow() {
+        when(animalRepository.findById("nope")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> buffer.add("nope", "r1"));
+    }
+
+    @Test
+    void testBufferFull_OtherAnimalsWrittenDirectly() {
+        buffer = buffer(true, 1);
+        stored("a1");
+        stored("a2");
+
+        assertTrue(buffer.add("a1", "r1").isPresent());
+        assertTrue(buffer.add("a1", "r2").isPresent());
+        assertTrue(buffer.add("a2", "r1").isEmpty());
+        assertEquals(1.0, registry.get("zoo.favourites.write_behind.rejected").counter().count());
+    }
+
+    @Test
+    void testDisabled_NotBuffered() {
+        buffer = buffer(false, 100);
+
+        assertTrue(buffer.add("a1", "r1").isEmpty());
+        verifyNoInteractions(animalRepository);
+    }
+
+    @Test
+    void testFailedWrite_EditsKeptForNextFlush() {
+        stored("a1");
+        buffer.add("a1", "r1");
+        when(animalRepository.setFavouriteRoomsIfVersion(anyCollection(), any()))
+                .thenThrow(new IllegalStateException("down"))
+                .thenReturn(1);
+
+        assertThrows(IllegalStateException.class, () -> buffer.flush());
+        verifyNoInteractions(counterRepository);
+
+        Animal read = animal("a1");
+        buffer.applyPending(read);
+        assertEquals(Set.of("r1"), read.getFavouriteRoomIds());
+
+        assertEquals(1, buffer.flush());
+        verify(counterRepository).incrementAll(Map.of("r1", 1L));
+    }
+
+    @Test
+    void testFlushOneAnimal_LeavesOthersPending() {
+        stored("a1");
+        stored("a2");
+        buffer.add("a1", "r1");
+        buffer.add("a2", "r1");
+
+        buffer.flush("a1");
+
+        verify(animalRepository).setFavouriteRoomsIfVersion(argThat(written("a1", 0, "r1")), any());
+        assertEquals(1.0, registry.get("zoo.favourites.write_behind.pending").gauge().value());
+    }
+
+    @Test
+    void testFlushOneAnimal_ReadVersionMovedPastTheEdits() {
+        stored("a1", 3, "r1");
+        buffer.add("a1", "r2");
+        buffer.add("a1", "r3");
+
+        assertEquals(4L, buffer.flush("a1", 3L));
+        verify(animalRepository, times(1)).setFavouriteRoomsIfVersion(argThat(written("a1", 3, "r1", "r2", "r3")), any());
+        assertEquals(4L, buffer.flush("a1", 4L));
+    }
+
+    @Test
+    void testFlushOneAnimal_OtherReadVersionKept() {
+        stored("a1", 3, "r1");
+        buffer.add("a1", "r2");
+
+        assertEquals(2L, buffer.flush("a1", 2L));
+        assertEquals(5L, buffer.flush("a1", 5L));
+    }
+
+    @Test
+    void testEditsDuringFlush_WrittenOnTopOfTheFlushedVersion() {
+        stored("a1", 3);
+        buffer.add("a1", "r1");
+        when(animalRepository.setFavouriteRoomsIfVersion(anyCollection(), any()))
+                .thenAnswer(inv -> {
+                    buffer.add("a1", "r2");
+                    return 1;
+                })
+                .thenReturn(1);
+
+        assertEquals(1, buffer.flush());
+        assertEquals(1, buffer.flush());
+
+        verify(animalRepository).setFavouriteRoomsIfVersion(argThat(written("a1", 3, "r1")), any());
+        verify(animalRepository).setFavouriteRoomsIfVersion(argThat(written("a1", 4, "r1", "r2")), any());
+        assertEquals(0.0, registry.get("zoo.favourites.write_behind.conflicts").counter().count());
+    }
+
+    @Test
+    void testShutdown_WritesPendingEditsAndStopsBuffering() {
+        stored("a1");
+        buffer.add("a1", "r1");
+
+        buffer.shutdown();
+
+        verify(animalRepository).setFavouriteRoomsIfVersion(argThat(written("a1", 0, "r1")), any());
+        assertTrue(buffer.add("a1", "r2").isEmpty());
+    }
+
+    private FavouriteWriteBufferImpl buffer(boolean enabled, int maxPendingAnimals) {
+        FavouriteWriteBehindProperties properties = new FavouriteWriteBehindProperties();
+        properties.setEnabled(enabled);
+        properties.setMaxPendingAnimals(maxPendingAnimals);
+        registry = new SimpleMeterRegistry();
+        return new FavouriteWriteBufferImpl(animalRepository, counterRepository,
+                new WriteTransactions(mock(PlatformTransactionManager.class)), properties, registry);
+    }
+
+    private void stored(String id, String... favourites) {
+        when(animalRepository.findById(id)).thenReturn(Optional.of(animal(id, favourites)));
+    }
+
+    private void stored(String id, long version, String... favourites) {
+        Animal animal = animal(id, favourites);
+        animal.setVersion(version);
+        when(animalRepository.findById(id)).thenReturn(Optional.of(animal));
+    }
+
+    /**
+     * Matches a write of one animal with the given favourite rooms, conditional on the given version.
+     */
+    private static ArgumentMatcher<Collection<Animal>> written(String id, long version, String... favourites) {
+        return animals -> {
+            if (animals.size() != 1) return false;
+            Animal animal = List.copyOf(animals).get(0);
+            long at = animal.getVersion() == null ? 0L : animal.getVersion();
+            return id.equals(animal.getId()) && at == version && Set.of(favourites).equals(animal.getFavouriteRoomIds());
+        };
+    }
+
+    private static Animal animal(String id, String... favourites) {
+        Animal animal = new Animal();
+        animal.setId(id);
+        animal.setFavouriteRoomIds(new LinkedHashSet<>(Set.of(favourites)));
+        return animal;
+    }
+}
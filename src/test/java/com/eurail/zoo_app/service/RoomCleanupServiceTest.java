@@ -0,0 +1,75 @@
+package com.eurail.zoo_app.service;
+
+import com.eurail.zoo_app.config.RoomCleanupProperties;
+import com.eurail.zoo_app.respository.AnimalRepository;
+import com.eurail.zoo_app.respository.FavouriteRoomCounterRepository;
+import com.eurail.zoo_app.respository.RoomCleanupTaskRepository;
+import com.eurail.zoo_app.respository.entity.RoomCleanupTask;
+import com.eurail.zoo_app.service.impl.RoomCleanupServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class RoomCleanupServiceTest {
+
+    private RoomCleanupTaskRepository tasks;
+    private AnimalRepository animals;
+    private FavouriteRoomCounterRepository favouriteCounters;
+    private RoomCleanupServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        tasks = mock(RoomCleanupTaskRepository.class);
+        animals = mock(AnimalRepository.class);
+        favouriteCounters = mock(FavouriteRoomCounterRepository.class);
+
+        RoomCleanupProperties properties = new RoomCleanupProperties();
+        properties.setBatchSize(100);
+        properties.setPause(Duration.ZERO);
+        service = new RoomCleanupServiceImpl(tasks, animals, favouriteCounters, properties);
+    }
+
+    @Test
+    void testSweep_ClearsReferencesInBatchesAndCompletes() {
+        when(tasks.claimNext(anyString(), any(), any()))
+                .thenReturn(new RoomCleanupTask("r1", Instant.now()), (RoomCleanupTask) null);
+        when(animals.relocateBatch(eq("r1"), isNull(), eq(100), any())).thenReturn(100L, 20L, 0L);
+        when(animals.pullFavouriteRoomBatch(eq("r1"), eq(100), any())).thenReturn(100L, 100L, 0L);
+        when(tasks.recordProgress(eq("r1"), anyString(), anyLong(), anyLong(), any(), any())).thenReturn(true);
+
+        int completed = service.sweep();
+
+        assertEquals(1, completed);
+        verify(tasks, times(2)).recordProgress(eq("r1"), anyString(), anyLong(), anyLong(), any(), any());
+        verify(favouriteCounters).deleteById("r1");
+        verify(tasks).complete(eq("r1"), anyString(), any());
+    }
+
+    @Test
+    void testSweep_LostLease_StopsWithoutCompleting() {
+        when(tasks.claimNext(anyString(), any(), any()))
+                .thenReturn(new RoomCleanupTask("r1", Instant.now()), (RoomCleanupTask) null);
+        when(animals.relocateBatch(eq("r1"), isNull(), eq(100), any())).thenReturn(100L);
+        when(animals.pullFavouriteRoomBatch(eq("r1"), eq(100), any())).thenReturn(0L);
+        when(tasks.recordProgress(eq("r1"), anyString(), anyLong(), anyLong(), any(), any())).thenReturn(false);
+
+        int completed = service.sweep();
+
+        assertEquals(0, completed);
+        verify(tasks, never()).complete(anyString(), anyString(), any());
+        verify(favouriteCounters, never()).deleteById(anyString());
+    }
+
+    @Test
+    void testSweep_NothingQueued() {
+        when(tasks.claimNext(anyString(), any(), any())).thenReturn(null);
+
+        assertEquals(0, service.sweep());
+        verifyNoInteractions(animals);
+    }
+}
@@ -1,16 +1,27 @@
 package com.eurail.zoo_app.service;
 
+import com.eurail.zoo_app.config.PagingProperties;
+import com.eurail.zoo_app.config.RoomCacheProperties;
+import com.eurail.zoo_app.controller.dto.RoomPatchDto;
+import com.eurail.zoo_app.exception.BadRequestException;
+import com.eurail.zoo_app.exception.ConflictException;
+import com.eurail.zoo_app.exception.PreconditionFailedException;
 import com.eurail.zoo_app.respository.entity.Room;
 import com.eurail.zoo_app.exception.ResourceNotFoundException;
 import com.eurail.zoo_app.respository.RoomRepository;
+import com.eurail.zoo_app.service.cache.RoomCache;
 import com.eurail.zoo_app.service.impl.RoomServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.bson.assertions.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,12 +32,15 @@ class RoomServiceTest {
     @Mock
     private RoomRepository repo;
 
-    @InjectMocks
+    @Mock
+    private RoomCleanupService cleanup;
+
     private RoomServiceImpl service;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        service = new RoomServiceImpl(repo, new RoomCache(new RoomCacheProperties()), cleanup, new PagingProperties());
     }
 
     @Test
@@ -46,6 +60,7 @@ class RoomServiceTest {
         assertEquals("1", result.getId());
         assertNotNull(result.getCreated());
         assertNotNull(result.getUpdated());
+        assertEquals(0L, result.getOccupancy());
         verify(repo).save(any(Room.class));
     }
 
@@ -72,21 +87,26 @@ class RoomServiceTest {
 
     @Test
     void testUpdateRoom() {
-        Room existing = new Room();
-        existing.setId("5");
-        existing.setTitle("Old");
-
         Room changes = new Room();
         changes.setTitle("New Title");
 
-        when(repo.findById("5")).thenReturn(Optional.of(existing));
-        when(repo.save(any(Room.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(repo.setTitle(eq("5"), eq("New Title"), any())).thenAnswer(inv -> titled("5", "New Title", inv.getArgument(2)));
 
         Room result = service.update("5", changes);
 
         assertEquals("New Title", result.getTitle());
         assertNotNull(result.getUpdated());
-        verify(repo).save(existing);
+        // a $set, so the occupancy counter is not overwritten
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void testUpdateRoomNotFound() {
+        Room changes = new Room();
+        changes.setTitle("New Title");
+        when(repo.setTitle(eq("55"), anyString(), any())).thenReturn(null);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.update("55", changes));
     }
 
     @Test
@@ -99,6 +119,7 @@ class RoomServiceTest {
         service.delete("7");
 
         verify(repo).deleteById("7");
+        verify(cleanup).enqueue("7");
     }
 
 
@@ -107,22 +128,311 @@ class RoomServiceTest {
         when(repo.findById("77")).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> service.delete("77"));
+        verify(cleanup, never()).enqueue(anyString());
     }
 
     @Test
     void testExistsTrue() {
-        when(repo.existsById("5")).thenReturn(true);
+        Room room = new Room();
+        room.setId("5");
+        when(repo.findById("5")).thenReturn(Optional.of(room));
 
         assertTrue(service.exists("5"));
-        verify(repo).existsById("5");
+        verify(repo).findById("5");
     }
 
     @Test
     void testExistsFalse() {
-        when(repo.existsById("999")).thenReturn(false);
+        when(repo.findById("999")).thenReturn(Optional.empty());
 
         assertFalse(service.exists("999"));
-        verify(repo).existsById("999");
+        verify(repo).findById("999");
     }
 
+    @Test
+    void testGetRoom_SecondLookupServedFromCache() {
+        Room room = new Room();
+        room.setId("10");
+        room.setTitle("Big Room");
+        when(repo.findById("10")).thenReturn(Optional.of(room));
+
+        service.get("10");
+        assertTrue(service.exists("10"));
+        Room cached = service.get("10");
+
+        assertEquals("Big Room", cached.getTitle());
+        verify(repo, times(1)).findById("10");
+        assertEquals(2, service.cacheStats().getHits());
+        assertEquals(1, service.cacheStats().getMisses());
+    }
+
+    @Test
+    void testGetRoom_ReturnsCopyOfCachedRoom() {
+        Room room = new Room();
+        room.setId("10");
+        room.setTitle("Big Room");
+        when(repo.findById("10")).thenReturn(Optional.of(room));
+
+        service.get("10").setTitle("Mutated");
+
+        assertEquals("Big Room", service.get("10").getTitle());
+    }
+
+    @Test
+    void testUpdateRoom_InvalidatesCache() {
+        Room existing = new Room();
+        existing.setId("5");
+        existing.setTitle("Old");
+        when(repo.findById("5")).thenReturn(Optional.of(existing));
+        when(repo.setTitle(eq("5"), anyString(), any())).thenAnswer(inv -> titled("5", "New Title", inv.getArgument(2)));
+
+        service.get("5");
+
+        Room changes = new Room();
+        changes.setTitle("New Title");
+        service.update("5", changes);
+
+        Room updated = new Room();
+        updated.setId("5");
+        updated.setTitle("New Title");
+        when(repo.findById("5")).thenReturn(Optional.of(updated));
+
+        assertEquals("New Title", service.get("5").getTitle());
+        verify(repo, times(2)).findById("5");
+    }
+
+    @Test
+    void testDeleteRoom_InvalidatesCache() {
+        Room room = new Room();
+        room.setId("7");
+        when(repo.findById("7")).thenReturn(Optional.of(room));
+
+        service.delete("7");
+
+        when(repo.findById("7")).thenReturn(Optional.empty());
+        assertFalse(service.exists("7"));
+    }
+
+    @Test
+    void testFindMissingIds_OneQueryForUncachedRooms() {
+        Room cached = new Room();
+        cached.setId("1");
+        when(repo.findById("1")).thenReturn(Optional.of(cached));
+        service.get("1");
+
+        Room found = new Room();
+        found.setId("2");
+        when(repo.findAllById(Set.of("2", "3"))).thenReturn(List.of(found));
+
+        Set<String> missing = service.findMissingIds(List.of("1", "2", "3"));
+
+        assertEquals(Set.of("3"), missing);
+        verify(repo, times(1)).findAllById(Set.of("2", "3"));
+        verify(repo, never()).existsById(anyString());
+    }
+
+    @Test
+    void testFindMissingIds_AllCached_NoQuery() {
+        Room cached = new Room();
+        cached.setId("1");
+        when(repo.findById("1")).thenReturn(Optional.of(cached));
+        service.get("1");
+
+        assertTrue(service.findMissingIds(List.of("1")).isEmpty());
+        verify(repo, never()).findAllById(any());
+    }
+
+    @Test
+    void testPatchRoom_SingleConditionalWrite() {
+        RoomPatchDto patch = new RoomPatchDto();
+        patch.setTitle("Patched");
+        patch.setVersion(2L);
+
+        Room patched = new Room();
+        patched.setId("8");
+        patched.setTitle("Patched");
+        patched.setVersion(3L);
+        when(repo.patchIfVersion(eq("8"), eq(2L), eq(patch), any())).thenReturn(patched);
+
+        Room result = service.patch("8", patch);
+
+        assertEquals("Patched", result.getTitle());
+        assertEquals(3L, result.getVersion());
+        verify(repo, never()).findById(anyString());
+        verify(repo, never()).save(any());
+
+        // the patched room is cached
+        assertEquals("Patched", service.get("8").getTitle());
+        verify(repo, never()).findById("8");
+    }
+
+    @Test
+    void testPatchRoom_StaleVersion_Conflict() {
+        RoomPatchDto patch = new RoomPatchDto();
+        patch.setTitle("Patched");
+        patch.setVersion(1L);
+        when(repo.patchIfVersion(eq("8"), eq(1L), eq(patch), any())).thenReturn(null);
+        when(repo.existsById("8")).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> service.patch("8", patch));
+    }
+
+    @Test
+    void testPatchRoom_NotFound() {
+        RoomPatchDto patch = new RoomPatchDto();
+        patch.setVersion(0L);
+        when(repo.patchIfVersion(eq("9"), eq(0L), eq(patch), any())).thenReturn(null);
+        when(repo.existsById("9")).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.patch("9", patch));
+    }
+
+    @Test
+    void testUpdateRoom_IfMatch() {
+        when(repo.setTitleIfVersion(eq("5"), eq(2L), eq("New Title"), any())).thenAnswer(inv -> {
+            Room updated = titled("5", "New Title", inv.getArgument(3));
+            updated.setVersion(3L);
+            return updated;
+        });
+
+        Room changes = new Room();
+        changes.setTitle("New Title");
+        Room result = service.update("5", changes, 2L);
+
+        assertEquals("New Title", result.getTitle());
+        assertEquals(3L, result.getVersion());
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void testUpdateRoom_IfMatchStale_PreconditionFailed() {
+        Room existing = new Room();
+        existing.setId("5");
+        existing.setVersion(4L);
+        when(repo.findById("5")).thenReturn(Optional.of(existing));
+        when(repo.setTitleIfVersion(eq("5"), eq(2L), any(), any())).thenReturn(null);
+        when(repo.existsById("5")).thenReturn(true);
+
+        service.get("5");
+        assertThrows(PreconditionFailedException.class, () -> service.update("5", new Room(), 2L));
+
+        // the cached copy is dropped, so the next read sees the current version
+        service.get("5");
+        verify(repo, times(2)).findById("5");
+    }
+
+    @Test
+    void testDeleteRoom_IfMatch() {
+        when(repo.deleteIfVersion("7", 1L)).thenReturn(true);
+
+        service.delete("7", 1L);
+
+        verify(cleanup).enqueue("7");
+        verify(repo, never()).deleteById(anyString());
+    }
+
+    @Test
+    void testDeleteRoom_IfMatchStale_PreconditionFailedOrNotFound() {
+        when(repo.deleteIfVersion(anyString(), anyLong())).thenReturn(false);
+        when(repo.existsById("7")).thenReturn(true);
+        when(repo.existsById("77")).thenReturn(false);
+
+        assertThrows(PreconditionFailedException.class, () -> service.delete("7", 1L));
+        assertThrows(ResourceNotFoundException.class, () -> service.delete("77", 1L));
+        verify(cleanup, never()).enqueue(anyString());
+    }
+
+    @Test
+    void testGetVersionStamp_ServedFromCache() {
+        Room room = new Room();
+        room.setId("10");
+        room.setVersion(6L);
+        when(repo.findById("10")).thenReturn(Optional.of(room));
+        service.get("10");
+
+        VersionStamp stamp = service.getVersionStamp("10");
+
+        assertEquals(6L, stamp.getVersion());
+        verify(repo, never()).findVersionInfo(anyString());
+    }
+
+    @Test
+    void testGetAll_CachedRoomsWithoutQuery() {
+        Room cached = new Room();
+        cached.setId("1");
+        when(repo.findById("1")).thenReturn(Optional.of(cached));
+        service.get("1");
+
+        Room found = new Room();
+        found.setId("2");
+        when(repo.findAllById(Set.of("2", "3"))).thenReturn(List.of(found));
+
+        BatchResult<Room> result = service.getAll(List.of("3", "2", "1"));
+
+        assertEquals(List.of("2", "1"), result.getFound().stream().map(Room::getId).toList());
+        assertEquals(List.of("3"), result.getMissing());
+        verify(repo, times(1)).findAllById(Set.of("2", "3"));
+
+        // rooms found by the batch are cached
+        service.getAll(List.of("2"));
+        verify(repo, times(1)).findAllById(any());
+    }
+
+    @Test
+    void testListRooms_ReturnsCursorThatContinuesAfterLastRoom() {
+        Room busy = titled("1", "Busy", null);
+        busy.setOccupancy(9L);
+        Room quiet = titled("2", "Quiet", null);
+        quiet.setOccupancy(4L);
+        Room empty = titled("3", "Empty", null);
+        empty.setOccupancy(0L);
+        when(repo.findAfter("occupancy", Sort.Direction.DESC, null, null, 3)).thenReturn(List.of(busy, quiet, empty));
+
+        RoomScroll first = service.listRooms("occupancy", "desc", 2, null);
+
+        assertEquals(List.of("1", "2"), first.getContent().stream().map(Room::getId).toList());
+        assertNotNull(first.getNextCursor());
+
+        when(repo.findAfter("occupancy", Sort.Direction.DESC, 4L, "2", 3)).thenReturn(List.of(empty));
+
+        RoomScroll second = service.listRooms("occupancy", "desc", 2, first.getNextCursor());
+
+        assertEquals(List.of("3"), second.getContent().stream().map(Room::getId).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void testListRooms_InvalidSortOrCursor_ShouldThrow() {
+        assertThrows(BadRequestException.class, () -> service.listRooms("created", "asc", 10, null));
+        assertThrows(BadRequestException.class, () -> service.listRooms("title", "up", 10, null));
+        assertThrows(BadRequestException.class, () -> service.listRooms("title", "asc", 0, null));
+        assertThrows(BadRequestException.class, () -> service.listRooms("title", "asc", 10, "not-a-cursor"));
+        verify(repo, never()).findAfter(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testListRooms_CursorFromOtherSort_ShouldThrow() {
+        Room a = titled("1", "A", null);
+        Room b = titled("2", "B", null);
+        when(repo.findAfter("title", Sort.Direction.ASC, null, null, 2)).thenReturn(List.of(a, b));
+
+        String cursor = service.listRooms("title", "asc", 1, null).getNextCursor();
+
+        assertThrows(BadRequestException.class, () -> service.listRooms("occupancy", "asc", 1, cursor));
+    }
+
+    @Test
+    void testAdjustOccupancy_OneBulkWrite() {
+        service.adjustOccupancy(Map.of("1", -1L, "2", 1L));
+
+        verify(repo).incrementOccupancy(Map.of("1", -1L, "2", 1L));
+    }
+
+    private static Room titled(String id, String title, Instant updated) {
+        Room room = new Room();
+        room.setId(id);
+        room.setTitle(title);
+        room.setUpdated(updated);
+        return room;
+    }
 }
@@ -0,0 +1,74 @@
+package com.eurail.zoo_app.service;
+
+import com.eurail.zoo_app.service.impl.WriteTransactions;
+import com.mongodb.MongoException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class WriteTransactionsTest {
+
+    private PlatformTransactionManager transactionManager;
+    private WriteTransactions transactions;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        transactions = new WriteTransactions(transactionManager);
+    }
+
+    @Test
+    void testCall_TransientError_RetriesInANewTransaction() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = transactions.call(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new UncategorizedMongoDbException("write conflict", transientError());
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(2, attempts.get());
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void testCall_OtherError_IsNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(DataIntegrityViolationException.class, () -> transactions.call(() -> {
+            attempts.incrementAndGet();
+            throw new DataIntegrityViolationException("duplicate");
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void testCall_TransientErrorEveryTime_GivesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(UncategorizedMongoDbException.class, () -> transactions.call(() -> {
+            attempts.incrementAndGet();
+            throw new UncategorizedMongoDbException("write conflict", transientError());
+        }));
+
+        assertEquals(5, attempts.get());
+    }
+
+    private static MongoException transientError() {
+        MongoException error = new MongoException(112, "WriteConflict");
+        error.addLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL);
+        return error;
+    }
+}